@@ -0,0 +1,167 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.benchmarks;
+
+import net.boreeas.riotapi.Shard;
+import net.boreeas.riotapi.http.TransportArchive;
+import net.boreeas.riotapi.http.TransportResponse;
+import net.boreeas.riotapi.rest.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * <p>
+ * Compares the response decoders on match details, the largest responses of the api.
+ * </p>
+ * The payloads are taken from a {@link TransportArchive} recorded with a
+ * {@link net.boreeas.riotapi.http.RecordingTransport}, e.g. {@code -p archive=matches.rra}. Without an archive, a
+ * generated match with a full timeline is decoded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecoderBenchmark {
+
+    @Param("")
+    public String archive;
+
+    @Param({"gson", "utf8"})
+    public String decoder;
+
+    private final List<byte[]> bodies = new ArrayList<>();
+    private ResponseDecoder responseDecoder;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        ApiHandler handler = new ApiHandler(Shard.EUW, "benchmark");
+        responseDecoder = decoder.equals("utf8") ? new Utf8Decoder(handler.getGson()) : new GsonDecoder(handler.getGson());
+
+        if (archive.isEmpty()) {
+            bodies.add(generateMatch().getBytes(StandardCharsets.UTF_8));
+        } else {
+            loadMatches();
+        }
+    }
+
+    private void loadMatches() throws IOException {
+        try (TransportArchive recorded = TransportArchive.open(Paths.get(archive))) {
+            for (String key : recorded.getKeys()) {
+                if (!key.contains("/match/")) {
+                    continue;
+                }
+
+                for (int i = 0; i < recorded.getRecordings(key); i++) {
+                    try (TransportResponse response = recorded.get(key, i)) {
+                        if (response.getStatus() == 200) {
+                            bodies.add(readFully(response.isGzipped() ? new GZIPInputStream(response.getBody()) : response.getBody()));
+                        }
+                    }
+                }
+            }
+        }
+
+        if (bodies.isEmpty()) {
+            throw new IllegalArgumentException("No match responses in " + archive);
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public MatchDetail decode() throws IOException {
+        byte[] body = bodies.get(next);
+        next = (next + 1) % bodies.size();
+        return responseDecoder.decode(new ByteArrayInputStream(body), MatchDetail.class);
+    }
+
+    /**
+     * @return A ranked match with ten participants and a 40 minute timeline
+     */
+    private static String generateMatch() {
+        StringBuilder json = new StringBuilder("{\"matchId\": 2000000000, \"mapId\": 11, \"matchCreation\": 1427000000000, ")
+                .append("\"matchDuration\": 2400, \"matchVersion\": \"5.5.0.412\", \"region\": \"EUW\", \"matchMode\": \"CLASSIC\", ")
+                .append("\"matchType\": \"MATCHED_GAME\", \"queueType\": \"RANKED_SOLO_5x5\", \"platformId\": \"EUW1\", \"season\": \"SEASON2015\", ");
+
+        json.append("\"participantIdentities\": [");
+        for (int p = 1; p <= 10; p++) {
+            json.append(p > 1 ? ", " : "").append("{\"participantId\": ").append(p).append(", \"player\": {\"summonerId\": ")
+                    .append(20000000 + p).append(", \"summonerName\": \"Summoner ").append(p).append("\", \"profileIcon\": 7}}");
+        }
+
+        json.append("], \"participants\": [");
+        for (int p = 1; p <= 10; p++) {
+            json.append(p > 1 ? ", " : "").append("{\"championId\": ").append(100 + p).append(", \"participantId\": ").append(p)
+                    .append(", \"spell1Id\": 4, \"spell2Id\": 14, \"teamId\": ").append(p <= 5 ? 100 : 200)
+                    .append(", \"runes\": [{\"runeId\": 5245, \"rank\": 9}, {\"runeId\": 5289, \"rank\": 9}, {\"runeId\": 5317, \"rank\": 9}]")
+                    .append(", \"masteries\": [{\"masteryId\": 4111, \"rank\": 1}, {\"masteryId\": 4112, \"rank\": 3}, {\"masteryId\": 4353, \"rank\": 3}]")
+                    .append(", \"timeline\": {\"lane\": \"MIDDLE\", \"role\": \"SOLO\", \"creepsPerMinDeltas\": {\"zeroToTen\": 7.5, \"tenToTwenty\": 8.1}}")
+                    .append(", \"stats\": {\"champLevel\": 18, \"kills\": 10, \"deaths\": 3, \"assists\": 7, \"firstBloodKill\": false, ")
+                    .append("\"goldEarned\": 15000, \"item0\": 3089, \"item1\": 3020, \"item2\": 3157, \"totalDamageDealt\": 180000, ")
+                    .append("\"magicDamageDealtToChampions\": 25000, \"minionsKilled\": 250, \"wardsPlaced\": 12, \"winner\": ")
+                    .append(p <= 5).append("}}");
+        }
+
+        json.append("], \"teams\": [{\"teamId\": 100, \"winner\": true, \"baronKills\": 1, \"bans\": [{\"championId\": 64, \"pickTurn\": 1}]}, ")
+                .append("{\"teamId\": 200, \"winner\": false, \"baronKills\": 0, \"bans\": [{\"championId\": 238, \"pickTurn\": 2}]}], ");
+
+        json.append("\"timeline\": {\"frameInterval\": 60000, \"frames\": [");
+        for (int f = 0; f <= 40; f++) {
+            json.append(f > 0 ? ", " : "").append("{\"timestamp\": ").append(f * 60000).append(", \"participantFrames\": {");
+            for (int p = 1; p <= 10; p++) {
+                json.append(p > 1 ? ", " : "").append('"').append(p).append("\": {\"participantId\": ").append(p)
+                        .append(", \"currentGold\": ").append(300 + f * 37).append(", \"totalGold\": ").append(500 + f * 400)
+                        .append(", \"level\": ").append(Math.min(18, 1 + f / 2)).append(", \"xp\": ").append(f * 450)
+                        .append(", \"minionsKilled\": ").append(f * 7).append(", \"jungleMinionsKilled\": ").append(f)
+                        .append(", \"position\": {\"x\": ").append(1000 + p * 997 % 13000).append(", \"y\": ").append(1000 + f * 311 % 13000).append("}}");
+            }
+
+            json.append("}, \"events\": [");
+            for (int e = 0; e < 12; e++) {
+                json.append(e > 0 ? ", " : "").append("{\"eventType\": \"ITEM_PURCHASED\", \"timestamp\": ").append(f * 60000 + e * 4000)
+                        .append(", \"participantId\": ").append(1 + e % 10).append(", \"itemId\": 1055}, ")
+                        .append("{\"eventType\": \"CHAMPION_KILL\", \"timestamp\": ").append(f * 60000 + e * 4000 + 1000)
+                        .append(", \"killerId\": ").append(1 + e % 10).append(", \"victimId\": ").append(1 + (e + 5) % 10)
+                        .append(", \"position\": {\"x\": 7000, \"y\": 7000}, \"assistingParticipantIds\": [2, 3]}");
+            }
+            json.append("]}");
+        }
+
+        return json.append("]}}").toString();
+    }
+}
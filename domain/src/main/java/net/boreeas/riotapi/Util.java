@@ -26,6 +26,8 @@ import java.lang.annotation.Annotation;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Miscellaneous helper methods
@@ -41,6 +43,36 @@ public class Util {
         return name.toLowerCase().replace(" ", "");
     }
 
+    /**
+     * Wait for a future to complete, and rethrow the original exception if it failed
+     * @param future The future to wait for
+     * @return The result of the future
+     */
+    @SneakyThrows
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() == null ? ex : ex.getCause();
+        }
+    }
+
+    /**
+     * Cancel a future when a future derived from it is cancelled. CompletableFutures only propagate completion
+     * downstream, so without this, cancelling a derived future leaves the work behind it running.
+     * @param derived The future returned to the caller
+     * @param source The future the derived one depends on
+     * @return The derived future
+     */
+    public static <T> CompletableFuture<T> propagateCancellation(CompletableFuture<T> derived, CompletableFuture<?> source) {
+        derived.whenComplete((result, ex) -> {
+            if (derived.isCancelled()) {
+                source.cancel(false);
+            }
+        });
+        return derived;
+    }
+
     public static List<String> hexdump(byte[] data) {
 
         List<String> result = new ArrayList<>(data.length / 16);
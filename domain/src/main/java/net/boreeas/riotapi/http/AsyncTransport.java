@@ -0,0 +1,69 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.http;
+
+import javax.ws.rs.client.AsyncInvoker;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>
+ * A transport that sends requests through the JAX-RS {@link AsyncInvoker}, so no thread is blocked while a request
+ * is in flight.
+ * </p>
+ * Requests are flagged to use CXF's asynchronous HTTP conduit, which is backed by a small number of NIO threads.
+ * The returned futures are completed on those threads, so callers should move expensive work such as parsing the
+ * body to their own executor.
+ */
+public class AsyncTransport implements Transport {
+
+    /**
+     * Client property that makes CXF use its non-blocking HTTP conduit
+     */
+    public static final String USE_ASYNC_CONDUIT = "use.async.http.conduit";
+
+    @Override
+    public CompletableFuture<TransportResponse> execute(TransportRequest request) {
+        CompletableFuture<TransportResponse> future = new CompletableFuture<>();
+
+        InvocationCallback<Response> callback = new InvocationCallback<Response>() {
+            @Override
+            public void completed(Response response) {
+                future.complete(TransportResponse.of(response));
+            }
+
+            @Override
+            public void failed(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        };
+
+        try {
+            AsyncInvoker invoker = request.toBuilder().property(USE_ASYNC_CONDUIT, Boolean.TRUE).async();
+            if (request.getEntity() == null) {
+                invoker.method(request.getMethod(), callback);
+            } else {
+                invoker.method(request.getMethod(), request.getEntity(), callback);
+            }
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+        }
+
+        return future;
+    }
+}
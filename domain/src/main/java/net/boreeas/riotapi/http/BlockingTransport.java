@@ -0,0 +1,42 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.http;
+
+import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A transport that executes requests synchronously on the calling thread. The returned future is always completed
+ * by the time {@link #execute(TransportRequest)} returns.
+ */
+public class BlockingTransport implements Transport {
+
+    @Override
+    public CompletableFuture<TransportResponse> execute(TransportRequest request) {
+        CompletableFuture<TransportResponse> future = new CompletableFuture<>();
+        try {
+            Response response = request.getEntity() == null
+                    ? request.toBuilder().method(request.getMethod())
+                    : request.toBuilder().method(request.getMethod(), request.getEntity());
+            future.complete(TransportResponse.of(response));
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+        }
+
+        return future;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Inflater;
+
+/**
+ * <p>
+ * A thread-safe pool of {@link Inflater}s and byte buffers for reading response bodies. All HTTP readers in the
+ * project share {@link #getDefault()}.
+ * </p>
+ * Every {@link java.util.zip.GZIPInputStream} creates a new Inflater, which holds native memory until it is ended or
+ * finalized, and a new buffer. {@link #gunzip(InputStream)} instead takes both from the pool and returns them when
+ * the stream is closed. The pool keeps a bounded number of idle objects; objects released to a full pool are
+ * discarded. Hits and misses are counted, so the pool size can be checked against the number of concurrent reads.
+ */
+public class BufferPool {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final BufferPool DEFAULT = new BufferPool(64, 256, DEFAULT_BUFFER_SIZE);
+
+    private final int maxIdleInflaters;
+    private final int maxIdleBuffers;
+    private final int bufferSize;
+
+    private final ConcurrentLinkedDeque<Inflater> inflaters = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedDeque<byte[]> buffers = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleInflaters = new AtomicInteger();
+    private final AtomicInteger idleBuffers = new AtomicInteger();
+
+    private final LongAdder inflaterHits = new LongAdder();
+    private final LongAdder inflaterMisses = new LongAdder();
+    private final LongAdder bufferHits = new LongAdder();
+    private final LongAdder bufferMisses = new LongAdder();
+
+    /**
+     * @param maxIdleInflaters The maximum number of inflaters kept for reuse
+     * @param maxIdleBuffers The maximum number of buffers kept for reuse
+     * @param bufferSize The size of the buffers
+     */
+    public BufferPool(int maxIdleInflaters, int maxIdleBuffers, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+
+        this.maxIdleInflaters = maxIdleInflaters;
+        this.maxIdleBuffers = maxIdleBuffers;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * @return The pool shared by all HTTP readers
+     */
+    public static BufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return An inflater for raw deflate data, as found in gzip streams. Return it with {@link #release(Inflater)}
+     */
+    public Inflater acquireInflater() {
+        Inflater inflater = inflaters.pollFirst();
+        if (inflater != null) {
+            idleInflaters.decrementAndGet();
+            inflaterHits.increment();
+            return inflater;
+        }
+
+        inflaterMisses.increment();
+        return new Inflater(true);
+    }
+
+    /**
+     * Return an inflater to the pool. It must not be used afterwards.
+     */
+    public void release(Inflater inflater) {
+        if (idleInflaters.incrementAndGet() <= maxIdleInflaters) {
+            inflater.reset();
+            inflaters.offerFirst(inflater);
+        } else {
+            idleInflaters.decrementAndGet();
+            inflater.end();
+        }
+    }
+
+    /**
+     * @return A buffer of {@link #getBufferSize()} bytes with undefined contents. Return it with
+     * {@link #release(byte[])}
+     */
+    public byte[] acquireBuffer() {
+        byte[] buffer = buffers.pollFirst();
+        if (buffer != null) {
+            idleBuffers.decrementAndGet();
+            bufferHits.increment();
+            return buffer;
+        }
+
+        bufferMisses.increment();
+        return new byte[bufferSize];
+    }
+
+    /**
+     * Return a buffer to the pool. It must not be used afterwards. Buffers of other sizes are ignored.
+     */
+    public void release(byte[] buffer) {
+        if (buffer.length != bufferSize) {
+            return;
+        }
+
+        if (idleBuffers.incrementAndGet() <= maxIdleBuffers) {
+            buffers.offerFirst(buffer);
+        } else {
+            idleBuffers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Decompress a gzip stream with a pooled inflater and buffer, which are returned when the stream is closed
+     *
+     * @param in The compressed stream
+     * @return The uncompressed stream
+     */
+    public InputStream gunzip(InputStream in) throws IOException {
+        return new PooledGzipInputStream(in, this);
+    }
+
+    /**
+     * Read a stream to its end. Unlike with a {@link java.io.ByteArrayOutputStream}, the data is copied only once,
+     * from pooled buffers into the returned array.
+     *
+     * @param in The stream, which is not closed
+     * @return All remaining bytes of the stream
+     */
+    public byte[] readFully(InputStream in) throws IOException {
+        return readFully(in, -1);
+    }
+
+    /**
+     * Read a stream to its end
+     *
+     * @param in The stream, which is not closed
+     * @param expectedLength The expected length, e.g. from a Content-Length header, or -1 if it is unknown
+     * @return All remaining bytes of the stream
+     */
+    public byte[] readFully(InputStream in, int expectedLength) throws IOException {
+        if (expectedLength >= 0) {
+            byte[] result = new byte[expectedLength];
+            int length = 0;
+            int read;
+            while (length < expectedLength && (read = in.read(result, length, expectedLength - length)) != -1) {
+                length += read;
+            }
+
+            if (length < expectedLength) {
+                byte[] shorter = new byte[length];
+                System.arraycopy(result, 0, shorter, 0, length);
+                return shorter;
+            }
+
+            int next = in.read();
+            if (next == -1) {
+                return result;
+            }
+
+            // Longer than announced, read the rest in chunks
+            byte[] rest = readFully(in, -1);
+            byte[] longer = new byte[expectedLength + 1 + rest.length];
+            System.arraycopy(result, 0, longer, 0, expectedLength);
+            longer[expectedLength] = (byte) next;
+            System.arraycopy(rest, 0, longer, expectedLength + 1, rest.length);
+            return longer;
+        }
+
+        List<byte[]> chunks = new ArrayList<>();
+        try {
+            byte[] chunk = acquireBuffer();
+            chunks.add(chunk);
+            int total = 0;
+            int filled = 0;
+            int read;
+            while ((read = in.read(chunk, filled, chunk.length - filled)) != -1) {
+                filled += read;
+                total += read;
+                if (filled == chunk.length) {
+                    chunk = acquireBuffer();
+                    chunks.add(chunk);
+                    filled = 0;
+                }
+            }
+
+            byte[] result = new byte[total];
+            int offset = 0;
+            for (byte[] full : chunks) {
+                int length = Math.min(full.length, total - offset);
+                System.arraycopy(full, 0, result, offset, length);
+                offset += length;
+            }
+            return result;
+        } finally {
+            chunks.forEach(this::release);
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public long getInflaterHits() {
+        return inflaterHits.sum();
+    }
+
+    public long getInflaterMisses() {
+        return inflaterMisses.sum();
+    }
+
+    public long getBufferHits() {
+        return bufferHits.sum();
+    }
+
+    public long getBufferMisses() {
+        return bufferMisses.sum();
+    }
+
+    /**
+     * @return The share of inflaters that were taken from the pool instead of being created, or 1 if none were
+     * requested yet
+     */
+    public double getInflaterHitRate() {
+        return hitRate(getInflaterHits(), getInflaterMisses());
+    }
+
+    /**
+     * @return The share of buffers that were taken from the pool instead of being allocated, or 1 if none were
+     * requested yet
+     */
+    public double getBufferHitRate() {
+        return hitRate(getBufferHits(), getBufferMisses());
+    }
+
+    private static double hitRate(long hits, long misses) {
+        return hits + misses == 0 ? 1 : (double) hits / (hits + misses);
+    }
+
+    public int getIdleInflaters() {
+        return idleInflaters.get();
+    }
+
+    public int getIdleBuffers() {
+        return idleBuffers.get();
+    }
+}
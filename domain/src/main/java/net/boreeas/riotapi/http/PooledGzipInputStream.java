@@ -0,0 +1,246 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.http;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * A replacement for {@link java.util.zip.GZIPInputStream} that takes its inflater and input buffer from a
+ * {@link BufferPool}, and returns them when it is closed. Like GZIPInputStream, it reads concatenated gzip members
+ * as one stream and checks the CRC and size of each member.
+ */
+class PooledGzipInputStream extends InputStream {
+    private static final int MAGIC = 0x8b1f;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final InputStream in;
+    private final BufferPool pool;
+    private final CRC32 crc = new CRC32();
+    private Inflater inflater;
+    private byte[] buf;
+    private int pos;
+    private int limit;
+    private boolean eof;
+    private boolean closed;
+
+    PooledGzipInputStream(InputStream in, BufferPool pool) throws IOException {
+        this.in = in;
+        this.pool = pool;
+        this.inflater = pool.acquireInflater();
+        this.buf = pool.acquireBuffer();
+
+        try {
+            readHeader();
+        } catch (IOException | RuntimeException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        } else if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+
+        while (!eof) {
+            int inflated;
+            try {
+                inflated = inflater.inflate(b, off, len);
+            } catch (DataFormatException ex) {
+                throw new ZipException(ex.getMessage() == null ? "Invalid deflate data" : ex.getMessage());
+            }
+
+            if (inflated > 0) {
+                crc.update(b, off, inflated);
+                return inflated;
+            }
+
+            if (inflater.finished()) {
+                // The inflater may have been given more input than the member holds
+                pos = limit - inflater.getRemaining();
+                readTrailer();
+                eof = !nextMember();
+            } else if (inflater.needsDictionary()) {
+                throw new ZipException("Deflate stream needs a preset dictionary");
+            } else if (inflater.needsInput()) {
+                if (!fill()) {
+                    throw new EOFException("Unexpected end of gzip stream");
+                }
+                feedInflater();
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int available() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        return eof ? 0 : 1;
+    }
+
+    private void readHeader() throws IOException {
+        if (readUShort() != MAGIC) {
+            throw new ZipException("Not in gzip format");
+        }
+        readMemberHeader();
+    }
+
+    /**
+     * Read the remainder of a member header after the magic number, and pass the following data to the inflater
+     */
+    private void readMemberHeader() throws IOException {
+        if (readUByte() != 8) {
+            throw new ZipException("Unsupported compression method");
+        }
+
+        int flags = readUByte();
+        // Modification time, extra flags and operating system
+        skipBytes(6);
+        if ((flags & FEXTRA) != 0) {
+            skipBytes(readUShort());
+        }
+        if ((flags & FNAME) != 0) {
+            skipString();
+        }
+        if ((flags & FCOMMENT) != 0) {
+            skipString();
+        }
+        if ((flags & FHCRC) != 0) {
+            skipBytes(2);
+        }
+
+        crc.reset();
+        inflater.reset();
+        feedInflater();
+    }
+
+    private void readTrailer() throws IOException {
+        long expectedCrc = readUInt();
+        long expectedSize = readUInt();
+        if (expectedCrc != crc.getValue() || expectedSize != (inflater.getBytesWritten() & 0xffffffffL)) {
+            throw new ZipException("Corrupt gzip trailer");
+        }
+    }
+
+    /**
+     * @return <code>true</code> if another gzip member follows. Trailing data that isn't a gzip member is ignored,
+     * like GZIPInputStream does.
+     */
+    private boolean nextMember() throws IOException {
+        if (pos == limit && !fill()) {
+            return false;
+        }
+        if (buf[pos] != (byte) 0x1f) {
+            return false;
+        }
+        pos++;
+        if (readUByte() != 0x8b) {
+            return false;
+        }
+
+        readMemberHeader();
+        return true;
+    }
+
+    private void feedInflater() {
+        if (pos < limit) {
+            inflater.setInput(buf, pos, limit - pos);
+            pos = limit;
+        }
+    }
+
+    /**
+     * Replace the buffer contents with the next bytes of the underlying stream
+     *
+     * @return <code>false</code> at the end of the stream
+     */
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = in.read(buf, 0, buf.length);
+        } while (read == 0);
+
+        pos = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    private int readUByte() throws IOException {
+        if (pos == limit && !fill()) {
+            throw new EOFException("Unexpected end of gzip stream");
+        }
+        return buf[pos++] & 0xff;
+    }
+
+    private int readUShort() throws IOException {
+        return readUByte() | (readUByte() << 8);
+    }
+
+    private long readUInt() throws IOException {
+        return readUShort() | ((long) readUShort() << 16);
+    }
+
+    private void skipBytes(int n) throws IOException {
+        for (int i = 0; i < n; i++) {
+            readUByte();
+        }
+    }
+
+    private void skipString() throws IOException {
+        while (readUByte() != 0) {
+            // Skip to the terminating zero
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        eof = true;
+        pool.release(inflater);
+        pool.release(buf);
+        inflater = null;
+        buf = null;
+        in.close();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.http;
+
+import lombok.SneakyThrows;
+import net.boreeas.riotapi.Util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>
+ * A transport that sends requests through another transport, and appends every response to a
+ * {@link TransportArchive}, so that it can be served again by a {@link ReplayTransport}.
+ * </p>
+ * Response bodies are read completely before the returned future completes, and written to the archive on the
+ * thread that received the response.
+ */
+public class RecordingTransport implements Transport {
+    private final Transport delegate;
+    private final TransportArchive archive;
+
+    /**
+     * @param delegate The transport sending the requests.
+     * @param archive The archive receiving the responses. It is not closed by this transport.
+     */
+    public RecordingTransport(Transport delegate, TransportArchive archive) {
+        this.delegate = delegate;
+        this.archive = archive;
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> execute(TransportRequest request) {
+        String key = TransportArchive.key(request);
+        CompletableFuture<TransportResponse> response = delegate.execute(request);
+        return Util.propagateCancellation(response.thenApply(r -> record(key, r)), response);
+    }
+
+    @SneakyThrows(IOException.class)
+    private TransportResponse record(String key, TransportResponse response) {
+        byte[] body;
+        try {
+            body = BufferPool.getDefault().readFully(response.getBody());
+        } finally {
+            response.close();
+        }
+
+        archive.append(key, response.getStatus(), response.getHeaders(), body);
+        return new TransportResponse(response.getStatus(), response.getHeaders(), new ByteArrayInputStream(body));
+    }
+}
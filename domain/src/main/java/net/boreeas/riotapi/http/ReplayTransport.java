@@ -0,0 +1,217 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.http;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * A transport that answers requests from a {@link TransportArchive} instead of the network, for load tests and
+ * benchmarks that must not depend on the live api.
+ * </p>
+ * Each response is delayed by a random latency within the configured bounds, and at most
+ * <code>maxConcurrency</code> requests are "in flight" at the same time; further requests wait for a free slot,
+ * like requests to a server with a limited number of connections. A configurable share of requests is answered with
+ * 429 and a Retry-After header, to exercise rate limit handling. Requests that weren't recorded are answered with
+ * 404. If a request was recorded several times, the recordings are replayed in turn.
+ * <p>
+ * Futures are completed on a single scheduler thread, which is shut down by {@link #close()}.
+ */
+public class ReplayTransport implements Transport {
+    private final TransportArchive archive;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ReplayTransport");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, AtomicInteger> replayed = new ConcurrentHashMap<>();
+    private final Queue<Replay> waiting = new ArrayDeque<>();
+
+    private volatile long minLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile double rateLimitProbability;
+    private volatile int retryAfterSeconds = 1;
+    private int maxConcurrency = Integer.MAX_VALUE;
+    private int inFlight;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong injectedRateLimits = new AtomicLong();
+    /**
+     * The largest number of requests that were answered at the same time
+     */
+    @Getter private volatile int maxInFlight;
+
+    /**
+     * @param archive The archive to replay. It is not closed by this transport.
+     */
+    public ReplayTransport(TransportArchive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Delay every response by a random latency between the bounds. By default, responses are not delayed.
+     * @param min The smallest latency.
+     * @param max The largest latency.
+     * @param unit The unit of the bounds.
+     */
+    public void setLatency(long min, long max, TimeUnit unit) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Invalid latency bounds " + min + ".." + max);
+        }
+
+        this.minLatencyNanos = unit.toNanos(min);
+        this.maxLatencyNanos = unit.toNanos(max);
+    }
+
+    /**
+     * Answer a share of all requests with 429, regardless of whether they were recorded. By default, no rate limit
+     * errors are injected.
+     * @param probability The probability of a 429, between 0 and 1.
+     * @param retryAfterSeconds The value of the Retry-After header.
+     */
+    public void setRateLimitInjection(double probability, int retryAfterSeconds) {
+        this.rateLimitProbability = probability;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Limit the number of requests being answered at the same time. Unlimited by default.
+     * @param maxConcurrency The maximum number of concurrent requests.
+     */
+    public synchronized void setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive, but was " + maxConcurrency);
+        }
+
+        this.maxConcurrency = maxConcurrency;
+        startWaiting();
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> execute(TransportRequest request) {
+        requests.incrementAndGet();
+        Replay replay = new Replay(TransportArchive.key(request));
+
+        synchronized (this) {
+            waiting.add(replay);
+            startWaiting();
+        }
+
+        return replay;
+    }
+
+    private synchronized void startWaiting() {
+        Replay next;
+        while (inFlight < maxConcurrency && (next = waiting.poll()) != null) {
+            if (next.isDone()) {
+                continue;
+            }
+
+            inFlight++;
+            maxInFlight = Math.max(maxInFlight, inFlight);
+            long latency = minLatencyNanos == maxLatencyNanos
+                    ? minLatencyNanos
+                    : ThreadLocalRandom.current().nextLong(minLatencyNanos, maxLatencyNanos + 1);
+            scheduler.schedule(next::answer, latency, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private synchronized void finished() {
+        inFlight--;
+        startWaiting();
+    }
+
+    private TransportResponse respond(String key) throws IOException {
+        if (rateLimitProbability > 0 && ThreadLocalRandom.current().nextDouble() < rateLimitProbability) {
+            injectedRateLimits.incrementAndGet();
+            return new TransportResponse(429, Collections.singletonMap("Retry-After", "" + retryAfterSeconds), null);
+        }
+
+        int recording = replayed.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        TransportResponse response = archive.get(key, recording);
+        if (response == null) {
+            misses.incrementAndGet();
+            return new TransportResponse(404, Collections.emptyMap(), null);
+        }
+
+        return response;
+    }
+
+    /**
+     * @return The number of requests received
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return The number of requests that weren't recorded, and were answered with 404
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return The number of requests that were answered with an injected 429
+     */
+    public long getInjectedRateLimits() {
+        return injectedRateLimits.get();
+    }
+
+    /**
+     * Stops answering requests. Requests that are still waiting are never completed.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private class Replay extends CompletableFuture<TransportResponse> {
+        private final String key;
+
+        private Replay(String key) {
+            this.key = key;
+        }
+
+        private void answer() {
+            try {
+                if (!isDone()) {
+                    complete(respond(key));
+                }
+            } catch (IOException | RuntimeException ex) {
+                completeExceptionally(ex);
+            } finally {
+                finished();
+            }
+        }
+    }
+}
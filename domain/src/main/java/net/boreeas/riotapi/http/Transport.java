@@ -0,0 +1,46 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.http;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>
+ * Sends HTTP requests on behalf of the rest, spectator and login queue clients.
+ * </p>
+ * Implementations may complete the returned future on any thread. Callers must close the response once they have
+ * consumed its body.
+ * @see BlockingTransport
+ * @see AsyncTransport
+ */
+public interface Transport extends AutoCloseable {
+
+    /**
+     * Executes the request.
+     * @param request The request to execute.
+     * @return A future that is completed with the response, or exceptionally if the request could not be sent.
+     * Responses with non-2xx status codes complete the future normally.
+     */
+    CompletableFuture<TransportResponse> execute(TransportRequest request);
+
+    /**
+     * Releases the resources held by this transport. The default implementation holds none, and does nothing.
+     */
+    @Override
+    default void close() {
+    }
+}
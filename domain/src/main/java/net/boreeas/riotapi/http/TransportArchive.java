@@ -0,0 +1,224 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * An append-only file of recorded HTTP responses, indexed by request. See {@link RecordingTransport} and
+ * {@link ReplayTransport}.
+ * </p>
+ * Each record holds the request key, the status, the headers and the body exactly as it was received, so gzip
+ * compressed bodies stay compressed. The index of all records is built by skipping from record to record when the
+ * archive is opened; bodies are only read when they are replayed. A record that was cut short, e.g. because the
+ * recording process died, is dropped when the archive is opened.
+ */
+public class TransportArchive implements Closeable {
+    private static final int MAGIC = 0x52524131; // RRA1
+    private static final Pattern API_KEY = Pattern.compile("[?&]api_key=[^&]*$|(?<=[?&])api_key=[^&]*&");
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final Map<String, List<Long>> index = new HashMap<>();
+    private long end;
+    private int size;
+
+    private TransportArchive(RandomAccessFile file) throws IOException {
+        this.file = file;
+        this.channel = file.getChannel();
+
+        if (file.length() == 0) {
+            file.writeInt(MAGIC);
+        } else if (file.readInt() != MAGIC) {
+            throw new IOException("Not a transport archive");
+        }
+
+        end = Integer.BYTES;
+        while (end + Integer.BYTES <= file.length()) {
+            file.seek(end);
+            int length = file.readInt();
+            if (end + Integer.BYTES + length > file.length()) {
+                break;
+            }
+
+            addToIndex(file.readUTF(), end);
+            end += Integer.BYTES + length;
+        }
+
+        // Drop a record that was cut short
+        if (end < file.length()) {
+            file.setLength(end);
+        }
+    }
+
+    /**
+     * Open an archive, or create it if the file doesn't exist.
+     * @param path The archive file.
+     * @return The archive.
+     * @throws IOException If the file can't be opened, or isn't an archive.
+     */
+    public static TransportArchive open(Path path) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw");
+        try {
+            return new TransportArchive(file);
+        } catch (IOException ex) {
+            file.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * The key a request is archived under: its method and uri, without the api key, so that recordings can be
+     * shared and replayed with any key.
+     * @param request The request.
+     * @return The key.
+     */
+    public static String key(TransportRequest request) {
+        return request.getMethod() + " " + API_KEY.matcher(request.getUri().toString()).replaceAll("");
+    }
+
+    private void addToIndex(String key, long offset) {
+        index.computeIfAbsent(key, k -> new ArrayList<>()).add(offset);
+        size++;
+    }
+
+    /**
+     * Append a response to the archive.
+     * @param key The key of the request, see {@link #key(TransportRequest)}.
+     * @param status The HTTP status.
+     * @param headers The response headers.
+     * @param body The raw message body.
+     * @throws IOException If the record can't be written.
+     */
+    public void append(String key, int status, Map<String, String> headers, byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeUTF(key);
+        out.writeInt(status);
+        out.writeInt(headers.size());
+        for (Map.Entry<String, String> header: headers.entrySet()) {
+            out.writeUTF(header.getKey());
+            out.writeUTF(header.getValue());
+        }
+        out.writeInt(body.length);
+        out.write(body);
+
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        record.putInt(0, record.remaining() - Integer.BYTES);
+
+        synchronized (this) {
+            long offset = end;
+            while (record.hasRemaining()) {
+                channel.write(record, offset + record.position());
+            }
+            end = offset + record.limit();
+            addToIndex(key, offset);
+        }
+    }
+
+    /**
+     * Read a recorded response. If a request was recorded several times, the recordings are numbered in the order
+     * they were made.
+     * @param key The key of the request.
+     * @param recording The number of the recording, starting at 0. Numbers past the last recording wrap around.
+     * @return The response, or <code>null</code> if the request wasn't recorded.
+     * @throws IOException If the record can't be read.
+     */
+    public TransportResponse get(String key, int recording) throws IOException {
+        long offset;
+        synchronized (this) {
+            List<Long> offsets = index.get(key);
+            if (offsets == null) {
+                return null;
+            }
+            offset = offsets.get(Math.floorMod(recording, offsets.size()));
+        }
+
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        readFully(length, offset);
+        ByteBuffer record = ByteBuffer.allocate(length.getInt(0));
+        readFully(record, offset + Integer.BYTES);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.array()));
+        in.readUTF();
+        int status = in.readInt();
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = in.readInt(); i > 0; i--) {
+            headers.put(in.readUTF(), in.readUTF());
+        }
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+
+        return new TransportResponse(status, headers, new ByteArrayInputStream(body));
+    }
+
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of archive at offset " + offset);
+            }
+        }
+    }
+
+    /**
+     * @param key The key of a request.
+     * @return How often the request was recorded.
+     */
+    public synchronized int getRecordings(String key) {
+        List<Long> offsets = index.get(key);
+        return offsets == null ? 0 : offsets.size();
+    }
+
+    /**
+     * @return The keys of all recorded requests.
+     */
+    public synchronized Set<String> getKeys() {
+        return Collections.unmodifiableSet(new HashSet<>(index.keySet()));
+    }
+
+    /**
+     * @return The number of recorded responses.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
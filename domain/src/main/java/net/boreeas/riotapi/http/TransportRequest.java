@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.http;
+
+import lombok.Getter;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import java.net.URI;
+
+/**
+ * An immutable description of an HTTP request to be executed by a {@link Transport}.
+ */
+@Getter
+public class TransportRequest {
+    private final String method;
+    private final WebTarget target;
+    private final MediaType accept;
+    private final String acceptEncoding;
+    private final Entity<?> entity;
+
+    private TransportRequest(String method, WebTarget target, MediaType accept, String acceptEncoding, Entity<?> entity) {
+        this.method = method;
+        this.target = target;
+        this.accept = accept;
+        this.acceptEncoding = acceptEncoding;
+        this.entity = entity;
+    }
+
+    /**
+     * Create a GET request.
+     * @param target The target to request.
+     * @param accept The accepted media type.
+     * @return The request.
+     */
+    public static TransportRequest get(WebTarget target, MediaType accept) {
+        return new TransportRequest(HttpMethod.GET, target, accept, null, null);
+    }
+
+    /**
+     * Create a POST request.
+     * @param target The target to post to.
+     * @param entity The message body.
+     * @return The request.
+     */
+    public static TransportRequest post(WebTarget target, Entity<?> entity) {
+        return new TransportRequest(HttpMethod.POST, target, null, null, entity);
+    }
+
+    /**
+     * Returns a copy of this request that sends the specified Accept-Encoding header.
+     * @param encoding The accepted encoding, e.g. <code>gzip</code>.
+     * @return The new request.
+     */
+    public TransportRequest withAcceptEncoding(String encoding) {
+        return new TransportRequest(method, target, accept, encoding, entity);
+    }
+
+    /**
+     * Returns a copy of this request that is sent to a different target.
+     * @param target The new target.
+     * @return The new request.
+     */
+    public TransportRequest withTarget(WebTarget target) {
+        return new TransportRequest(method, target, accept, acceptEncoding, entity);
+    }
+
+    public URI getUri() {
+        return target.getUri();
+    }
+
+    /**
+     * Creates a JAX-RS invocation builder for this request, with all headers set.
+     * @return The invocation builder.
+     */
+    public Invocation.Builder toBuilder() {
+        Invocation.Builder builder = accept == null ? target.request() : target.request(accept);
+        if (acceptEncoding != null) {
+            builder = builder.acceptEncoding(acceptEncoding);
+        }
+
+        return builder;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + target.getUri();
+    }
+}
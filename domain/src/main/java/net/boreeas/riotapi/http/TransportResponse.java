@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.http;
+
+import lombok.Getter;
+
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The status, headers and undecoded body of an HTTP response.
+ */
+public class TransportResponse implements Closeable {
+    @Getter private final int status;
+    private final Map<String, String> headers;
+    private final InputStream body;
+
+    /**
+     * Create a new response.
+     * @param status The HTTP status code.
+     * @param headers The response headers. Names are matched case-insensitively.
+     * @param body The raw message body, exactly as sent by the server.
+     */
+    public TransportResponse(int status, Map<String, String> headers, InputStream body) {
+        this.status = status;
+        this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.headers.putAll(headers);
+        this.body = body == null ? new ByteArrayInputStream(new byte[0]) : body;
+    }
+
+    /**
+     * Wraps a JAX-RS response. Only the first value of each header is kept.
+     * @param response The response.
+     * @return The wrapped response.
+     */
+    public static TransportResponse of(Response response) {
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        MultivaluedMap<String, String> stringHeaders = response.getStringHeaders();
+        for (Map.Entry<String, List<String>> header: stringHeaders.entrySet()) {
+            if (!header.getValue().isEmpty()) {
+                headers.put(header.getKey(), header.getValue().get(0));
+            }
+        }
+
+        Object entity = response.getEntity();
+        return new TransportResponse(response.getStatus(), headers, entity instanceof InputStream ? (InputStream) entity : null);
+    }
+
+    /**
+     * @param name The name of the header.
+     * @return The value of the header, or <code>null</code> if it wasn't sent.
+     */
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * @return The raw message body. If the body was gzip-compressed, it is returned as-is.
+     */
+    public InputStream getBody() {
+        return body;
+    }
+
+    public boolean isGzipped() {
+        return "gzip".equals(getHeader("Content-Encoding"));
+    }
+
+    @Override
+    public void close() {
+        try {
+            body.close();
+        } catch (IOException ignored) {
+            // Nothing we can do about it
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A rate limiter that only hands out permits if all of its delegates can do so, e.g. to enforce both a short and a
+ * long term limit at the same time.
+ */
+public class CompositeRateLimiter implements RateLimiter {
+
+    private final List<RateLimiter> limiters;
+
+    public CompositeRateLimiter(RateLimiter... limiters) {
+        this(Arrays.asList(limiters));
+    }
+
+    public CompositeRateLimiter(List<? extends RateLimiter> limiters) {
+        this.limiters = Collections.unmodifiableList(new ArrayList<>(limiters));
+    }
+
+    /**
+     * @return The limiters this limiter delegates to.
+     */
+    public List<RateLimiter> getLimiters() {
+        return limiters;
+    }
+
+    @Override
+    public boolean tryAcquire(int permits) {
+        for (int i = 0; i < limiters.size(); i++) {
+            if (!limiters.get(i).tryAcquire(permits)) {
+                // Hand back what we already took, so that a failed attempt doesn't consume anything
+                for (int j = 0; j < i; j++) {
+                    limiters.get(j).release(permits);
+                }
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public void release(int permits) {
+        for (RateLimiter limiter: limiters) {
+            limiter.release(permits);
+        }
+    }
+
+    @Override
+    public long nanosUntilAvailable(int permits) {
+        long max = 0;
+        for (RateLimiter limiter: limiters) {
+            max = Math.max(max, limiter.nanosUntilAvailable(permits));
+        }
+
+        return max;
+    }
+
+    @Override
+    public int availablePermits() {
+        int min = Integer.MAX_VALUE;
+        for (RateLimiter limiter: limiters) {
+            min = Math.min(min, limiter.availablePermits());
+        }
+
+        return min;
+    }
+
+    @Override
+    public void synchronize(int used, long window, TimeUnit unit) {
+        for (RateLimiter limiter: limiters) {
+            limiter.synchronize(used, window, unit);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompositeRateLimiter" + limiters;
+    }
+}
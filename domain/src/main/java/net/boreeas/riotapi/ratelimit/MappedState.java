@@ -0,0 +1,144 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.ratelimit;
+
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * The state of a {@link TokenBucket}, kept in a memory-mapped file, so that it is shared by all processes that map
+ * the same file. Compare-and-set reads and writes the mapped state while holding a file lock on its slot.
+ * </p>
+ * The file starts with a magic number, the capacity and the period of the bucket, so that processes disagreeing
+ * about the limit are detected. Only the first process to open the file initializes it, while holding a file lock.
+ */
+class MappedState implements TokenBucket.State, AutoCloseable {
+
+    static final int MAGIC = 0x52415445; // "RATE"
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int PERIOD_OFFSET = 8;
+    private static final int STATE_OFFSET = 16;
+    private static final int STATE_SIZE = 8;
+    private static final int SIZE = 64;
+
+    /**
+     * One monitor per file, held while locking it. The JVM rejects overlapping file locks of its own threads instead
+     * of waiting for them, so the file lock only serializes between processes.
+     */
+    private static final ConcurrentMap<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+    // The channel holds the file locks, and stays open until the state is closed
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final Object monitor;
+
+    private MappedState(FileChannel channel, MappedByteBuffer buffer, Object monitor) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.monitor = monitor;
+    }
+
+    static MappedState open(Path file, int capacity, long periodNanos) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SIZE);
+            buffer.order(ByteOrder.nativeOrder());
+            MappedState state = new MappedState(channel, buffer, MONITORS.computeIfAbsent(file.toRealPath(), path -> new Object()));
+
+            synchronized (state.monitor) {
+                try (FileLock ignored = state.lock(0, SIZE, false)) {
+                    if (buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+                        buffer.putInt(CAPACITY_OFFSET, capacity);
+                        buffer.putLong(PERIOD_OFFSET, periodNanos);
+                        buffer.putLong(STATE_OFFSET, System.nanoTime());
+                        buffer.putInt(MAGIC_OFFSET, MAGIC);
+                        buffer.force();
+                    } else if (buffer.getInt(CAPACITY_OFFSET) != capacity || buffer.getLong(PERIOD_OFFSET) != periodNanos) {
+                        throw new IllegalStateException(file + " holds a bucket of " + buffer.getInt(CAPACITY_OFFSET)
+                                + " permits per " + buffer.getLong(PERIOD_OFFSET) + "ns, not " + capacity + " per " + periodNanos + "ns");
+                    } else if (buffer.getLong(STATE_OFFSET) - System.nanoTime() > periodNanos) {
+                        // The file outlived a reboot, which restarted the clock
+                        buffer.putLong(STATE_OFFSET, System.nanoTime());
+                    }
+                }
+            }
+
+            return state;
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    @SneakyThrows(IOException.class)
+    public long get() {
+        synchronized (monitor) {
+            try (FileLock ignored = lock(STATE_OFFSET, STATE_SIZE, true)) {
+                return buffer.getLong(STATE_OFFSET);
+            }
+        }
+    }
+
+    @Override
+    @SneakyThrows(IOException.class)
+    public boolean compareAndSet(long expect, long update) {
+        synchronized (monitor) {
+            try (FileLock ignored = lock(STATE_OFFSET, STATE_SIZE, false)) {
+                if (buffer.getLong(STATE_OFFSET) != expect) {
+                    return false;
+                }
+
+                buffer.putLong(STATE_OFFSET, update);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Closes the channel, after which the state can't be read or updated anymore. Java 8 can't unmap a buffer, so
+     * the mapping itself is released once the buffer is garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Locks a region of the file, waiting for other processes to release it. The lock is polled, since a thread that
+     * is interrupted while waiting in {@link FileChannel#lock(long, long, boolean)} closes the channel for good.
+     */
+    private FileLock lock(long position, long size, boolean shared) throws IOException {
+        FileLock lock;
+        while ((lock = channel.tryLock(position, size, shared)) == null) {
+            Thread.yield();
+        }
+
+        return lock;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A source of permits that limits how often an action may be performed. Implementations compute their state on
+ * demand from the current time, so no background thread is required to refill them.
+ */
+public interface RateLimiter {
+
+    /**
+     * Acquires the given number of permits if they are available right now.
+     * @param permits The number of permits to acquire.
+     * @return <code>true</code> if the permits were acquired, <code>false</code> otherwise.
+     */
+    boolean tryAcquire(int permits);
+
+    /**
+     * Returns permits that were acquired, but not used.
+     * @param permits The number of permits to return.
+     */
+    void release(int permits);
+
+    /**
+     * Returns the time until the given number of permits will be available.
+     * @param permits The number of permits.
+     * @return The time in nanoseconds, or 0 if the permits are available right now.
+     */
+    long nanosUntilAvailable(int permits);
+
+    /**
+     * Returns the number of permits that could be acquired right now.
+     * @return The number of available permits.
+     */
+    int availablePermits();
+
+    /**
+     * Raises the number of permits used within a window of the given length to at least the given number, e.g. to
+     * match what a server reports after a restart or when a second process uses the same limit. Limiters that don't
+     * enforce a window of that length ignore the call.
+     * @param used The number of permits that were used in the current window.
+     * @param window The length of the window.
+     * @param unit The time unit of the window.
+     */
+    default void synchronize(int used, long window, TimeUnit unit) {
+    }
+
+    /**
+     * Acquires a single permit if it is available right now.
+     * @return <code>true</code> if the permit was acquired, <code>false</code> otherwise.
+     */
+    default boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Acquires a single permit, blocking until it becomes available.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    default void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    /**
+     * Acquires the given number of permits, blocking until they become available. The calling thread is woken up
+     * exactly when the permits are expected to be available.
+     * @param permits The number of permits to acquire.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    default void acquire(int permits) throws InterruptedException {
+        while (!tryAcquire(permits)) {
+            LockSupport.parkNanos(this, nanosUntilAvailable(permits));
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /**
+     * Acquires a single permit, blocking up to the specified maximum.
+     * @param timeout The maximum time to wait.
+     * @param unit The time unit of the timeout.
+     * @return <code>true</code> if the permit was acquired, <code>false</code> if the timeout expired first.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    default boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!tryAcquire(1)) {
+            long wait = nanosUntilAvailable(1);
+            if (System.nanoTime() + wait - deadline > 0) {
+                return false;
+            }
+
+            LockSupport.parkNanos(this, wait);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+
+        return true;
+    }
+}
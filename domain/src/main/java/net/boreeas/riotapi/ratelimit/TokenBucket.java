@@ -0,0 +1,207 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.ratelimit;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * A token bucket holding up to <code>capacity</code> permits, which refills completely over the specified period.
+ * </p>
+ * Instead of counting tokens, the bucket stores the point in time at which it will be full again. The number of
+ * available tokens is derived from that timestamp and {@link System#nanoTime()} on every call, so refills are exact
+ * and the state fits into a single long that is updated with compare-and-set. A bucket created with the constructor
+ * keeps it in an atomic long, so it is lock-free.
+ * <p>
+ * Because the state is a single long, it can also live outside the heap, so that several processes share one
+ * bucket (see {@link #shared(Path, int, long, TimeUnit)}). That state is kept in a memory-mapped file, and every
+ * read and compare-and-set of it holds a file lock.
+ */
+public class TokenBucket implements RateLimiter {
+
+    @Getter private final int capacity;
+    @Getter private final long periodNanos;
+    private final long nanosPerPermit;
+    private final long capacityNanos;
+
+    /**
+     * The time at which the bucket will be full again. If this lies in the past, the bucket is full.
+     */
+    private final State fullAt;
+
+    /**
+     * Create a new, full token bucket.
+     * @param capacity The maximum number of permits.
+     * @param period The time it takes to refill the bucket from empty to full.
+     * @param unit The time unit of the period.
+     */
+    public TokenBucket(int capacity, long period, TimeUnit unit) {
+        this(capacity, period, unit, new LocalState());
+    }
+
+    TokenBucket(int capacity, long period, TimeUnit unit, State fullAt) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, but was " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.periodNanos = unit.toNanos(period);
+        this.nanosPerPermit = Math.max(1, periodNanos / capacity);
+        this.capacityNanos = nanosPerPermit * capacity;
+        this.fullAt = fullAt;
+    }
+
+    /**
+     * <p>
+     * Open a token bucket whose state is kept in a memory-mapped file, so that all processes on this machine
+     * opening the same file share one bucket. The file is created if it doesn't exist yet. Unlike a local bucket,
+     * a shared bucket takes a file lock on every update.
+     * </p>
+     * This relies on {@link System#nanoTime()} being the same system-wide monotonic clock in every process, which
+     * is the case for HotSpot on Linux.
+     * @param file The file holding the state.
+     * @param capacity The maximum number of permits.
+     * @param period The time it takes to refill the bucket from empty to full.
+     * @param unit The time unit of the period.
+     * @return The shared token bucket. It must be closed to release the file.
+     * @throws IOException If the file can't be mapped.
+     * @throws IllegalStateException If the file was created for a bucket with a different capacity or period.
+     */
+    public static Shared shared(Path file, int capacity, long period, TimeUnit unit) throws IOException {
+        return new Shared(capacity, period, unit, MappedState.open(file, capacity, unit.toNanos(period)));
+    }
+
+    @Override
+    public boolean tryAcquire(int permits) {
+        checkPermits(permits);
+        long cost = permits * nanosPerPermit;
+
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            long next = later(current, now) + cost;
+
+            if (next - now > capacityNanos) {
+                return false;
+            }
+
+            if (fullAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void release(int permits) {
+        long current;
+        do {
+            current = fullAt.get();
+        } while (!fullAt.compareAndSet(current, current - permits * nanosPerPermit));
+    }
+
+    @Override
+    public long nanosUntilAvailable(int permits) {
+        checkPermits(permits);
+        long now = System.nanoTime();
+        long next = later(fullAt.get(), now) + permits * nanosPerPermit;
+
+        return Math.max(0, next - now - capacityNanos);
+    }
+
+    @Override
+    public int availablePermits() {
+        long now = System.nanoTime();
+        long used = later(fullAt.get(), now) - now;
+
+        return (int) ((capacityNanos - used) / nanosPerPermit);
+    }
+
+    @Override
+    public void synchronize(int used, long window, TimeUnit unit) {
+        if (unit.toNanos(window) != periodNanos) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long reported = now + Math.min(used, capacity) * nanosPerPermit;
+
+        while (true) {
+            long current = fullAt.get();
+            // Only ever make the bucket stricter, since requests we sent may not be included in the report yet
+            if (later(current, reported) == current || fullAt.compareAndSet(current, reported)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A token bucket whose state is kept in a memory-mapped file (see {@link #shared(Path, int, long, TimeUnit)})
+     */
+    public static class Shared extends TokenBucket implements AutoCloseable {
+        private final MappedState state;
+
+        private Shared(int capacity, long period, TimeUnit unit, MappedState state) {
+            super(capacity, period, unit, state);
+            this.state = state;
+        }
+
+        /**
+         * Closes the file. This bucket can't be used afterwards, but other buckets sharing the file are unaffected.
+         * @throws IOException If the file can't be closed.
+         */
+        @Override
+        public void close() throws IOException {
+            state.close();
+        }
+    }
+
+    /**
+     * The time at which the bucket will be full again
+     */
+    interface State {
+        long get();
+
+        boolean compareAndSet(long expect, long update);
+    }
+
+    private static class LocalState extends AtomicLong implements State {
+        private LocalState() {
+            super(System.nanoTime());
+        }
+    }
+
+    private void checkPermits(int permits) {
+        if (permits < 1 || permits > capacity) {
+            throw new IllegalArgumentException("Permits must be between 1 and " + capacity + ", but was " + permits);
+        }
+    }
+
+    private static long later(long a, long b) {
+        // nanoTime values may overflow, so they must only be compared by their difference
+        return a - b > 0 ? a : b;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenBucket(" + availablePermits() + "/" + capacity + " per " + TimeUnit.NANOSECONDS.toMillis(periodNanos) + "ms)";
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.http;
+
+import com.sun.net.httpserver.HttpServer;
+import junit.framework.TestCase;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs against a local stand-in server that answers every request after a fixed delay.
+ */
+public class AsyncTransportTest extends TestCase {
+
+    private static final int REQUESTS = 200;
+    private static final long DELAY_MS = 500;
+
+    private HttpServer server;
+    private WebTarget target;
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), REQUESTS);
+        server.setExecutor(Executors.newCachedThreadPool(r -> new Thread(r, "stand-in server")));
+        server.createContext("/echo", exchange -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(DELAY_MS);
+            } catch (InterruptedException ignored) {
+            }
+            concurrent.decrementAndGet();
+
+            byte[] body = exchange.getRequestURI().getQuery().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("X-Test", "yes");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        Client client = ClientBuilder.newClient();
+        target = client.target("http://127.0.0.1:" + server.getAddress().getPort()).path("echo");
+    }
+
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    public void testManyRequestsInFlight() throws Exception {
+        Transport transport = new AsyncTransport();
+        // Bootstrap the client once, so that its threads already exist
+        transport.execute(TransportRequest.get(target.queryParam("id", "warmup"), MediaType.TEXT_PLAIN_TYPE)).get().close();
+        long threadsBefore = clientThreads();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<TransportResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(transport.execute(TransportRequest.get(target.queryParam("id", i), MediaType.TEXT_PLAIN_TYPE)));
+        }
+        long threadsInFlight = clientThreads();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            try (TransportResponse response = futures.get(i).get(30, TimeUnit.SECONDS)) {
+                assertEquals(200, response.getStatus());
+                assertEquals("yes", response.getHeader("x-test"));
+                assertEquals("id=" + i, new BufferedReader(new InputStreamReader(response.getBody())).readLine());
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // The requests must have overlapped instead of being sent one after another
+        assertTrue("Max concurrency was " + maxConcurrent.get(), maxConcurrent.get() > REQUESTS / 4);
+        assertTrue("Took " + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms", elapsed < TimeUnit.MILLISECONDS.toNanos(DELAY_MS * 10));
+        // The client must not have needed a thread per request
+        assertTrue("Client thread count grew from " + threadsBefore + " to " + threadsInFlight,
+                threadsInFlight - threadsBefore < REQUESTS / 4);
+    }
+
+    private static long clientThreads() {
+        return Thread.getAllStackTraces().keySet().stream().filter(t -> !t.getName().startsWith("stand-in")).count();
+    }
+
+    public void testBlockingTransport() throws Exception {
+        try (TransportResponse response = new BlockingTransport().execute(TransportRequest.get(target.queryParam("id", "x"), MediaType.TEXT_PLAIN_TYPE)).get()) {
+            assertEquals(200, response.getStatus());
+            assertEquals("id=x", new BufferedReader(new InputStreamReader(response.getBody())).readLine());
+        }
+    }
+}
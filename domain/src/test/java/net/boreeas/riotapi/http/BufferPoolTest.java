@@ -0,0 +1,152 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.http;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+public class BufferPoolTest extends TestCase {
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] json(int size, long seed) {
+        Random random = new Random(seed);
+        StringBuilder builder = new StringBuilder("[");
+        while (builder.length() < size) {
+            builder.append("{\"participantId\": ").append(random.nextInt(10)).append(", \"currentGold\": ").append(random.nextInt(20000)).append("},");
+        }
+        return builder.append("{}]").toString().getBytes();
+    }
+
+    public void testSameOutputAsGzipInputStream() throws IOException {
+        BufferPool pool = new BufferPool(2, 4, 512);
+        byte[] first = json(100_000, 1);
+        byte[] second = json(3_000, 2);
+
+        // Concatenated members, the second one with a file name and extra field in its header
+        byte[] named = gzip(second);
+        ByteArrayOutputStream member = new ByteArrayOutputStream();
+        member.write(named, 0, 3);
+        member.write(4 | 8);
+        member.write(named, 4, 6);
+        member.write(new byte[]{3, 0, 'x', 'y', 'z'});
+        member.write("name.json\0".getBytes());
+        member.write(named, 10, named.length - 10);
+
+        ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+        concatenated.write(gzip(first));
+        concatenated.write(member.toByteArray());
+        byte[] compressed = concatenated.toByteArray();
+
+        byte[] expected = readAll(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+        assertEquals(first.length + second.length, expected.length);
+        for (int i = 0; i < 3; i++) {
+            // Read in small steps, so that members end in the middle of the input buffer
+            try (InputStream in = pool.gunzip(new TrickleInputStream(compressed))) {
+                assertTrue(Arrays.equals(expected, readAll(in)));
+            }
+        }
+
+        assertEquals(1, pool.getInflaterMisses());
+        assertEquals(2, pool.getInflaterHits());
+        assertEquals(1, pool.getIdleInflaters());
+    }
+
+    public void testCorruptData() throws IOException {
+        BufferPool pool = new BufferPool(2, 4, 512);
+        byte[] compressed = gzip(json(10_000, 3));
+
+        byte[] badCrc = compressed.clone();
+        badCrc[badCrc.length - 6] ^= 1;
+        try (InputStream in = pool.gunzip(new ByteArrayInputStream(badCrc))) {
+            readAll(in);
+            fail("Accepted a wrong crc");
+        } catch (ZipException expected) {
+        }
+
+        try (InputStream in = pool.gunzip(new ByteArrayInputStream(Arrays.copyOf(compressed, compressed.length / 2)))) {
+            readAll(in);
+            fail("Accepted a truncated stream");
+        } catch (IOException expected) {
+        }
+
+        try {
+            pool.gunzip(new ByteArrayInputStream("{}".getBytes()));
+            fail("Accepted uncompressed data");
+        } catch (ZipException expected) {
+        }
+
+        // Failed streams still return their inflater, so the next stream reuses it
+        assertEquals(1, pool.getInflaterMisses());
+        assertEquals(1, pool.getIdleInflaters());
+    }
+
+    public void testReadFully() throws IOException {
+        BufferPool pool = new BufferPool(2, 4, 512);
+        byte[] data = json(5_000, 4);
+
+        assertTrue(Arrays.equals(data, pool.readFully(new TrickleInputStream(data))));
+        assertTrue(Arrays.equals(data, pool.readFully(new TrickleInputStream(data), data.length)));
+        // Wrong content lengths
+        assertTrue(Arrays.equals(data, pool.readFully(new TrickleInputStream(data), data.length + 100)));
+        assertTrue(Arrays.equals(data, pool.readFully(new TrickleInputStream(data), 100)));
+        assertEquals(0, pool.readFully(new ByteArrayInputStream(new byte[0])).length);
+
+        // The buffers were returned, but not more than the pool holds
+        assertEquals(4, pool.getIdleBuffers());
+        assertTrue(pool.getBufferHits() > 0);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1000];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns at most 300 bytes per read
+     */
+    private static class TrickleInputStream extends ByteArrayInputStream {
+        TrickleInputStream(byte[] data) {
+            super(data);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 300));
+        }
+    }
+}
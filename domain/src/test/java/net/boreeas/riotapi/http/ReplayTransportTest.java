@@ -0,0 +1,144 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.http;
+
+import junit.framework.TestCase;
+
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReplayTransportTest extends TestCase {
+
+    private final WebTarget api = ClientBuilder.newClient().target("https://euw.api.pvp.net/api/lol/euw/v1.4/summoner");
+    private Path file;
+
+    public void setUp() throws Exception {
+        file = Files.createTempFile("transport", ".archive");
+        Files.delete(file);
+    }
+
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    private TransportRequest get(String id, String apiKey) {
+        return TransportRequest.get(api.path(id).queryParam("api_key", apiKey), MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    private static String read(TransportResponse response) throws Exception {
+        byte[] body = new byte[1024];
+        int length = Math.max(0, response.getBody().read(body));
+        return new String(body, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void record(String... ids) throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Transport live = request -> CompletableFuture.completedFuture(new TransportResponse(200,
+                Collections.singletonMap("Content-Type", "application/json"),
+                new ByteArrayInputStream((request.getUri().getPath() + "#" + calls.incrementAndGet()).getBytes(StandardCharsets.UTF_8))));
+
+        try (TransportArchive archive = TransportArchive.open(file)) {
+            RecordingTransport recorder = new RecordingTransport(live, archive);
+            for (String id: ids) {
+                assertTrue(read(recorder.execute(get(id, "secret")).get()).endsWith("/" + id + "#" + calls.get()));
+            }
+        }
+    }
+
+    public void testRecordAndReplay() throws Exception {
+        record("1", "2", "1");
+
+        try (TransportArchive archive = TransportArchive.open(file); ReplayTransport replay = new ReplayTransport(archive)) {
+            assertEquals(3, archive.size());
+            assertEquals(2, archive.getRecordings(TransportArchive.key(get("1", "other key"))));
+            for (String key: archive.getKeys()) {
+                assertFalse(key, key.contains("secret"));
+            }
+
+            // Recordings of the same request are replayed in turn, regardless of the api key
+            assertTrue(read(replay.execute(get("1", "other key")).get()).endsWith("/1#1"));
+            assertTrue(read(replay.execute(get("1", "other key")).get()).endsWith("/1#3"));
+            assertTrue(read(replay.execute(get("1", "other key")).get()).endsWith("/1#1"));
+            TransportResponse two = replay.execute(get("2", "other key")).get();
+            assertEquals("application/json", two.getHeader("content-type"));
+            assertTrue(read(two).endsWith("/2#2"));
+
+            assertEquals(404, replay.execute(get("3", "other key")).get().getStatus());
+            assertEquals(1, replay.getMisses());
+        }
+    }
+
+    public void testTruncatedRecordIsDropped() throws Exception {
+        record("1", "2");
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+
+        try (TransportArchive archive = TransportArchive.open(file)) {
+            assertEquals(1, archive.size());
+            archive.append("GET x", 200, Collections.emptyMap(), new byte[] {1, 2, 3});
+        }
+        try (TransportArchive archive = TransportArchive.open(file)) {
+            assertEquals(2, archive.size());
+            assertEquals(3, archive.get("GET x", 0).getBody().available());
+        }
+    }
+
+    public void testLatencyConcurrencyAndRateLimits() throws Exception {
+        record("1");
+
+        try (TransportArchive archive = TransportArchive.open(file); ReplayTransport replay = new ReplayTransport(archive)) {
+            replay.setLatency(50, 60, TimeUnit.MILLISECONDS);
+            replay.setMaxConcurrency(4);
+
+            long start = System.nanoTime();
+            List<CompletableFuture<TransportResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(replay.execute(get("1", "key")));
+            }
+            for (CompletableFuture<TransportResponse> future: futures) {
+                assertEquals(200, future.get(10, TimeUnit.SECONDS).getStatus());
+            }
+            long elapsed = System.nanoTime() - start;
+
+            // Two waves of four requests
+            assertEquals(4, replay.getMaxInFlight());
+            assertTrue("Took " + elapsed + "ns", elapsed >= TimeUnit.MILLISECONDS.toNanos(100));
+
+            replay.setLatency(0, 0, TimeUnit.MILLISECONDS);
+            replay.setRateLimitInjection(1, 3);
+            TransportResponse limited = replay.execute(get("1", "key")).get(10, TimeUnit.SECONDS);
+            assertEquals(429, limited.getStatus());
+            assertEquals("3", limited.getHeader("Retry-After"));
+            assertEquals(1, replay.getInjectedRateLimits());
+            assertEquals(Arrays.asList(9L, 0L), Arrays.asList(replay.getRequests(), replay.getMisses()));
+        }
+    }
+}
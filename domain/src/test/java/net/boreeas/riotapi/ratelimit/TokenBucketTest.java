@@ -0,0 +1,200 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.ratelimit;
+
+import junit.framework.TestCase;
+
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TokenBucketTest extends TestCase {
+
+    public void testStartsFull() {
+        TokenBucket bucket = new TokenBucket(10, 10, TimeUnit.SECONDS);
+        assertEquals(10, bucket.availablePermits());
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(bucket.tryAcquire());
+        }
+
+        assertFalse(bucket.tryAcquire());
+        assertEquals(0, bucket.availablePermits());
+        assertTrue(bucket.nanosUntilAvailable(1) > 0);
+        assertTrue(bucket.nanosUntilAvailable(1) <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public void testRelease() {
+        TokenBucket bucket = new TokenBucket(2, 10, TimeUnit.SECONDS);
+        assertTrue(bucket.tryAcquire(2));
+        assertFalse(bucket.tryAcquire());
+
+        bucket.release(1);
+        assertTrue(bucket.tryAcquire());
+    }
+
+    public void testRejectsInvalidPermits() {
+        TokenBucket bucket = new TokenBucket(10, 10, TimeUnit.SECONDS);
+
+        for (int permits: new int[] {0, -1, 11}) {
+            try {
+                bucket.tryAcquire(permits);
+                fail("tryAcquire(" + permits + ") must fail");
+            } catch (IllegalArgumentException expected) {
+            }
+
+            try {
+                bucket.nanosUntilAvailable(permits);
+                fail("nanosUntilAvailable(" + permits + ") must fail");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+
+        // Nothing was consumed by the rejected calls
+        assertEquals(10, bucket.availablePermits());
+        assertTrue(bucket.tryAcquire(10));
+    }
+
+    public void testSynchronize() {
+        TokenBucket bucket = new TokenBucket(10, 10, TimeUnit.SECONDS);
+        assertTrue(bucket.tryAcquire(2));
+
+        // Windows of a different length are ignored
+        bucket.synchronize(10, 10, TimeUnit.MINUTES);
+        assertEquals(8, bucket.availablePermits());
+
+        bucket.synchronize(7, 10, TimeUnit.SECONDS);
+        assertEquals(3, bucket.availablePermits());
+
+        // A lower count never frees permits
+        bucket.synchronize(1, 10, TimeUnit.SECONDS);
+        assertEquals(3, bucket.availablePermits());
+
+        CompositeRateLimiter composite = new CompositeRateLimiter(new TokenBucket(10, 10, TimeUnit.SECONDS), new TokenBucket(500, 10, TimeUnit.MINUTES));
+        composite.synchronize(450, 600, TimeUnit.SECONDS);
+        assertEquals(10, composite.getLimiters().get(0).availablePermits());
+        assertEquals(50, composite.getLimiters().get(1).availablePermits());
+    }
+
+    public void testAcquireWaitsForRefill() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(5, 100, TimeUnit.MILLISECONDS);
+        assertTrue(bucket.tryAcquire(5));
+
+        long start = System.nanoTime();
+        bucket.acquire();
+        long waited = System.nanoTime() - start;
+
+        // One permit refills every 20ms
+        assertTrue("Waited " + waited + "ns", waited >= TimeUnit.MILLISECONDS.toNanos(15));
+        assertFalse(bucket.tryAcquire(1, TimeUnit.MILLISECONDS));
+    }
+
+    public void testConcurrentAcquireNeverExceedsCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 1, TimeUnit.HOURS);
+        AtomicInteger acquired = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    if (bucket.tryAcquire()) {
+                        acquired.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread: threads) {
+            thread.join();
+        }
+
+        assertEquals(100, acquired.get());
+    }
+
+    public void testCompositeIsAllOrNothing() {
+        TokenBucket shortTerm = new TokenBucket(10, 10, TimeUnit.SECONDS);
+        TokenBucket longTerm = new TokenBucket(3, 10, TimeUnit.MINUTES);
+        CompositeRateLimiter limiter = new CompositeRateLimiter(shortTerm, longTerm);
+
+        assertEquals(3, limiter.availablePermits());
+        assertTrue(limiter.tryAcquire(3));
+        assertFalse(limiter.tryAcquire());
+
+        // The failed attempt must not have consumed a permit from the short term bucket
+        assertEquals(7, shortTerm.availablePermits());
+        assertTrue(limiter.nanosUntilAvailable(1) > TimeUnit.SECONDS.toNanos(100));
+    }
+
+    public void testSharedBucketsUseOneBudget() throws Exception {
+        Path file = Files.createTempFile("riotapi-bucket", ".bin");
+        Files.delete(file);
+        try {
+            // Two separate mappings of the same file, as two processes would have
+            TokenBucket.Shared first = TokenBucket.shared(file, 100, 1, TimeUnit.HOURS);
+            TokenBucket.Shared second = TokenBucket.shared(file, 100, 1, TimeUnit.HOURS);
+            AtomicInteger acquired = new AtomicInteger();
+
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                TokenBucket bucket = i % 2 == 0 ? first : second;
+                Thread thread = new Thread(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        if (bucket.tryAcquire()) {
+                            acquired.incrementAndGet();
+                        }
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+
+            for (Thread thread: threads) {
+                thread.join();
+            }
+
+            assertEquals(100, acquired.get());
+            try (TokenBucket.Shared third = TokenBucket.shared(file, 100, 1, TimeUnit.HOURS)) {
+                assertEquals(0, third.availablePermits());
+            }
+
+            // A closed bucket releases its file, without affecting the others
+            first.close();
+            try {
+                first.availablePermits();
+                fail("A closed bucket must not be usable");
+            } catch (Exception expected) {
+                assertTrue(expected instanceof ClosedChannelException);
+            }
+            assertEquals(0, second.availablePermits());
+            second.close();
+
+            try {
+                TokenBucket.shared(file, 10, 1, TimeUnit.HOURS);
+                fail("Opening a bucket with a different limit must fail");
+            } catch (IllegalStateException expected) {
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
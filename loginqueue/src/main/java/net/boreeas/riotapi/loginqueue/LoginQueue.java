@@ -17,6 +17,7 @@
 package net.boreeas.riotapi.loginqueue;
 
 import net.boreeas.riotapi.Shard;
+import net.boreeas.riotapi.http.Transport;
 
 /**
  * @author Malte Schütze
@@ -28,6 +29,10 @@ public class LoginQueue implements LoginProvider {
         provider = new net.boreeas.riotapi.loginqueue.oldlq.LoginQueue(shard);
     }
 
+    public LoginQueue(Shard shard, Transport transport) {
+        provider = new net.boreeas.riotapi.loginqueue.oldlq.LoginQueue(shard, transport);
+    }
+
     @Override
     public AuthResult getAuthToken(String username, String password) {
         return provider.getAuthToken(username, password);
@@ -23,7 +23,12 @@ import com.google.gson.reflect.TypeToken;
 import lombok.SneakyThrows;
 import net.boreeas.riotapi.RequestException;
 import net.boreeas.riotapi.Shard;
+import net.boreeas.riotapi.Util;
 import net.boreeas.riotapi.com.riotgames.platform.account.management.InvalidCredentialsException;
+import net.boreeas.riotapi.http.BlockingTransport;
+import net.boreeas.riotapi.http.Transport;
+import net.boreeas.riotapi.http.TransportRequest;
+import net.boreeas.riotapi.http.TransportResponse;
 import net.boreeas.riotapi.loginqueue.LoginProvider;
 import net.boreeas.riotapi.loginqueue.QueueTimer;
 import net.boreeas.riotapi.loginqueue.Ticker;
@@ -32,10 +37,8 @@ import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.Response;
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.reflect.Type;
 import java.net.URLEncoder;
@@ -46,26 +49,34 @@ import java.util.List;
  */
 public class LoginQueue implements LoginProvider {
 
+    private Transport transport;
     private WebTarget tgt;
 
     public LoginQueue(Shard shard) {
+        this(shard, new BlockingTransport());
+    }
+
+    public LoginQueue(Shard shard, Transport transport) {
+        this.transport = transport;
         tgt = ClientBuilder.newClient().target(shard.loginQueue).path("login-queue/rest/queues/lol/authenticate");
     }
 
     @SneakyThrows
     public AuthResultImpl getAuthToken(String user, String password) {
         String payload = String.format("payload=user=%s,password=%s", URLEncoder.encode(user, "UTF-8"), URLEncoder.encode(password, "UTF-8"));
-        Response response = tgt.request().post(Entity.entity(payload, MediaType.APPLICATION_FORM_URLENCODED));
+        TransportResponse response = Util.await(transport.execute(TransportRequest.post(tgt, Entity.entity(payload, MediaType.APPLICATION_FORM_URLENCODED))));
 
 
         if (response.getStatus() == 403) {
+            response.close();
             throw new InvalidCredentialsException("Invalid username or password");
         } else if (response.getStatus() != 200) {
+            response.close();
             throw new RequestException(response.getStatus());
         }
 
         String json;
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader((InputStream) response.getEntity()))) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.getBody()))) {
             json = reader.readLine();
         } catch (IOException ex) {
             throw new RequestException("Error reading JSON", ex);
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>
+ * Generates a streaming Gson <code>TypeAdapter</code> at build time for every DTO in the annotated package, and a
+ * <code>GeneratedTypeAdapters</code> factory in the same package that returns them.
+ * </p>
+ * A DTO is a concrete, non-generic, top-level or static nested class with a non-private no-argument constructor
+ * and no final instance fields. Other classes are left to Gson's reflective adapter. The generated adapters read
+ * and write the same json as the reflective adapter: fields are named by their <code>@SerializedName</code> or
+ * field name, static and transient fields are skipped, and unknown names are ignored.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.PACKAGE)
+public @interface GenerateTypeAdapters {
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates the type adapters for packages annotated with {@link GenerateTypeAdapters}.
+ */
+@SupportedAnnotationTypes({"net.boreeas.riotapi.processor.GenerateTypeAdapters", "net.boreeas.riotapi.processor.Interned"})
+public class TypeAdapterProcessor extends AbstractProcessor {
+    static final String FACTORY = "GeneratedTypeAdapters";
+    private static final String FACTORY_TEMPLATE = "GeneratedTypeAdapters.java.template";
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    /**
+     * Gson's extension points. Classes implementing them configure Gson instead of being read by it
+     */
+    private static final String[] GSON_EXTENSIONS = {"com.google.gson.TypeAdapterFactory", "com.google.gson.TypeAdapter",
+            "com.google.gson.JsonSerializer", "com.google.gson.JsonDeserializer", "com.google.gson.InstanceCreator"};
+
+    private final Set<String> processed = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element: roundEnv.getElementsAnnotatedWith(GenerateTypeAdapters.class)) {
+            PackageElement pkg = (PackageElement) element;
+            if (!processed.add(pkg.getQualifiedName().toString())) {
+                continue;
+            }
+
+            try {
+                processPackage(pkg);
+            } catch (IOException ex) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can't write type adapters: " + ex, pkg);
+            }
+        }
+
+        return true;
+    }
+
+    private void processPackage(PackageElement pkg) throws IOException {
+        List<TypeElement> dtos = new ArrayList<>();
+        for (TypeElement type: ElementFilter.typesIn(pkg.getEnclosedElements())) {
+            collectDtos(type, dtos);
+        }
+
+        List<TypeElement> generated = new ArrayList<>();
+        for (TypeElement dto: dtos) {
+            Map<String, VariableElement> fields = boundFields(dto);
+            // A class without fields has no json to read
+            if (fields != null && !fields.isEmpty()) {
+                writeAdapter(pkg, dto, fields);
+                generated.add(dto);
+            }
+        }
+
+        writeFactory(pkg, generated);
+    }
+
+    private void collectDtos(TypeElement type, List<TypeElement> dtos) {
+        if (type.getModifiers().contains(Modifier.PRIVATE)) {
+            return;
+        }
+
+        if (isDto(type)) {
+            dtos.add(type);
+        }
+
+        for (TypeElement member: ElementFilter.typesIn(type.getEnclosedElements())) {
+            if (member.getModifiers().contains(Modifier.STATIC)) {
+                collectDtos(member, dtos);
+            }
+        }
+    }
+
+    private boolean isDto(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)
+                || !type.getTypeParameters().isEmpty() || isGsonExtension(type)) {
+            return false;
+        }
+
+        for (ExecutableElement constructor: ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isGsonExtension(TypeElement type) {
+        for (String name: GSON_EXTENSIONS) {
+            TypeElement extension = processingEnv.getElementUtils().getTypeElement(name);
+            if (extension != null && processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type.asType()),
+                    processingEnv.getTypeUtils().erasure(extension.asType()))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * The fields Gson's reflective adapter would bind, by json name: the instance fields of the class and its
+     * superclasses, subclass fields first.
+     * @return The fields, or <code>null</code> if the class isn't a DTO
+     */
+    private Map<String, VariableElement> boundFields(TypeElement dto) {
+        Map<String, VariableElement> fields = new LinkedHashMap<>();
+        TypeElement type = dto;
+        while (type != null && !type.getQualifiedName().contentEquals("java.lang.Object")) {
+            for (VariableElement field: ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                if (modifiers.contains(Modifier.FINAL) || !isAccessible(fieldType(dto, field))) {
+                    return null;
+                }
+                if (field.getAnnotation(Interned.class) != null && !field.asType().toString().equals("java.lang.String")) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Only string fields can be interned", field);
+                    return null;
+                }
+
+                VariableElement previous = fields.put(jsonName(field), field);
+                if (previous != null) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            dto + " declares multiple json fields named " + jsonName(field), field);
+                    return null;
+                }
+            }
+
+            TypeMirror superclass = type.getSuperclass();
+            type = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+
+        return fields;
+    }
+
+    /**
+     * @return <code>false</code> if the type can't be named in the generated code
+     */
+    private boolean isAccessible(TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return isAccessible(((ArrayType) type).getComponentType());
+            case DECLARED:
+                if (((DeclaredType) type).asElement().getModifiers().contains(Modifier.PRIVATE)) {
+                    return false;
+                }
+                for (TypeMirror argument: ((DeclaredType) type).getTypeArguments()) {
+                    if (!isAccessible(argument)) {
+                        return false;
+                    }
+                }
+                return true;
+            case WILDCARD:
+                return true;
+            default:
+                return type.getKind().isPrimitive();
+        }
+    }
+
+    private TypeMirror fieldType(TypeElement dto, VariableElement field) {
+        return processingEnv.getTypeUtils().asMemberOf((DeclaredType) dto.asType(), field);
+    }
+
+    private String jsonName(VariableElement field) {
+        for (AnnotationMirror annotation: field.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(SERIALIZED_NAME)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value: annotation.getElementValues().entrySet()) {
+                    if (value.getKey().getSimpleName().contentEquals("value")) {
+                        return (String) value.getValue().getValue();
+                    }
+                }
+            }
+        }
+
+        return field.getSimpleName().toString();
+    }
+
+    static String adapterName(TypeElement dto) {
+        StringBuilder name = new StringBuilder(dto.getSimpleName());
+        for (Element outer = dto.getEnclosingElement(); outer.getKind() != ElementKind.PACKAGE; outer = outer.getEnclosingElement()) {
+            name.insert(0, outer.getSimpleName() + "_");
+        }
+
+        return name.append("TypeAdapter").toString();
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private static String quote(String name) {
+        return "\"" + name.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * The method reading a primitive or string field, or <code>null</code> if the field is read by a delegate
+     */
+    private static String reader(TypeMirror type) {
+        switch (type.getKind()) {
+            case LONG: return "nextLong";
+            case INT: return "nextInt";
+            case SHORT: return "nextShort";
+            case BYTE: return "nextByte";
+            case DOUBLE: return "nextDouble";
+            case FLOAT: return "nextFloat";
+            case BOOLEAN: return "nextBoolean";
+            default: return type.toString().equals("java.lang.String") ? "nextString" : null;
+        }
+    }
+
+    private void writeAdapter(PackageElement pkg, TypeElement dto, Map<String, VariableElement> fields) throws IOException {
+        String adapter = adapterName(dto);
+        String dtoName = dto.getQualifiedName().toString();
+        List<String> names = new ArrayList<>(fields.keySet());
+
+        StringBuilder source = new StringBuilder();
+        source.append("// Generated by ").append(TypeAdapterProcessor.class.getName()).append(". Do not edit.\n")
+                .append("package ").append(pkg.getQualifiedName()).append(";\n\n")
+                .append("import com.google.gson.Gson;\n")
+                .append("import com.google.gson.TypeAdapter;\n")
+                .append("import com.google.gson.reflect.TypeToken;\n")
+                .append("import com.google.gson.stream.JsonReader;\n")
+                .append("import com.google.gson.stream.JsonToken;\n")
+                .append("import com.google.gson.stream.JsonWriter;\n\n")
+                .append("import java.io.IOException;\n")
+                .append("import java.lang.invoke.MethodHandle;\n\n")
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("final class ").append(adapter).append(" extends TypeAdapter<").append(dtoName).append("> {\n");
+
+        for (int i = 0; i < names.size(); i++) {
+            VariableElement field = fields.get(names.get(i));
+            String declaring = ((TypeElement) field.getEnclosingElement()).getQualifiedName().toString();
+            String args = "(" + dtoName + ".class, " + declaring + ".class, " + quote(field.getSimpleName().toString()) + ");\n";
+            source.append("    // ").append(names.get(i)).append('\n')
+                    .append("    private static final MethodHandle GET_").append(i).append(" = ").append(FACTORY).append(".getter").append(args)
+                    .append("    private static final MethodHandle SET_").append(i).append(" = ").append(FACTORY).append(".setter").append(args);
+        }
+
+        source.append('\n');
+        for (int i = 0; i < names.size(); i++) {
+            TypeMirror type = fieldType(dto, fields.get(names.get(i)));
+            if (reader(type) == null) {
+                source.append("    private final TypeAdapter<").append(boxed(type)).append("> adapter").append(i).append(";\n");
+            }
+        }
+
+        source.append("\n    ").append(adapter).append("(Gson gson) {\n");
+        for (int i = 0; i < names.size(); i++) {
+            TypeMirror type = fieldType(dto, fields.get(names.get(i)));
+            if (reader(type) != null) {
+                continue;
+            }
+
+            source.append("        adapter").append(i).append(" = gson.getAdapter(");
+            if (!type.getKind().isPrimitive() && !erasure(type).equals(type.toString())) {
+                source.append("new TypeToken<").append(type).append(">() {}");
+            } else {
+                source.append(boxed(type)).append(".class");
+            }
+            source.append(");\n");
+        }
+        source.append("    }\n\n");
+
+        source.append("    @Override\n")
+                .append("    public ").append(dtoName).append(" read(JsonReader in) throws IOException {\n")
+                .append("        if (in.peek() == JsonToken.NULL) {\n")
+                .append("            in.nextNull();\n")
+                .append("            return null;\n")
+                .append("        }\n\n")
+                .append("        ").append(dtoName).append(" value = new ").append(dtoName).append("();\n")
+                .append("        try {\n")
+                .append("            in.beginObject();\n")
+                .append("            while (in.hasNext()) {\n")
+                .append("                switch (in.nextName()) {\n");
+        for (int i = 0; i < names.size(); i++) {
+            TypeMirror type = fieldType(dto, fields.get(names.get(i)));
+            String reader = reader(type);
+            if (fields.get(names.get(i)).getAnnotation(Interned.class) != null) {
+                reader = "nextInternedString";
+            }
+            source.append("                    case ").append(quote(names.get(i))).append(":\n");
+            if (reader != null && type.getKind().isPrimitive()) {
+                source.append("                        if (in.peek() == JsonToken.NULL) {\n")
+                        .append("                            in.nextNull();\n")
+                        .append("                        } else {\n")
+                        .append("                            SET_").append(i).append(".invokeExact(value, ").append(FACTORY).append('.').append(reader).append("(in));\n")
+                        .append("                        }\n");
+            } else if (reader != null) {
+                source.append("                        SET_").append(i).append(".invokeExact(value, ").append(FACTORY).append('.').append(reader).append("(in));\n");
+            } else if (type.getKind().isPrimitive()) {
+                source.append("                        ").append(boxed(type)).append(" field").append(i).append(" = adapter").append(i).append(".read(in);\n")
+                        .append("                        if (field").append(i).append(" != null) {\n")
+                        .append("                            SET_").append(i).append(".invokeExact(value, (").append(type).append(") field").append(i).append(");\n")
+                        .append("                        }\n");
+            } else {
+                source.append("                        SET_").append(i).append(".invokeExact(value, (").append(erasure(type)).append(") adapter").append(i).append(".read(in));\n");
+            }
+            source.append("                        break;\n");
+        }
+        source.append("                    default:\n")
+                .append("                        in.skipValue();\n")
+                .append("                }\n")
+                .append("            }\n")
+                .append("            in.endObject();\n")
+                .append("        } catch (IOException | RuntimeException | Error ex) {\n")
+                .append("            throw ex;\n")
+                .append("        } catch (Throwable ex) {\n")
+                .append("            throw new IllegalStateException(ex);\n")
+                .append("        }\n\n")
+                .append("        return value;\n")
+                .append("    }\n\n");
+
+        source.append("    @Override\n")
+                .append("    public void write(JsonWriter out, ").append(dtoName).append(" value) throws IOException {\n")
+                .append("        if (value == null) {\n")
+                .append("            out.nullValue();\n")
+                .append("            return;\n")
+                .append("        }\n\n")
+                .append("        try {\n")
+                .append("            out.beginObject();\n");
+        for (int i = 0; i < names.size(); i++) {
+            TypeMirror type = fieldType(dto, fields.get(names.get(i)));
+            String get = "(" + erasure(type) + ") GET_" + i + ".invokeExact(value)";
+            source.append("            out.name(").append(quote(names.get(i))).append(");\n");
+            if (reader(type) == null) {
+                source.append("            adapter").append(i).append(".write(out, ").append(get).append(");\n");
+            } else if (type.getKind() == TypeKind.FLOAT) {
+                // Written like Gson writes a Float, which differs from the double it widens to
+                source.append("            out.value(Float.valueOf(").append(get).append("));\n");
+            } else {
+                source.append("            out.value(").append(get).append(");\n");
+            }
+        }
+        source.append("            out.endObject();\n")
+                .append("        } catch (IOException | RuntimeException | Error ex) {\n")
+                .append("            throw ex;\n")
+                .append("        } catch (Throwable ex) {\n")
+                .append("            throw new IllegalStateException(ex);\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(pkg.getQualifiedName() + "." + adapter, dto).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private String boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+
+        return type.toString();
+    }
+
+    private void writeFactory(PackageElement pkg, List<TypeElement> dtos) throws IOException {
+        StringBuilder registrations = new StringBuilder();
+        for (TypeElement dto: dtos) {
+            registrations.append("        ADAPTERS.put(").append(dto.getQualifiedName()).append(".class, ")
+                    .append(adapterName(dto)).append("::new);\n");
+        }
+
+        String source = readTemplate()
+                .replace("${package}", pkg.getQualifiedName())
+                .replace("${processor}", TypeAdapterProcessor.class.getName())
+                .replace("${factory}", FACTORY)
+                .replace("${registrations}", registrations);
+
+        Element[] origins = dtos.toArray(new Element[dtos.size()]);
+        try (Writer writer = processingEnv.getFiler().createSourceFile(pkg.getQualifiedName() + "." + FACTORY, origins).openWriter()) {
+            writer.write(source);
+        }
+    }
+
+    private static String readTemplate() throws IOException {
+        try (InputStream in = TypeAdapterProcessor.class.getResourceAsStream(FACTORY_TEMPLATE)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
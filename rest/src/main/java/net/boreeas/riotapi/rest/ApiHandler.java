@@ -32,6 +32,11 @@ import net.boreeas.riotapi.com.riotgames.leagues.pojo.LeagueList;
 import net.boreeas.riotapi.com.riotgames.platform.game.QueueType;
 import net.boreeas.riotapi.com.riotgames.platform.summoner.spellbook.RunePage;
 import net.boreeas.riotapi.constants.Season;
+import net.boreeas.riotapi.http.BlockingTransport;
+import net.boreeas.riotapi.http.BufferPool;
+import net.boreeas.riotapi.http.Transport;
+import net.boreeas.riotapi.http.TransportRequest;
+import net.boreeas.riotapi.http.TransportResponse;
 import net.boreeas.riotapi.rest.api.CurrentGameHandler;
 import net.boreeas.riotapi.rest.api.LoLRestApi;
 
@@ -39,24 +44,32 @@ import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.Response;
-import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.*;
 import java.lang.reflect.Type;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPInputStream;
+import java.util.stream.Stream;
 
 /**
  * Handles sending GET request to the riot api server
  * Created on 4/12/2014.
  */
 @Log4j
-public class ApiHandler implements LoLRestApi {
+public class ApiHandler implements AutoCloseable, LoLRestApi {
 
     private static final GsonBuilder builder = new GsonBuilder();
 
     static {
+        // Parse the DTOs with the adapters generated at build time instead of reflection. Registered first, so that
+        // adapters registered below take precedence
+        builder.registerTypeAdapterFactory(new GeneratedTypeAdapters());
+        // Read maps through the public JsonReader methods only, so that every ResponseDecoder can use them
+        builder.registerTypeAdapterFactory(new MapAdapterFactory());
         // Register an adapter to manage the date types as long values
         builder.registerTypeAdapter(Date.class, (JsonDeserializer<Date>) (json, typeOfT, context) -> new Date(json.getAsJsonPrimitive().getAsLong()));
     }
@@ -66,6 +79,17 @@ public class ApiHandler implements LoLRestApi {
     private static final String SPECTATOR_API_URL = "https://%s.api.pvp.net/observer-mode/rest";
 
     private Gson gson = builder.create();
+    private volatile ResponseDecoder decoder = new GsonDecoder(gson);
+    private final Transport transport;
+    private final Executor executor;
+    private final Client client;
+    private volatile SingleFlight singleFlight;
+    private volatile StaticDataCache staticDataCache = StaticDataCache.getDefault();
+    private volatile ResponseCache responseCache;
+    private volatile ApiMetrics metrics;
+    private volatile boolean timeTransport = true;
+    private final SummonerIdResolver summonerIdResolver = new SummonerIdResolver(this::getSummonersAsync);
+    private final String region;
     private WebTarget championInfoTarget;
     private WebTarget gameInfoTarget;
     private WebTarget leagueInfoTarget;
@@ -86,13 +110,29 @@ public class ApiHandler implements LoLRestApi {
      * @param token The api key
      */
     public ApiHandler(Shard shard, String token) {
+        this(shard, token, new BlockingTransport(), Runnable::run);
+    }
+
+    /**
+     * Create a new ApiHandler object that sends its requests through the specified transport
+     *
+     * @param shard The target region
+     * @param token The api key
+     * @param transport The transport used to send requests
+     * @param executor The executor on which responses are parsed
+     */
+    public ApiHandler(Shard shard, String token, Transport transport, Executor executor) {
+
+        this.transport = transport;
+        this.executor = executor;
+        this.region = shard.name;
 
         if (token == null || token.isEmpty()) {
             throw new IllegalArgumentException("Need token");
         }
 
         String region = shard.name;
-        Client c = ClientBuilder.newClient();
+        this.client = ClientBuilder.newClient();
 
         if (shard.isGarena) {
 
@@ -100,8 +140,8 @@ public class ApiHandler implements LoLRestApi {
             currentGameHandler = null;
             featuredGamesHandler = null;
         } else {
-            WebTarget defaultTarget = c.target(shard.apiUrl).queryParam("api_key", token).path(region);
-            WebTarget spectatorTarget = c.target(String.format(SPECTATOR_API_URL, shard.name)).queryParam("api_key", token);
+            WebTarget defaultTarget = client.target(shard.apiUrl).queryParam("api_key", token).path(region);
+            WebTarget spectatorTarget = client.target(String.format(SPECTATOR_API_URL, shard.name)).queryParam("api_key", token);
 
             championInfoTarget = defaultTarget.path("v1.2").path("champion");
             gameInfoTarget = defaultTarget.path("v1.3").path("game/by-summoner");
@@ -115,12 +155,113 @@ public class ApiHandler implements LoLRestApi {
             this.featuredGamesHandler = new FeaturedGamesHandler("v1.0", spectatorTarget.path("featured"));
         }
 
-        WebTarget defaultStaticTarget = c.target(API_GLOBAL_URL).queryParam("api_key", token).path("static-data").path(region);
+        WebTarget defaultStaticTarget = client.target(API_GLOBAL_URL).queryParam("api_key", token).path("static-data").path(region);
 
-        statusTarget = c.target("http://status.leagueoflegends.com").path("shards");
+        statusTarget = client.target("http://status.leagueoflegends.com").path("shards");
         staticDataTarget = defaultStaticTarget.path("v1.2");
     }
 
+    /**
+     * Closes the client that builds the request targets. The transport is owned by the caller and stays open.
+     */
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    /**
+     * Coalesce identical requests that are in flight at the same time, identified by their uri and response type.
+     * Callers of identical requests then share the same result objects.
+     *
+     * @param singleFlight The single flight to use, or <code>null</code> to send every request
+     */
+    public void setSingleFlight(SingleFlight singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    /**
+     * @return The single flight coalescing identical requests, or <code>null</code> if it is disabled
+     */
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Set the cache for static data responses. By default, all api handlers share {@link StaticDataCache#getDefault()}.
+     *
+     * @param staticDataCache The cache, or <code>null</code> to always request static data
+     */
+    public void setStaticDataCache(StaticDataCache staticDataCache) {
+        this.staticDataCache = staticDataCache;
+    }
+
+    public StaticDataCache getStaticDataCache() {
+        return staticDataCache;
+    }
+
+    /**
+     * Set the cache for responses of the dynamic endpoints. Responses are not cached by default.
+     *
+     * @param responseCache The cache, or <code>null</code> to not cache responses
+     */
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Record latencies, status codes and failures of all requests. Metrics are not recorded by default.
+     *
+     * @param metrics The metrics, or <code>null</code> to not record metrics
+     */
+    public void setMetrics(ApiMetrics metrics) {
+        setMetrics(metrics, true);
+    }
+
+    /**
+     * @param timeTransport <code>false</code> if the transport records the {@link Phase#HTTP} time itself, because it
+     *                      doesn't send requests right away
+     */
+    void setMetrics(ApiMetrics metrics, boolean timeTransport) {
+        this.timeTransport = timeTransport;
+        this.metrics = metrics;
+    }
+
+    public ApiMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Set the decoder that parses the response bodies. By default, responses are parsed with a {@link GsonDecoder}.
+     * Use a {@link Utf8Decoder} to parse the UTF-8 bytes directly instead.
+     *
+     * @param decoder The decoder
+     */
+    public void setDecoder(ResponseDecoder decoder) {
+        this.decoder = Objects.requireNonNull(decoder, "decoder");
+    }
+
+    public ResponseDecoder getDecoder() {
+        return decoder;
+    }
+
+    /**
+     * @return The Gson instance with the type adapters for all DTOs, for creating a {@link ResponseDecoder}
+     */
+    public Gson getGson() {
+        return gson;
+    }
+
+    /**
+     * @return The resolver behind {@link #resolveSummonerIds(Collection)}, which keeps the ids of all resolved names
+     */
+    public SummonerIdResolver getSummonerIdResolver() {
+        return summonerIdResolver;
+    }
+
     // <editor-fold desc="Champion v1.2">
 
     /**
@@ -130,7 +271,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/617/1923>Official API documentation</a>
      */
     public List<BasicChampData> getBasicChampData() {
-        return gson.fromJson($(championInfoTarget), BasicChampDataListDto.class).champions;
+        return await(getBasicChampDataAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getBasicChampData()}
+     */
+    public CompletableFuture<List<BasicChampData>> getBasicChampDataAsync() {
+        return map(fetch(championInfoTarget, BasicChampDataListDto.class), dto -> dto.champions);
     }
 
     /**
@@ -140,8 +288,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/617/1923>Official API documentation</a>
      */
     public List<BasicChampData> getFreeToPlayChampions() {
+        return await(getFreeToPlayChampionsAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getFreeToPlayChampions()}
+     */
+    public CompletableFuture<List<BasicChampData>> getFreeToPlayChampionsAsync() {
         WebTarget tgt = championInfoTarget.queryParam("freeToPlay", true);
-        return gson.fromJson($(tgt), BasicChampDataListDto.class).champions;
+        return map(fetch(tgt, BasicChampDataListDto.class), dto -> dto.champions);
     }
 
     /**
@@ -152,7 +307,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/617/1922>Official API documentation</a>
      */
     public BasicChampData getBasicChampData(int id) {
-        return gson.fromJson($(championInfoTarget.path("" + id)), BasicChampData.class);
+        return await(getBasicChampDataAsync(id));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getBasicChampData(int)}
+     */
+    public CompletableFuture<BasicChampData> getBasicChampDataAsync(int id) {
+        return fetch(championInfoTarget.path("" + id), BasicChampData.class);
     }
 
     // </editor-fold>
@@ -167,8 +329,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/618/1924>Official API documentation</a>
      */
     public List<Game> getRecentGames(long summoner) {
+        return await(getRecentGamesAsync(summoner));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getRecentGames(long)}
+     */
+    public CompletableFuture<List<Game>> getRecentGamesAsync(long summoner) {
         WebTarget tgt = gameInfoTarget.path(summoner + "/recent");
-        return gson.fromJson($(tgt), RecentGamesDto.class).games;
+        return map(fetch(tgt, RecentGamesDto.class), dto -> dto.games);
     }
 
     // </editor-fold>
@@ -183,7 +352,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1862>Official API documentation</a>
      */
     public List<LeagueList> getLeagues(long summoner) {
-        return getLeaguesVarArgs(summoner).get(summoner);
+        return await(getLeaguesAsync(summoner));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getLeagues(long)}
+     */
+    public CompletableFuture<List<LeagueList>> getLeaguesAsync(long summoner) {
+        return map(getLeaguesVarArgs(summoner), result -> result.get(summoner));
     }
 
     /**
@@ -194,19 +370,26 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1862>Official API documentation</a>
      */
     public Map<Long, List<LeagueList>> getLeagues(long... summoners) {
+        return await(getLeaguesAsync(summoners));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getLeagues(long...)}
+     */
+    public CompletableFuture<Map<Long, List<LeagueList>>> getLeaguesAsync(long... summoners) {
         return getLeaguesVarArgs(summoners);
     }
 
-    private Map<Long, List<LeagueList>> getLeaguesVarArgs(long... summoners) {
+    private CompletableFuture<Map<Long, List<LeagueList>>> getLeaguesVarArgs(long... summoners) {
         Type type = new TypeToken<Map<String, List<LeagueList>>>() {
         }.getType();
         WebTarget tgt = leagueInfoTarget.path("by-summoner/" + concat(summoners));
 
-        Map<String, List<LeagueList>> query = gson.fromJson($(tgt), type);
-        Map<Long, List<LeagueList>> result = new HashMap<>();
-        query.forEach((k, v) -> result.put(Long.parseLong(k), v));
-
-        return result;
+        return map(this.<Map<String, List<LeagueList>>>fetch(tgt, type), query -> {
+            Map<Long, List<LeagueList>> result = new HashMap<>();
+            query.forEach((k, v) -> result.put(Long.parseLong(k), v));
+            return result;
+        });
     }
 
 
@@ -218,7 +401,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1863>Official API documentation</a>
      */
     public List<LeagueItem> getLeagueEntries(long summoner) {
-        return getLeagueItemsVarArgs(summoner).get(summoner);
+        return await(getLeagueEntriesAsync(summoner));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getLeagueEntries(long)}
+     */
+    public CompletableFuture<List<LeagueItem>> getLeagueEntriesAsync(long summoner) {
+        return map(getLeagueItemsVarArgs(summoner), result -> result.get(summoner));
     }
 
     /**
@@ -229,14 +419,21 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1863>Official API documentation</a>
      */
     public Map<Long, List<LeagueItem>> getLeagueEntries(long... summoners) {
+        return await(getLeagueEntriesAsync(summoners));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getLeagueEntries(long...)}
+     */
+    public CompletableFuture<Map<Long, List<LeagueItem>>> getLeagueEntriesAsync(long... summoners) {
         return getLeagueItemsVarArgs(summoners);
     }
 
-    private Map<Long, List<LeagueItem>> getLeagueItemsVarArgs(long... summoners) {
+    private CompletableFuture<Map<Long, List<LeagueItem>>> getLeagueItemsVarArgs(long... summoners) {
         Type type = new TypeToken<Map<Long, List<LeagueItem>>>() {
         }.getType();
         WebTarget tgt = leagueInfoTarget.path("by-summoner/" + concat(summoners)).path("entry");
-        return gson.fromJson($(tgt), type);
+        return fetch(tgt, type);
     }
 
 
@@ -248,7 +445,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1860>Official API documentation</a>
      */
     public List<LeagueList> getLeagues(String teamId) {
-        return getTeamLeaguesVarargs(teamId).get(teamId);
+        return await(getLeaguesAsync(teamId));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getLeagues(String)}
+     */
+    public CompletableFuture<List<LeagueList>> getLeaguesAsync(String teamId) {
+        return map(getTeamLeaguesVarargs(teamId), result -> result.get(teamId));
     }
 
     /**
@@ -259,15 +463,22 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1860>Official API documentation</a>
      */
     public Map<String, List<LeagueList>> getLeagues(String... teamIds) {
+        return await(getLeaguesAsync(teamIds));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getLeagues(String...)}
+     */
+    public CompletableFuture<Map<String, List<LeagueList>>> getLeaguesAsync(String... teamIds) {
         return getTeamLeaguesVarargs(teamIds);
     }
 
-    private Map<String, List<LeagueList>> getTeamLeaguesVarargs(String... teamIds) {
+    private CompletableFuture<Map<String, List<LeagueList>>> getTeamLeaguesVarargs(String... teamIds) {
         Type type = new TypeToken<Map<String, List<LeagueList>>>() {
         }.getType();
         WebTarget tgt = leagueInfoTarget.path("by-team").path(concat(teamIds));
         log.warn("Team - League - " + tgt.getUri());
-        return gson.fromJson($(tgt), type);
+        return fetch(tgt, type);
     }
 
 
@@ -279,7 +490,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1861>Official API documentation</a>
      */
     public List<LeagueItem> getLeagueEntries(String teamId) {
-        return getTeamLeagueItemsVarargs(teamId).get(teamId);
+        return await(getLeagueEntriesAsync(teamId));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getLeagueEntries(String)}
+     */
+    public CompletableFuture<List<LeagueItem>> getLeagueEntriesAsync(String teamId) {
+        return map(getTeamLeagueItemsVarargs(teamId), result -> result.get(teamId));
     }
 
     /**
@@ -290,14 +508,21 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1861>Official API documentation</a>
      */
     public Map<String, List<LeagueItem>> getLeagueEntries(String... teamIds) {
+        return await(getLeagueEntriesAsync(teamIds));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getLeagueEntries(String...)}
+     */
+    public CompletableFuture<Map<String, List<LeagueItem>>> getLeagueEntriesAsync(String... teamIds) {
         return getTeamLeagueItemsVarargs(teamIds);
     }
 
-    private Map<String, List<LeagueItem>> getTeamLeagueItemsVarargs(String... teamIds) {
+    private CompletableFuture<Map<String, List<LeagueItem>>> getTeamLeagueItemsVarargs(String... teamIds) {
         Type type = new TypeToken<Map<String, List<LeagueItem>>>() {
         }.getType();
         WebTarget tgt = leagueInfoTarget.path("by-team").path(concat(teamIds)).path("entry");
-        return gson.fromJson($(tgt), type);
+        return fetch(tgt, type);
     }
 
 
@@ -309,8 +534,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/985/3354>Official API documentation</a>
      */
     public LeagueList getChallenger(QueueType queue) {
+        return await(getChallengerAsync(queue));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getChallenger(QueueType)}
+     */
+    public CompletableFuture<LeagueList> getChallengerAsync(QueueType queue) {
         WebTarget tgt = leagueInfoTarget.path("challenger").queryParam("type", queue.name());
-        return gson.fromJson($(tgt), LeagueList.class);
+        return fetch(tgt, LeagueList.class);
     }
     
     /**
@@ -321,8 +553,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1864>Official API documentation</a>
      */
     public LeagueList getMaster(QueueType queue) {
+        return await(getMasterAsync(queue));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMaster(QueueType)}
+     */
+    public CompletableFuture<LeagueList> getMasterAsync(QueueType queue) {
         WebTarget tgt = leagueInfoTarget.path("master").queryParam("type", queue.name());
-        return gson.fromJson($(tgt), LeagueList.class);
+        return fetch(tgt, LeagueList.class);
     }
 
     // </editor-fold>
@@ -336,8 +575,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2171>Official API documentation</a>
      */
     public ChampionList getChampionListDto() {
+        return await(getChampionListDtoAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getChampionListDto()}
+     */
+    public CompletableFuture<ChampionList> getChampionListDtoAsync() {
         WebTarget tgt = staticDataTarget.path("champion");
-        return gson.fromJson($(tgt), ChampionList.class);
+        return fetch(tgt, ChampionList.class);
     }
 
     /**
@@ -351,8 +597,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2171>Official API documentation</a>
      */
     public ChampionList getChampionListDto(ChampData champData) {
+        return await(getChampionListDtoAsync(champData));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getChampionListDto(ChampData)}
+     */
+    public CompletableFuture<ChampionList> getChampionListDtoAsync(ChampData champData) {
         WebTarget tgt = staticDataTarget.path("champion").queryParam("champData", champData.name);
-        return gson.fromJson($(tgt), ChampionList.class);
+        return fetch(tgt, ChampionList.class);
     }
 
     /**
@@ -369,12 +622,19 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2171>Official API documentation</a>
      */
     public ChampionList getChampionListDto(String locale, String version, boolean dataById, ChampData champData) {
+        return await(getChampionListDtoAsync(locale, version, dataById, champData));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getChampionListDto(String, String, boolean, ChampData)}
+     */
+    public CompletableFuture<ChampionList> getChampionListDtoAsync(String locale, String version, boolean dataById, ChampData champData) {
         WebTarget tgt = staticDataTarget.path("champion")
                 .queryParam("locale", locale)
                 .queryParam("version", version)
                 .queryParam("dataById", dataById)
                 .queryParam("champData", champData.name);
-        return gson.fromJson($(tgt), ChampionList.class);
+        return fetch(tgt, ChampionList.class);
     }
 
     /**
@@ -386,7 +646,14 @@ public class ApiHandler implements LoLRestApi {
      * @return All champions in the game
      */
     public Collection<Champion> getChampions() {
-        return getChampionListDto().getChampions();
+        return await(getChampionsAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getChampions()}
+     */
+    public CompletableFuture<Collection<Champion>> getChampionsAsync() {
+        return map(getChampionListDtoAsync(), ChampionList::getChampions);
     }
 
     /**
@@ -399,7 +666,14 @@ public class ApiHandler implements LoLRestApi {
      * @return All champions in the game
      */
     public Collection<Champion> getChampions(ChampData champData) {
-        return getChampionListDto(champData).getChampions();
+        return await(getChampionsAsync(champData));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getChampions(ChampData)}
+     */
+    public CompletableFuture<Collection<Champion>> getChampionsAsync(ChampData champData) {
+        return map(getChampionListDtoAsync(champData), ChampionList::getChampions);
     }
 
     /**
@@ -415,7 +689,14 @@ public class ApiHandler implements LoLRestApi {
      * @return All champions in the game
      */
     public Collection<Champion> getChampions(ChampData champData, String version, String locale, boolean dataById) {
-        return getChampionListDto(locale, version, dataById, champData).getChampions();
+        return await(getChampionsAsync(champData, version, locale, dataById));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getChampions(ChampData, String, String, boolean)}
+     */
+    public CompletableFuture<Collection<Champion>> getChampionsAsync(ChampData champData, String version, String locale, boolean dataById) {
+        return map(getChampionListDtoAsync(locale, version, dataById, champData), ChampionList::getChampions);
     }
 
     /**
@@ -429,8 +710,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2169>Official API documentation</a>
      */
     public Champion getChampion(int id) {
+        return await(getChampionAsync(id));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getChampion(int)}
+     */
+    public CompletableFuture<Champion> getChampionAsync(int id) {
         WebTarget tgt = staticDataTarget.path("champion/" + id);
-        return gson.fromJson($(tgt), Champion.class);
+        return fetch(tgt, Champion.class);
     }
 
     /**
@@ -445,8 +733,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2169>Official API documentation</a>
      */
     public Champion getChampion(int id, ChampData champData) {
+        return await(getChampionAsync(id, champData));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getChampion(int, ChampData)}
+     */
+    public CompletableFuture<Champion> getChampionAsync(int id, ChampData champData) {
         WebTarget tgt = staticDataTarget.path("champion/" + id).queryParam("champData", champData.name);
-        return gson.fromJson($(tgt), Champion.class);
+        return fetch(tgt, Champion.class);
     }
 
     /**
@@ -463,11 +758,18 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2169>Official API documentation</a>
      */
     public Champion getChampion(int id, ChampData champData, String version, String locale) {
+        return await(getChampionAsync(id, champData, version, locale));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getChampion(int, ChampData, String, String)}
+     */
+    public CompletableFuture<Champion> getChampionAsync(int id, ChampData champData, String version, String locale) {
         WebTarget tgt = staticDataTarget.path("champion/" + id)
                 .queryParam("champData", champData.name)
                 .queryParam("locale", locale)
                 .queryParam("version", version);
-        return gson.fromJson($(tgt), Champion.class);
+        return fetch(tgt, Champion.class);
     }
 
     /**
@@ -480,8 +782,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2166>Official API documentation</a>
      */
     public ItemList getItemList() {
+        return await(getItemListAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getItemList()}
+     */
+    public CompletableFuture<ItemList> getItemListAsync() {
         WebTarget tgt = staticDataTarget.path("item");
-        return gson.fromJson($(tgt), ItemList.class);
+        return fetch(tgt, ItemList.class);
     }
 
     /**
@@ -495,8 +804,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2166>Official API documentation</a>
      */
     public ItemList getItemList(ItemData data) {
+        return await(getItemListAsync(data));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getItemList(ItemData)}
+     */
+    public CompletableFuture<ItemList> getItemListAsync(ItemData data) {
         WebTarget tgt = staticDataTarget.path("item").queryParam("itemListData", data.name);
-        return gson.fromJson($(tgt), ItemList.class);
+        return fetch(tgt, ItemList.class);
     }
 
     /**
@@ -512,11 +828,18 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2166>Official API documentation</a>
      */
     public ItemList getItemList(ItemData data, String version, String locale) {
+        return await(getItemListAsync(data, version, locale));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getItemList(ItemData, String, String)}
+     */
+    public CompletableFuture<ItemList> getItemListAsync(ItemData data, String version, String locale) {
         WebTarget tgt = staticDataTarget.path("item")
                 .queryParam("itemListData", data.name)
                 .queryParam("version", version)
                 .queryParam("locale", locale);
-        return gson.fromJson($(tgt), ItemList.class);
+        return fetch(tgt, ItemList.class);
     }
 
     /**
@@ -530,8 +853,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2176>Official API documentation</a>
      */
     public Item getItem(int id) {
+        return await(getItemAsync(id));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getItem(int)}
+     */
+    public CompletableFuture<Item> getItemAsync(int id) {
         WebTarget tgt = staticDataTarget.path("item/" + id);
-        return gson.fromJson($(tgt), Item.class);
+        return fetch(tgt, Item.class);
     }
 
     /**
@@ -546,8 +876,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2176>Official API documentation</a>
      */
     public Item getItem(int id, ItemData data) {
+        return await(getItemAsync(id, data));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getItem(int, ItemData)}
+     */
+    public CompletableFuture<Item> getItemAsync(int id, ItemData data) {
         WebTarget tgt = staticDataTarget.path("item/" + id).queryParam("itemData", data.name);
-        return gson.fromJson($(tgt), Item.class);
+        return fetch(tgt, Item.class);
     }
 
     /**
@@ -564,11 +901,18 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2176>Official API documentation</a>
      */
     public Item getItem(int id, ItemData data, String version, String locale) {
+        return await(getItemAsync(id, data, version, locale));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getItem(int, ItemData, String, String)}
+     */
+    public CompletableFuture<Item> getItemAsync(int id, ItemData data, String version, String locale) {
         WebTarget tgt = staticDataTarget.path("item/" + id)
                 .queryParam("itemData", data.name)
                 .queryParam("version", version)
                 .queryParam("locale", locale);
-        return gson.fromJson($(tgt), Item.class);
+        return fetch(tgt, Item.class);
     }
 
     /**
@@ -581,8 +925,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2173>Official API documentation</a>
      */
     public MasteryList getMasteries() {
+        return await(getMasteriesAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMasteries()}
+     */
+    public CompletableFuture<MasteryList> getMasteriesAsync() {
         WebTarget tgt = staticDataTarget.path("mastery");
-        return gson.fromJson($(tgt), MasteryList.class);
+        return fetch(tgt, MasteryList.class);
     }
 
     /**
@@ -596,8 +947,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2173>Official API documentation</a>
      */
     public MasteryList getMasteries(MasteryData data) {
+        return await(getMasteriesAsync(data));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMasteries(MasteryData)}
+     */
+    public CompletableFuture<MasteryList> getMasteriesAsync(MasteryData data) {
         WebTarget tgt = staticDataTarget.path("mastery").queryParam("masteryListData", data.name);
-        return gson.fromJson($(tgt), MasteryList.class);
+        return fetch(tgt, MasteryList.class);
     }
 
     /**
@@ -613,11 +971,18 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2173>Official API documentation</a>
      */
     public MasteryList getMasteries(MasteryData data, String version, String locale) {
+        return await(getMasteriesAsync(data, version, locale));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMasteries(MasteryData, String, String)}
+     */
+    public CompletableFuture<MasteryList> getMasteriesAsync(MasteryData data, String version, String locale) {
         WebTarget tgt = staticDataTarget.path("mastery")
                 .queryParam("masterListData", data.name)
                 .queryParam("version", version)
                 .queryParam("locale", locale);
-        return gson.fromJson($(tgt), MasteryList.class);
+        return fetch(tgt, MasteryList.class);
     }
 
     /**
@@ -631,8 +996,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2175>Official API documentation</a>
      */
     public Mastery getMastery(int id) {
+        return await(getMasteryAsync(id));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMastery(int)}
+     */
+    public CompletableFuture<Mastery> getMasteryAsync(int id) {
         WebTarget tgt = staticDataTarget.path("mastery/" + id);
-        return gson.fromJson($(tgt), Mastery.class);
+        return fetch(tgt, Mastery.class);
     }
 
     /**
@@ -647,8 +1019,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2175>Official API documentation</a>
      */
     public Mastery getMastery(int id, MasteryData data) {
+        return await(getMasteryAsync(id, data));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMastery(int, MasteryData)}
+     */
+    public CompletableFuture<Mastery> getMasteryAsync(int id, MasteryData data) {
         WebTarget tgt = staticDataTarget.path("mastery/" + id).queryParam("masteryData", data.name);
-        return gson.fromJson($(tgt), Mastery.class);
+        return fetch(tgt, Mastery.class);
     }
 
     /**
@@ -665,11 +1044,18 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2175>Official API documentation</a>
      */
     public Mastery getMastery(int id, MasteryData data, String version, String locale) {
+        return await(getMasteryAsync(id, data, version, locale));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMastery(int, MasteryData, String, String)}
+     */
+    public CompletableFuture<Mastery> getMasteryAsync(int id, MasteryData data, String version, String locale) {
         WebTarget tgt = staticDataTarget.path("mastery/" + id)
                 .queryParam("masterListData", data.name)
                 .queryParam("version", version)
                 .queryParam("locale", locale);
-        return gson.fromJson($(tgt), Mastery.class);
+        return fetch(tgt, Mastery.class);
     }
 
     /**
@@ -682,8 +1068,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2170>Official API documentation</a>
      */
     public Realm getRealm() {
+        return await(getRealmAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getRealm()}
+     */
+    public CompletableFuture<Realm> getRealmAsync() {
         WebTarget tgt = staticDataTarget.path("realm");
-        return gson.fromJson($(tgt), Realm.class);
+        return fetch(tgt, Realm.class);
     }
 
     /**
@@ -696,8 +1089,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2172>Official API documentation</a>
      */
     public RuneList getRuneList() {
+        return await(getRuneListAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getRuneList()}
+     */
+    public CompletableFuture<RuneList> getRuneListAsync() {
         WebTarget tgt = staticDataTarget.path("runes");
-        return gson.fromJson($(tgt), RuneList.class);
+        return fetch(tgt, RuneList.class);
     }
 
     /**
@@ -711,8 +1111,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2172>Official API documentation</a>
      */
     public RuneList getRuneList(ItemData data) {
+        return await(getRuneListAsync(data));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getRuneList(ItemData)}
+     */
+    public CompletableFuture<RuneList> getRuneListAsync(ItemData data) {
         WebTarget tgt = staticDataTarget.path("rune").queryParam("runeListData", data.name);
-        return gson.fromJson($(tgt), RuneList.class);
+        return fetch(tgt, RuneList.class);
     }
 
     /**
@@ -728,11 +1135,18 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2172>Official API documentation</a>
      */
     public RuneList getRuneList(ItemData data, String version, String locale) {
+        return await(getRuneListAsync(data, version, locale));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getRuneList(ItemData, String, String)}
+     */
+    public CompletableFuture<RuneList> getRuneListAsync(ItemData data, String version, String locale) {
         WebTarget tgt = staticDataTarget.path("rune")
                 .queryParam("runeListData", data.name)
                 .queryParam("version", version)
                 .queryParam("locale", locale);
-        return gson.fromJson($(tgt), RuneList.class);
+        return fetch(tgt, RuneList.class);
     }
 
     /**
@@ -746,8 +1160,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2168>Official API documentation</a>
      */
     public Item getRune(int id) {
+        return await(getRuneAsync(id));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getRune(int)}
+     */
+    public CompletableFuture<Item> getRuneAsync(int id) {
         WebTarget tgt = staticDataTarget.path("runes/" + id);
-        return gson.fromJson($(tgt), Item.class);
+        return fetch(tgt, Item.class);
     }
 
     /**
@@ -762,8 +1183,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2168>Official API documentation</a>
      */
     public Item getRune(int id, ItemData data) {
+        return await(getRuneAsync(id, data));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getRune(int, ItemData)}
+     */
+    public CompletableFuture<Item> getRuneAsync(int id, ItemData data) {
         WebTarget tgt = staticDataTarget.path("rune/" + id).queryParam("runeData", data.name);
-        return gson.fromJson($(tgt), Item.class);
+        return fetch(tgt, Item.class);
     }
 
     /**
@@ -780,11 +1208,18 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2168>Official API documentation</a>
      */
     public Item getRune(int id, ItemData data, String version, String locale) {
+        return await(getRuneAsync(id, data, version, locale));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getRune(int, ItemData, String, String)}
+     */
+    public CompletableFuture<Item> getRuneAsync(int id, ItemData data, String version, String locale) {
         WebTarget tgt = staticDataTarget.path("rune/" + id)
                 .queryParam("runeData", data.name)
                 .queryParam("version", version)
                 .queryParam("locale", locale);
-        return gson.fromJson($(tgt), Item.class);
+        return fetch(tgt, Item.class);
     }
 
     /**
@@ -797,8 +1232,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2174>Official API documentation</a>
      */
     public SummonerSpellList getSummonerSpellListDto() {
+        return await(getSummonerSpellListDtoAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummonerSpellListDto()}
+     */
+    public CompletableFuture<SummonerSpellList> getSummonerSpellListDtoAsync() {
         WebTarget tgt = staticDataTarget.path("summoner-spell");
-        return gson.fromJson($(tgt), SummonerSpellList.class);
+        return fetch(tgt, SummonerSpellList.class);
     }
 
     /**
@@ -812,9 +1254,16 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2174>Official API documentation</a>
      */
     public SummonerSpellList getSummonerSpellListDto(SpellData data) {
+        return await(getSummonerSpellListDtoAsync(data));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummonerSpellListDto(SpellData)}
+     */
+    public CompletableFuture<SummonerSpellList> getSummonerSpellListDtoAsync(SpellData data) {
         WebTarget tgt = staticDataTarget.path("summoner-spell")
                 .queryParam("spellData", data.name);
-        return gson.fromJson($(tgt), SummonerSpellList.class);
+        return fetch(tgt, SummonerSpellList.class);
     }
 
     /**
@@ -831,12 +1280,19 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2174>Official API documentation</a>
      */
     public SummonerSpellList getSummonerSpellListDro(SpellData data, String version, String locale, boolean dataById) {
+        return await(getSummonerSpellListDroAsync(data, version, locale, dataById));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummonerSpellListDro(SpellData, String, String, boolean)}
+     */
+    public CompletableFuture<SummonerSpellList> getSummonerSpellListDroAsync(SpellData data, String version, String locale, boolean dataById) {
         WebTarget tgt = staticDataTarget.path("summoner-spell")
                 .queryParam("spellData", data.name)
                 .queryParam("version", version)
                 .queryParam("locale", locale)
                 .queryParam("dataById", dataById);
-        return gson.fromJson($(tgt), SummonerSpellList.class);
+        return fetch(tgt, SummonerSpellList.class);
     }
 
     /**
@@ -849,7 +1305,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2174>Official API documentation</a>
      */
     public Collection<SummonerSpell> getSummonerSpells() {
-        return getSummonerSpellListDto().getSpells();
+        return await(getSummonerSpellsAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummonerSpells()}
+     */
+    public CompletableFuture<Collection<SummonerSpell>> getSummonerSpellsAsync() {
+        return map(getSummonerSpellListDtoAsync(), SummonerSpellList::getSpells);
     }
 
     /**
@@ -863,7 +1326,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2174>Official API documentation</a>
      */
     public Collection<SummonerSpell> getSummonerSpells(SpellData data) {
-        return getSummonerSpellListDto(data).getSpells();
+        return await(getSummonerSpellsAsync(data));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummonerSpells(SpellData)}
+     */
+    public CompletableFuture<Collection<SummonerSpell>> getSummonerSpellsAsync(SpellData data) {
+        return map(getSummonerSpellListDtoAsync(data), SummonerSpellList::getSpells);
     }
 
     /**
@@ -880,7 +1350,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2174>Official API documentation</a>
      */
     public Collection<SummonerSpell> getSummonerSpells(SpellData data, String version, String locale, boolean dataById) {
-        return getSummonerSpellListDro(data, version, locale, dataById).getSpells();
+        return await(getSummonerSpellsAsync(data, version, locale, dataById));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummonerSpells(SpellData, String, String, boolean)}
+     */
+    public CompletableFuture<Collection<SummonerSpell>> getSummonerSpellsAsync(SpellData data, String version, String locale, boolean dataById) {
+        return map(getSummonerSpellListDroAsync(data, version, locale, dataById), SummonerSpellList::getSpells);
     }
 
     /**
@@ -894,8 +1371,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2167>Official API documentation</a>
      */
     public SummonerSpell getSummonerSpell(int id) {
-        WebTarget tgt = staticDataTarget.path("summoner-spell/" + id);
-        return gson.fromJson($(tgt), SummonerSpell.class);
+        return await(getSummonerSpellAsync(id));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummonerSpell(int)}
+     */
+    public CompletableFuture<SummonerSpell> getSummonerSpellAsync(int id) {
+        WebTarget tgt = staticDataTarget.path("summoner-spell/" + id);
+        return fetch(tgt, SummonerSpell.class);
     }
 
     /**
@@ -910,8 +1394,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2167>Official API documentation</a>
      */
     public SummonerSpell getSummonerSpell(int id, SpellData data) {
+        return await(getSummonerSpellAsync(id, data));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummonerSpell(int, SpellData)}
+     */
+    public CompletableFuture<SummonerSpell> getSummonerSpellAsync(int id, SpellData data) {
         WebTarget tgt = staticDataTarget.path("summoner-spell/" + id).queryParam("spellData", data.name);
-        return gson.fromJson($(tgt), SummonerSpell.class);
+        return fetch(tgt, SummonerSpell.class);
     }
 
     /**
@@ -928,11 +1419,18 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2167>Official API documentation</a>
      */
     public SummonerSpell getSummonerSpell(int id, SpellData data, String version, String locale) {
+        return await(getSummonerSpellAsync(id, data, version, locale));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummonerSpell(int, SpellData, String, String)}
+     */
+    public CompletableFuture<SummonerSpell> getSummonerSpellAsync(int id, SpellData data, String version, String locale) {
         WebTarget tgt = staticDataTarget.path("summoner-spell/" + id)
                 .queryParam("spellData", data.name)
                 .queryParam("version", version)
                 .queryParam("locale", locale);
-        return gson.fromJson($(tgt), SummonerSpell.class);
+        return fetch(tgt, SummonerSpell.class);
     }
 
     /**
@@ -945,10 +1443,24 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/710/2527>Official API documentation</a>
      */
     public List<String> getVersions() {
+        return await(getVersionsAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getVersions()}
+     */
+    public CompletableFuture<List<String>> getVersionsAsync() {
         Type type = new TypeToken<List<String>>() {
         }.getType();
         WebTarget tgt = staticDataTarget.path("versions");
-        return gson.fromJson($(tgt), type);
+        return map(this.<List<String>>fetch(tgt, type), versions -> {
+            StaticDataCache staticDataCache = this.staticDataCache;
+            if (staticDataCache != null && !versions.isEmpty()) {
+                staticDataCache.updateVersion(region, versions.get(0));
+            }
+
+            return versions;
+        });
     }
 
     /**
@@ -961,8 +1473,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href="https://developer.riotgames.com/api/methods#!/931">The official api documentation</a>
      */
     public MapDataOverview getMaps() {
+        return await(getMapsAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMaps()}
+     */
+    public CompletableFuture<MapDataOverview> getMapsAsync() {
         WebTarget tgt = staticDataTarget.path("map");
-        return gson.fromJson($(tgt), MapDataOverview.class);
+        return fetch(tgt, MapDataOverview.class);
     }
 
     /**
@@ -978,8 +1497,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href="https://developer.riotgames.com/api/methods#!/931">The official api documentation</a>
      */
     public MapDataOverview getMaps(String version, String locale) {
+        return await(getMapsAsync(version, locale));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMaps(String, String)}
+     */
+    public CompletableFuture<MapDataOverview> getMapsAsync(String version, String locale) {
         WebTarget tgt = staticDataTarget.path("map").queryParam("version", version).queryParam("locale", locale);
-        return gson.fromJson($(tgt), MapDataOverview.class);
+        return fetch(tgt, MapDataOverview.class);
     }
 
     /**
@@ -992,10 +1518,17 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href="https://developer.riotgames.com/api/methods#!/931/3226">The official api documentation</a>
      */
     public List<String> getLocales() {
+        return await(getLocalesAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getLocales()}
+     */
+    public CompletableFuture<List<String>> getLocalesAsync() {
         Type type = new TypeToken<List<String>>() {
         }.getType();
         WebTarget tgt = staticDataTarget.path("languages");
-        return gson.fromJson($(tgt), type);
+        return fetch(tgt, type);
     }
 
     /**
@@ -1008,8 +1541,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href="https://developer.riotgames.com/api/methods#!/931/3226">The official api documentation</a>
      */
     public LocalizedMessages getLocalizedMessages() {
+        return await(getLocalizedMessagesAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getLocalizedMessages()}
+     */
+    public CompletableFuture<LocalizedMessages> getLocalizedMessagesAsync() {
         WebTarget tgt = staticDataTarget.path("language-strings");
-        return gson.fromJson($(tgt), LocalizedMessages.class);
+        return fetch(tgt, LocalizedMessages.class);
     }
 
     /**
@@ -1025,8 +1565,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href="https://developer.riotgames.com/api/methods#!/931/3226">The official api documentation</a>
      */
     public LocalizedMessages getLocalizedMessages(String version, String locale) {
+        return await(getLocalizedMessagesAsync(version, locale));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getLocalizedMessages(String, String)}
+     */
+    public CompletableFuture<LocalizedMessages> getLocalizedMessagesAsync(String version, String locale) {
         WebTarget tgt = staticDataTarget.path("language-strings").queryParam("version", version).queryParam("locale", locale);
-        return gson.fromJson($(tgt), LocalizedMessages.class);
+        return fetch(tgt, LocalizedMessages.class);
     }
 
     // </editor-fold>
@@ -1042,9 +1589,16 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href="https://developer.riotgames.com/api/methods#!/835/2939">Official API Documentation</a>
      */
     public List<ShardData> getShards() {
+        return await(getShardsAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #getShards()}
+     */
+    public CompletableFuture<List<ShardData>> getShardsAsync() {
         Type type = new TypeToken<ArrayList<ShardData>>(){}.getType();
 
-        return gson.fromJson($(statusTarget), type);
+        return fetch(statusTarget, type);
     }
 
     /**
@@ -1057,9 +1611,16 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href="https://developer.riotgames.com/api/methods#!/835/2938">Official API Documentation</a>
      */
     public ShardStatus getShardStatus(Shard shard) {
+        return await(getShardStatusAsync(shard));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getShardStatus(Shard)}
+     */
+    public CompletableFuture<ShardStatus> getShardStatusAsync(Shard shard) {
         WebTarget tgt = statusTarget.path(shard.slug);
 
-        return gson.fromJson($(tgt), ShardStatus.class);
+        return fetch(tgt, ShardStatus.class);
     }
     // </editor-fold>
 
@@ -1074,7 +1635,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href="https://developer.riotgames.com/api/methods#!/806/2848">Official API Documentation</a>
      */
     public MatchDetail getMatch(long matchId) {
-        return getMatch(matchId, true);
+        return await(getMatchAsync(matchId));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMatch(long)}
+     */
+    public CompletableFuture<MatchDetail> getMatchAsync(long matchId) {
+        return getMatchAsync(matchId, true);
     }
 
     /**
@@ -1086,8 +1654,57 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href="https://developer.riotgames.com/api/methods#!/806/2848">Official API Documentation</a>
      */
     public MatchDetail getMatch(long matchId, boolean includeTimeline) {
+        return await(getMatchAsync(matchId, includeTimeline));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMatch(long, boolean)}
+     */
+    public CompletableFuture<MatchDetail> getMatchAsync(long matchId, boolean includeTimeline) {
         WebTarget tgt = matchInfoTarget.path("" + matchId).queryParam("includeTimeline", includeTimeline);
-        return gson.fromJson($(tgt), MatchDetail.class);
+        return fetch(tgt, MatchDetail.class);
+    }
+
+    /**
+     * Open the timeline of a match for reading it one event or participant frame at a time, while the response
+     * is still arriving. The caller must close the returned reader.
+     *
+     * @param matchId The id of the match.
+     * @return A reader for the match timeline.
+     */
+    public MatchTimelineReader openTimeline(long matchId) {
+        return await(openTimelineAsync(matchId));
+    }
+
+    /**
+     * Asynchronous variant of {@link #openTimeline(long)}
+     */
+    public CompletableFuture<MatchTimelineReader> openTimelineAsync(long matchId) {
+        WebTarget tgt = matchInfoTarget.path("" + matchId).queryParam("includeTimeline", true);
+        CompletableFuture<TransportResponse> response = execute(jsonRequest(tgt));
+        return Util.propagateCancellation(response.thenApplyAsync(r -> new MatchTimelineReader($(r), gson), executor), response);
+    }
+
+    /**
+     * Stream the timeline of a match to a visitor, without building the whole match detail. Memory use stays
+     * constant regardless of the length of the match.
+     *
+     * @param matchId The id of the match.
+     * @param visitor The visitor receiving frames, participant frames and events.
+     */
+    public void visitTimeline(long matchId, TimelineVisitor visitor) {
+        await(visitTimelineAsync(matchId, visitor));
+    }
+
+    /**
+     * Asynchronous variant of {@link #visitTimeline(long, TimelineVisitor)}
+     */
+    public CompletableFuture<Void> visitTimelineAsync(long matchId, TimelineVisitor visitor) {
+        return openTimelineAsync(matchId).thenAcceptAsync(reader -> {
+            try (MatchTimelineReader timeline = reader) {
+                timeline.accept(visitor);
+            }
+        }, executor);
     }
     // </editor-fold>
 
@@ -1101,8 +1718,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href="https://developer.riotgames.com/api/methods#!/805/2847">Official API Documentation</a>
      */
     public List<MatchSummary> getMatchHistory(long playerId) {
+        return await(getMatchHistoryAsync(playerId));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMatchHistory(long)}
+     */
+    public CompletableFuture<List<MatchSummary>> getMatchHistoryAsync(long playerId) {
         WebTarget tgt = matchHistoryInfoTarget.path("" + playerId);
-        return gson.fromJson($(tgt), PlayerHistory.class).matches;
+        return map(fetch(tgt, PlayerHistory.class), dto -> dto.matches);
     }
 
     /**
@@ -1114,8 +1738,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href="https://developer.riotgames.com/api/methods#!/805/2847">Official API Documentation</a>
      */
     public List<MatchSummary> getMatchHistory(long playerId, String... championIds) {
+        return await(getMatchHistoryAsync(playerId, championIds));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMatchHistory(long, String...)}
+     */
+    public CompletableFuture<List<MatchSummary>> getMatchHistoryAsync(long playerId, String... championIds) {
         WebTarget tgt = matchHistoryInfoTarget.path("" + playerId).queryParam("championIds", concat(championIds));
-        return gson.fromJson($(tgt), PlayerHistory.class).matches;
+        return map(fetch(tgt, PlayerHistory.class), dto -> dto.matches);
     }
 
 
@@ -1130,13 +1761,20 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href="https://developer.riotgames.com/api/methods#!/805/2847">Official API Documentation</a>
      */
     public List<MatchSummary> getMatchHistory(long playerId, String[] championIds, QueueType... queueTypes) {
+        return await(getMatchHistoryAsync(playerId, championIds, queueTypes));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMatchHistory(long, String[], QueueType...)}
+     */
+    public CompletableFuture<List<MatchSummary>> getMatchHistoryAsync(long playerId, String[] championIds, QueueType... queueTypes) {
         String rankedQueues = concatRankedQueues(queueTypes);
 
         WebTarget tgt = matchHistoryInfoTarget.path("" + playerId)
                 .queryParam("championIds", concat(championIds))
                 .queryParam("rankedQueues", rankedQueues);
 
-        return gson.fromJson($(tgt), PlayerHistory.class).matches;
+        return map(fetch(tgt, PlayerHistory.class), dto -> dto.matches);
     }
 
 
@@ -1154,6 +1792,13 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href="https://developer.riotgames.com/api/methods#!/805/2847">Official API Documentation</a>
      */
     public List<MatchSummary> getMatchHistory(long playerId, String[] championIds, QueueType[] queueTypes, int beginIndex, int endIndex) {
+        return await(getMatchHistoryAsync(playerId, championIds, queueTypes, beginIndex, endIndex));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMatchHistory(long, String[], QueueType[], int, int)}
+     */
+    public CompletableFuture<List<MatchSummary>> getMatchHistoryAsync(long playerId, String[] championIds, QueueType[] queueTypes, int beginIndex, int endIndex) {
         String rankedQueues = concatRankedQueues(queueTypes);
 
         WebTarget tgt = matchHistoryInfoTarget.path("" + playerId)
@@ -1162,7 +1807,56 @@ public class ApiHandler implements LoLRestApi {
                 .queryParam("beginIndex", beginIndex)
                 .queryParam("endIndex", endIndex);
 
-        return gson.fromJson($(tgt), PlayerHistory.class).matches;
+        return map(fetch(tgt, PlayerHistory.class), dto -> dto.matches);
+    }
+
+    /**
+     * Lazily walk a player's match history. Pages are only requested once the stream
+     * reaches them, so e.g. taking the last 15 ranked games only requests one page.
+     *
+     * @param playerId    The id of the player.
+     * @param championIds The championIds to use for retrieval.
+     * @param queueTypes  The queue types to retrieve (must be one of RANKED_SOLO_5x5, RANKED_TEAM_3x3 or
+     *                    RANKED_TEAM_5x5).
+     * @return The match history of the player.
+     */
+    public Stream<MatchSummary> streamMatchHistory(long playerId, String[] championIds, QueueType... queueTypes) {
+        return streamMatchHistory(playerId, championIds, queueTypes, 0, MatchHistoryPager.MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Lazily walk a player's match history, as {@link #streamMatchHistory(long, String[], QueueType...)}.
+     *
+     * @param playerId    The id of the player.
+     * @param championIds The championIds to use for retrieval.
+     * @param queueTypes  The queue types to retrieve (must be one of RANKED_SOLO_5x5, RANKED_TEAM_3x3 or
+     *                    RANKED_TEAM_5x5).
+     * @param beginIndex  The index of the first game that should be retrieved.
+     * @param pageSize    The number of games to request at once (at most 15).
+     * @return The match history of the player.
+     */
+    public Stream<MatchSummary> streamMatchHistory(long playerId, String[] championIds, QueueType[] queueTypes, int beginIndex, int pageSize) {
+        return streamMatchHistory(playerId, championIds, queueTypes, beginIndex, pageSize, false);
+    }
+
+    /**
+     * Lazily walk a player's match history, as {@link #streamMatchHistory(long, String[], QueueType...)}. With
+     * prefetching, the next page is requested once the stream is past the middle of the current one, which hides
+     * its latency, but may spend a request on a page that is never read. Close the stream to cancel that page
+     * when stopping early.
+     *
+     * @param playerId    The id of the player.
+     * @param championIds The championIds to use for retrieval.
+     * @param queueTypes  The queue types to retrieve (must be one of RANKED_SOLO_5x5, RANKED_TEAM_3x3 or
+     *                    RANKED_TEAM_5x5).
+     * @param beginIndex  The index of the first game that should be retrieved.
+     * @param pageSize    The number of games to request at once (at most 15).
+     * @param prefetch    Whether to request the next page before the stream reaches it.
+     * @return The match history of the player.
+     */
+    public Stream<MatchSummary> streamMatchHistory(long playerId, String[] championIds, QueueType[] queueTypes, int beginIndex, int pageSize, boolean prefetch) {
+        concatRankedQueues(queueTypes); // Fail before the first page is requested
+        return MatchHistoryPager.stream((begin, end) -> getMatchHistoryAsync(playerId, championIds, queueTypes, begin, end), beginIndex, pageSize, prefetch);
     }
 
     private String concatRankedQueues(QueueType[] types) {
@@ -1197,8 +1891,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/622/1937>Official API documentation</a>
      */
     public RankedStats getRankedStats(long summoner) {
+        return await(getRankedStatsAsync(summoner));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getRankedStats(long)}
+     */
+    public CompletableFuture<RankedStats> getRankedStatsAsync(long summoner) {
         WebTarget tgt = statsTarget.path(summoner + "/ranked");
-        return gson.fromJson($(tgt), RankedStats.class);
+        return fetch(tgt, RankedStats.class);
     }
 
     /**
@@ -1210,8 +1911,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/622/1937>Official API documentation</a>
      */
     public RankedStats getRankedStats(long summoner, Season season) {
+        return await(getRankedStatsAsync(summoner, season));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getRankedStats(long, Season)}
+     */
+    public CompletableFuture<RankedStats> getRankedStatsAsync(long summoner, Season season) {
         WebTarget tgt = statsTarget.path(summoner + "/ranked").queryParam("season", season);
-        return gson.fromJson($(tgt), RankedStats.class);
+        return fetch(tgt, RankedStats.class);
     }
 
     /**
@@ -1222,8 +1930,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/622/1938>Official API documentation</a>
      */
     public List<PlayerStats> getStatsSummary(long summoner) {
+        return await(getStatsSummaryAsync(summoner));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getStatsSummary(long)}
+     */
+    public CompletableFuture<List<PlayerStats>> getStatsSummaryAsync(long summoner) {
         WebTarget tgt = statsTarget.path(summoner + "/summary");
-        return gson.fromJson($(tgt), PlayerStatsSummaryListDto.class).playerStatSummaries;
+        return map(fetch(tgt, PlayerStatsSummaryListDto.class), dto -> dto.playerStatSummaries);
     }
 
     /**
@@ -1235,8 +1950,15 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/622/1938>Official API documentation</a>
      */
     public List<PlayerStats> getStatsSummary(long summoner, Season season) {
+        return await(getStatsSummaryAsync(summoner, season));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getStatsSummary(long, Season)}
+     */
+    public CompletableFuture<List<PlayerStats>> getStatsSummaryAsync(long summoner, Season season) {
         WebTarget tgt = statsTarget.path(summoner + "/summary").queryParam("season", season);
-        return gson.fromJson($(tgt), PlayerStatsSummaryListDto.class).playerStatSummaries;
+        return map(fetch(tgt, PlayerStatsSummaryListDto.class), dto -> dto.playerStatSummaries);
     }
 
     // </editor-fold>
@@ -1252,10 +1974,17 @@ public class ApiHandler implements LoLRestApi {
      * @see net.boreeas.riotapi.Util#standardizeSummonerName(java.lang.String)
      */
     public Map<String, Summoner> getSummoners(String... names) {
+        return await(getSummonersAsync(names));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummoners(String...)}
+     */
+    public CompletableFuture<Map<String, Summoner>> getSummonersAsync(String... names) {
         Type type = new TypeToken<Map<String, Summoner>>() {
         }.getType();
         WebTarget tgt = summonerInfoTarget.path("by-name").path(String.join(",", names));
-        return gson.fromJson($(tgt), type);
+        return fetch(tgt, type);
     }
 
     /**
@@ -1266,7 +1995,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1930>Official API documentation</a>
      */
     public Summoner getSummoner(String name) {
-        return getSummoners(name).get(Util.standardizeSummonerName(name));
+        return await(getSummonerAsync(name));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummoner(String)}
+     */
+    public CompletableFuture<Summoner> getSummonerAsync(String name) {
+        return map(getSummonersAsync(name), result -> result.get(Util.standardizeSummonerName(name)));
     }
 
     /**
@@ -1277,15 +2013,22 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1931>Official API documentation</a>
      */
     public Map<Integer, Summoner> getSummoners(Integer... ids) {
+        return await(getSummonersAsync(ids));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummoners(Integer...)}
+     */
+    public CompletableFuture<Map<Integer, Summoner>> getSummonersAsync(Integer... ids) {
         Type type = new TypeToken<Map<String, Summoner>>() {
         }.getType();
         WebTarget tgt = summonerInfoTarget.path(Arrays.asList(ids).toString().replaceAll("[\\[\\] ]", ""));
 
-        Map<String, Summoner> result = gson.fromJson($(tgt), type);
-        Map<Integer, Summoner> asIntMap = new HashMap<>();
-        result.forEach((id, summoner) -> asIntMap.put(Integer.parseInt(id), summoner));
-
-        return asIntMap;
+        return map(this.<Map<String, Summoner>>fetch(tgt, type), result -> {
+            Map<Integer, Summoner> asIntMap = new HashMap<>();
+            result.forEach((id, summoner) -> asIntMap.put(Integer.parseInt(id), summoner));
+            return asIntMap;
+        });
     }
 
     /**
@@ -1296,7 +2039,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1931>Official API documentation</a>
      */
     public Summoner getSummoner(int id) {
-        return getSummoners(id).get(id);
+        return await(getSummonerAsync(id));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummoner(int)}
+     */
+    public CompletableFuture<Summoner> getSummonerAsync(int id) {
+        return map(getSummonersAsync(id), result -> result.get(id));
     }
 
     /**
@@ -1307,16 +2057,23 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1933>Official API documentation</a>
      */
     public Map<Integer, Set<MasteryPage>> getMasteryPagesMultipleUsers(Integer... ids) {
+        return await(getMasteryPagesMultipleUsersAsync(ids));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMasteryPagesMultipleUsers(Integer...)}
+     */
+    public CompletableFuture<Map<Integer, Set<MasteryPage>>> getMasteryPagesMultipleUsersAsync(Integer... ids) {
         Type type = new TypeToken<Map<String, MasteryPagesDto>>() {
         }.getType();
         String idString = Arrays.asList(ids).toString().replaceAll("[\\[\\] ]", "");
         WebTarget tgt = summonerInfoTarget.path(idString).path("masteries");
 
-        Map<String, MasteryPagesDto> tmpResult = gson.fromJson($(tgt), type);
-        Map<Integer, Set<MasteryPage>> result = new HashMap<>();
-        tmpResult.forEach((id, masteryPagesDto) -> result.put(Integer.parseInt(id), masteryPagesDto.pages));
-
-        return result;
+        return map(this.<Map<String, MasteryPagesDto>>fetch(tgt, type), tmpResult -> {
+            Map<Integer, Set<MasteryPage>> result = new HashMap<>();
+            tmpResult.forEach((id, masteryPagesDto) -> result.put(Integer.parseInt(id), masteryPagesDto.pages));
+            return result;
+        });
     }
 
     /**
@@ -1327,7 +2084,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1933>Official API documentation</a>
      */
     public Set<MasteryPage> getMasteryPages(int id) {
-        return getMasteryPagesMultipleUsers(id).get(id);
+        return await(getMasteryPagesAsync(id));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getMasteryPages(int)}
+     */
+    public CompletableFuture<Set<MasteryPage>> getMasteryPagesAsync(int id) {
+        return map(getMasteryPagesMultipleUsersAsync(id), result -> result.get(id));
     }
 
     /**
@@ -1338,16 +2102,23 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1934>Official API documentation</a>
      */
     public Map<Integer, String> getSummonerNames(Integer... ids) {
+        return await(getSummonerNamesAsync(ids));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummonerNames(Integer...)}
+     */
+    public CompletableFuture<Map<Integer, String>> getSummonerNamesAsync(Integer... ids) {
         Type type = new TypeToken<Map<String, String>>() {
         }.getType();
         String idString = Arrays.asList(ids).toString().replaceAll("[\\[\\] ]", "");
         WebTarget tgt = summonerInfoTarget.path(idString).path("name");
 
-        Map<String, String> tmpResult = gson.fromJson($(tgt), type);
-        Map<Integer, String> result = new HashMap<>();
-        tmpResult.forEach((id, name) -> result.put(Integer.parseInt(id), name));
-
-        return result;
+        return map(this.<Map<String, String>>fetch(tgt, type), tmpResult -> {
+            Map<Integer, String> result = new HashMap<>();
+            tmpResult.forEach((id, name) -> result.put(Integer.parseInt(id), name));
+            return result;
+        });
     }
 
     /**
@@ -1358,7 +2129,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1934>Official API documentation</a>
      */
     public String getSummonerName(int id) {
-        return getSummonerNames(id).get(id);
+        return await(getSummonerNameAsync(id));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummonerName(int)}
+     */
+    public CompletableFuture<String> getSummonerNameAsync(int id) {
+        return map(getSummonerNamesAsync(id), result -> result.get(id));
     }
 
     /**
@@ -1369,15 +2147,22 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1932>Official API documentation</a>
      */
     public Map<Integer, Set<RunePage>> getRunePagesMultipleUsers(int... ids) {
+        return await(getRunePagesMultipleUsersAsync(ids));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getRunePagesMultipleUsers(int...)}
+     */
+    public CompletableFuture<Map<Integer, Set<RunePage>>> getRunePagesMultipleUsersAsync(int... ids) {
         Type type = new TypeToken<Map<String, RunePagesDto>>() {
         }.getType();
         WebTarget tgt = summonerInfoTarget.path(concat(ids)).path("runes");
 
-        Map<String, RunePagesDto> tmpResult = gson.fromJson($(tgt), type);
-        Map<Integer, Set<RunePage>> result = new HashMap<>();
-        tmpResult.forEach((id, runePagesDto) -> result.put(Integer.parseInt(id), runePagesDto.pages));
-
-        return result;
+        return map(this.<Map<String, RunePagesDto>>fetch(tgt, type), tmpResult -> {
+            Map<Integer, Set<RunePage>> result = new HashMap<>();
+            tmpResult.forEach((id, runePagesDto) -> result.put(Integer.parseInt(id), runePagesDto.pages));
+            return result;
+        });
     }
 
     /**
@@ -1388,7 +2173,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1932>Official API documentation</a>
      */
     public Set<RunePage> getRunePages(int id) {
-        return getRunePagesMultipleUsers(id).get(id);
+        return await(getRunePagesAsync(id));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getRunePages(int)}
+     */
+    public CompletableFuture<Set<RunePage>> getRunePagesAsync(int id) {
+        return map(getRunePagesMultipleUsersAsync(id), result -> result.get(id));
     }
 
     // </editor-fold>
@@ -1403,7 +2195,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/594/1865>Official API documentation</a>
      */
     public List<RankedTeam> getTeamsBySummoner(long id) {
-        return getTeamsBySummoners(id).get(id);
+        return await(getTeamsBySummonerAsync(id));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getTeamsBySummoner(long)}
+     */
+    public CompletableFuture<List<RankedTeam>> getTeamsBySummonerAsync(long id) {
+        return map(getTeamsBySummonersAsync(id), result -> result.get(id));
     }
 
     /**
@@ -1414,10 +2213,17 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/594/1865>Official API documentation</a>
      */
     public Map<Long, List<RankedTeam>> getTeamsBySummoners(long... ids) {
+        return await(getTeamsBySummonersAsync(ids));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getTeamsBySummoners(long...)}
+     */
+    public CompletableFuture<Map<Long, List<RankedTeam>>> getTeamsBySummonersAsync(long... ids) {
         Type type = new TypeToken<Map<Long, List<RankedTeam>>>() {
         }.getType();
         WebTarget tgt = teamInfoTarget.path("by-summoner/" + concat(ids));
-        return gson.fromJson($(tgt), type);
+        return fetch(tgt, type);
     }
 
     /**
@@ -1428,7 +2234,14 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/594/1866>Official API documentation</a>
      */
     public RankedTeam getTeam(String teamId) {
-        return getTeams(teamId).get(teamId);
+        return await(getTeamAsync(teamId));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getTeam(String)}
+     */
+    public CompletableFuture<RankedTeam> getTeamAsync(String teamId) {
+        return map(getTeamsAsync(teamId), result -> result.get(teamId));
     }
 
     /**
@@ -1439,11 +2252,18 @@ public class ApiHandler implements LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/594/1866>Official API documentation</a>
      */
     public Map<String, RankedTeam> getTeams(String... teamIds) {
+        return await(getTeamsAsync(teamIds));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getTeams(String...)}
+     */
+    public CompletableFuture<Map<String, RankedTeam>> getTeamsAsync(String... teamIds) {
         Type type = new TypeToken<Map<String, RankedTeam>>() {
         }.getType();
         WebTarget tgt = teamInfoTarget.path(String.join(",", teamIds));
 
-        return gson.fromJson($(tgt), type);
+        return fetch(tgt, type);
     }
 
     // </editor-fold>
@@ -1458,7 +2278,14 @@ public class ApiHandler implements LoLRestApi {
      * @return Their respective ids
      */
     public List<Long> getSummonerIds(String... names) {
-        return getSummoners(names).values().stream().<Long>map(Summoner::getId).collect(Collectors.toList());
+        return await(getSummonerIdsAsync(names));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummonerIds(String...)}
+     */
+    public CompletableFuture<List<Long>> getSummonerIdsAsync(String... names) {
+        return map(getSummonersAsync(names), result -> result.values().stream().<Long>map(Summoner::getId).collect(Collectors.toList()));
     }
 
     /**
@@ -1469,7 +2296,33 @@ public class ApiHandler implements LoLRestApi {
      * @return Their respective ids
      */
     public long getSummonerId(String name) {
-        return getSummoner(name).getId();
+        return await(getSummonerIdAsync(name));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSummonerId(String)}
+     */
+    public CompletableFuture<Long> getSummonerIdAsync(String name) {
+        return map(getSummonerAsync(name), Summoner::getId);
+    }
+
+    /**
+     * Resolve any number of summoner names to ids. The names are standardized and deduplicated, and sent in as
+     * few requests as possible. Names that were resolved before are answered without a request.
+     *
+     * @param names The names of the users
+     * @return A map from standardized names to ids. Names without a summoner are left out.
+     * @see SummonerIdResolver
+     */
+    public Map<String, Long> resolveSummonerIds(Collection<String> names) {
+        return await(resolveSummonerIdsAsync(names));
+    }
+
+    /**
+     * Asynchronous variant of {@link #resolveSummonerIds(Collection)}
+     */
+    public CompletableFuture<Map<String, Long>> resolveSummonerIdsAsync(Collection<String> names) {
+        return summonerIdResolver.resolve(names);
     }
 
     // </editor-fold>
@@ -1487,8 +2340,15 @@ public class ApiHandler implements LoLRestApi {
 
         @Override
         public CurrentGameInfo getCurrentGameInfo(long summoner) {
+            return await(getCurrentGameInfoAsync(summoner));
+        }
+
+        /**
+         * Asynchronous variant of {@link #getCurrentGameInfo(long)}
+         */
+        public CompletableFuture<CurrentGameInfo> getCurrentGameInfoAsync(long summoner) {
             WebTarget tgt = target.path("getSpectatorGameInfo");
-            return gson.fromJson($(tgt), CurrentGameInfo.class);
+            return fetch(tgt, CurrentGameInfo.class);
         }
 
         @Override
@@ -1508,7 +2368,14 @@ public class ApiHandler implements LoLRestApi {
 
         @Override
         public FeaturedGames getFeaturedGames() {
-            return gson.fromJson($(tgt), FeaturedGames.class);
+            return await(getFeaturedGamesAsync());
+        }
+
+        /**
+         * Asynchronous variant of {@link #getFeaturedGames()}
+         */
+        public CompletableFuture<FeaturedGames> getFeaturedGamesAsync() {
+            return fetch(tgt, FeaturedGames.class);
         }
 
         @Override
@@ -1522,27 +2389,191 @@ public class ApiHandler implements LoLRestApi {
 
 
     /**
-     * Open the request to the web target and returns an InputStreamReader for the message body
+     * Send a GET request to the web target through the transport, and parse the response on the executor
      *
      * @param target the web target to access
+     * @param type the type of the response object
+     * @return a future for the parsed response
+     */
+    private <T> CompletableFuture<T> fetch(WebTarget target, Type type) {
+        StaticDataCache staticDataCache = this.staticDataCache;
+        if (staticDataCache != null && isCacheableStaticData(target.getUri())) {
+            return staticDataCache.get(region, target.getUri(), type,
+                    () -> getVersionsAsync().thenApply(versions -> versions.get(0)),
+                    () -> download(target),
+                    bytes -> this.<T>parse(bytes, type, target),
+                    executor);
+        }
+
+        ResponseCache responseCache = this.responseCache;
+        if (responseCache != null && responseCache.isCached(target.getUri())) {
+            return responseCache.get(target.getUri(), type, () -> download(target), bytes -> this.<T>parse(bytes, type, target), executor);
+        }
+
+        SingleFlight singleFlight = this.singleFlight;
+        if (singleFlight == null) {
+            return send(target, type);
+        }
+
+        return singleFlight.execute(Arrays.asList(target.getUri(), type), () -> send(target, type));
+    }
+
+    private <T> CompletableFuture<T> send(WebTarget target, Type type) {
+        CompletableFuture<TransportResponse> response = execute(jsonRequest(target));
+        return Util.propagateCancellation(response.thenApplyAsync(r -> this.<T>parse(r, type, target), executor), response);
+    }
+
+    /**
+     * Send a request through the transport, and record its status, or the failure, if metrics are enabled
+     */
+    private CompletableFuture<TransportResponse> execute(TransportRequest request) {
+        ApiMetrics metrics = this.metrics;
+        if (metrics == null) {
+            return transport.execute(request);
+        }
+
+        Endpoint endpoint = Endpoint.of(request.getUri());
+        boolean timeTransport = this.timeTransport;
+        long start = System.nanoTime();
+        CompletableFuture<TransportResponse> response = transport.execute(request);
+        response.whenComplete((r, ex) -> {
+            if (r != null) {
+                if (timeTransport) {
+                    metrics.record(endpoint, Phase.HTTP, System.nanoTime() - start);
+                }
+                metrics.recordResponse(endpoint, r.getStatus());
+            } else if (!response.isCancelled()) {
+                metrics.recordFailure(endpoint);
+            }
+        });
+
+        return response;
+    }
+
+    /**
+     * Transform the result of a request, such that cancelling the result also cancels the request
+     */
+    private static <T, U> CompletableFuture<U> map(CompletableFuture<T> future, Function<? super T, ? extends U> fn) {
+        return Util.propagateCancellation(future.thenApply(fn), future);
+    }
+
+    private <T> CompletableFuture<T> fetch(WebTarget target, Class<T> type) {
+        return fetch(target, (Type) type);
+    }
+
+    /**
+     * Send a GET request to the web target through the transport, and read the uncompressed response body
+     */
+    private CompletableFuture<byte[]> download(WebTarget target) {
+        CompletableFuture<TransportResponse> response = execute(jsonRequest(target));
+        return Util.propagateCancellation(response.thenApplyAsync(r -> readBody(r, target), executor), response);
+    }
+
+    private TransportRequest jsonRequest(WebTarget target) {
+        return TransportRequest.get(target, MediaType.APPLICATION_JSON_TYPE).withAcceptEncoding("gzip");
+    }
+
+    private boolean isCacheableStaticData(URI uri) {
+        // The versions decide whether cached static data is still valid, so they must never be cached themselves
+        return Endpoint.of(uri) == Endpoint.STATIC_DATA && !uri.getPath().endsWith("/versions");
+    }
+
+    /**
+     * Parse the response body, and record the time spent decompressing and parsing it if metrics are enabled
+     */
+    @SneakyThrows(IOException.class)
+    private <T> T parse(TransportResponse response, Type type, WebTarget target) {
+        ApiMetrics metrics = this.metrics;
+        if (metrics == null) {
+            try (InputStream in = body(response)) {
+                return decoder.decode(in, type);
+            }
+        }
+
+        long start = System.nanoTime();
+        try (TimedInputStream in = new TimedInputStream(body(response))) {
+            T result = decoder.decode(in, type);
+            recordDecoding(metrics, Endpoint.of(target.getUri()), response, in.getNanos(), System.nanoTime() - start);
+            return result;
+        }
+    }
+
+    @SneakyThrows(IOException.class)
+    private <T> T parse(byte[] body, Type type, WebTarget target) {
+        ApiMetrics metrics = this.metrics;
+        long start = System.nanoTime();
+        T result = decoder.<T>decode(body, type);
+        if (metrics != null) {
+            metrics.record(Endpoint.of(target.getUri()), Phase.PARSE, System.nanoTime() - start);
+        }
+
+        return result;
+    }
+
+    @SneakyThrows(IOException.class)
+    private byte[] readBody(TransportResponse response, WebTarget target) {
+        ApiMetrics metrics = this.metrics;
+        long start = System.nanoTime();
+        try (TimedInputStream in = new TimedInputStream(body(response))) {
+            byte[] body = BufferPool.getDefault().readFully(in);
+            if (metrics != null) {
+                recordDecoding(metrics, Endpoint.of(target.getUri()), response, in.getNanos(), System.nanoTime() - start);
+            }
+            return body;
+        }
+    }
+
+    /**
+     * Split the time spent decoding a response into the time spent reading a compressed body, and the remainder
+     *
+     * @param readNanos the time spent reading the body
+     * @param totalNanos the time spent reading and parsing the body
+     */
+    private void recordDecoding(ApiMetrics metrics, Endpoint endpoint, TransportResponse response, long readNanos, long totalNanos) {
+        if (response.isGzipped()) {
+            metrics.record(endpoint, Phase.INFLATE, readNanos);
+            metrics.record(endpoint, Phase.PARSE, totalNanos - readNanos);
+        } else {
+            metrics.record(endpoint, Phase.PARSE, totalNanos);
+        }
+    }
+
+    /**
+     * Check the response status and return an InputStreamReader for the UTF-8 encoded message body
+     *
+     * @param response the response to read
      * @return the reader for the message body
      */
+    private InputStreamReader $(TransportResponse response) {
+        return new InputStreamReader(body(response), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Check the response status and return the uncompressed message body
+     *
+     * @param response the response to read
+     * @return the message body
+     */
     @SneakyThrows(IOException.class)
-    private InputStreamReader $(WebTarget target) {
+    private InputStream body(TransportResponse response) {
 
-        Response response = target.request().accept(MediaType.APPLICATION_JSON_TYPE).acceptEncoding("gzip").get();
         if (response.getStatus() != 200) {
+            response.close();
             throw new RequestException(response.getStatus(), RequestException.ErrorType.getByCode(response.getStatus()));
         }
 
-        String encoding = response.getHeaderString("Content-Encoding");
-        if (encoding != null && encoding.equals("gzip")) {
-            return new InputStreamReader(new GZIPInputStream((java.io.InputStream) response.getEntity()));
+        if (response.isGzipped()) {
+            // Inflate with a pooled inflater instead of allocating a native one per response
+            return BufferPool.getDefault().gunzip(response.getBody());
         } else {
-            return new InputStreamReader((java.io.InputStream) response.getEntity());
+            return response.getBody();
         }
     }
 
+    private static <T> T await(CompletableFuture<T> future) {
+        return Util.await(future);
+    }
+
     private String concat(long... values) {
         StringBuilder builder = new StringBuilder();
         boolean first = true;
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import lombok.Getter;
+import net.boreeas.riotapi.ratelimit.RateLimiter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * A set of api keys that share the requests of one {@link ThrottledApiHandler}. Each key has its own rate limiter,
+ * so the combined throughput is the sum of the keys' limits.
+ * </p>
+ * Every request is sent with the key that has the most permits left. A key that the server rejects is retired
+ * until the time the server asked for has passed, and its requests go to the other keys in the meantime.
+ */
+public class ApiKeyPool {
+
+    /**
+     * How long a key is retired after the server rejected it with 401
+     */
+    public static final long UNAUTHORIZED_RETIREMENT = TimeUnit.MINUTES.toNanos(1);
+
+    private final List<ApiKey> keys = new ArrayList<>();
+
+    /**
+     * Create a pool of keys that all have the same limits.
+     * @param tokens The api keys
+     * @param limits The limits of each key
+     * @return The pool
+     */
+    public static ApiKeyPool of(List<String> tokens, ThrottledApiHandler.Limit... limits) {
+        ApiKeyPool pool = new ApiKeyPool();
+        for (String token: tokens) {
+            pool.add(token, ThrottledApiHandler.Limit.toRateLimiter(limits));
+        }
+        return pool;
+    }
+
+    /**
+     * Add a key to the pool.
+     * @param token The api key
+     * @param limiter The limiter enforcing the key's limits
+     * @return This pool
+     */
+    public synchronized ApiKeyPool add(String token, RateLimiter limiter) {
+        keys.add(new ApiKey(token, limiter));
+        return this;
+    }
+
+    /**
+     * @return The keys in this pool
+     */
+    public synchronized List<ApiKey> getKeys() {
+        return Collections.unmodifiableList(new ArrayList<>(keys));
+    }
+
+    /**
+     * @return The number of keys in this pool
+     */
+    public synchronized int size() {
+        return keys.size();
+    }
+
+    /**
+     * Take a permit from the active key with the most permits left.
+     * @return The key, or <code>null</code> if no key has a permit available right now
+     */
+    synchronized ApiKey acquire() {
+        long now = System.nanoTime();
+        ApiKey best = null;
+        int bestPermits = 0;
+        for (ApiKey key: keys) {
+            if (!key.isRetired(now)) {
+                int permits = key.limiter.availablePermits();
+                if (permits > bestPermits) {
+                    best = key;
+                    bestPermits = permits;
+                }
+            }
+        }
+
+        if (best == null || !best.limiter.tryAcquire()) {
+            return null;
+        }
+
+        best.requests++;
+        return best;
+    }
+
+    /**
+     * @return The time in nanoseconds until a key will have a permit available
+     */
+    synchronized long nanosUntilAvailable() {
+        long now = System.nanoTime();
+        long wait = Long.MAX_VALUE;
+        for (ApiKey key: keys) {
+            wait = Math.min(wait, Math.max(key.retiredUntil - now, key.limiter.nanosUntilAvailable(1)));
+        }
+
+        return Math.max(0, wait);
+    }
+
+    /**
+     * @return The time in nanoseconds until the first retired key becomes active again, or 0 if a key is active
+     */
+    synchronized long nanosUntilActive() {
+        long now = System.nanoTime();
+        long wait = Long.MAX_VALUE;
+        for (ApiKey key: keys) {
+            wait = Math.min(wait, key.retiredUntil - now);
+        }
+
+        return Math.max(0, wait);
+    }
+
+    /**
+     * @return <code>true</code> if a key other than the specified one is active
+     */
+    synchronized boolean hasOtherActiveKey(ApiKey except) {
+        long now = System.nanoTime();
+        for (ApiKey key: keys) {
+            if (key != except && !key.isRetired(now)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Stop using a key for the specified time.
+     */
+    synchronized void retire(ApiKey key, long nanos) {
+        long until = System.nanoTime() + nanos;
+        if (until - key.retiredUntil > 0) {
+            key.retiredUntil = until;
+        }
+        key.rejections++;
+    }
+
+    /**
+     * An api key and its limits
+     */
+    public static class ApiKey {
+        @Getter private final String token;
+        @Getter private final RateLimiter limiter;
+        // Written while holding the pool's lock
+        private volatile long retiredUntil = System.nanoTime();
+        private volatile long requests;
+        private volatile long rejections;
+
+        private ApiKey(String token, RateLimiter limiter) {
+            this.token = token;
+            this.limiter = limiter;
+        }
+
+        private boolean isRetired(long now) {
+            return retiredUntil - now > 0;
+        }
+
+        /**
+         * @return <code>true</code> if the key is not used because the server rejected it
+         */
+        public boolean isRetired() {
+            return isRetired(System.nanoTime());
+        }
+
+        /**
+         * @return The number of requests that were sent with this key
+         */
+        public long getRequests() {
+            return requests;
+        }
+
+        /**
+         * @return The number of times the server rejected this key with 401 or 429
+         */
+        public long getRejections() {
+            return rejections;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import net.boreeas.riotapi.ratelimit.CompositeRateLimiter;
+import net.boreeas.riotapi.ratelimit.RateLimiter;
+import net.boreeas.riotapi.ratelimit.TokenBucket;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.DoubleSupplier;
+
+/**
+ * <p>
+ * Latency histograms, throughput and error counts per {@link Endpoint} and request {@link Phase}, plus named gauges
+ * such as the queue depth and the fill level of the rate limits.
+ * </p>
+ * Recording is lock-free, and histograms are only allocated for the endpoints and phases that are actually used.
+ * The metrics can be read with {@link #snapshot()}, or through JMX after {@link #register(String)}.
+ */
+public class ApiMetrics implements ApiMetricsMXBean {
+    public static final String JMX_DOMAIN = "net.boreeas.riotapi";
+
+    private final Map<Endpoint, EndpointCounters> endpoints = new EnumMap<>(Endpoint.class);
+    private final Map<String, DoubleSupplier> gauges = new ConcurrentSkipListMap<>();
+    private volatile ObjectName objectName;
+
+    public ApiMetrics() {
+        for (Endpoint endpoint: Endpoint.values()) {
+            endpoints.put(endpoint, new EndpointCounters());
+        }
+    }
+
+    /**
+     * Record the duration of a phase of a request
+     * @param endpoint The endpoint the request was sent to
+     * @param phase The phase
+     * @param nanos The duration in nanoseconds
+     */
+    public void record(Endpoint endpoint, Phase phase, long nanos) {
+        endpoints.get(endpoint).histogram(phase).record(nanos);
+    }
+
+    /**
+     * Record a completed request
+     * @param endpoint The endpoint the request was sent to
+     * @param status The HTTP status of the response
+     */
+    public void recordResponse(Endpoint endpoint, int status) {
+        EndpointCounters counters = endpoints.get(endpoint);
+        counters.statusCodes.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+        counters.completed();
+    }
+
+    /**
+     * Record a request that failed without a response
+     * @param endpoint The endpoint the request was sent to
+     */
+    public void recordFailure(Endpoint endpoint) {
+        EndpointCounters counters = endpoints.get(endpoint);
+        counters.failures.incrementAndGet();
+        counters.completed();
+    }
+
+    /**
+     * Add a gauge, replacing any gauge with the same name
+     * @param name The name of the gauge
+     * @param gauge Supplies the current value whenever the metrics are read
+     */
+    public void gauge(String name, DoubleSupplier gauge) {
+        gauges.put(name, gauge);
+    }
+
+    public void removeGauge(String name) {
+        gauges.remove(name);
+    }
+
+    /**
+     * @param endpoint The endpoint
+     * @param phase The phase
+     * @return The latencies of the phase for requests to the endpoint
+     */
+    public LatencyHistogram getHistogram(Endpoint endpoint, Phase phase) {
+        return endpoints.get(endpoint).histogram(phase);
+    }
+
+    /**
+     * @return The current values of all metrics. Endpoints that didn't receive requests are left out.
+     */
+    public MetricsSnapshot snapshot() {
+        long now = System.nanoTime();
+        Map<Endpoint, EndpointMetrics> result = new EnumMap<>(Endpoint.class);
+        for (Map.Entry<Endpoint, EndpointCounters> entry: endpoints.entrySet()) {
+            EndpointMetrics metrics = entry.getValue().snapshot(entry.getKey(), now);
+            if (metrics.getRequests() > 0 || !metrics.getLatencies().isEmpty()) {
+                result.put(entry.getKey(), metrics);
+            }
+        }
+
+        return new MetricsSnapshot(Collections.unmodifiableMap(result), getGauges());
+    }
+
+    @Override
+    public Map<Endpoint, EndpointMetrics> getEndpoints() {
+        return snapshot().getEndpoints();
+    }
+
+    @Override
+    public Map<String, Double> getGauges() {
+        Map<String, Double> values = new TreeMap<>();
+        for (Map.Entry<String, DoubleSupplier> gauge: gauges.entrySet()) {
+            values.put(gauge.getKey(), gauge.getValue().getAsDouble());
+        }
+
+        return Collections.unmodifiableMap(values);
+    }
+
+    @Override
+    public long getRequests() {
+        return snapshot().getRequests();
+    }
+
+    @Override
+    public long getErrors() {
+        return snapshot().getErrors();
+    }
+
+    @Override
+    public double getRequestsPerSecond() {
+        return snapshot().getRequestsPerSecond();
+    }
+
+    /**
+     * Register these metrics with the platform MBean server, replacing the previous registration
+     * @param name The name that distinguishes these metrics from others, e.g. the region
+     * @return The object name the metrics were registered as
+     * @throws JMException If the metrics can't be registered
+     */
+    public synchronized ObjectName register(String name) throws JMException {
+        unregister();
+
+        ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=ApiMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.objectName = objectName;
+        return objectName;
+    }
+
+    /**
+     * Remove these metrics from the platform MBean server, if they were registered
+     * @throws JMException If the metrics can't be unregistered
+     */
+    public synchronized void unregister() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (objectName != null && server.isRegistered(objectName)) {
+            server.unregisterMBean(objectName);
+        }
+        objectName = null;
+    }
+
+    /**
+     * @return The object name the metrics are registered as, or <code>null</code> if they aren't registered
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    /**
+     * The fill level of a rate limiter, between 0 (empty) and 1 (full). For composite limiters, this is the level of
+     * the emptiest limit.
+     * @param limiter The rate limiter
+     * @return The fill level, or {@link Double#NaN} if the capacity of the limiter is unknown
+     */
+    public static double fillLevel(RateLimiter limiter) {
+        if (limiter instanceof TokenBucket) {
+            return limiter.availablePermits() / (double) ((TokenBucket) limiter).getCapacity();
+        } else if (limiter instanceof CompositeRateLimiter) {
+            double level = Double.NaN;
+            for (RateLimiter part: ((CompositeRateLimiter) limiter).getLimiters()) {
+                double partLevel = fillLevel(part);
+                level = Double.isNaN(level) ? partLevel : Math.min(level, partLevel);
+            }
+            return level;
+        }
+
+        return Double.NaN;
+    }
+
+    private static class EndpointCounters {
+        private final AtomicReferenceArray<LatencyHistogram> histograms = new AtomicReferenceArray<>(Phase.values().length);
+        private final Map<Integer, AtomicLong> statusCodes = new ConcurrentHashMap<>();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final RateMeter rate = new RateMeter();
+
+        private LatencyHistogram histogram(Phase phase) {
+            LatencyHistogram histogram = histograms.get(phase.ordinal());
+            if (histogram == null) {
+                histograms.compareAndSet(phase.ordinal(), null, new LatencyHistogram());
+                histogram = histograms.get(phase.ordinal());
+            }
+
+            return histogram;
+        }
+
+        private void completed() {
+            requests.incrementAndGet();
+            rate.mark(System.nanoTime());
+        }
+
+        private EndpointMetrics snapshot(Endpoint endpoint, long now) {
+            Map<Integer, Long> statuses = new TreeMap<>();
+            for (Map.Entry<Integer, AtomicLong> status: statusCodes.entrySet()) {
+                statuses.put(status.getKey(), status.getValue().get());
+            }
+
+            Map<Phase, LatencySnapshot> latencies = new EnumMap<>(Phase.class);
+            for (Phase phase: Phase.values()) {
+                LatencyHistogram histogram = histograms.get(phase.ordinal());
+                if (histogram != null) {
+                    latencies.put(phase, histogram.snapshot());
+                }
+            }
+
+            return new EndpointMetrics(endpoint, requests.get(), failures.get(), Collections.unmodifiableMap(statuses),
+                    rate.perSecond(now), Collections.unmodifiableMap(latencies));
+        }
+    }
+
+    /**
+     * Counts events in one-second slots over the last minute. Slots are reused once they're a minute old.
+     */
+    private static class RateMeter {
+        private static final int SLOTS = 60;
+        private static final long SLOT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        private final AtomicLongArray counts = new AtomicLongArray(SLOTS);
+        private final AtomicLongArray seconds = new AtomicLongArray(SLOTS);
+
+        private void mark(long now) {
+            long second = now / SLOT_NANOS;
+            int slot = (int) Math.floorMod(second, (long) SLOTS);
+
+            long slotSecond = seconds.get(slot);
+            if (slotSecond != second && seconds.compareAndSet(slot, slotSecond, second)) {
+                // Events racing with the reset may be lost, which is fine for a rate estimate
+                counts.set(slot, 0);
+            }
+            counts.incrementAndGet(slot);
+        }
+
+        private double perSecond(long now) {
+            long second = now / SLOT_NANOS;
+            long events = 0;
+            for (int slot = 0; slot < SLOTS; slot++) {
+                if (second - seconds.get(slot) < SLOTS) {
+                    events += counts.get(slot);
+                }
+            }
+
+            return events / (double) SLOTS;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import net.boreeas.riotapi.RequestException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Collects lookups of single keys and sends them as one request for multiple keys.
+ * </p>
+ * A batch is sent once it contains <code>maxBatchSize</code> distinct keys, or when the window that started with
+ * its first key has passed. Keys that are requested several times within a batch are only sent once. Keys missing
+ * from the response fail with a {@link RequestException} for 404, just like a request for that single key would.
+ */
+public class Batcher<K, V> {
+
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final ScheduledExecutorService scheduler;
+    private final Function<List<K>, CompletableFuture<Map<K, V>>> bulkRequest;
+
+    private Map<K, CompletableFuture<V>> batch = new LinkedHashMap<>();
+
+    private long batchesSent;
+    private long keysRequested;
+
+    /**
+     * Create a new batcher.
+     * @param maxBatchSize The maximum number of keys the bulk request accepts
+     * @param window How long to wait for more keys after the first key of a batch
+     * @param unit The time unit of the window
+     * @param scheduler The scheduler that sends batches when their window has passed
+     * @param bulkRequest The request for multiple keys
+     */
+    public Batcher(int maxBatchSize, long window, TimeUnit unit, ScheduledExecutorService scheduler,
+                   Function<List<K>, CompletableFuture<Map<K, V>>> bulkRequest) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, but was " + maxBatchSize);
+        }
+
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = unit.toNanos(window);
+        this.scheduler = scheduler;
+        this.bulkRequest = bulkRequest;
+    }
+
+    /**
+     * Request a single key with the next batch.
+     * @param key The key
+     * @return A future for the value of the key
+     */
+    public CompletableFuture<V> get(K key) {
+        Map<K, CompletableFuture<V>> full = null;
+        CompletableFuture<V> future;
+
+        synchronized (this) {
+            keysRequested++;
+            future = batch.get(key);
+            if (future != null) {
+                return future;
+            }
+
+            future = new CompletableFuture<>();
+            batch.put(key, future);
+
+            if (batch.size() >= maxBatchSize) {
+                full = takeBatch();
+            } else if (batch.size() == 1) {
+                Map<K, CompletableFuture<V>> current = batch;
+                scheduler.schedule(() -> flush(current), windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (full != null) {
+            send(full);
+        }
+
+        return future;
+    }
+
+    /**
+     * Send the current batch right away.
+     */
+    public void flush() {
+        Map<K, CompletableFuture<V>> current;
+        synchronized (this) {
+            current = batch.isEmpty() ? null : takeBatch();
+        }
+
+        if (current != null) {
+            send(current);
+        }
+    }
+
+    /**
+     * @return The number of bulk requests sent so far
+     */
+    public synchronized long getBatchesSent() {
+        return batchesSent;
+    }
+
+    /**
+     * @return The number of single keys requested so far, including duplicates
+     */
+    public synchronized long getKeysRequested() {
+        return keysRequested;
+    }
+
+    private void flush(Map<K, CompletableFuture<V>> expected) {
+        synchronized (this) {
+            // The batch may already have been sent because it was full
+            if (batch != expected) {
+                return;
+            }
+
+            takeBatch();
+        }
+
+        send(expected);
+    }
+
+    private Map<K, CompletableFuture<V>> takeBatch() {
+        Map<K, CompletableFuture<V>> current = batch;
+        batch = new LinkedHashMap<>();
+        batchesSent++;
+        return current;
+    }
+
+    private void send(Map<K, CompletableFuture<V>> current) {
+        CompletableFuture<Map<K, V>> response;
+        try {
+            response = bulkRequest.apply(new ArrayList<>(current.keySet()));
+        } catch (RuntimeException ex) {
+            current.values().forEach(future -> future.completeExceptionally(ex));
+            return;
+        }
+
+        response.whenComplete((result, ex) -> current.forEach((key, future) -> {
+            if (ex != null) {
+                future.completeExceptionally(ex);
+            } else if (result == null || !result.containsKey(key)) {
+                future.completeExceptionally(new RequestException(404, RequestException.ErrorType.NOT_FOUND));
+            } else {
+                future.complete(result.get(key));
+            }
+        }));
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Tracks the health of one endpoint, and rejects requests while the endpoint appears to be down.
+ * </p>
+ * The breaker opens after <code>failureThreshold</code> consecutive server or network errors. While it is open, all
+ * requests fail right away without being sent, and without taking a rate limit permit. Once the open time has
+ * passed, a single probe request is let through; if it succeeds the breaker closes, otherwise it opens again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final Endpoint endpoint;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private long timesOpened;
+    private long rejected;
+
+    /**
+     * Create a new, closed circuit breaker.
+     * @param endpoint The endpoint guarded by the breaker
+     * @param failureThreshold The number of consecutive failures that open the breaker
+     * @param openTime How long the breaker stays open before a probe request is let through
+     * @param unit The time unit of the open time
+     */
+    public CircuitBreaker(Endpoint endpoint, int failureThreshold, long openTime, TimeUnit unit) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be positive, but was " + failureThreshold);
+        }
+
+        this.endpoint = endpoint;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = unit.toNanos(openTime);
+    }
+
+    /**
+     * @return <code>true</code> if a request may be sent now
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+        }
+
+        if (state == State.CLOSED || state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = state == State.HALF_OPEN;
+            return true;
+        }
+
+        rejected++;
+        return false;
+    }
+
+    /**
+     * Record a request that reached the server and didn't fail with a server error
+     */
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Record a request that failed with a server or network error
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            probeInFlight = false;
+            timesOpened++;
+        }
+    }
+
+    /**
+     * Record a request that ended without telling anything about the endpoint's health, e.g. because it was
+     * cancelled before it was sent
+     */
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * @return How often the breaker opened
+     */
+    public synchronized long getTimesOpened() {
+        return timesOpened;
+    }
+
+    /**
+     * @return The number of requests that failed fast because the breaker was open
+     */
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CircuitBreaker(" + endpoint + ": " + state + ", " + consecutiveFailures + " consecutive failures, opened "
+                + timesOpened + " times, " + rejected + " rejected)";
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import lombok.Getter;
+import net.boreeas.riotapi.RequestException;
+
+/**
+ * Thrown instead of sending a request while the circuit breaker of its endpoint is open. Reports the same code as
+ * a 503 response, so existing error handling treats it like the endpoint being unavailable.
+ */
+public class CircuitBreakerOpenException extends RequestException {
+    @Getter private final Endpoint endpoint;
+
+    public CircuitBreakerOpenException(Endpoint endpoint) {
+        super(ErrorType.SERVICE_UNAVAILABLE.code, ErrorType.SERVICE_UNAVAILABLE);
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Circuit breaker for " + endpoint + " is open, request was not sent";
+    }
+}
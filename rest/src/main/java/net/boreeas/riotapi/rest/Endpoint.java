@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import java.net.URI;
+import java.util.regex.Pattern;
+
+/**
+ * The api endpoints, as identified by the path of a request uri.
+ */
+public enum Endpoint {
+    CHAMPION("champion", true),
+    GAME("game", true),
+    LEAGUE("league", true),
+    MATCH("match", true),
+    MATCHLIST("matchlist", true),
+    STATS("stats", true),
+    SUMMONER("summoner", true),
+    TEAM("team", true),
+    CURRENT_GAME("consumer", true),
+    FEATURED_GAMES("featured", true),
+    STATIC_DATA("static-data", false),
+    STATUS("shards", false),
+    OTHER(null, true);
+
+    private static final Pattern VERSION = Pattern.compile("v\\d+\\.\\d+");
+
+    public final String name;
+    private final boolean rateLimited;
+
+    private Endpoint(String name, boolean rateLimited) {
+        this.name = name;
+        this.rateLimited = rateLimited;
+    }
+
+    /**
+     * @return <code>true</code> if requests to this endpoint count towards the rate limit
+     */
+    public boolean isRateLimited() {
+        return rateLimited;
+    }
+
+    /**
+     * Identify the endpoint a request is sent to
+     * @param uri The request uri
+     * @return The endpoint, or {@link #OTHER} if it can't be identified
+     */
+    public static Endpoint of(URI uri) {
+        String path = uri.getPath();
+        if (path == null) {
+            return OTHER;
+        }
+
+        String[] segments = path.split("/");
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+
+            if (segment.equals(STATIC_DATA.name)) {
+                return STATIC_DATA;
+            } else if (i == 1 && segment.equals(STATUS.name)) {
+                return STATUS;
+            } else if (segment.equals("observer-mode") && i + 2 < segments.length) {
+                Endpoint endpoint = getByName(segments[i + 2]);
+                return endpoint == null ? OTHER : endpoint;
+            } else if (VERSION.matcher(segment).matches() && i + 1 < segments.length) {
+                Endpoint endpoint = getByName(segments[i + 1]);
+                return endpoint == null ? OTHER : endpoint;
+            }
+        }
+
+        return OTHER;
+    }
+
+    public static Endpoint getByName(String name) {
+        for (Endpoint endpoint: values()) {
+            if (name.equals(endpoint.name)) {
+                return endpoint;
+            }
+        }
+
+        return null;
+    }
+}
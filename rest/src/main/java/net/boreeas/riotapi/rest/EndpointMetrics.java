@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * A snapshot of the requests an {@link ApiHandler} sent to one endpoint. See {@link ApiMetrics}.
+ */
+@Getter
+public class EndpointMetrics {
+    private final Endpoint endpoint;
+    /**
+     * The number of requests that completed, successfully or not
+     */
+    private final long requests;
+    /**
+     * The number of requests that failed without a response, e.g. because of a network error or a timeout
+     */
+    private final long failures;
+    /**
+     * The number of responses per HTTP status code
+     */
+    private final Map<Integer, Long> statusCodes;
+    /**
+     * The average number of requests that completed per second during the last minute
+     */
+    private final double requestsPerSecond;
+    /**
+     * The latencies of each phase that was measured for this endpoint
+     */
+    private final Map<Phase, LatencySnapshot> latencies;
+
+    public EndpointMetrics(Endpoint endpoint, long requests, long failures, Map<Integer, Long> statusCodes,
+                           double requestsPerSecond, Map<Phase, LatencySnapshot> latencies) {
+        this.endpoint = endpoint;
+        this.requests = requests;
+        this.failures = failures;
+        this.statusCodes = statusCodes;
+        this.requestsPerSecond = requestsPerSecond;
+        this.latencies = latencies;
+    }
+
+    /**
+     * @return The number of requests that failed, or were answered with a status other than 200
+     */
+    public long getErrors() {
+        long errors = failures;
+        for (Map.Entry<Integer, Long> status: statusCodes.entrySet()) {
+            if (status.getKey() != 200) {
+                errors += status.getValue();
+            }
+        }
+
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format("%s: %d requests (%.2f/s), %d errors %s",
+                endpoint, requests, requestsPerSecond, getErrors(), statusCodes));
+        for (Map.Entry<Phase, LatencySnapshot> latency: latencies.entrySet()) {
+            builder.append("\n  ").append(latency.getKey()).append(": ").append(latency.getValue());
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import net.boreeas.riotapi.http.Transport;
+import net.boreeas.riotapi.http.TransportRequest;
+import net.boreeas.riotapi.http.TransportResponse;
+
+import javax.ws.rs.ProcessingException;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>
+ * A transport that retries requests failing with server errors according to a {@link RetryPolicy}, and guards
+ * every endpoint with a {@link CircuitBreaker}.
+ * </p>
+ * Wrapped around the transport of a {@link ThrottledApiHandler}, retries go through the rate limiter like any other
+ * request, while requests to an endpoint whose breaker is open fail with a {@link CircuitBreakerOpenException}
+ * before they take a permit. Responses with other status codes, including 404 and 429, are passed on unchanged.
+ */
+public class FaultTolerantTransport implements Transport {
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_TIME = TimeUnit.SECONDS.toNanos(30);
+
+    private final Transport delegate;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Endpoint, CircuitBreaker> breakers = new EnumMap<>(Endpoint.class);
+    private volatile RetryPolicy retryPolicy = RetryPolicy.defaults();
+
+    private double retryBudget = RetryPolicy.BUDGET_RESERVE;
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+
+    /**
+     * Create a new transport with the default retry policy and circuit breakers.
+     * @param delegate The transport sending the requests
+     * @param scheduler The scheduler delaying retries
+     */
+    public FaultTolerantTransport(Transport delegate, ScheduledExecutorService scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        setCircuitBreakers(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_TIME, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> execute(TransportRequest request) {
+        CircuitBreaker breaker = getCircuitBreaker(Endpoint.of(request.getUri()));
+        CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+        if (!breaker.allowRequest()) {
+            result.completeExceptionally(new CircuitBreakerOpenException(breaker.getEndpoint()));
+            return result;
+        }
+
+        RetryPolicy policy = retryPolicy;
+        synchronized (this) {
+            retryBudget = Math.min(retryBudget + policy.getBudgetRatio(), RetryPolicy.BUDGET_RESERVE * 10);
+        }
+
+        AtomicReference<CompletableFuture<TransportResponse>> attempt = new AtomicReference<>();
+        result.whenComplete((response, ex) -> {
+            CompletableFuture<TransportResponse> current = attempt.get();
+            if (result.isCancelled() && current != null) {
+                current.cancel(false);
+            }
+        });
+
+        send(request, policy, breaker, captureContext(), 0, attempt, result);
+        return result;
+    }
+
+    /**
+     * Capture whatever the delegate reads from the thread executing a request, so that retries, which run on the
+     * scheduler, see the same. Called on the thread executing the request.
+     * @return Runs a retry in the context of the original request
+     */
+    protected Executor captureContext() {
+        return Runnable::run;
+    }
+
+    private void send(TransportRequest request, RetryPolicy policy, CircuitBreaker breaker, Executor context, int retry,
+                      AtomicReference<CompletableFuture<TransportResponse>> attempt, CompletableFuture<TransportResponse> result) {
+        CompletableFuture<TransportResponse> sent;
+        try {
+            sent = delegate.execute(request);
+        } catch (RuntimeException ex) {
+            sent = new CompletableFuture<>();
+            sent.completeExceptionally(ex);
+        }
+
+        attempt.set(sent);
+        sent.whenComplete((response, ex) -> {
+            if (result.isDone()) {
+                breaker.onIgnored();
+                if (response != null) {
+                    response.close();
+                }
+                return;
+            }
+
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            boolean failed = cause == null ? policy.isRetryable(response.getStatus()) : isNetworkError(cause);
+            if (!failed) {
+                if (cause == null) {
+                    breaker.onSuccess();
+                    result.complete(response);
+                } else {
+                    breaker.onIgnored();
+                    result.completeExceptionally(cause);
+                }
+                return;
+            }
+
+            breaker.onFailure();
+            if (retry < policy.getMaxRetries() && policy.isIdempotent(request) && takeRetry()) {
+                if (response != null) {
+                    response.close();
+                }
+
+                retries.incrementAndGet();
+                scheduler.schedule(() -> context.execute(() -> {
+                    if (result.isDone()) {
+                        return;
+                    }
+
+                    if (breaker.allowRequest()) {
+                        send(request, policy, breaker, context, retry + 1, attempt, result);
+                    } else {
+                        result.completeExceptionally(new CircuitBreakerOpenException(breaker.getEndpoint()));
+                    }
+                }), policy.backoffNanos(retry), TimeUnit.NANOSECONDS);
+            } else if (cause == null) {
+                result.complete(response);
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    private static boolean isNetworkError(Throwable ex) {
+        return ex instanceof IOException || ex instanceof ProcessingException;
+    }
+
+    private synchronized boolean takeRetry() {
+        if (retryBudget < 1) {
+            budgetExhausted.incrementAndGet();
+            return false;
+        }
+
+        retryBudget--;
+        return true;
+    }
+
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Replace the circuit breakers of all endpoints with new, closed ones.
+     * @param failureThreshold The number of consecutive failures that open a breaker
+     * @param openTime How long a breaker stays open before a probe request is let through
+     * @param unit The time unit of the open time
+     */
+    public synchronized void setCircuitBreakers(int failureThreshold, long openTime, TimeUnit unit) {
+        for (Endpoint endpoint: Endpoint.values()) {
+            breakers.put(endpoint, new CircuitBreaker(endpoint, failureThreshold, openTime, unit));
+        }
+    }
+
+    /**
+     * @param endpoint The endpoint
+     * @return The circuit breaker guarding the endpoint
+     */
+    public synchronized CircuitBreaker getCircuitBreaker(Endpoint endpoint) {
+        return breakers.get(endpoint);
+    }
+
+    /**
+     * @return The circuit breakers of all endpoints
+     */
+    public synchronized Map<Endpoint, CircuitBreaker> getCircuitBreakers() {
+        return Collections.unmodifiableMap(new EnumMap<>(breakers));
+    }
+
+    /**
+     * @return The number of retries that were made
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * @return The number of failed requests that weren't retried because the retry budget was used up
+     */
+    public long getBudgetExhausted() {
+        return budgetExhausted.get();
+    }
+
+    /**
+     * @return The number of retries that may currently be made
+     */
+    public synchronized double getRetryBudget() {
+        return retryBudget;
+    }
+}
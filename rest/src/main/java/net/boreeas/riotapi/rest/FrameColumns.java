@@ -0,0 +1,241 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * The participant frames of many match timelines, stored column by column in <code>int[]</code>s instead of as a
+ * map of objects per frame. There is one row per participant and frame.
+ * </p>
+ * Frames can be added from parsed matches, or while a timeline is read with a {@link MatchTimelineReader} through
+ * {@link #visitor(long)}, so the frames are never held as objects. The columns are not thread safe; they must not be
+ * read while frames are added.
+ */
+public class FrameColumns {
+    private static final int INITIAL_CAPACITY = 4096;
+
+    /**
+     * The stats of {@link ParticipantFrame}. Frames without a position have the coordinates -1.
+     */
+    public enum Stat {
+        CURRENT_GOLD(ParticipantFrame::getCurrentGold),
+        TOTAL_GOLD(ParticipantFrame::getTotalGold),
+        LEVEL(ParticipantFrame::getLevel),
+        XP(ParticipantFrame::getXp),
+        MINIONS_KILLED(ParticipantFrame::getMinionsKilled),
+        JUNGLE_MINIONS_KILLED(ParticipantFrame::getJungleMinionsKilled),
+        POSITION_X(frame -> frame.getPosition() == null ? -1 : frame.getPosition().x),
+        POSITION_Y(frame -> frame.getPosition() == null ? -1 : frame.getPosition().y);
+
+        private final ToIntFunction<ParticipantFrame> getter;
+
+        Stat(ToIntFunction<ParticipantFrame> getter) {
+            this.getter = getter;
+        }
+
+        public int of(ParticipantFrame frame) {
+            return getter.applyAsInt(frame);
+        }
+    }
+
+    private static final Stat[] STATS = Stat.values();
+
+    private int size;
+    private long[] matchIds = new long[INITIAL_CAPACITY];
+    private int[] frames = new int[INITIAL_CAPACITY];
+    private int[] timestamps = new int[INITIAL_CAPACITY];
+    private int[] participantIds = new int[INITIAL_CAPACITY];
+    private final int[][] stats = new int[STATS.length][INITIAL_CAPACITY];
+    private int maxFrame = -1;
+
+    /**
+     * Add the participant frames of the match's timeline, if it has one
+     */
+    public void add(MatchDetail match) {
+        if (match.getTimeline() == null) {
+            return;
+        }
+
+        int frame = 0;
+        for (Frame timelineFrame: match.getTimeline().getFrames()) {
+            for (ParticipantFrame participantFrame: timelineFrame.getParticipantFrames().values()) {
+                add(match.getMatchId(), frame, timelineFrame.getTimestamp(), participantFrame);
+            }
+            frame++;
+        }
+    }
+
+    /**
+     * @param frame The index of the frame in the timeline
+     * @param timestamp The time of the frame, in milliseconds since the start of the game
+     */
+    public void add(long matchId, int frame, long timestamp, ParticipantFrame participantFrame) {
+        if (size == matchIds.length) {
+            resize(size * 2);
+        }
+
+        matchIds[size] = matchId;
+        frames[size] = frame;
+        timestamps[size] = Math.toIntExact(timestamp);
+        participantIds[size] = participantFrame.getParticipantId();
+        for (int i = 0; i < STATS.length; i++) {
+            stats[i][size] = STATS[i].of(participantFrame);
+        }
+        maxFrame = Math.max(maxFrame, frame);
+        size++;
+    }
+
+    /**
+     * @return A visitor that adds the participant frames of a timeline as they are read, and skips the events
+     * @see MatchTimelineReader#accept(TimelineVisitor)
+     */
+    public TimelineVisitor visitor(long matchId) {
+        return new TimelineVisitor() {
+            private int frameStart;
+
+            @Override
+            public void startFrame(int frame) {
+                frameStart = size;
+            }
+
+            @Override
+            public void visitParticipantFrame(int frame, ParticipantFrame participantFrame) {
+                // The timestamp follows the participant frames, see endFrame
+                add(matchId, frame, 0, participantFrame);
+            }
+
+            @Override
+            public void endFrame(int frame, long timestamp) {
+                Arrays.fill(timestamps, frameStart, size, Math.toIntExact(timestamp));
+            }
+
+            @Override
+            public boolean wantsEvents() {
+                return false;
+            }
+        };
+    }
+
+    private void resize(int capacity) {
+        matchIds = Arrays.copyOf(matchIds, capacity);
+        frames = Arrays.copyOf(frames, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        participantIds = Arrays.copyOf(participantIds, capacity);
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = Arrays.copyOf(stats[i], capacity);
+        }
+    }
+
+    /**
+     * Release the capacity reserved for rows that weren't added yet
+     */
+    public void trimToSize() {
+        resize(Math.max(size, 1));
+    }
+
+    /**
+     * @return The number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return A view of the row, which reads the columns when its methods are called
+     */
+    public Row row(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return new Row(row);
+    }
+
+    /**
+     * @return The value of the stat summed over all rows
+     */
+    public long sum(Stat stat) {
+        int[] column = stats[stat.ordinal()];
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += column[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return The mean of the stat per frame index, over all participants of all timelines, or NaN for frames
+     * without rows. E.g. the mean gold curve with {@link Stat#TOTAL_GOLD}.
+     */
+    public double[] meanByFrame(Stat stat) {
+        int[] column = stats[stat.ordinal()];
+        long[] sums = new long[maxFrame + 1];
+        int[] counts = new int[maxFrame + 1];
+        for (int i = 0; i < size; i++) {
+            sums[frames[i]] += column[i];
+            counts[frames[i]]++;
+        }
+
+        double[] means = new double[sums.length];
+        for (int i = 0; i < means.length; i++) {
+            means[i] = counts[i] == 0 ? Double.NaN : (double) sums[i] / counts[i];
+        }
+        return means;
+    }
+
+    /**
+     * A participant frame, read from the columns
+     */
+    public class Row {
+        private final int row;
+
+        private Row(int row) {
+            this.row = row;
+        }
+
+        public long getMatchId() {
+            return matchIds[row];
+        }
+
+        public int getFrame() {
+            return frames[row];
+        }
+
+        public long getTimestamp() {
+            return timestamps[row];
+        }
+
+        public int getParticipantId() {
+            return participantIds[row];
+        }
+
+        public int get(Stat stat) {
+            return stats[stat.ordinal()][row];
+        }
+
+        /**
+         * @return The position, or <code>null</code> if the frame has none
+         */
+        public Point getPosition() {
+            int x = get(Stat.POSITION_X);
+            return x == -1 ? null : new Point(x, get(Stat.POSITION_Y));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The default decoder, which reads the body through Gson's character based JsonReader
+ */
+public class GsonDecoder implements ResponseDecoder {
+    private final Gson gson;
+
+    /**
+     * @param gson The Gson instance holding the type adapters, see {@link ApiHandler#getGson()}
+     */
+    public GsonDecoder(Gson gson) {
+        this.gson = gson;
+    }
+
+    @Override
+    public <T> T decode(InputStream body, Type type) throws IOException {
+        return gson.fromJson(new InputStreamReader(body, StandardCharsets.UTF_8), type);
+    }
+}
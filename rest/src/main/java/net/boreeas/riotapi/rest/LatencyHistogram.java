@@ -0,0 +1,139 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A lock-free histogram of latencies with a fixed relative precision, in the style of HdrHistogram.
+ * </p>
+ * Latencies are counted in microseconds. Values below 128µs get a bucket each, and every power of two above that
+ * is split into 64 buckets, so a recorded value is off by at most 1/64 (1.6%). Values above 2^36µs (about 19 hours)
+ * are counted as 2^36µs. The buckets take 16KB, independent of the number of recorded values.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS >> 1;
+    private static final long MAX_MICROS = (1L << 36) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(index(MAX_MICROS) + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * The bucket of a value. Below {@link #SUB_BUCKETS}, every value has its own bucket. Above, the value is shifted
+     * right until it has {@link #SUB_BUCKET_BITS} significant bits, and the lower half of those selects the bucket
+     * within its power of two.
+     */
+    static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (int) (micros >>> shift) - HALF_SUB_BUCKETS;
+    }
+
+    /**
+     * @return The highest value that falls into the bucket
+     */
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long subBucket = (index - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Record a latency
+     * @param nanos The latency in nanoseconds. Negative values are counted as 0.
+     */
+    public void record(long nanos) {
+        long micros = Math.min(MAX_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        counts.incrementAndGet(index(micros));
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * @return The number of recorded latencies
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @param unit The unit of the result
+     * @return The largest recorded latency
+     */
+    public double getMax(TimeUnit unit) {
+        return maxMicros.get() / (double) unit.toMicros(1);
+    }
+
+    /**
+     * @param unit The unit of the result
+     * @return The average of all recorded latencies
+     */
+    public double getMean(TimeUnit unit) {
+        long count = this.count.get();
+        return count == 0 ? 0 : totalMicros.get() / (double) count / unit.toMicros(1);
+    }
+
+    /**
+     * @param percentile The percentile, between 0 and 100
+     * @param unit The unit of the result
+     * @return The latency that the given percentage of recorded latencies didn't exceed
+     */
+    public double getValueAtPercentile(double percentile, TimeUnit unit) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValue(i), maxMicros.get()) / (double) unit.toMicros(1);
+            }
+        }
+
+        return getMax(unit);
+    }
+
+    /**
+     * @return The count, mean, maximum and common percentiles, in milliseconds
+     */
+    public LatencySnapshot snapshot() {
+        return new LatencySnapshot(getCount(), getMean(TimeUnit.MILLISECONDS), getValueAtPercentile(50, TimeUnit.MILLISECONDS),
+                getValueAtPercentile(90, TimeUnit.MILLISECONDS), getValueAtPercentile(99, TimeUnit.MILLISECONDS),
+                getValueAtPercentile(99.9, TimeUnit.MILLISECONDS), getMax(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.internal.$Gson$Types;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Reads maps like Gson's own map adapter, but only through the public JsonReader methods.
+ * </p>
+ * <p>
+ * Gson's adapter reads non-string keys by reaching into the internal state of its JsonReader, which doesn't work
+ * with readers that parse the input themselves, like the one of the {@link Utf8Decoder}. Keys are read with
+ * {@link JsonReader#nextName()} instead, and converted with the key type's adapter.
+ * </p>
+ * String keys are interned, since most maps in the responses are keyed by a few ids or names that repeat in every
+ * response, like the participant ids of the frames in a match timeline.
+ */
+class MapAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+        Class<? super T> rawType = typeToken.getRawType();
+        if (!Map.class.isAssignableFrom(rawType)) {
+            return null;
+        }
+
+        Supplier<Map<Object, Object>> constructor = constructor(rawType);
+        if (constructor == null) {
+            return null;
+        }
+
+        Type[] keyAndValue = $Gson$Types.getMapKeyAndValueTypes(typeToken.getType(), rawType);
+        Class<?> keyType = $Gson$Types.getRawType(keyAndValue[0]);
+        TypeAdapter<?> keyAdapter = gson.getAdapter(TypeToken.get(keyAndValue[0]));
+        TypeAdapter<?> valueAdapter = gson.getAdapter(TypeToken.get(keyAndValue[1]));
+
+        @SuppressWarnings("unchecked")
+        TypeAdapter<T> adapter = (TypeAdapter<T>) new Adapter(constructor, keyType == String.class || keyType == Object.class,
+                (TypeAdapter<Object>) keyAdapter, (TypeAdapter<Object>) valueAdapter);
+        return adapter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Map<Object, Object>> constructor(Class<?> rawType) {
+        if (rawType == HashMap.class) {
+            return HashMap::new;
+        } else if (!rawType.isInterface() && !Modifier.isAbstract(rawType.getModifiers())) {
+            try {
+                Constructor<?> constructor = rawType.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return () -> {
+                    try {
+                        return (Map<Object, Object>) constructor.newInstance();
+                    } catch (ReflectiveOperationException ex) {
+                        throw new RuntimeException("Failed to create " + rawType, ex);
+                    }
+                };
+            } catch (NoSuchMethodException ex) {
+                // E.g. EnumMap, which is left to Gson
+                return null;
+            }
+        }
+
+        if (rawType.isAssignableFrom(LinkedHashMap.class)) {
+            return LinkedHashMap::new;
+        } else if (rawType.isAssignableFrom(TreeMap.class)) {
+            return TreeMap::new;
+        } else if (rawType.isAssignableFrom(ConcurrentHashMap.class)) {
+            return ConcurrentHashMap::new;
+        } else if (rawType.isAssignableFrom(ConcurrentSkipListMap.class)) {
+            return ConcurrentSkipListMap::new;
+        }
+
+        return null;
+    }
+
+    private static class Adapter extends TypeAdapter<Map<Object, Object>> {
+        private final Supplier<Map<Object, Object>> constructor;
+        private final boolean namesAreKeys;
+        private final TypeAdapter<Object> keyAdapter;
+        private final TypeAdapter<Object> valueAdapter;
+
+        Adapter(Supplier<Map<Object, Object>> constructor, boolean namesAreKeys, TypeAdapter<Object> keyAdapter,
+                TypeAdapter<Object> valueAdapter) {
+            this.constructor = constructor;
+            this.namesAreKeys = namesAreKeys;
+            this.keyAdapter = keyAdapter;
+            this.valueAdapter = valueAdapter;
+        }
+
+        @Override
+        public Map<Object, Object> read(JsonReader in) throws IOException {
+            JsonToken token = in.peek();
+            if (token == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            Map<Object, Object> map = constructor.get();
+            if (token == JsonToken.BEGIN_ARRAY) {
+                // Maps with complex keys are written as an array of [key, value] pairs
+                in.beginArray();
+                while (in.hasNext()) {
+                    in.beginArray();
+                    put(map, keyAdapter.read(in), valueAdapter.read(in));
+                    in.endArray();
+                }
+                in.endArray();
+            } else {
+                in.beginObject();
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    Object key = namesAreKeys ? GeneratedTypeAdapters.intern(name) : keyAdapter.fromJsonTree(new JsonPrimitive(name));
+                    put(map, key, valueAdapter.read(in));
+                }
+                in.endObject();
+            }
+
+            return map;
+        }
+
+        private static void put(Map<Object, Object> map, Object key, Object value) {
+            if (map.put(key, value) != null) {
+                throw new JsonSyntaxException("duplicate key: " + key);
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, Map<Object, Object> map) throws IOException {
+            if (map == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                out.name(String.valueOf(entry.getKey()));
+                valueAdapter.write(out, entry.getValue());
+            }
+            out.endObject();
+        }
+    }
+}
@@ -21,6 +21,7 @@ import net.boreeas.riotapi.com.riotgames.platform.game.GameMode;
 import net.boreeas.riotapi.com.riotgames.platform.game.GameType;
 import net.boreeas.riotapi.com.riotgames.platform.game.QueueType;
 import net.boreeas.riotapi.constants.Season;
+import net.boreeas.riotapi.processor.Interned;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -35,13 +36,13 @@ public class Match {
     private Date matchCreation;
     private long matchDuration;
     private long matchId;
-    private String matchVersion;
+    @Interned private String matchVersion;
     private List<ParticipantIdentity> participantIdentities = new ArrayList<>();
     private List<Participant> participants = new ArrayList<>();
-    private String region;
+    @Interned private String region;
     private GameMode matchMode;
     private GameType matchType;
     private QueueType queueType;
-    private String platformId;
+    @Interned private String platformId;
     private Season season;
 }
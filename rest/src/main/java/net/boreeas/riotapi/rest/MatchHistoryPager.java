@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import net.boreeas.riotapi.Util;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>
+ * Walks a player's match history one page at a time, fetching each page only once the consumer has reached it.
+ * </p>
+ * Optionally, the page after the current one is requested once the consumer is past the middle of the current
+ * page, so that the fetch latency is hidden behind the processing of its second half. A consumer that stops early
+ * may then have spent a request on a page it never reads; closing the stream cancels that page if it hasn't been
+ * sent yet. The history ends at the first page that comes back short.
+ */
+class MatchHistoryPager extends Spliterators.AbstractSpliterator<MatchSummary> {
+
+    /**
+     * The maximum number of matches the match history endpoint returns per request
+     */
+    public static final int MAX_PAGE_SIZE = 15;
+
+    /**
+     * Fetches the matches with indices from beginIndex (inclusive) to endIndex (exclusive)
+     */
+    interface PageFetcher {
+        CompletableFuture<List<MatchSummary>> fetch(int beginIndex, int endIndex);
+    }
+
+    private final PageFetcher fetcher;
+    private final int pageSize;
+    private final boolean prefetch;
+    private int nextIndex;
+    private CompletableFuture<List<MatchSummary>> nextPage;
+    private Iterator<MatchSummary> current = Collections.emptyIterator();
+    private int currentSize;
+    private int consumed;
+    private boolean lastPage;
+
+    MatchHistoryPager(PageFetcher fetcher, int beginIndex, int pageSize, boolean prefetch) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ", but was " + pageSize);
+        }
+
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+        this.prefetch = prefetch;
+        this.nextIndex = beginIndex;
+    }
+
+    /**
+     * Create a lazy stream over a match history. No request is sent until the first element is consumed.
+     * @param fetcher The function fetching a single page.
+     * @param beginIndex The index of the first match.
+     * @param pageSize The number of matches to request at once.
+     * @param prefetch Whether to request the next page once the consumer is past the middle of the current one.
+     * @return The matches, starting at beginIndex.
+     */
+    static Stream<MatchSummary> stream(PageFetcher fetcher, int beginIndex, int pageSize, boolean prefetch) {
+        MatchHistoryPager pager = new MatchHistoryPager(fetcher, beginIndex, pageSize, prefetch);
+        return StreamSupport.stream(pager, false).onClose(pager::close);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super MatchSummary> action) {
+        while (!current.hasNext()) {
+            if (lastPage) {
+                return false;
+            }
+
+            if (nextPage == null) {
+                nextPage = request();
+            }
+
+            List<MatchSummary> page = Util.await(nextPage);
+            if (page == null) {
+                page = Collections.emptyList();
+            }
+
+            nextPage = null;
+            lastPage = page.size() < pageSize;
+            current = page.iterator();
+            currentSize = page.size();
+            consumed = 0;
+        }
+
+        consumed++;
+        if (prefetch && nextPage == null && !lastPage && consumed * 2 > currentSize) {
+            nextPage = request();
+        }
+
+        action.accept(current.next());
+        return true;
+    }
+
+    private CompletableFuture<List<MatchSummary>> request() {
+        int begin = nextIndex;
+        nextIndex += pageSize;
+        return fetcher.fetch(begin, begin + pageSize);
+    }
+
+    /**
+     * Stop paging, and cancel the prefetched page.
+     */
+    void close() {
+        lastPage = true;
+        current = Collections.emptyIterator();
+        if (nextPage != null) {
+            nextPage.cancel(false);
+            nextPage = null;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import lombok.SneakyThrows;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>
+ * Reads the timeline of a match response one frame, participant frame or event at a time, without building the
+ * whole {@link MatchDetail}.
+ * </p>
+ * <p>
+ * Only one participant frame or event is held in memory at any time, so the memory used per match stays constant,
+ * and parts a visitor doesn't want are skipped without being parsed. The reader pulls from the underlying reader
+ * only as far as needed, so processing starts while the response is still arriving, and a stream that is not
+ * consumed to its end doesn't read the rest of the response.
+ * </p>
+ * Everything in the response except the timeline is skipped.
+ */
+public class MatchTimelineReader implements Closeable {
+
+    private enum State {
+        START, TIMELINE, FRAMES, FRAME, PARTICIPANT_FRAMES, EVENTS, END
+    }
+
+    private final JsonReader reader;
+    private final Gson gson;
+
+    private State state = State.START;
+    private int frame = -1;
+    private long frameTimestamp;
+
+    /**
+     * Create a new reader.
+     * @param in The match response, as returned by the match endpoint with <code>includeTimeline=true</code>
+     * @param gson The gson instance used to parse participant frames and events
+     */
+    public MatchTimelineReader(Reader in, Gson gson) {
+        this.reader = new JsonReader(in);
+        this.gson = gson;
+    }
+
+    /**
+     * Read the whole timeline, passing each part to the visitor.
+     * @param visitor The visitor
+     */
+    public void accept(TimelineVisitor visitor) {
+        while (advance(visitor)) {
+            // Keep reading
+        }
+    }
+
+    /**
+     * @return A lazy stream of all events in the timeline. Participant frames are skipped.
+     */
+    public Stream<Event> events() {
+        return stream(new Capture<Event>(false, true) {
+            @Override
+            public void visitEvent(int frame, Event event) {
+                value = event;
+            }
+        });
+    }
+
+    /**
+     * @return A lazy stream of all participant frames in the timeline. Events are skipped.
+     */
+    public Stream<ParticipantFrame> participantFrames() {
+        return stream(new Capture<ParticipantFrame>(true, false) {
+            @Override
+            public void visitParticipantFrame(int frame, ParticipantFrame participantFrame) {
+                value = participantFrame;
+            }
+        });
+    }
+
+    private <T> Stream<T> stream(Capture<T> capture) {
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                while (capture.value == null) {
+                    if (!advance(capture)) {
+                        return false;
+                    }
+                }
+
+                T value = capture.value;
+                capture.value = null;
+                action.accept(value);
+                return true;
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * Reads the next part of the timeline.
+     * @param visitor The visitor receiving it
+     * @return <code>false</code> if the end of the timeline was reached
+     */
+    @SneakyThrows(IOException.class)
+    private boolean advance(TimelineVisitor visitor) {
+        switch (state) {
+            case START:
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (reader.nextName().equals("timeline")) {
+                        reader.beginObject();
+                        state = State.TIMELINE;
+                        return true;
+                    }
+
+                    reader.skipValue();
+                }
+
+                state = State.END;
+                return false;
+
+            case TIMELINE:
+                if (!reader.hasNext()) {
+                    // Nothing of interest after the timeline
+                    state = State.END;
+                    return false;
+                }
+
+                switch (reader.nextName()) {
+                    case "frameInterval":
+                        visitor.visitFrameInterval(reader.nextLong());
+                        break;
+                    case "frames":
+                        reader.beginArray();
+                        state = State.FRAMES;
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+                return true;
+
+            case FRAMES:
+                if (reader.hasNext()) {
+                    reader.beginObject();
+                    frame++;
+                    frameTimestamp = 0;
+                    state = State.FRAME;
+                    visitor.startFrame(frame);
+                } else {
+                    reader.endArray();
+                    state = State.TIMELINE;
+                }
+                return true;
+
+            case FRAME:
+                if (!reader.hasNext()) {
+                    reader.endObject();
+                    state = State.FRAMES;
+                    visitor.endFrame(frame, frameTimestamp);
+                    return true;
+                }
+
+                String name = reader.nextName();
+                if (name.equals("participantFrames") && visitor.wantsParticipantFrames()) {
+                    reader.beginObject();
+                    state = State.PARTICIPANT_FRAMES;
+                } else if (name.equals("events") && visitor.wantsEvents()) {
+                    reader.beginArray();
+                    state = State.EVENTS;
+                } else if (name.equals("timestamp")) {
+                    frameTimestamp = reader.nextLong();
+                } else {
+                    reader.skipValue();
+                }
+                return true;
+
+            case PARTICIPANT_FRAMES:
+                if (reader.hasNext()) {
+                    reader.nextName();
+                    visitor.visitParticipantFrame(frame, gson.fromJson(reader, ParticipantFrame.class));
+                } else {
+                    reader.endObject();
+                    state = State.FRAME;
+                }
+                return true;
+
+            case EVENTS:
+                if (reader.hasNext()) {
+                    visitor.visitEvent(frame, gson.fromJson(reader, Event.class));
+                } else {
+                    reader.endArray();
+                    state = State.FRAME;
+                }
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    @SneakyThrows(IOException.class)
+    public void close() {
+        state = State.END;
+        reader.close();
+    }
+
+    private abstract static class Capture<T> implements TimelineVisitor {
+        private final boolean participantFrames;
+        private final boolean events;
+        protected T value;
+
+        private Capture(boolean participantFrames, boolean events) {
+            this.participantFrames = participantFrames;
+            this.events = events;
+        }
+
+        @Override
+        public boolean wantsParticipantFrames() {
+            return participantFrames;
+        }
+
+        @Override
+        public boolean wantsEvents() {
+            return events;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * A snapshot of all {@link ApiMetrics}, taken at one point in time.
+ */
+@Getter
+public class MetricsSnapshot {
+    /**
+     * The endpoints that received at least one request
+     */
+    private final Map<Endpoint, EndpointMetrics> endpoints;
+    /**
+     * The values of all gauges, by name
+     */
+    private final Map<String, Double> gauges;
+
+    public MetricsSnapshot(Map<Endpoint, EndpointMetrics> endpoints, Map<String, Double> gauges) {
+        this.endpoints = endpoints;
+        this.gauges = gauges;
+    }
+
+    /**
+     * @return The number of requests that completed, over all endpoints
+     */
+    public long getRequests() {
+        return endpoints.values().stream().mapToLong(EndpointMetrics::getRequests).sum();
+    }
+
+    /**
+     * @return The number of requests that failed or were answered with an error, over all endpoints
+     */
+    public long getErrors() {
+        return endpoints.values().stream().mapToLong(EndpointMetrics::getErrors).sum();
+    }
+
+    /**
+     * @return The average number of requests that completed per second during the last minute, over all endpoints
+     */
+    public double getRequestsPerSecond() {
+        return endpoints.values().stream().mapToDouble(EndpointMetrics::getRequestsPerSecond).sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (EndpointMetrics endpoint: endpoints.values()) {
+            builder.append(endpoint).append('\n');
+        }
+        for (Map.Entry<String, Double> gauge: gauges.entrySet()) {
+            builder.append(gauge.getKey()).append(" = ").append(gauge.getValue()).append('\n');
+        }
+
+        return builder.toString();
+    }
+}
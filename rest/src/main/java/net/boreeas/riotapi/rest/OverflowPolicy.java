@@ -0,0 +1,45 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * What a {@link ThrottledApiHandler} does with a new request while its queue is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * <p>
+     * Block the thread making the request until there is room in the queue.
+     * </p>
+     * Threads of a {@link WorkerPool}, including its dispatcher, are never blocked, since they complete the requests
+     * that would make room: follow-up requests made there, e.g. by batch flushes, the summoner id resolver, the match
+     * history stream or callbacks chained to a handler future, are queued beyond the limit instead. Requests made
+     * from other threads that complete requests, such as the callbacks of a custom transport, must not use this
+     * policy, or they may deadlock.
+     */
+    BLOCK,
+    /**
+     * Fail the new request with a {@link RejectedExecutionException}
+     */
+    FAIL_FAST,
+    /**
+     * Fail the oldest request of the lowest priority class with a {@link RejectedExecutionException}, unless all
+     * queued requests have a higher priority than the new one, in which case the new request fails instead
+     */
+    DROP_OLDEST
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>
+ * The stats of many participants, stored column by column in primitive arrays instead of as one object per
+ * participant. Values are kept as ints, and a column is only widened to longs if a value doesn't fit.
+ * </p>
+ * The aggregates are computed by scanning whole columns, e.g. {@link #meanByChampion(Stat)}. Rows can be read
+ * through {@link #row(int)}. The columns are not thread safe; they must not be read while participants are added.
+ */
+public class ParticipantColumns {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The numeric stats of {@link ParticipantStats}. Flags are stored as 0 or 1.
+     */
+    public enum Stat {
+        CHAMP_LEVEL(ParticipantStats::getChampLevel),
+        COMBAT_PLAYER_SCORE(ParticipantStats::getCombatPlayerScore),
+        KILLS(ParticipantStats::getKills),
+        DEATHS(ParticipantStats::getDeaths),
+        ASSISTS(ParticipantStats::getAssists),
+        DOUBLE_KILLS(ParticipantStats::getDoubleKills),
+        TRIPLE_KILLS(ParticipantStats::getTripleKills),
+        QUADRA_KILLS(ParticipantStats::getQuadraKills),
+        PENTA_KILLS(ParticipantStats::getPentaKills),
+        UNREAL_KILLS(ParticipantStats::getUnrealKills),
+        FIRST_BLOOD_ASSIST(stats -> stats.isFirstBloodAssist() ? 1 : 0),
+        FIRST_BLOOD_KILL(stats -> stats.isFirstBloodKill() ? 1 : 0),
+        FIRST_INHIBITOR_ASSIST(stats -> stats.isFirstInhibitorAssist() ? 1 : 0),
+        FIRST_INHIBITOR_KILL(stats -> stats.isFirstInhibitorKill() ? 1 : 0),
+        FIRST_TOWER_ASSIST(stats -> stats.isFirstTowerAssist() ? 1 : 0),
+        FIRST_TOWER_KILL(stats -> stats.isFirstTowerKill() ? 1 : 0),
+        GOLD_EARNED(ParticipantStats::getGoldEarned),
+        GOLD_SPENT(ParticipantStats::getGoldSpent),
+        INHIBITOR_KILLS(ParticipantStats::getInhibitorKills),
+        ITEM0(ParticipantStats::getItem0),
+        ITEM1(ParticipantStats::getItem1),
+        ITEM2(ParticipantStats::getItem2),
+        ITEM3(ParticipantStats::getItem3),
+        ITEM4(ParticipantStats::getItem4),
+        ITEM5(ParticipantStats::getItem5),
+        ITEM6(ParticipantStats::getItem6),
+        KILLING_SPREES(ParticipantStats::getKillingSprees),
+        LARGEST_CRITICAL_STRIKE(ParticipantStats::getLargestCriticalStrike),
+        LARGEST_KILLING_SPREE(ParticipantStats::getLargestKillingSpree),
+        LARGEST_MULTI_KILL(ParticipantStats::getLargestMultiKill),
+        MAGIC_DAMAGE_DEALT(ParticipantStats::getMagicDamageDealt),
+        MAGIC_DAMAGE_DEALT_TO_CHAMPIONS(ParticipantStats::getMagicDamageDealtToChampions),
+        MAGIC_DAMAGE_TAKEN(ParticipantStats::getMagicDamageTaken),
+        PHYSICAL_DAMAGE_DEALT(ParticipantStats::getPhysicalDamageDealt),
+        PHYSICAL_DAMAGE_DEALT_TO_CHAMPIONS(ParticipantStats::getPhysicalDamageDealtToChampions),
+        PHYSICAL_DAMAGE_TAKEN(ParticipantStats::getPhysicalDamageTaken),
+        TRUE_DAMAGE_DEALT(ParticipantStats::getTrueDamageDealt),
+        TRUE_DAMAGE_DEALT_TO_CHAMPIONS(ParticipantStats::getTrueDamageDealtToChampions),
+        TRUE_DAMAGE_TAKEN(ParticipantStats::getTrueDamageTaken),
+        TOTAL_DAMAGE_DEALT(ParticipantStats::getTotalDamageDealt),
+        TOTAL_DAMAGE_DEALT_TO_CHAMPIONS(ParticipantStats::getTotalDamageDealtToChampions),
+        TOTAL_DAMAGE_TAKEN(ParticipantStats::getTotalDamageTaken),
+        NEUTRAL_MINIONS_KILLED(ParticipantStats::getNeutralMinionsKilled),
+        NEUTRAL_MINIONS_KILLED_ENEMY_JUNGLE(ParticipantStats::getNeutralMinionsKilledEnemyJungle),
+        NEUTRAL_MINIONS_KILLED_TEAM_JUNGLE(ParticipantStats::getNeutralMinionsKilledTeamJungle),
+        NODE_CAPTURE(ParticipantStats::getNodeCapture),
+        NODE_CAPTURE_ASSIST(ParticipantStats::getNodeCaptureAssist),
+        NODE_NEUTRALIZE(ParticipantStats::getNodeNeutralize),
+        NODE_NEUTRALIZE_ASSIST(ParticipantStats::getNodeNeutralizeAssist),
+        OBJECTIVE_PLAYER_SCORE(ParticipantStats::getObjectivePlayerScore),
+        TEAM_OBJECTIVE(ParticipantStats::getTeamObjective),
+        TOTAL_PLAYER_SCORE(ParticipantStats::getTotalPlayerScore),
+        TOTAL_SCORE_RANK(ParticipantStats::getTotalScoreRank),
+        TOTAL_HEAL(ParticipantStats::getTotalHeal),
+        TOTAL_UNITS_HEALED(ParticipantStats::getTotalUnitsHealed),
+        SIGHT_WARDS_BOUGHT_IN_GAME(ParticipantStats::getSightWardsBoughtInGame),
+        VISION_WARDS_BOUGHT_IN_GAME(ParticipantStats::getVisionWardsBoughtInGame),
+        WARDS_KILLED(ParticipantStats::getWardsKilled),
+        WARDS_PLACED(ParticipantStats::getWardsPlaced),
+        TOTAL_TIME_CROWD_CONTROL_DEALT(ParticipantStats::getTotalTimeCrowdControlDealt),
+        TOWER_KILLS(ParticipantStats::getTowerKills),
+        WINNER(stats -> stats.isWinner() ? 1 : 0);
+
+        private final ToLongFunction<ParticipantStats> getter;
+
+        Stat(ToLongFunction<ParticipantStats> getter) {
+            this.getter = getter;
+        }
+
+        public long of(ParticipantStats stats) {
+            return getter.applyAsLong(stats);
+        }
+    }
+
+    private static final Stat[] STATS = Stat.values();
+
+    private int size;
+    private long[] matchIds = new long[INITIAL_CAPACITY];
+    private int[] participantIds = new int[INITIAL_CAPACITY];
+    private int[] championIds = new int[INITIAL_CAPACITY];
+    private int[] teamIds = new int[INITIAL_CAPACITY];
+    private final StatColumn[] stats = new StatColumn[STATS.length];
+    private int maxChampionId;
+
+    public ParticipantColumns() {
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = new StatColumn(INITIAL_CAPACITY);
+        }
+    }
+
+    /**
+     * Add a row for every participant of the match
+     */
+    public void add(Match match) {
+        for (Participant participant: match.getParticipants()) {
+            add(match.getMatchId(), participant);
+        }
+    }
+
+    /**
+     * Add a row for the participant. Participants without stats are added with all stats 0.
+     *
+     * @param matchId The id of the participant's match
+     */
+    public void add(long matchId, Participant participant) {
+        if (participant.getChampionId() < 0) {
+            throw new IllegalArgumentException("Negative champion id " + participant.getChampionId());
+        }
+
+        if (size == matchIds.length) {
+            resize(size * 2);
+        }
+
+        matchIds[size] = matchId;
+        participantIds[size] = participant.getParticipantId();
+        championIds[size] = participant.getChampionId();
+        teamIds[size] = participant.getTeamId();
+        maxChampionId = Math.max(maxChampionId, participant.getChampionId());
+
+        ParticipantStats participantStats = participant.getStats();
+        for (int i = 0; i < STATS.length; i++) {
+            stats[i].set(size, participantStats == null ? 0 : STATS[i].of(participantStats));
+        }
+        size++;
+    }
+
+    private void resize(int capacity) {
+        matchIds = Arrays.copyOf(matchIds, capacity);
+        participantIds = Arrays.copyOf(participantIds, capacity);
+        championIds = Arrays.copyOf(championIds, capacity);
+        teamIds = Arrays.copyOf(teamIds, capacity);
+        for (StatColumn column: stats) {
+            column.resize(capacity);
+        }
+    }
+
+    /**
+     * Release the capacity reserved for rows that weren't added yet
+     */
+    public void trimToSize() {
+        resize(Math.max(size, 1));
+    }
+
+    /**
+     * @return The number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return A view of the row, which reads the columns when its methods are called
+     */
+    public Row row(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return new Row(row);
+    }
+
+    /**
+     * @return The value of the stat summed over all rows
+     */
+    public long sum(Stat stat) {
+        return stats[stat.ordinal()].sum(size);
+    }
+
+    /**
+     * @return The value of the stat summed over all rows of the champion
+     */
+    public long sum(Stat stat, int championId) {
+        return stats[stat.ordinal()].sum(size, championIds, championId);
+    }
+
+    /**
+     * @return The value of the stat summed per champion, indexed by the champion id
+     */
+    public long[] sumByChampion(Stat stat) {
+        long[] sums = new long[maxChampionId + 1];
+        stats[stat.ordinal()].sumBy(size, championIds, sums);
+        return sums;
+    }
+
+    /**
+     * @return The number of rows per champion, indexed by the champion id
+     */
+    public int[] countByChampion() {
+        int[] counts = new int[maxChampionId + 1];
+        for (int i = 0; i < size; i++) {
+            counts[championIds[i]]++;
+        }
+        return counts;
+    }
+
+    /**
+     * @return The mean of the stat per champion, indexed by the champion id, or NaN for champions without rows. For
+     * flags, like {@link Stat#WINNER}, this is the share of rows that have the flag set.
+     */
+    public double[] meanByChampion(Stat stat) {
+        long[] sums = sumByChampion(stat);
+        int[] counts = countByChampion();
+        double[] means = new double[sums.length];
+        for (int i = 0; i < means.length; i++) {
+            means[i] = counts[i] == 0 ? Double.NaN : (double) sums[i] / counts[i];
+        }
+        return means;
+    }
+
+    /**
+     * A participant, read from the columns
+     */
+    public class Row {
+        private final int row;
+
+        private Row(int row) {
+            this.row = row;
+        }
+
+        public long getMatchId() {
+            return matchIds[row];
+        }
+
+        public int getParticipantId() {
+            return participantIds[row];
+        }
+
+        public int getChampionId() {
+            return championIds[row];
+        }
+
+        public int getTeamId() {
+            return teamIds[row];
+        }
+
+        public long get(Stat stat) {
+            return stats[stat.ordinal()].get(row);
+        }
+    }
+}
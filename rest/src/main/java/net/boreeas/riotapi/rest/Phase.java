@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+/**
+ * The phases of a request, as measured by {@link ApiMetrics}
+ */
+public enum Phase {
+    /**
+     * The time a request waited in a {@link ThrottledApiHandler}'s queue behind other requests
+     */
+    QUEUE,
+    /**
+     * The time a request waited at the head of the queue for a rate limit permit
+     */
+    TOKEN,
+    /**
+     * The time from sending a request until its response arrived
+     */
+    HTTP,
+    /**
+     * The time spent reading and decompressing a gzip-compressed body
+     */
+    INFLATE,
+    /**
+     * The time spent parsing the body, excluding decompression
+     */
+    PARSE
+}
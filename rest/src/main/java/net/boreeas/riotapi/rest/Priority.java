@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+/**
+ * The priority classes of queued requests. A request is only dispatched while no request of a higher class is
+ * waiting.
+ */
+public enum Priority {
+    /**
+     * Requests a user is waiting for
+     */
+    INTERACTIVE,
+    /**
+     * The default for all requests
+     */
+    NORMAL,
+    /**
+     * Crawlers and other bulk work that should only use spare capacity
+     */
+    BACKGROUND
+}
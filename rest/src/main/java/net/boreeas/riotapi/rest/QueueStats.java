@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A snapshot of the queue of one priority class in a {@link ThrottledApiHandler}.
+ */
+@Getter
+public class QueueStats {
+    private final Priority priority;
+    /**
+     * The number of requests currently waiting
+     */
+    private final int depth;
+    /**
+     * The number of requests that were dispatched
+     */
+    private final long dispatched;
+    /**
+     * The number of requests that were dropped because their deadline passed while they were waiting
+     */
+    private final long expired;
+    /**
+     * The number of requests that were cancelled while they were waiting
+     */
+    private final long cancelled;
+    /**
+     * The number of requests that were rejected or dropped because the queue was full
+     */
+    private final long rejected;
+    /**
+     * The total time dispatched requests spent in the queue, in nanoseconds
+     */
+    private final long totalWaitNanos;
+    /**
+     * The longest time a dispatched request spent in the queue, in nanoseconds
+     */
+    private final long maxWaitNanos;
+
+    public QueueStats(Priority priority, int depth, long dispatched, long expired, long cancelled, long rejected,
+                      long totalWaitNanos, long maxWaitNanos) {
+        this.priority = priority;
+        this.depth = depth;
+        this.dispatched = dispatched;
+        this.expired = expired;
+        this.cancelled = cancelled;
+        this.rejected = rejected;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    /**
+     * @param unit The unit of the result
+     * @return The average time dispatched requests spent in the queue
+     */
+    public double getAverageWait(TimeUnit unit) {
+        return dispatched == 0 ? 0 : (double) totalWaitNanos / dispatched / unit.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d waiting, %d dispatched, %d expired, %d cancelled, %d rejected, %.1fms average wait, %dms max wait",
+                priority, depth, dispatched, expired, cancelled, rejected, getAverageWait(TimeUnit.MICROSECONDS) / 1000, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import lombok.extern.log4j.Log4j;
+import net.boreeas.riotapi.ratelimit.RateLimiter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the rate limit information the api server sends along with its responses.
+ */
+@Log4j
+class RateLimitHeaders {
+    /**
+     * The requests counted by the server so far, as <code>count:seconds</code> for each window, e.g.
+     * <code>7:10,120:600</code>
+     */
+    public static final String RATE_LIMIT_COUNT = "X-Rate-Limit-Count";
+    /**
+     * The number of seconds to wait after exceeding the rate limit
+     */
+    public static final String RETRY_AFTER = "Retry-After";
+
+    private RateLimitHeaders() {
+    }
+
+    /**
+     * Synchronize the limiter with the counts reported by the server
+     * @param limiter The limiter to update
+     * @param header The value of the {@link #RATE_LIMIT_COUNT} header, may be <code>null</code>
+     */
+    public static void synchronize(RateLimiter limiter, String header) {
+        if (header == null) {
+            return;
+        }
+
+        for (String window: header.split(",")) {
+            String[] parts = window.trim().split(":");
+            if (parts.length != 2) {
+                log.warn("Malformed " + RATE_LIMIT_COUNT + " header: " + header);
+                continue;
+            }
+
+            try {
+                limiter.synchronize(Integer.parseInt(parts[0]), Long.parseLong(parts[1]), TimeUnit.SECONDS);
+            } catch (NumberFormatException ex) {
+                log.warn("Malformed " + RATE_LIMIT_COUNT + " header: " + header);
+            }
+        }
+    }
+
+    /**
+     * @param header The value of the {@link #RETRY_AFTER} header, may be <code>null</code>
+     * @param defaultNanos The time to wait if the header is missing or unreadable
+     * @return The time to wait in nanoseconds
+     */
+    public static long retryAfterNanos(String header, long defaultNanos) {
+        if (header == null) {
+            return defaultNanos;
+        }
+
+        try {
+            return TimeUnit.SECONDS.toNanos(Long.parseLong(header.trim()));
+        } catch (NumberFormatException ex) {
+            log.warn("Malformed " + RETRY_AFTER + " header: " + header);
+            return defaultNanos;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import net.boreeas.riotapi.RequestException;
+
+import javax.ws.rs.core.UriBuilder;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * An in-memory cache for responses of the dynamic api endpoints, bounded by the total size of the cached responses.
+ * </p>
+ * <p>
+ * Every endpoint has its own time to live; endpoints with a ttl of 0 are not cached. When the cache grows beyond its
+ * byte budget, the least recently used responses are evicted first, with each response weighing as much as its
+ * uncompressed body. Optionally, 404 responses are cached as well, so that lookups of e.g. unranked players don't
+ * repeatedly cost a request.
+ * </p>
+ * Each caller receives its own future, so cancelling one doesn't affect the others. Once every caller waiting for a
+ * download has cancelled its future, the download itself is cancelled and the entry is dropped. Cached objects are
+ * shared between all callers and must not be modified.
+ */
+public class ResponseCache {
+
+    /**
+     * The approximate memory overhead of an entry, in addition to its response body
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final long maxBytes;
+    private final Map<Endpoint, Long> ttls = new EnumMap<>(Endpoint.class);
+    private volatile long negativeTtl;
+
+    private final LinkedHashMap<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long negativeHits;
+
+    /**
+     * Create a new cache with the default time to live for each endpoint: 1h for summoners and matches, 10m for
+     * leagues, ranked stats, teams and champions, 2m for recent games and match lists, and 1m for featured games.
+     * Current games, static data and the status endpoints are not cached, and neither are 404 responses.
+     * @param maxBytes The maximum total size of the cached responses
+     */
+    public ResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+
+        setTtl(Endpoint.SUMMONER, 1, TimeUnit.HOURS);
+        setTtl(Endpoint.MATCH, 1, TimeUnit.HOURS);
+        setTtl(Endpoint.LEAGUE, 10, TimeUnit.MINUTES);
+        setTtl(Endpoint.STATS, 10, TimeUnit.MINUTES);
+        setTtl(Endpoint.TEAM, 10, TimeUnit.MINUTES);
+        setTtl(Endpoint.CHAMPION, 10, TimeUnit.MINUTES);
+        setTtl(Endpoint.GAME, 2, TimeUnit.MINUTES);
+        setTtl(Endpoint.MATCHLIST, 2, TimeUnit.MINUTES);
+        setTtl(Endpoint.FEATURED_GAMES, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Set how long responses of an endpoint are cached.
+     * @param endpoint The endpoint
+     * @param ttl The time to live, or 0 to not cache this endpoint
+     * @param unit The time unit of the ttl
+     */
+    public synchronized void setTtl(Endpoint endpoint, long ttl, TimeUnit unit) {
+        ttls.put(endpoint, unit.toNanos(ttl));
+    }
+
+    /**
+     * @param endpoint The endpoint
+     * @return How long responses of the endpoint are cached, in nanoseconds
+     */
+    public synchronized long getTtl(Endpoint endpoint) {
+        Long ttl = ttls.get(endpoint);
+        return ttl == null ? 0 : ttl;
+    }
+
+    /**
+     * Set how long 404 responses are cached.
+     * @param ttl The time to live, or 0 to not cache 404 responses
+     * @param unit The time unit of the ttl
+     */
+    public void setNegativeTtl(long ttl, TimeUnit unit) {
+        this.negativeTtl = unit.toNanos(ttl);
+    }
+
+    /**
+     * @param uri The request uri
+     * @return <code>true</code> if responses for that uri are cached
+     */
+    public boolean isCached(URI uri) {
+        return getTtl(Endpoint.of(uri)) > 0;
+    }
+
+    /**
+     * Look up a response, downloading it if it's not cached or has expired. Concurrent lookups of the same
+     * response share a single download, which is cancelled once all of them are cancelled.
+     * @param uri The request uri
+     * @param type The type of the parsed response
+     * @param download Requests the raw, uncompressed response body
+     * @param parser Parses the response body
+     * @param executor The executor used for parsing
+     * @return A future for the parsed response
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> get(URI uri, Type type, Supplier<CompletableFuture<byte[]>> download,
+                                        Function<byte[], T> parser, Executor executor) {
+        long ttl = getTtl(Endpoint.of(uri));
+        List<Object> key = Arrays.asList(UriBuilder.fromUri(uri).replaceQueryParam("api_key").build(), type);
+        Entry entry;
+
+        synchronized (this) {
+            Entry existing = entries.get(key);
+            if (existing != null && (existing.pending || System.nanoTime() - existing.expiresAt < 0)) {
+                hits++;
+                if (existing.negative) {
+                    negativeHits++;
+                }
+                return copy(key, existing);
+            }
+
+            if (existing != null) {
+                remove(key);
+            }
+
+            misses++;
+            entry = new Entry(new CompletableFuture<>());
+            entries.put(key, entry);
+        }
+
+        CompletableFuture<T> value = (CompletableFuture<T>) entry.value;
+        // Copied before the download starts, so that a download completing right away still finds a waiter
+        CompletableFuture<T> copy = copy(key, entry);
+        CompletableFuture<byte[]> downloading;
+        try {
+            downloading = download.get();
+        } catch (RuntimeException ex) {
+            failed(key, entry, ex);
+            value.completeExceptionally(ex);
+            return copy;
+        }
+
+        entry.download = downloading;
+        if (value.isCancelled()) {
+            // All callers cancelled before the download was known
+            downloading.cancel(false);
+        }
+
+        downloading.whenCompleteAsync((bytes, ex) -> {
+            if (ex == null) {
+                try {
+                    T result = parser.apply(bytes);
+                    completed(key, entry, bytes.length, ttl, false);
+                    value.complete(result);
+                } catch (RuntimeException parseEx) {
+                    failed(key, entry, parseEx);
+                    value.completeExceptionally(parseEx);
+                }
+            } else {
+                failed(key, entry, ex);
+                value.completeExceptionally(ex);
+            }
+        }, executor);
+
+        return copy;
+    }
+
+    /**
+     * @return A future of its own for a caller of the entry. Cancelling it detaches the caller from the download.
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized <T> CompletableFuture<T> copy(List<Object> key, Entry entry) {
+        CompletableFuture<T> copy = ((CompletableFuture<T>) entry.value).thenApply(value -> value);
+        if (entry.pending) {
+            entry.waiters++;
+            copy.whenComplete((value, ex) -> {
+                if (copy.isCancelled()) {
+                    detach(key, entry);
+                }
+            });
+        }
+
+        return copy;
+    }
+
+    private void detach(List<Object> key, Entry entry) {
+        synchronized (this) {
+            if (--entry.waiters > 0 || entry.value.isDone()) {
+                return;
+            }
+
+            // Later lookups must download the response again
+            if (entries.get(key) == entry) {
+                remove(key);
+            }
+        }
+
+        entry.value.cancel(false);
+        CompletableFuture<byte[]> download = entry.download;
+        if (download != null) {
+            download.cancel(false);
+        }
+    }
+
+    private void failed(List<Object> key, Entry entry, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        long negativeTtl = this.negativeTtl;
+
+        if (negativeTtl > 0 && cause instanceof RequestException && ((RequestException) cause).getErrorCode() == 404) {
+            completed(key, entry, 0, negativeTtl, true);
+        } else {
+            synchronized (this) {
+                if (entries.get(key) == entry) {
+                    remove(key);
+                }
+            }
+        }
+    }
+
+    private synchronized void completed(List<Object> key, Entry entry, int size, long ttl, boolean negative) {
+        if (entries.get(key) != entry) {
+            // Invalidated while the request was in flight
+            return;
+        }
+
+        entry.pending = false;
+        entry.negative = negative;
+        entry.expiresAt = System.nanoTime() + ttl;
+        entry.weight = size + ENTRY_OVERHEAD;
+        totalBytes += entry.weight;
+
+        Iterator<Map.Entry<List<Object>, Entry>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            if (eldest.pending) {
+                continue;
+            }
+
+            it.remove();
+            totalBytes -= eldest.weight;
+            evictions++;
+        }
+    }
+
+    private void remove(List<Object> key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            totalBytes -= entry.weight;
+        }
+    }
+
+    /**
+     * Remove all cached responses.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return The number of responses that were removed because the cache was full
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return The number of hits that returned a cached 404 response
+     */
+    public synchronized long getNegativeHits() {
+        return negativeHits;
+    }
+
+    /**
+     * @return The approximate total size of all cached responses
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class Entry {
+        private final CompletableFuture<?> value;
+        private volatile CompletableFuture<byte[]> download;
+        // Guarded by the cache: the callers still waiting for the download
+        private int waiters;
+        private boolean pending = true;
+        private boolean negative;
+        private long expiresAt;
+        private long weight;
+
+        private Entry(CompletableFuture<?> value) {
+            this.value = value;
+        }
+    }
+}
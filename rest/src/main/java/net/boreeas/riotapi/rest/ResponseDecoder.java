@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * <p>
+ * Turns the json body of a response into the requested type. See {@link ApiHandler#setDecoder(ResponseDecoder)}.
+ * </p>
+ * Decoders are called concurrently from all threads parsing responses, so implementations must be thread safe.
+ */
+public interface ResponseDecoder {
+
+    /**
+     * Decode a json document
+     *
+     * @param body The uncompressed, UTF-8 encoded body. It is closed by the caller
+     * @param type The type to decode
+     * @return The decoded object, or <code>null</code> if the body is empty
+     */
+    <T> T decode(InputStream body, Type type) throws IOException;
+
+    /**
+     * Decode a json document that has already been read, e.g. from a cache
+     *
+     * @param body The UTF-8 encoded body
+     * @param type The type to decode
+     * @return The decoded object, or <code>null</code> if the body is empty
+     */
+    default <T> T decode(byte[] body, Type type) throws IOException {
+        return decode(new ByteArrayInputStream(body), type);
+    }
+}
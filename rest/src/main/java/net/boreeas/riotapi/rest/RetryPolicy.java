@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import lombok.Getter;
+import net.boreeas.riotapi.RequestException;
+import net.boreeas.riotapi.http.TransportRequest;
+
+import javax.ws.rs.HttpMethod;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * When and how often a {@link FaultTolerantTransport} retries requests that failed with a server error.
+ * </p>
+ * Requests failing with 500, 503 or one of the Cloudflare errors, or with a network error, are retried after an
+ * exponential backoff with full jitter. Only idempotent requests are retried. To avoid hammering a failing server,
+ * retries are also limited by a budget that grows by <code>budgetRatio</code> with every request, so that at most
+ * that fraction of all requests are retries once the initial reserve is used up.
+ */
+@Getter
+public class RetryPolicy {
+
+    /**
+     * Never retry
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(0, 0, 0, TimeUnit.MILLISECONDS, 0);
+
+    /**
+     * The number of retries that may be made before any request added to the budget
+     */
+    public static final int BUDGET_RESERVE = 10;
+
+    private final int maxRetries;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final double budgetRatio;
+
+    /**
+     * Create a new retry policy.
+     * @param maxRetries How often a single request is retried at most
+     * @param baseDelay The maximum delay before the first retry. The maximum doubles with every retry.
+     * @param maxDelay The upper bound for the maximum delay
+     * @param unit The time unit of the delays
+     * @param budgetRatio The number of retries each request adds to the retry budget, e.g. 0.1 for 10%
+     */
+    public RetryPolicy(int maxRetries, long baseDelay, long maxDelay, TimeUnit unit, double budgetRatio) {
+        this.maxRetries = maxRetries;
+        this.baseDelayNanos = unit.toNanos(baseDelay);
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        this.budgetRatio = budgetRatio;
+    }
+
+    /**
+     * @return Up to 3 retries, starting at up to 500ms and backing off to at most 10s, with a 10% retry budget
+     */
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(3, 500, 10000, TimeUnit.MILLISECONDS, 0.1);
+    }
+
+    /**
+     * @param status The status code of a response
+     * @return <code>true</code> if the status signals a server error that may go away on its own
+     */
+    public boolean isRetryable(int status) {
+        RequestException.ErrorType type = RequestException.ErrorType.getByCode(status);
+        return type == RequestException.ErrorType.INTERNAL_SERVER_ERROR
+                || type == RequestException.ErrorType.SERVICE_UNAVAILABLE
+                || type != null && type.name().startsWith("CLOUDFLARE");
+    }
+
+    /**
+     * @param request The request
+     * @return <code>true</code> if sending the request twice has the same effect as sending it once
+     */
+    public boolean isIdempotent(TransportRequest request) {
+        return HttpMethod.GET.equals(request.getMethod()) || HttpMethod.HEAD.equals(request.getMethod());
+    }
+
+    /**
+     * @param retry The number of the retry, starting at 0
+     * @return A random delay between 0 and the maximum delay for the retry
+     */
+    public long backoffNanos(int retry) {
+        long max = baseDelayNanos << Math.min(retry, 30);
+        if (max <= 0 || max > maxDelayNanos) {
+            max = maxDelayNanos;
+        }
+
+        return max <= 0 ? 0 : ThreadLocalRandom.current().nextLong(max + 1);
+    }
+}
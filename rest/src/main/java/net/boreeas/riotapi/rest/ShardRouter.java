@@ -0,0 +1,170 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import net.boreeas.riotapi.Shard;
+import net.boreeas.riotapi.http.AsyncTransport;
+import net.boreeas.riotapi.http.Transport;
+import net.boreeas.riotapi.ratelimit.CompositeRateLimiter;
+import net.boreeas.riotapi.ratelimit.RateLimiter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Routes requests to several regions through one transport and one worker pool.
+ * </p>
+ * Each region gets its own {@link ThrottledApiHandler}, created on first use, with its own rate limits. An optional
+ * global limiter is shared by all regions. All handlers dispatch from the worker pool's single dispatcher thread,
+ * so the number of threads doesn't depend on the number of regions.
+ */
+public class ShardRouter implements AutoCloseable {
+
+    private final String token;
+    private final RateLimiter globalLimiter;
+    private final ThrottledApiHandler.Limit[] regionLimits;
+    private final Transport transport;
+    private final WorkerPool workers;
+    private final boolean ownsWorkers;
+
+    private final Map<Shard, ThrottledApiHandler> handlers = new EnumMap<>(Shard.class);
+    private final Map<Shard, Long> createdAt = new EnumMap<>(Shard.class);
+
+    /**
+     * Create a new router that sends its requests through the non-blocking transport, on its own worker pool.
+     * @param token The api key
+     * @param globalLimiter The limiter shared by all regions, or <code>null</code> if only the regions are limited
+     * @param regionLimits The limits of each region
+     */
+    public ShardRouter(String token, RateLimiter globalLimiter, ThrottledApiHandler.Limit... regionLimits) {
+        this(token, globalLimiter, new AsyncTransport(), WorkerPool.fixed(WorkerPool.DEFAULT_THREADS), true, regionLimits);
+    }
+
+    /**
+     * Create a new router that sends its requests through the specified transport. The worker pool is not closed
+     * together with the router.
+     * @param token The api key
+     * @param globalLimiter The limiter shared by all regions, or <code>null</code> if only the regions are limited
+     * @param transport The transport used to send requests
+     * @param workers The pool parsing the responses of all regions
+     * @param regionLimits The limits of each region
+     */
+    public ShardRouter(String token, RateLimiter globalLimiter, Transport transport, WorkerPool workers, ThrottledApiHandler.Limit... regionLimits) {
+        this(token, globalLimiter, transport, workers, false, regionLimits);
+    }
+
+    private ShardRouter(String token, RateLimiter globalLimiter, Transport transport, WorkerPool workers, boolean ownsWorkers,
+                        ThrottledApiHandler.Limit... regionLimits) {
+        this.token = token;
+        this.globalLimiter = globalLimiter;
+        this.regionLimits = Arrays.copyOf(regionLimits, regionLimits.length);
+        this.transport = transport;
+        this.workers = workers;
+        this.ownsWorkers = ownsWorkers;
+    }
+
+    /**
+     * @param shard The region
+     * @return The handler for the region
+     */
+    public synchronized ThrottledApiHandler get(Shard shard) {
+        ThrottledApiHandler handler = handlers.get(shard);
+        if (handler == null) {
+            RateLimiter limiter = ThrottledApiHandler.Limit.toRateLimiter(regionLimits);
+            if (globalLimiter != null) {
+                limiter = new CompositeRateLimiter(limiter, globalLimiter);
+            }
+
+            handler = new ThrottledApiHandler(shard, token, transport, workers, limiter);
+            handlers.put(shard, handler);
+            createdAt.put(shard, System.nanoTime());
+        }
+
+        return handler;
+    }
+
+    /**
+     * Make a request to a region, e.g. <code>router.route(Shard.KR, api -&gt; api.getSummoner(name))</code>.
+     * @param shard The region
+     * @param call The request
+     * @return The result of the request
+     */
+    public <T> CompletableFuture<T> route(Shard shard, Function<ThrottledApiHandler, CompletableFuture<T>> call) {
+        return call.apply(get(shard));
+    }
+
+    /**
+     * @param shard The region
+     * @return The throughput of the region, or <code>null</code> if no request was routed to it yet
+     */
+    public synchronized ShardStats getStats(Shard shard) {
+        ThrottledApiHandler handler = handlers.get(shard);
+        if (handler == null) {
+            return null;
+        }
+
+        long dispatched = 0;
+        for (Priority priority: Priority.values()) {
+            dispatched += handler.getQueueStats(priority).getDispatched();
+        }
+
+        return new ShardStats(shard, dispatched, handler.getPendingRequests(), handler.getRateLimiter().availablePermits(),
+                System.nanoTime() - createdAt.get(shard));
+    }
+
+    /**
+     * @return The throughput of all regions that requests were routed to
+     */
+    public synchronized Map<Shard, ShardStats> getStats() {
+        Map<Shard, ShardStats> stats = new EnumMap<>(Shard.class);
+        for (Shard shard: handlers.keySet()) {
+            stats.put(shard, getStats(shard));
+        }
+
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * @return The limiter shared by all regions, or <code>null</code>
+     */
+    public RateLimiter getGlobalLimiter() {
+        return globalLimiter;
+    }
+
+    public WorkerPool getWorkerPool() {
+        return workers;
+    }
+
+    /**
+     * Closes the handlers of all regions, and the worker pool if it was created by this router.
+     */
+    @Override
+    public synchronized void close() {
+        for (ThrottledApiHandler handler: handlers.values()) {
+            handler.close();
+        }
+
+        if (ownsWorkers) {
+            workers.close();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import lombok.Getter;
+import net.boreeas.riotapi.Shard;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A snapshot of the requests a {@link ShardRouter} sent to one region.
+ */
+@Getter
+public class ShardStats {
+    private final Shard shard;
+    /**
+     * The number of requests that were dispatched
+     */
+    private final long dispatched;
+    /**
+     * The number of requests currently waiting for a permit
+     */
+    private final int pending;
+    /**
+     * The number of permits the region could use right now, including the global limit
+     */
+    private final int availablePermits;
+    /**
+     * The time since the first request to the region, in nanoseconds
+     */
+    private final long elapsedNanos;
+
+    public ShardStats(Shard shard, long dispatched, int pending, int availablePermits, long elapsedNanos) {
+        this.shard = shard;
+        this.dispatched = dispatched;
+        this.pending = pending;
+        this.availablePermits = availablePermits;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return The average number of requests dispatched per second since the first request to the region
+     */
+    public double getRequestsPerSecond() {
+        return elapsedNanos <= 0 ? 0 : dispatched * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d dispatched (%.2f/s), %d waiting, %d permits available", shard, dispatched,
+                getRequestsPerSecond(), pending, availablePermits);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Coalesces identical requests that are in flight at the same time. The first caller for a key executes the
+ * request; callers that arrive before it completes attach to the same result instead of sending a duplicate.
+ * </p>
+ * Each caller receives its own future, so completing or cancelling one doesn't affect the others. Once every caller
+ * has cancelled its future, the request itself is cancelled. The result object itself is shared between all
+ * callers and should not be modified.
+ */
+public class SingleFlight {
+
+    private final ConcurrentMap<Object, Flight<?>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Execute the request, unless an identical one is already in flight.
+     * @param key The key identifying identical requests
+     * @param request The request to execute
+     * @return A future for the result of the request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(Object key, Supplier<CompletableFuture<T>> request) {
+        Flight<T> created = new Flight<>();
+        Flight<T> existing;
+        while ((existing = (Flight<T>) inFlight.putIfAbsent(key, created)) != null) {
+            if (existing.attach()) {
+                hits.incrementAndGet();
+                return existing.copy(key);
+            }
+
+            // All callers of the existing flight cancelled it
+            inFlight.remove(key, existing);
+        }
+
+        misses.incrementAndGet();
+        created.attach();
+        try {
+            created.request = request.get();
+            created.request.whenComplete((result, ex) -> {
+                // Later callers must send a new request
+                inFlight.remove(key, created);
+                if (ex == null) {
+                    created.result.complete(result);
+                } else {
+                    created.result.completeExceptionally(ex);
+                }
+            });
+        } catch (RuntimeException ex) {
+            inFlight.remove(key, created);
+            created.result.completeExceptionally(ex);
+        }
+
+        return created.copy(key);
+    }
+
+    /**
+     * A request in flight, and the number of callers still waiting for it
+     */
+    private class Flight<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile CompletableFuture<T> request;
+        private int callers;
+        private boolean cancelled;
+
+        private synchronized boolean attach() {
+            if (cancelled) {
+                return false;
+            }
+
+            callers++;
+            return true;
+        }
+
+        private CompletableFuture<T> copy(Object key) {
+            CompletableFuture<T> copy = result.thenApply(value -> value);
+            copy.whenComplete((value, ex) -> {
+                if (copy.isCancelled()) {
+                    detach(key);
+                }
+            });
+            return copy;
+        }
+
+        private void detach(Object key) {
+            synchronized (this) {
+                if (--callers > 0 || result.isDone()) {
+                    return;
+                }
+                cancelled = true;
+            }
+
+            inFlight.remove(key, this);
+            CompletableFuture<T> request = this.request;
+            if (request != null) {
+                request.cancel(false);
+            }
+            result.cancel(false);
+        }
+    }
+
+    /**
+     * @return The number of requests that attached to an identical request in flight
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of requests that were actually sent
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return The number of distinct requests currently in flight
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
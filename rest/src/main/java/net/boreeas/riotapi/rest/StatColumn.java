@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import java.util.Arrays;
+
+/**
+ * A column of numbers that is stored as an <code>int[]</code> until a value doesn't fit into an int, and is then
+ * widened to a <code>long[]</code>. The scans are plain counted loops over one array, which the JIT can unroll and
+ * vectorize.
+ */
+final class StatColumn {
+    private int[] ints;
+    private long[] longs;
+
+    StatColumn(int capacity) {
+        ints = new int[capacity];
+    }
+
+    long get(int row) {
+        return longs != null ? longs[row] : ints[row];
+    }
+
+    void set(int row, long value) {
+        if (longs != null) {
+            longs[row] = value;
+        } else if ((int) value == value) {
+            ints[row] = (int) value;
+        } else {
+            longs = new long[ints.length];
+            for (int i = 0; i < ints.length; i++) {
+                longs[i] = ints[i];
+            }
+            ints = null;
+            longs[row] = value;
+        }
+    }
+
+    void resize(int capacity) {
+        if (longs != null) {
+            longs = Arrays.copyOf(longs, capacity);
+        } else {
+            ints = Arrays.copyOf(ints, capacity);
+        }
+    }
+
+    boolean isWide() {
+        return longs != null;
+    }
+
+    long sum(int size) {
+        long sum = 0;
+        if (longs != null) {
+            for (int i = 0; i < size; i++) {
+                sum += longs[i];
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                sum += ints[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return The sum of the rows whose key equals the key
+     */
+    long sum(int size, int[] keys, int key) {
+        long sum = 0;
+        if (longs != null) {
+            for (int i = 0; i < size; i++) {
+                sum += keys[i] == key ? longs[i] : 0;
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                sum += keys[i] == key ? ints[i] : 0;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Add every row to the sum of its key
+     */
+    void sumBy(int size, int[] keys, long[] sums) {
+        if (longs != null) {
+            for (int i = 0; i < size; i++) {
+                sums[keys[i]] += longs[i];
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                sums[keys[i]] += ints[i];
+            }
+        }
+    }
+}
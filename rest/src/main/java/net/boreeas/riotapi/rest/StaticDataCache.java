@@ -0,0 +1,351 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import lombok.extern.log4j.Log4j;
+
+import javax.ws.rs.core.UriBuilder;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * A persistent cache for static data responses, shared by all api handlers that use it.
+ * </p>
+ * <p>
+ * Responses are stored on disk as <code>region/version/hash.json</code>, where the hash is computed from the request
+ * uri without the api key, so it covers the endpoint, locale and data flags. Requests that don't ask for a specific
+ * version are stored under the current patch of the region. The current patch is checked against the versions
+ * endpoint once per {@link #VERSION_CHECK_INTERVAL}, and whenever {@link ApiHandler#getVersions()} is called; when
+ * it changes, the responses of the previous patch are deleted.
+ * </p>
+ * Entries are loaded lazily on first use, and their parsed objects are kept in memory afterwards. Those objects are
+ * shared between all callers and must not be modified.
+ */
+@Log4j
+public class StaticDataCache {
+
+    /**
+     * System property that sets the directory of the default cache
+     */
+    public static final String DIRECTORY_PROPERTY = "riotapi.staticdata.cache";
+    public static final long VERSION_CHECK_INTERVAL = TimeUnit.HOURS.toNanos(1);
+    private static final String CURRENT_VERSION_FILE = "current";
+
+    private static StaticDataCache defaultCache;
+
+    private final Path directory;
+    private final ConcurrentMap<String, RegionState> regions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<Object>, CompletableFuture<?>> parsed = new ConcurrentHashMap<>();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create a new cache.
+     * @param directory The directory the responses are stored in
+     */
+    public StaticDataCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return The cache shared by all api handlers in this JVM. It is stored in the directory set by the
+     * {@link #DIRECTORY_PROPERTY} system property, or in <code>riotapi-static-data</code> in the temp directory.
+     */
+    public static synchronized StaticDataCache getDefault() {
+        if (defaultCache == null) {
+            String dir = System.getProperty(DIRECTORY_PROPERTY);
+            defaultCache = new StaticDataCache(dir != null
+                    ? Paths.get(dir)
+                    : Paths.get(System.getProperty("java.io.tmpdir"), "riotapi-static-data"));
+        }
+
+        return defaultCache;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Look up a static data response, downloading it if it's not cached yet.
+     * @param region The region the request is sent to
+     * @param uri The request uri
+     * @param type The type of the parsed response
+     * @param latestVersion Requests the current patch of the region
+     * @param download Requests the raw, uncompressed response body
+     * @param parser Parses the response body
+     * @param executor The executor used for disk access and parsing
+     * @return A future for the parsed response
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> get(String region, URI uri, Type type,
+                                        Supplier<CompletableFuture<String>> latestVersion,
+                                        Supplier<CompletableFuture<byte[]>> download,
+                                        Function<byte[], T> parser, Executor executor) {
+        String requestedVersion = queryParam(uri, "version");
+        CompletableFuture<String> version = requestedVersion != null
+                ? CompletableFuture.completedFuture(requestedVersion)
+                : currentVersion(region, latestVersion);
+
+        String hash = hash(uri);
+        return version.thenCompose(v -> {
+            List<Object> key = Arrays.asList(region, v, hash, type);
+            CompletableFuture<T> existing = (CompletableFuture<T>) parsed.get(key);
+            if (existing != null) {
+                memoryHits.incrementAndGet();
+                return existing;
+            }
+
+            CompletableFuture<T> created = new CompletableFuture<>();
+            existing = (CompletableFuture<T>) parsed.putIfAbsent(key, created);
+            if (existing != null) {
+                memoryHits.incrementAndGet();
+                return existing;
+            }
+
+            load(file(region, v, hash), download, parser, executor).whenComplete((result, ex) -> {
+                if (ex == null) {
+                    created.complete(result);
+                } else {
+                    // Don't cache failures
+                    parsed.remove(key, created);
+                    created.completeExceptionally(ex);
+                }
+            });
+
+            return created;
+        });
+    }
+
+    private <T> CompletableFuture<T> load(Path file, Supplier<CompletableFuture<byte[]>> download,
+                                          Function<byte[], T> parser, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> read(file), executor).thenCompose(bytes -> {
+            if (bytes != null) {
+                diskHits.incrementAndGet();
+                return CompletableFuture.completedFuture(bytes);
+            }
+
+            misses.incrementAndGet();
+            return download.get().thenApplyAsync(downloaded -> {
+                write(file, downloaded);
+                return downloaded;
+            }, executor);
+        }).thenApplyAsync(parser, executor);
+    }
+
+    /**
+     * Records the current patch of a region, as reported by the versions endpoint. If it differs from the patch
+     * seen before, the responses cached for the previous patch are deleted.
+     * @param region The region
+     * @param version The current patch
+     */
+    public void updateVersion(String region, String version) {
+        RegionState state = state(region);
+        synchronized (state) {
+            state.checkedAt = System.nanoTime();
+            state.checked = true;
+            String previous = state.version;
+            if (version.equals(previous)) {
+                return;
+            }
+
+            state.version = version;
+            write(directory.resolve(region).resolve(CURRENT_VERSION_FILE), version.getBytes(StandardCharsets.UTF_8));
+
+            if (previous != null) {
+                log.info("Static data for " + region + " changed from " + previous + " to " + version);
+                parsed.keySet().removeIf(key -> key.get(0).equals(region) && key.get(1).equals(previous));
+                delete(directory.resolve(region).resolve(previous));
+            }
+        }
+    }
+
+    private CompletableFuture<String> currentVersion(String region, Supplier<CompletableFuture<String>> latestVersion) {
+        RegionState state = state(region);
+        synchronized (state) {
+            if (state.checked && System.nanoTime() - state.checkedAt < VERSION_CHECK_INTERVAL) {
+                return CompletableFuture.completedFuture(state.version);
+            }
+
+            if (state.pendingCheck != null) {
+                return state.pendingCheck;
+            }
+
+            CompletableFuture<String> check = latestVersion.get().handle((version, ex) -> {
+                if (ex == null) {
+                    updateVersion(region, version);
+                    return version;
+                }
+
+                synchronized (state) {
+                    if (state.version == null) {
+                        throw new IllegalStateException("Failed to retrieve the current version for " + region, ex);
+                    }
+
+                    log.warn("Failed to retrieve the current version for " + region + ", using " + state.version, ex);
+                    return state.version;
+                }
+            });
+
+            state.pendingCheck = check;
+            check.whenComplete((version, ex) -> {
+                synchronized (state) {
+                    if (state.pendingCheck == check) {
+                        state.pendingCheck = null;
+                    }
+                }
+            });
+
+            return check;
+        }
+    }
+
+    private RegionState state(String region) {
+        return regions.computeIfAbsent(region, r -> {
+            RegionState state = new RegionState();
+            byte[] persisted = read(directory.resolve(r).resolve(CURRENT_VERSION_FILE));
+            state.version = persisted == null ? null : new String(persisted, StandardCharsets.UTF_8).trim();
+            return state;
+        });
+    }
+
+    private Path file(String region, String version, String hash) {
+        return directory.resolve(region).resolve(version).resolve(hash + ".json");
+    }
+
+    /**
+     * @return The number of lookups served from memory
+     */
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    /**
+     * @return The number of lookups served from disk
+     */
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    /**
+     * @return The number of lookups that had to be downloaded
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static String queryParam(URI uri, String name) {
+        String query = uri.getQuery();
+        if (query == null) {
+            return null;
+        }
+
+        for (String param: query.split("&")) {
+            if (param.startsWith(name + "=")) {
+                return param.substring(name.length() + 1);
+            }
+        }
+
+        return null;
+    }
+
+    private static String hash(URI uri) {
+        String key = UriBuilder.fromUri(uri).replaceQueryParam("api_key").build().toString();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            return String.format("%040x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-1 not supported", ex);
+        }
+    }
+
+    private static byte[] read(Path file) {
+        try {
+            return Files.exists(file) ? Files.readAllBytes(file) : null;
+        } catch (IOException ex) {
+            log.warn("Failed to read cached static data from " + file, ex);
+            return null;
+        }
+    }
+
+    private static void write(Path file, byte[] data) {
+        try {
+            Files.createDirectories(file.getParent());
+            // Write to a temporary file first, so that other processes never see a partial file
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(tmp, data);
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to write static data to " + file, ex);
+        }
+    }
+
+    private static void delete(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException ex) {
+            log.warn("Failed to delete outdated static data in " + dir, ex);
+        }
+    }
+
+    private static class RegionState {
+        private String version;
+        private boolean checked;
+        private long checkedAt;
+        private CompletableFuture<String> pendingCheck;
+    }
+}
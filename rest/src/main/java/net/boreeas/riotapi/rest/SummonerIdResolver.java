@@ -0,0 +1,219 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import lombok.SneakyThrows;
+import net.boreeas.riotapi.RequestException;
+import net.boreeas.riotapi.Util;
+
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Resolves large numbers of summoner names to summoner ids.
+ * </p>
+ * Names are standardized and deduplicated once, and split into the largest batches the by-name endpoint accepts,
+ * both in number of names and in URL length. All batches are sent at once, so that a throttling handler can send
+ * them as fast as its limits allow, and results are reported as each batch arrives. Resolved ids are kept, so that
+ * resolving the same names again doesn't send any requests.
+ */
+public class SummonerIdResolver {
+
+    /**
+     * The maximum number of names per by-name request
+     */
+    public static final int MAX_NAMES_PER_REQUEST = 40;
+    /**
+     * The maximum length of the URL-encoded, comma separated names in a single request
+     */
+    public static final int MAX_PATH_LENGTH = 2000;
+
+    private final Function<String[], CompletableFuture<Map<String, Summoner>>> lookup;
+    private final Map<String, Long> ids = new ConcurrentHashMap<>();
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong namesRequested = new AtomicLong();
+    private final AtomicLong requestsSent = new AtomicLong();
+
+    /**
+     * Create a new resolver.
+     * @param lookup The by-name summoner request, such as {@link ApiHandler#getSummonersAsync(String...)}
+     */
+    public SummonerIdResolver(Function<String[], CompletableFuture<Map<String, Summoner>>> lookup) {
+        this.lookup = lookup;
+    }
+
+    /**
+     * Resolve summoner names to ids.
+     * @param names The names to resolve
+     * @return A future for a map from standardized names to ids. Names without a summoner are left out.
+     * @see Util#standardizeSummonerName(String)
+     */
+    public CompletableFuture<Map<String, Long>> resolve(Collection<String> names) {
+        return resolve(names, (name, id) -> {});
+    }
+
+    /**
+     * Resolve summoner names to ids, reporting every resolved name as soon as its batch arrives. The listener is
+     * called for cached names right away, and from the threads completing the requests for all other names.
+     * @param names The names to resolve
+     * @param listener Receives each standardized name and its id
+     * @return A future for a map from standardized names to ids. Names without a summoner are left out.
+     * @see Util#standardizeSummonerName(String)
+     */
+    public CompletableFuture<Map<String, Long>> resolve(Collection<String> names, BiConsumer<String, Long> listener) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String name: names) {
+            distinct.add(Util.standardizeSummonerName(name));
+        }
+
+        Map<String, Long> result = new ConcurrentHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String name: distinct) {
+            Long id = ids.get(name);
+            if (id == null) {
+                missing.add(name);
+            } else {
+                cacheHits.incrementAndGet();
+                result.put(name, id);
+                listener.accept(name, id);
+            }
+        }
+
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (List<String> batch: split(missing)) {
+            requestsSent.incrementAndGet();
+            namesRequested.addAndGet(batch.size());
+
+            batches.add(lookup.apply(batch.toArray(new String[batch.size()]))
+                    .exceptionally(SummonerIdResolver::noneFound)
+                    .thenAccept(summoners -> {
+                        for (Map.Entry<String, Summoner> entry: summoners.entrySet()) {
+                            String name = Util.standardizeSummonerName(entry.getKey());
+                            long id = entry.getValue().getId();
+
+                            ids.put(name, id);
+                            result.put(name, id);
+                            listener.accept(name, id);
+                        }
+                    }));
+        }
+
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[batches.size()])).thenApply(v -> result);
+    }
+
+    /**
+     * The endpoint answers with 404 if none of the names in a batch exist
+     */
+    @SneakyThrows
+    private static Map<String, Summoner> noneFound(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof RequestException && ((RequestException) cause).getErrorCode() == 404) {
+            return Collections.emptyMap();
+        }
+
+        throw cause;
+    }
+
+    /**
+     * Split names into batches that fit a single request
+     */
+    static List<List<String>> split(List<String> names) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>();
+        int length = 0;
+
+        for (String name: names) {
+            int encoded = encodedLength(name) + (batch.isEmpty() ? 0 : 1);
+            if (!batch.isEmpty() && (batch.size() == MAX_NAMES_PER_REQUEST || length + encoded > MAX_PATH_LENGTH)) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                length = 0;
+                encoded = encodedLength(name);
+            }
+
+            batch.add(name);
+            length += encoded;
+        }
+
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+
+        return batches;
+    }
+
+    @SneakyThrows
+    private static int encodedLength(String name) {
+        return URLEncoder.encode(name, "UTF-8").length();
+    }
+
+    /**
+     * @return The cached id of a summoner, or <code>null</code> if the name hasn't been resolved yet
+     */
+    public Long getCachedId(String name) {
+        return ids.get(Util.standardizeSummonerName(name));
+    }
+
+    /**
+     * Forget all resolved names, e.g. after name changes
+     */
+    public void clear() {
+        ids.clear();
+    }
+
+    /**
+     * @return The number of cached names
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * @return The number of names that were answered from the cache
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * @return The number of names that were sent to the server
+     */
+    public long getNamesRequested() {
+        return namesRequested.get();
+    }
+
+    /**
+     * @return The number of requests that were sent
+     */
+    public long getRequestsSent() {
+        return requestsSent.get();
+    }
+}
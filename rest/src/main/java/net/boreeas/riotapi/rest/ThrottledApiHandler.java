@@ -16,112 +16,649 @@
 
 package net.boreeas.riotapi.rest;
 
+import com.google.gson.Gson;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.Setter;
 import net.boreeas.riotapi.Version;
 import net.boreeas.riotapi.com.riotgames.platform.game.QueueType;
 import net.boreeas.riotapi.constants.Season;
+import net.boreeas.riotapi.RequestException;
 import net.boreeas.riotapi.Shard;
+import net.boreeas.riotapi.Util;
 import net.boreeas.riotapi.com.riotgames.leagues.pojo.LeagueList;
 import net.boreeas.riotapi.com.riotgames.leagues.pojo.LeagueItem;
 import net.boreeas.riotapi.com.riotgames.platform.summoner.spellbook.RunePage;
+import net.boreeas.riotapi.http.AsyncTransport;
+import net.boreeas.riotapi.http.BufferPool;
+import net.boreeas.riotapi.http.Transport;
+import net.boreeas.riotapi.http.TransportRequest;
+import net.boreeas.riotapi.http.TransportResponse;
+import net.boreeas.riotapi.ratelimit.CompositeRateLimiter;
+import net.boreeas.riotapi.ratelimit.RateLimiter;
+import net.boreeas.riotapi.ratelimit.TokenBucket;
 import net.boreeas.riotapi.rest.api.CurrentGameHandler;
 import net.boreeas.riotapi.rest.api.FeaturedGamesHandler;
 import net.boreeas.riotapi.rest.api.LoLRestApi;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
+ * <p>
+ * An asynchronous api handler that keeps requests within the configured rate limits.
+ * </p>
+ * All methods return a {@link CompletableFuture}, so dependent lookups can be chained with
+ * <code>thenCompose</code> and friends instead of blocking on <code>get()</code>.
+ * Requests are sent through a non-blocking {@link Transport} by default, so neither queued nor in-flight requests
+ * occupy a thread; the worker pool only dispatches requests and parses responses.
+ * Identical requests that are in flight at the same time are only sent once, and share their result objects.
+ * Queued requests are dispatched by {@link Priority}, and may be given a deadline after which they are dropped
+ * instead of sent (see {@link #withPriority(Priority, Supplier)}). Server errors are retried, and endpoints that
+ * keep failing are shut off for a while (see {@link FaultTolerantTransport}). Latencies, status codes, the queue
+ * depth and the fill level of the rate limits are recorded in {@link #getMetrics()}.
  * Created on 4/23/2014.
  */
 public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
 
+    /**
+     * @deprecated Limits are no longer refilled periodically, but computed exactly on demand.
+     */
+    @Deprecated
     public static final int PERIOD = 50; // 0.05s
 
-    private float[] limits;
-    private Queue<ApiFuture> pending = new LinkedList<>();
-    private Timer timer = new Timer(true);
+    /**
+     * How often a request that was rejected with 429 is queued again before the error is passed on
+     */
+    public static final int MAX_RATE_LIMIT_RETRIES = 3;
+    private static final long DEFAULT_RETRY_AFTER = TimeUnit.SECONDS.toNanos(1);
+    private static final String API_KEY = "api_key";
+
+    private final ApiKeyPool keys;
+    private final Map<Priority, Deque<ApiFuture>> pending = new EnumMap<>(Priority.class);
+    private final Map<Priority, QueueCounters> queueStats = new EnumMap<>(Priority.class);
+    private final ThreadLocal<Tag> tag = new ThreadLocal<>();
+    private volatile Priority defaultPriority = Priority.NORMAL;
+    private int maxPending = Integer.MAX_VALUE;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.FAIL_FAST;
+    private final ScheduledExecutorService scheduler;
+    private boolean wakeupScheduled;
+    private boolean closed;
+
+    private final WorkerPool workers;
+    private final boolean ownsWorkers;
+    private final Transport transport;
+    private final boolean ownsTransport;
+    private final FaultTolerantTransport faultTolerance;
+    private final ApiMetrics metrics = new ApiMetrics();
 
     private ApiHandler handler;
+    private volatile Batchers batchers;
 
     @Getter public final AsyncCurrentGameHandler currentGameHandler = new AsyncCurrentGameHandler();
     @Getter public final AsyncFeaturedGamesHandler featuredGamesHandler = new AsyncFeaturedGamesHandler();
 
 
     public ThrottledApiHandler(Shard shard, String token, Limit... lim) {
-        this.handler = new ApiHandler(shard, token);
+        this(shard, token, Limit.toRateLimiter(lim));
+    }
 
-        limits = new float[lim.length];
-        for (int i = 0; i < lim.length; i++) {
+    /**
+     * Create a new throttled api handler which uses the specified rate limiter. This allows sharing a limiter
+     * between several handlers or other modules.
+     * @param shard The target region
+     * @param token The api key
+     * @param limiter The rate limiter that all requests must acquire a permit from
+     */
+    public ThrottledApiHandler(Shard shard, String token, RateLimiter limiter) {
+        this(shard, new AsyncTransport(), true, WorkerPool.fixed(WorkerPool.DEFAULT_THREADS), true, new ApiKeyPool().add(token, limiter));
+    }
 
-            final int ii = i;
-            final float ticksToMax = (lim[ii].unit.toMillis(lim[ii].timeDeltaToMax) / (float) PERIOD);
-            final float delta = lim[ii].maxValue / ticksToMax;
+    /**
+     * Create a new throttled api handler which executes its requests on the specified worker pool. The pool is
+     * not closed together with the handler, so it may be shared between several handlers.
+     * @param shard The target region
+     * @param token The api key
+     * @param workers The pool executing the requests
+     * @param limiter The rate limiter that all requests must acquire a permit from
+     */
+    public ThrottledApiHandler(Shard shard, String token, WorkerPool workers, RateLimiter limiter) {
+        this(shard, new AsyncTransport(), true, workers, false, new ApiKeyPool().add(token, limiter));
+    }
 
-            timer.scheduleAtFixedRate(new TimerTask() {
-                @Override
-                public void run() {
-                    limits[ii] += delta;
-                    if (limits[ii] > lim[ii].maxValue) {
-                        limits[ii] = lim[ii].maxValue;
-                    }
-                }
-            }, 0, PERIOD);
+    /**
+     * Create a new throttled api handler which sends its requests through the specified transport. Responses are
+     * parsed on the worker pool, which is not closed together with the handler.
+     * @param shard The target region
+     * @param token The api key
+     * @param transport The transport used to send requests
+     * @param workers The pool parsing the responses
+     * @param limiter The rate limiter that all requests must acquire a permit from
+     */
+    public ThrottledApiHandler(Shard shard, String token, Transport transport, WorkerPool workers, RateLimiter limiter) {
+        this(shard, transport, false, workers, false, new ApiKeyPool().add(token, limiter));
+    }
+
+    /**
+     * Create a new throttled api handler which spreads its requests across several api keys. Each request is sent
+     * with the key that has the most permits left.
+     * @param shard The target region
+     * @param keys The api keys and their limits
+     */
+    public ThrottledApiHandler(Shard shard, ApiKeyPool keys) {
+        this(shard, new AsyncTransport(), true, WorkerPool.fixed(WorkerPool.DEFAULT_THREADS), true, keys);
+    }
+
+    /**
+     * Create a new throttled api handler which spreads its requests across several api keys, and sends them
+     * through the specified transport. Responses are parsed on the worker pool, which is not closed together with
+     * the handler.
+     * @param shard The target region
+     * @param keys The api keys and their limits
+     * @param transport The transport used to send requests
+     * @param workers The pool parsing the responses
+     */
+    public ThrottledApiHandler(Shard shard, ApiKeyPool keys, Transport transport, WorkerPool workers) {
+        this(shard, transport, false, workers, false, keys);
+    }
+
+    private ThrottledApiHandler(Shard shard, Transport transport, boolean ownsTransport, WorkerPool workers, boolean ownsWorkers, ApiKeyPool keys) {
+        if (keys.size() == 0) {
+            throw new IllegalArgumentException("At least one api key is required");
+        }
+
+        this.transport = transport;
+        this.ownsTransport = ownsTransport;
+        this.workers = workers;
+        this.ownsWorkers = ownsWorkers;
+        this.scheduler = workers.getScheduler();
+        this.keys = keys;
+        for (Priority priority: Priority.values()) {
+            pending.put(priority, new ArrayDeque<>());
+            queueStats.put(priority, new QueueCounters());
         }
 
-        timer.scheduleAtFixedRate(new TimerTask() {
+        this.faultTolerance = new FaultTolerantTransport(new ThrottledTransport(), scheduler) {
             @Override
-            public void run() {
-                while (limitsOpen() && !pending.isEmpty()) {
-                    ApiFuture future = pending.poll();
-                    executeFutureRequest(future);
-                    for (int i = 0; i < limits.length; i++) {
-                        limits[i]--;
-                    }
-                }
+            protected Executor captureContext() {
+                // Retries are queued with the priority and deadline of the original request
+                Tag requestTag = tag.get();
+                return retry -> tagged(requestTag, () -> {
+                    retry.run();
+                    return null;
+                });
             }
-        }, 0, PERIOD);
+        };
+        this.handler = new ApiHandler(shard, keys.getKeys().get(0).getToken(), faultTolerance, workers);
+        this.handler.setSingleFlight(new SingleFlight());
+        // The api handler would count the time spent in the queue as transport time
+        this.handler.setMetrics(metrics, false);
+        registerGauges();
+    }
+
+    private void registerGauges() {
+        metrics.gauge("queue.depth", this::getPendingRequests);
+        for (Priority priority: Priority.values()) {
+            metrics.gauge("queue.depth." + priority.name().toLowerCase(), () -> getQueueDepth(priority));
+        }
+        metrics.gauge("keys.active", () -> keys.getKeys().stream().filter(key -> !key.isRetired()).count());
+        metrics.gauge("tokens.available", () -> keys.getKeys().stream().mapToInt(key -> key.getLimiter().availablePermits()).sum());
+        metrics.gauge("tokens.fill", () -> keys.getKeys().stream().mapToDouble(key -> ApiMetrics.fillLevel(key.getLimiter())).average().orElse(0));
+        // Breaker states are reported by ordinal (closed, open, half open). The breakers are looked up on every read,
+        // as setCircuitBreakers replaces them
+        for (Endpoint endpoint: Endpoint.values()) {
+            String prefix = "breaker." + endpoint.name().toLowerCase();
+            metrics.gauge(prefix + ".state", () -> faultTolerance.getCircuitBreaker(endpoint).getState().ordinal());
+            metrics.gauge(prefix + ".opened", () -> faultTolerance.getCircuitBreaker(endpoint).getTimesOpened());
+            metrics.gauge(prefix + ".rejected", () -> faultTolerance.getCircuitBreaker(endpoint).getRejected());
+        }
+        metrics.gauge("retry.count", faultTolerance::getRetries);
+        metrics.gauge("retry.budget", faultTolerance::getRetryBudget);
+        metrics.gauge("retry.budgetExhausted", faultTolerance::getBudgetExhausted);
+        // Shared by all readers in the JVM
+        BufferPool pool = BufferPool.getDefault();
+        metrics.gauge("pool.inflater.hitRate", pool::getInflaterHitRate);
+        metrics.gauge("pool.buffer.hitRate", pool::getBufferHitRate);
+    }
+
+    private synchronized int getQueueDepth(Priority priority) {
+        return pending.get(priority).size();
     }
 
     private void executeFutureRequest(ApiFuture future) {
-        Thread thread = new Thread(() -> {
-            try {
-                future.setValue(future.getRequest().call());
-            } catch (Exception e) {
-                future.setErr(e);
+        workers.execute(future::run);
+    }
+
+    /**
+     * Queues a new request, applying the overflow policy while the queue is full
+     */
+    private synchronized void scheduleNext(ApiFuture t) {
+        while (!closed && !t.isDone() && getPendingRequests() >= maxPending) {
+            if (overflowPolicy == OverflowPolicy.BLOCK && WorkerPool.isWorkerThread()) {
+                // Blocking a worker or the dispatcher could stall the requests that would make room in the queue, so
+                // the request waits in the queue instead, beyond the limit
+                break;
             }
 
-            future.getSignal().countDown();
-        });
+            switch (overflowPolicy) {
+                case BLOCK:
+                    try {
+                        wait();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        t.completeExceptionally(ex);
+                    }
+                    break;
+                case DROP_OLDEST:
+                    ApiFuture oldest = removeOldest(t.priority);
+                    reject(oldest == null ? t : oldest);
+                    break;
+                default:
+                    reject(t);
+            }
+        }
 
+        if (closed) {
+            rejectClosed(t);
+        } else if (!t.isDone()) {
+            pending.get(t.priority).add(t);
+            drain();
+        }
+    }
+
+    /**
+     * Removes the oldest request of the lowest priority class that isn't more important than the specified one
+     */
+    private ApiFuture removeOldest(Priority atMost) {
+        Priority[] priorities = Priority.values();
+        for (int i = priorities.length - 1; i >= atMost.ordinal(); i--) {
+            ApiFuture oldest = pending.get(priorities[i]).poll();
+            if (oldest != null) {
+                return oldest;
+            }
+        }
 
-        thread.setDaemon(true);
-        thread.start();
+        return null;
     }
 
+    private void reject(ApiFuture t) {
+        queueStats.get(t.priority).rejected++;
+        t.completeExceptionally(new RejectedExecutionException("Request queue is full (" + maxPending + " requests)"));
+    }
 
-    private boolean limitsOpen() {
-        for (float f: limits) {
-            if (f < 1) return false;
+    private void rejectClosed(ApiFuture t) {
+        if (!t.isDone()) {
+            queueStats.get(t.priority).rejected++;
+            t.completeExceptionally(new RejectedExecutionException("The api handler is closed"));
         }
+    }
 
-        return true;
+    /**
+     * Puts a request that was rejected by the server back at the head of the queue of its priority class
+     */
+    private synchronized void retry(ApiFuture t) {
+        if (closed) {
+            rejectClosed(t);
+        } else if (!t.isDone()) {
+            pending.get(t.priority).addFirst(t);
+            drain();
+        }
     }
 
-    private synchronized void scheduleNext(ApiFuture t) {
+    /**
+     * Removes a cancelled request from the queue, so that it doesn't take a permit
+     */
+    private synchronized void cancelled(ApiFuture t) {
+        if (pending.get(t.priority).remove(t)) {
+            queueStats.get(t.priority).cancelled++;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Dispatches pending requests, highest priority first, while a key has a permit available. Requests whose
+     * deadline passed are dropped before they take a permit. If requests remain, a wakeup is scheduled for the exact
+     * moment the next permit becomes available, or a key that the server rejected becomes active again.
+     */
+    private synchronized void drain() {
+        if (closed) {
+            return;
+        }
+
+        ApiFuture next;
+        while ((next = nextPending()) != null) {
+            long now = System.nanoTime();
+            ApiKeyPool.ApiKey key = keys.acquire();
+            if (key != null) {
+                pending.get(next.priority).poll();
+                notifyAll();
+                long waited = now - next.queuedAt;
+                long blockedSince = next.blocked ? next.blockedSince : now;
+                metrics.record(next.endpoint, Phase.QUEUE, blockedSince - next.queuedAt);
+                metrics.record(next.endpoint, Phase.TOKEN, now - blockedSince);
+                QueueCounters counters = queueStats.get(next.priority);
+                counters.dispatched++;
+                counters.totalWait += waited;
+                counters.maxWait = Math.max(counters.maxWait, waited);
+                next.key = key;
+                next.blocked = false;
+                executeFutureRequest(next);
+                continue;
+            }
 
-        if (limitsOpen()) {
-            executeFutureRequest(t);
-            for (int i = 0; i < limits.length; i++) {
-                limits[i]--;
+            if (!next.blocked) {
+                next.blocked = true;
+                next.blockedSince = now;
             }
+
+            long wait = keys.nanosUntilAvailable();
+
+            if (!wakeupScheduled && !closed && !scheduler.isShutdown()) {
+                wakeupScheduled = true;
+                scheduler.schedule(this::wakeup, wait, TimeUnit.NANOSECONDS);
+            }
+            return;
+        }
+    }
+
+    /**
+     * @return The first request of the highest non-empty priority class, after dropping all cancelled and expired
+     * requests at the heads of the queues
+     */
+    private ApiFuture nextPending() {
+        long now = System.nanoTime();
+        for (Priority priority: Priority.values()) {
+            Deque<ApiFuture> queue = pending.get(priority);
+            ApiFuture head;
+            while ((head = queue.peek()) != null && (head.isDone() || head.isExpired(now))) {
+                queue.poll();
+                notifyAll();
+                if (head.isCancelled()) {
+                    queueStats.get(priority).cancelled++;
+                } else if (!head.isDone()) {
+                    queueStats.get(priority).expired++;
+                    head.completeExceptionally(new TimeoutException("Deadline passed after waiting "
+                            + TimeUnit.NANOSECONDS.toMillis(now - head.queuedAt) + "ms for a rate limit permit"));
+                }
+            }
+
+            if (head != null) {
+                return head;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Applies the rate limit information sent by the server. A key rejected with 429 is retired for the time
+     * advertised in the Retry-After header, and the request is queued again. A key rejected with 401 is retired
+     * as well, and the request is queued again if another key can take it.
+     * @return <code>true</code> if the request was queued again, <code>false</code> if the response should be passed on
+     */
+    private boolean handleRateLimitHeaders(ApiFuture future, TransportResponse response) {
+        ApiKeyPool.ApiKey key = future.key;
+        RateLimitHeaders.synchronize(key.getLimiter(), response.getHeader(RateLimitHeaders.RATE_LIMIT_COUNT));
+
+        if (response.getStatus() == RequestException.ErrorType.UNAUTHORIZED.code) {
+            keys.retire(key, ApiKeyPool.UNAUTHORIZED_RETIREMENT);
+            if (!keys.hasOtherActiveKey(key)) {
+                return false;
+            }
+        } else if (response.getStatus() == RequestException.ErrorType.RATE_LIMIT_EXCEEDED.code) {
+            keys.retire(key, RateLimitHeaders.retryAfterNanos(response.getHeader(RateLimitHeaders.RETRY_AFTER), DEFAULT_RETRY_AFTER));
+        } else {
+            return false;
+        }
+
+        if (future.rateLimitRetries++ >= MAX_RATE_LIMIT_RETRIES) {
+            return false;
+        }
+
+        response.close();
+        retry(future);
+        return true;
+    }
+
+    private synchronized void wakeup() {
+        wakeupScheduled = false;
+        drain();
+    }
+
+    /**
+     * @return The pool executing this handler's requests
+     */
+    public WorkerPool getWorkerPool() {
+        return workers;
+    }
+
+    /**
+     * @return The number of requests waiting for a rate limit permit
+     */
+    public synchronized int getPendingRequests() {
+        return pending.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    /**
+     * @param priority The priority class
+     * @return The queue depth and wait times of the priority class
+     */
+    public synchronized QueueStats getQueueStats(Priority priority) {
+        QueueCounters counters = queueStats.get(priority);
+        return new QueueStats(priority, pending.get(priority).size(), counters.dispatched, counters.expired,
+                counters.cancelled, counters.rejected, counters.totalWait, counters.maxWait);
+    }
+
+    /**
+     * <p>
+     * Limit the number of requests waiting for a permit, so that producers that outrun the rate limit can't fill
+     * the heap. By default, the queue is unbounded.
+     * </p>
+     * Requests that are queued again after the server rejected them with 429 are not subject to the limit.
+     * @param maxPending The maximum number of waiting requests, across all priority classes
+     * @param policy What to do with new requests while the queue is full
+     */
+    public synchronized void setMaxPendingRequests(int maxPending, OverflowPolicy policy) {
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("Queue size must be positive, but was " + maxPending);
+        }
+
+        this.maxPending = maxPending;
+        this.overflowPolicy = policy;
+        notifyAll();
+    }
+
+    public synchronized int getMaxPendingRequests() {
+        return maxPending;
+    }
+
+    public synchronized OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Set the priority of requests that aren't sent through {@link #withPriority(Priority, Supplier)}, e.g. to
+     * make a handler that is only used by a crawler yield to other handlers sharing its worker pool and limiter.
+     * Batched lookups are always sent with the default priority.
+     * @param priority The default priority
+     */
+    public void setDefaultPriority(Priority priority) {
+        this.defaultPriority = priority;
+    }
+
+    public Priority getDefaultPriority() {
+        return defaultPriority;
+    }
+
+    /**
+     * <p>
+     * Queue the requests made by the call with the specified priority.
+     * </p>
+     * The requests must be made on the calling thread, e.g.
+     * <code>handler.withPriority(Priority.INTERACTIVE, () -&gt; handler.getSummoner(name))</code>. Requests made by
+     * continuations of the returned future use the default priority. A request joining an identical request that is
+     * already queued keeps the priority of that request. Retries of failed requests keep their priority and deadline.
+     * @param priority The priority of the requests
+     * @param call The call making the requests
+     * @return The result of the call
+     */
+    public <T> CompletableFuture<T> withPriority(Priority priority, Supplier<CompletableFuture<T>> call) {
+        return tagged(new Tag(priority, 0), call);
+    }
+
+    /**
+     * Queue the requests made by the call with the specified priority, and drop them if they haven't been sent
+     * before the deadline. Dropped requests fail with a {@link TimeoutException}. Requests that have been sent may
+     * still complete after the deadline.
+     * @param priority The priority of the requests
+     * @param timeout The time after which waiting requests are dropped
+     * @param unit The unit of the timeout
+     * @param call The call making the requests
+     * @return The result of the call
+     * @see #withPriority(Priority, Supplier)
+     */
+    public <T> CompletableFuture<T> withPriority(Priority priority, long timeout, TimeUnit unit, Supplier<CompletableFuture<T>> call) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        return tagged(new Tag(priority, deadline == 0 ? 1 : deadline), call);
+    }
+
+    private <T> CompletableFuture<T> tagged(Tag requestTag, Supplier<CompletableFuture<T>> call) {
+        Tag previous = tag.get();
+        setTag(requestTag);
+        try {
+            return call.get();
+        } finally {
+            setTag(previous);
+        }
+    }
+
+    private void setTag(Tag requestTag) {
+        if (requestTag == null) {
+            tag.remove();
         } else {
-            pending.add(t);
+            tag.set(requestTag);
         }
     }
 
+    /**
+     * <p>
+     * Enables batching of single-id lookups. Lookups for summoners, their names, mastery and rune pages, leagues,
+     * league entries and teams are collected for the specified window, and sent as a single request for up to
+     * as many ids as the api accepts at once. Each lookup still completes with the result for its own id.
+     * </p>
+     * This trades a little latency for far fewer requests counting towards the rate limit.
+     * @param window How long to collect lookups before sending them
+     * @param unit The time unit of the window
+     */
+    public void enableBatching(long window, TimeUnit unit) {
+        batchers = new Batchers(window, unit);
+    }
+
+    /**
+     * Disables batching of single-id lookups. Lookups that were already collected are sent right away.
+     */
+    public void disableBatching() {
+        Batchers current = batchers;
+        batchers = null;
+        if (current != null) {
+            current.flush();
+        }
+    }
+
+    /**
+     * @return The batchers collecting single-id lookups, or <code>null</code> if batching is disabled
+     */
+    public Batchers getBatchers() {
+        return batchers;
+    }
+
+    /**
+     * @return The single flight coalescing identical requests that are in flight at the same time, whose hit count
+     * tells how many requests were saved
+     */
+    public SingleFlight getSingleFlight() {
+        return handler.getSingleFlight();
+    }
+
+    /**
+     * Set the cache for responses of the dynamic endpoints. Cache hits don't count towards the rate limit.
+     * @param responseCache The cache, or <code>null</code> to not cache responses
+     * @see ApiHandler#setResponseCache(ResponseCache)
+     */
+    public void setResponseCache(ResponseCache responseCache) {
+        handler.setResponseCache(responseCache);
+    }
+
+    public ResponseCache getResponseCache() {
+        return handler.getResponseCache();
+    }
+
+    /**
+     * Set the decoder that parses the response bodies
+     * @see ApiHandler#setDecoder(ResponseDecoder)
+     */
+    public void setDecoder(ResponseDecoder decoder) {
+        handler.setDecoder(decoder);
+    }
+
+    public ResponseDecoder getDecoder() {
+        return handler.getDecoder();
+    }
+
+    /**
+     * @return The Gson instance with the type adapters for all DTOs, for creating a {@link ResponseDecoder}
+     */
+    public Gson getGson() {
+        return handler.getGson();
+    }
+
+    /**
+     * Set how requests failing with server errors are retried. Retries take a rate limit permit like any other
+     * request. By default, {@link RetryPolicy#defaults()} is used.
+     * @param retryPolicy The retry policy, or {@link RetryPolicy#NONE} to pass on all errors right away
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        faultTolerance.setRetryPolicy(retryPolicy);
+    }
+
+    /**
+     * @return The transport retrying failed requests and holding the circuit breakers of all endpoints
+     */
+    public FaultTolerantTransport getFaultTolerantTransport() {
+        return faultTolerance;
+    }
+
+    /**
+     * @return The latencies, status codes and gauges of this handler. See {@link ApiMetrics#register(String)} to
+     * expose them through JMX.
+     */
+    public ApiMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return The time in nanoseconds until dispatch resumes after the server rejected all keys, or 0
+     */
+    public long getPausedNanos() {
+        return keys.nanosUntilActive();
+    }
+
+    /**
+     * @return The rate limiter of this handler's first api key
+     */
+    public RateLimiter getRateLimiter() {
+        return keys.getKeys().get(0).getLimiter();
+    }
+
+    /**
+     * @return The api keys this handler spreads its requests across
+     */
+    public ApiKeyPool getApiKeyPool() {
+        return keys;
+    }
+
     /* ****************************
         delegation to api handler
      *************************** */
@@ -130,15 +667,11 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
 
         @Override
         public CurrentGameInfo getCurrentGameInfo(long summoner) {
-            try {
-                return asyncGetCurrentGameInfo(summoner).get();
-            } catch (ExecutionException | InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            return Util.await(asyncGetCurrentGameInfo(summoner));
         }
 
-        public Future<CurrentGameInfo> asyncGetCurrentGameInfo(long summoner) {
-            return new ApiFuture<>(() -> handler.currentGameHandler.getCurrentGameInfo(summoner));
+        public CompletableFuture<CurrentGameInfo> asyncGetCurrentGameInfo(long summoner) {
+            return handler.currentGameHandler.getCurrentGameInfoAsync(summoner);
         }
 
         @Override
@@ -151,15 +684,11 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
 
         @Override
         public FeaturedGames getFeaturedGames() {
-            try {
-                return asyncGetFeaturedGames().get();
-            } catch (ExecutionException | InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            return Util.await(asyncGetFeaturedGames());
         }
 
-        public Future<FeaturedGames> asyncGetFeaturedGames() {
-            return new ApiFuture<>(handler.featuredGamesHandler::getFeaturedGames);
+        public CompletableFuture<FeaturedGames> asyncGetFeaturedGames() {
+            return handler.featuredGamesHandler.getFeaturedGamesAsync();
         }
 
         @Override
@@ -175,8 +704,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return Basic champion data
      * @see <a href=https://developer.riotgames.com/api/methods#!/617/1923>Official API documentation</a>
      */
-    public Future<List<BasicChampData>> getBasicChampData() {
-        return new ApiFuture<>(() -> handler.getBasicChampData());
+    public CompletableFuture<List<BasicChampData>> getBasicChampData() {
+        return handler.getBasicChampDataAsync();
     }
 
     /**
@@ -185,8 +714,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return Basic champion data
      * @see <a href=https://developer.riotgames.com/api/methods#!/617/1922>Official API documentation</a>
      */
-    public Future<BasicChampData> getBasicChampData(int id) {
-        return new ApiFuture<>(() -> handler.getBasicChampData(id));
+    public CompletableFuture<BasicChampData> getBasicChampData(int id) {
+        return handler.getBasicChampDataAsync(id);
     }
 
     /**
@@ -194,8 +723,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return Basic champion data
      * @see <a href=https://developer.riotgames.com/api/methods#!/617/1923>Official API documentation</a>
      */
-    public Future<List<BasicChampData>> getFreeToPlayChampions() {
-        return new ApiFuture<>(() -> handler.getFreeToPlayChampions());
+    public CompletableFuture<List<BasicChampData>> getFreeToPlayChampions() {
+        return handler.getFreeToPlayChampionsAsync();
     }
 
     // </editor-fold>
@@ -208,8 +737,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A list of recently played games
      * @see <a href=https://developer.riotgames.com/api/methods#!/618/1924>Official API documentation</a>
      */
-    public Future<List<Game>> getRecentGames(long summoner) {
-        return new ApiFuture<>(() -> handler.getRecentGames(summoner));
+    public CompletableFuture<List<Game>> getRecentGames(long summoner) {
+        return handler.getRecentGamesAsync(summoner);
     }
 
     // </editor-fold>
@@ -222,8 +751,9 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A list of leagues
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1862>Official API documentation</a>
      */
-    public Future<List<LeagueList>> getLeagues(long summoner) {
-        return new ApiFuture<>(() -> handler.getLeagues(summoner));
+    public CompletableFuture<List<LeagueList>> getLeagues(long summoner) {
+        Batchers batchers = this.batchers;
+        return batchers == null ? handler.getLeaguesAsync(summoner) : batchers.leagues.get(summoner);
     }
 
     /**
@@ -232,8 +762,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A list of leagues
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1862>Official API documentation</a>
      */
-    public Future<Map<Long, List<LeagueList>>> getLeagues(long... summoners) {
-        return new ApiFuture<>(() -> handler.getLeagues(summoners));
+    public CompletableFuture<Map<Long, List<LeagueList>>> getLeagues(long... summoners) {
+        return handler.getLeaguesAsync(summoners);
     }
 
     /**
@@ -242,8 +772,9 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A list of league entries
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1863>Official API documentation</a>
      */
-    public Future<List<LeagueItem>> getLeagueEntries(long summoner) {
-        return new ApiFuture<>(() -> handler.getLeagueEntries(summoner));
+    public CompletableFuture<List<LeagueItem>> getLeagueEntries(long summoner) {
+        Batchers batchers = this.batchers;
+        return batchers == null ? handler.getLeagueEntriesAsync(summoner) : batchers.leagueEntries.get(summoner);
     }
 
     /**
@@ -252,8 +783,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A map, mapping summoner ids to lists of league entries for that summoner
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1863>Official API documentation</a>
      */
-    public Future<Map<Long, List<LeagueItem>>> getLeagueEntries(long... summoners) {
-        return new ApiFuture<>(() -> handler.getLeagueEntries(summoners));
+    public CompletableFuture<Map<Long, List<LeagueItem>>> getLeagueEntries(long... summoners) {
+        return handler.getLeagueEntriesAsync(summoners);
     }
 
     /**
@@ -262,8 +793,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A list of leagues
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1860>Official API documentation</a>
      */
-    public Future<List<LeagueList>> getLeagues(String teamId) {
-        return new ApiFuture<>(() -> handler.getLeagues(teamId));
+    public CompletableFuture<List<LeagueList>> getLeagues(String teamId) {
+        return handler.getLeaguesAsync(teamId);
     }
 
     /**
@@ -272,8 +803,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A mapping of team ids to lists of leagues
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1860>Official API documentation</a>
      */
-    public Future<Map<String, List<LeagueList>>> getLeagues(String... teamIds) {
-        return new ApiFuture<>(() -> handler.getLeagues(teamIds));
+    public CompletableFuture<Map<String, List<LeagueList>>> getLeagues(String... teamIds) {
+        return handler.getLeaguesAsync(teamIds);
     }
 
     /**
@@ -282,8 +813,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A list of league entries
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1861>Official API documentation</a>
      */
-    public Future<List<LeagueItem>> getLeagueEntries(String teamId) {
-        return new ApiFuture<>(() -> handler.getLeagueEntries(teamId));
+    public CompletableFuture<List<LeagueItem>> getLeagueEntries(String teamId) {
+        return handler.getLeagueEntriesAsync(teamId);
     }
 
     /**
@@ -292,8 +823,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A mapping of teamIds to lists of league entries
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1861>Official API documentation</a>
      */
-    public Future<Map<String, List<LeagueItem>>> getLeagueEntries(String... teamIds) {
-        return new ApiFuture<>(() -> handler.getLeagueEntries(teamIds));
+    public CompletableFuture<Map<String, List<LeagueItem>>> getLeagueEntries(String... teamIds) {
+        return handler.getLeagueEntriesAsync(teamIds);
     }
 
     /**
@@ -302,8 +833,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The queue's challenger league
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1864>Official API documentation</a>
      */
-    public Future<LeagueList> getChallenger(QueueType queue) {
-        return new ApiFuture<>(() -> handler.getChallenger(queue));
+    public CompletableFuture<LeagueList> getChallenger(QueueType queue) {
+        return handler.getChallengerAsync(queue);
     }
     
     /**
@@ -312,8 +843,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The queue's master league
      * @see <a href=https://developer.riotgames.com/api/methods#!/593/1864>Official API documentation</a>
      */
-    public Future<LeagueList> getMaster(QueueType queue) {
-        return new ApiFuture<>(() -> handler.getMaster(queue));
+    public CompletableFuture<LeagueList> getMaster(QueueType queue) {
+        return handler.getMasterAsync(queue);
     }
 
 
@@ -326,8 +857,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return Champion information for all champions
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2171>Official API documentation</a>
      */
-    public Future<ChampionList> getChampionListDto() {
-        return new DummyFuture<>(handler.getChampionListDto());
+    public CompletableFuture<ChampionList> getChampionListDto() {
+        return handler.getChampionListDtoAsync();
     }
 
     /**
@@ -339,8 +870,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The information for all champions
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2171>Official API documentation</a>
      */
-    public Future<ChampionList> getChampionListDto(ChampData champData) {
-        return new DummyFuture<>(handler.getChampionListDto(champData));
+    public CompletableFuture<ChampionList> getChampionListDto(ChampData champData) {
+        return handler.getChampionListDtoAsync(champData);
     }
 
     /**
@@ -355,8 +886,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The information for all champions
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2171>Official API documentation</a>
      */
-    public Future<ChampionList> getChampionListDto(String locale, String version, boolean dataById, ChampData champData) {
-        return new DummyFuture<>(handler.getChampionListDto(locale, version, dataById, champData));
+    public CompletableFuture<ChampionList> getChampionListDto(String locale, String version, boolean dataById, ChampData champData) {
+        return handler.getChampionListDtoAsync(locale, version, dataById, champData);
     }
 
     /**
@@ -366,8 +897,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * This method does not count towards the rate limit and is not affected by the throttle
      * @return All champions in the game
      */
-    public Future<Collection<Champion>> getChampions() {
-        return new DummyFuture<>(handler.getChampions());
+    public CompletableFuture<Collection<Champion>> getChampions() {
+        return handler.getChampionsAsync();
     }
 
     /**
@@ -378,8 +909,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @param champData Additional information to retrieve
      * @return All champions in the game
      */
-    public Future<Collection<Champion>> getChampions(ChampData champData) {
-        return new DummyFuture<>(handler.getChampions(champData));
+    public CompletableFuture<Collection<Champion>> getChampions(ChampData champData) {
+        return handler.getChampionsAsync(champData);
     }
 
     /**
@@ -393,8 +924,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @param champData Additional information to retrieve
      * @return All champions in the game
      */
-    public Future<Collection<Champion>> getChampions(ChampData champData, String version, String locale, boolean dataById) {
-        return new DummyFuture<>(handler.getChampions(champData, version, locale, dataById));
+    public CompletableFuture<Collection<Champion>> getChampions(ChampData champData, String version, String locale, boolean dataById) {
+        return handler.getChampionsAsync(champData, version, locale, dataById);
     }
 
     /**
@@ -406,8 +937,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The champion
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2169>Official API documentation</a>
      */
-    public Future<Champion> getChampion(int id) {
-        return new DummyFuture<>(handler.getChampion(id));
+    public CompletableFuture<Champion> getChampion(int id) {
+        return handler.getChampionAsync(id);
     }
 
     /**
@@ -420,8 +951,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The champion
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2169>Official API documentation</a>
      */
-    public Future<Champion> getChampion(int id, ChampData champData) {
-        return new DummyFuture<>(handler.getChampion(id, champData));
+    public CompletableFuture<Champion> getChampion(int id, ChampData champData) {
+        return handler.getChampionAsync(id, champData);
     }
 
     /**
@@ -436,8 +967,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The champion
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2169>Official API documentation</a>
      */
-    public Future<Champion> getChampion(int id, ChampData champData, String version, String locale) {
-        return new DummyFuture<>(handler.getChampion(id, champData, version, locale));
+    public CompletableFuture<Champion> getChampion(int id, ChampData champData, String version, String locale) {
+        return handler.getChampionAsync(id, champData, version, locale);
     }
 
     /**
@@ -448,8 +979,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The list of items
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2166>Official API documentation</a>
      */
-    public Future<ItemList> getItemList() {
-        return new DummyFuture<>(handler.getItemList());
+    public CompletableFuture<ItemList> getItemList() {
+        return handler.getItemListAsync();
     }
 
     /**
@@ -461,8 +992,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The list of items
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2166>Official API documentation</a>
      */
-    public Future<ItemList> getItemList(ItemData data) {
-        return new DummyFuture<>(handler.getItemList(data));
+    public CompletableFuture<ItemList> getItemList(ItemData data) {
+        return handler.getItemListAsync(data);
     }
 
     /**
@@ -476,8 +1007,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The list of items
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2166>Official API documentation</a>
      */
-    public Future<ItemList> getItemList(ItemData data, String version, String locale) {
-        return new DummyFuture<>(handler.getItemList(data, version, locale));
+    public CompletableFuture<ItemList> getItemList(ItemData data, String version, String locale) {
+        return handler.getItemListAsync(data, version, locale);
     }
 
     /**
@@ -489,8 +1020,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The item
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2176>Official API documentation</a>
      */
-    public Future<Item> getItem(int id) {
-        return new DummyFuture<>(handler.getItem(id));
+    public CompletableFuture<Item> getItem(int id) {
+        return handler.getItemAsync(id);
     }
 
     /**
@@ -503,8 +1034,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The item
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2176>Official API documentation</a>
      */
-    public Future<Item> getItem(int id, ItemData data) {
-        return new DummyFuture<>(handler.getItem(id, data));
+    public CompletableFuture<Item> getItem(int id, ItemData data) {
+        return handler.getItemAsync(id, data);
     }
 
     /**
@@ -519,8 +1050,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The item
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2176>Official API documentation</a>
      */
-    public Future<Item> getItem(int id, ItemData data, String version, String locale) {
-        return new DummyFuture<>(handler.getItem(id, data, version, locale));
+    public CompletableFuture<Item> getItem(int id, ItemData data, String version, String locale) {
+        return handler.getItemAsync(id, data, version, locale);
     }
 
     /**
@@ -531,8 +1062,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The masteries
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2173>Official API documentation</a>
      */
-    public Future<MasteryList> getMasteries() {
-        return new DummyFuture<>(handler.getMasteries());
+    public CompletableFuture<MasteryList> getMasteries() {
+        return handler.getMasteriesAsync();
     }
 
     /**
@@ -544,8 +1075,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The masteries
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2173>Official API documentation</a>
      */
-    public Future<MasteryList> getMasteries(MasteryData data) {
-        return new DummyFuture<>(handler.getMasteries(data));
+    public CompletableFuture<MasteryList> getMasteries(MasteryData data) {
+        return handler.getMasteriesAsync(data);
     }
 
     /**
@@ -559,8 +1090,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The masteries
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2173>Official API documentation</a>
      */
-    public Future<MasteryList> getMasteries(MasteryData data, String version, String locale) {
-        return new DummyFuture<>(handler.getMasteries(data, version, locale));
+    public CompletableFuture<MasteryList> getMasteries(MasteryData data, String version, String locale) {
+        return handler.getMasteriesAsync(data, version, locale);
     }
 
     /**
@@ -572,8 +1103,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The mastery
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2175>Official API documentation</a>
      */
-    public Future<Mastery> getMastery(int id) {
-        return new DummyFuture<>(handler.getMastery(id));
+    public CompletableFuture<Mastery> getMastery(int id) {
+        return handler.getMasteryAsync(id);
     }
 
     /**
@@ -586,8 +1117,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The mastery
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2175>Official API documentation</a>
      */
-    public Future<Mastery> getMastery(int id, MasteryData data) {
-        return new DummyFuture<>(handler.getMastery(id, data));
+    public CompletableFuture<Mastery> getMastery(int id, MasteryData data) {
+        return handler.getMasteryAsync(id, data);
     }
 
     /**
@@ -602,8 +1133,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The mastery
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2175>Official API documentation</a>
      */
-    public Future<Mastery> getMastery(int id, MasteryData data, String version, String locale) {
-        return new DummyFuture<>(handler.getMastery(id, data, version, locale));
+    public CompletableFuture<Mastery> getMastery(int id, MasteryData data, String version, String locale) {
+        return handler.getMasteryAsync(id, data, version, locale);
     }
 
     /**
@@ -614,8 +1145,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return Realm information
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2170>Official API documentation</a>
      */
-    public Future<Realm> getRealm() {
-        return new DummyFuture<>(handler.getRealm());
+    public CompletableFuture<Realm> getRealm() {
+        return handler.getRealmAsync();
     }
 
     /**
@@ -626,8 +1157,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return All runes
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2172>Official API documentation</a>
      */
-    public Future<RuneList> getRuneList() {
-        return new DummyFuture<>(handler.getRuneList());
+    public CompletableFuture<RuneList> getRuneList() {
+        return handler.getRuneListAsync();
     }
 
     /**
@@ -639,8 +1170,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return All runes
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2172>Official API documentation</a>
      */
-    public Future<RuneList> getRuneList(ItemData data) {
-        return new DummyFuture<>(handler.getRuneList(data));
+    public CompletableFuture<RuneList> getRuneList(ItemData data) {
+        return handler.getRuneListAsync(data);
     }
 
     /**
@@ -654,8 +1185,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return All runes
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2172>Official API documentation</a>
      */
-    public Future<RuneList> getRuneList(ItemData data, String version, String locale) {
-        return new DummyFuture<>(handler.getRuneList(data, version, locale));
+    public CompletableFuture<RuneList> getRuneList(ItemData data, String version, String locale) {
+        return handler.getRuneListAsync(data, version, locale);
     }
 
     /**
@@ -667,8 +1198,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The runes
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2168>Official API documentation</a>
      */
-    public Future<Item> getRune(int id) {
-        return new DummyFuture<>(handler.getRune(id));
+    public CompletableFuture<Item> getRune(int id) {
+        return handler.getRuneAsync(id);
     }
 
     /**
@@ -681,8 +1212,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The runes
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2168>Official API documentation</a>
      */
-    public Future<Item> getRune(int id, ItemData data) {
-        return new DummyFuture<>(handler.getRune(id, data));
+    public CompletableFuture<Item> getRune(int id, ItemData data) {
+        return handler.getRuneAsync(id, data);
     }
 
     /**
@@ -697,8 +1228,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The runes
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2168>Official API documentation</a>
      */
-    public Future<Item> getRune(int id, ItemData data, String version, String locale) {
-        return new DummyFuture<>(handler.getRune(id, data, version, locale));
+    public CompletableFuture<Item> getRune(int id, ItemData data, String version, String locale) {
+        return handler.getRuneAsync(id, data, version, locale);
     }
 
     /**
@@ -709,8 +1240,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The summoner spells
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2174>Official API documentation</a>
      */
-    public Future<SummonerSpellList> getSummonerSpellListDto() {
-        return new DummyFuture<>(handler.getSummonerSpellListDto());
+    public CompletableFuture<SummonerSpellList> getSummonerSpellListDto() {
+        return handler.getSummonerSpellListDtoAsync();
     }
 
     /**
@@ -722,8 +1253,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The summoner spells
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2174>Official API documentation</a>
      */
-    public Future<SummonerSpellList> getSummonerSpellListDto(SpellData data) {
-        return new DummyFuture<>(handler.getSummonerSpellListDto(data));
+    public CompletableFuture<SummonerSpellList> getSummonerSpellListDto(SpellData data) {
+        return handler.getSummonerSpellListDtoAsync(data);
     }
 
     /**
@@ -738,8 +1269,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The summoner spells
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2174>Official API documentation</a>
      */
-    public Future<SummonerSpellList> getSummonerSpellListDro(SpellData data, String version, String locale, boolean dataById) {
-        return new DummyFuture<>(handler.getSummonerSpellListDro(data, version, locale, dataById));
+    public CompletableFuture<SummonerSpellList> getSummonerSpellListDro(SpellData data, String version, String locale, boolean dataById) {
+        return handler.getSummonerSpellListDroAsync(data, version, locale, dataById);
     }
 
     /**
@@ -750,8 +1281,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The summoner spells
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2174>Official API documentation</a>
      */
-    public Future<Collection<SummonerSpell>> getSummonerSpells() {
-        return new DummyFuture<>(handler.getSummonerSpells());
+    public CompletableFuture<Collection<SummonerSpell>> getSummonerSpells() {
+        return handler.getSummonerSpellsAsync();
     }
 
     /**
@@ -763,8 +1294,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The summoner spells
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2174>Official API documentation</a>
      */
-    public Future<Collection<SummonerSpell>> getSummonerSpells(SpellData data) {
-        return new DummyFuture<>(handler.getSummonerSpells(data));
+    public CompletableFuture<Collection<SummonerSpell>> getSummonerSpells(SpellData data) {
+        return handler.getSummonerSpellsAsync(data);
     }
 
     /**
@@ -779,8 +1310,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The summoner spells
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2174>Official API documentation</a>
      */
-    public Future<Collection<SummonerSpell>> getSummonerSpells(SpellData data, String version, String locale, boolean dataById) {
-        return new DummyFuture<>(handler.getSummonerSpells(data, version, locale, dataById));
+    public CompletableFuture<Collection<SummonerSpell>> getSummonerSpells(SpellData data, String version, String locale, boolean dataById) {
+        return handler.getSummonerSpellsAsync(data, version, locale, dataById);
     }
 
     /**
@@ -792,8 +1323,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The spell
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2167>Official API documentation</a>
      */
-    public Future<SummonerSpell> getSummonerSpell(int id) {
-        return new DummyFuture<>(handler.getSummonerSpell(id));
+    public CompletableFuture<SummonerSpell> getSummonerSpell(int id) {
+        return handler.getSummonerSpellAsync(id);
     }
 
     /**
@@ -806,8 +1337,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The spell
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2167>Official API documentation</a>
      */
-    public Future<SummonerSpell> getSummonerSpell(int id, SpellData data) {
-        return new DummyFuture<>(handler.getSummonerSpell(id, data));
+    public CompletableFuture<SummonerSpell> getSummonerSpell(int id, SpellData data) {
+        return handler.getSummonerSpellAsync(id, data);
     }
 
     /**
@@ -822,8 +1353,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The spell
      * @see <a href=https://developer.riotgames.com/api/methods#!/649/2167>Official API documentation</a>
      */
-    public Future<SummonerSpell> getSummonerSpell(int id, SpellData data, String version, String locale) {
-        return new DummyFuture<>(handler.getSummonerSpell(id, data, version, locale));
+    public CompletableFuture<SummonerSpell> getSummonerSpell(int id, SpellData data, String version, String locale) {
+        return handler.getSummonerSpellAsync(id, data, version, locale);
     }
 
     /**
@@ -835,8 +1366,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A list of supported game versions
      * @see <a href=https://developer.riotgames.com/api/methods#!/710/2527>Official API documentation</a>
      */
-    public Future<List<String>> getVersions() {
-        return new DummyFuture<>(handler.getVersions());
+    public CompletableFuture<List<String>> getVersions() {
+        return handler.getVersionsAsync();
     }
 
     /**
@@ -848,8 +1379,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The list of all available map.
      * @see <a href="https://developer.riotgames.com/api/methods#!/931">The official api documentation</a>
      */
-    public Future<MapDataOverview> getMaps() {
-        return new DummyFuture<>(handler.getMaps());
+    public CompletableFuture<MapDataOverview> getMaps() {
+        return handler.getMapsAsync();
     }
 
     /**
@@ -864,8 +1395,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The list of all available maps.
      * @see <a href="https://developer.riotgames.com/api/methods#!/931">The official api documentation</a>
      */
-    public Future<MapDataOverview> getMaps(String version, String locale) {
-        return new DummyFuture<>(handler.getMaps(version, locale));
+    public CompletableFuture<MapDataOverview> getMaps(String version, String locale) {
+        return handler.getMapsAsync(version, locale);
     }
 
     /**
@@ -877,8 +1408,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A list of locales
      * @see <a href="https://developer.riotgames.com/api/methods#!/931/3226">The official api documentation</a>
      */
-    public Future<List<String>> getLocales() {
-        return new DummyFuture<>(handler.getLocales());
+    public CompletableFuture<List<String>> getLocales() {
+        return handler.getLocalesAsync();
     }
 
     /**
@@ -890,8 +1421,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A list of localized message
      * @see <a href="https://developer.riotgames.com/api/methods#!/931/3226">The official api documentation</a>
      */
-    public Future<LocalizedMessages> getLocalizedMessages() {
-        return new DummyFuture<>(handler.getLocalizedMessages());
+    public CompletableFuture<LocalizedMessages> getLocalizedMessages() {
+        return handler.getLocalizedMessagesAsync();
     }
 
 
@@ -907,8 +1438,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A list of localized message
      * @see <a href="https://developer.riotgames.com/api/methods#!/931/3226">The official api documentation</a>
      */
-    public Future<LocalizedMessages> getLocalizedMessages(String version, String locale) {
-        return new DummyFuture<>(handler.getLocalizedMessages(version, locale));
+    public CompletableFuture<LocalizedMessages> getLocalizedMessages(String version, String locale) {
+        return handler.getLocalizedMessagesAsync(version, locale);
     }
     // </editor-fold>
 
@@ -921,8 +1452,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A list of shard infomation.
      * @see <a href="https://developer.riotgames.com/api/methods#!/835/2939">Official API Documentation</a>
      */
-    public Future<List<ShardData>> getShards() {
-        return new DummyFuture<>(handler.getShards());
+    public CompletableFuture<List<ShardData>> getShards() {
+        return handler.getShardsAsync();
     }
 
     /**
@@ -936,8 +1467,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @see <a href="https://developer.riotgames.com/api/methods#!/835/2938">Official API Documentation</a>
      */
     @Deprecated
-    public Future<ShardStatus> getShardSatatus(Shard shard) {
-        return new DummyFuture<>(handler.getShardStatus(shard));
+    public CompletableFuture<ShardStatus> getShardSatatus(Shard shard) {
+        return handler.getShardStatusAsync(shard);
     }
 
     /**
@@ -949,8 +1480,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A list of shard infomation.
      * @see <a href="https://developer.riotgames.com/api/methods#!/835/2938">Official API Documentation</a>
      */
-    public Future<ShardStatus> getShardStatus(Shard shard) {
-        return new DummyFuture<>(handler.getShardStatus(shard));
+    public CompletableFuture<ShardStatus> getShardStatus(Shard shard) {
+        return handler.getShardStatusAsync(shard);
     }
     // </editor-fold>
 
@@ -962,8 +1493,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The match details.
      * @see <a href="https://developer.riotgames.com/api/methods#!/806/2848">Official API Documentation</a>
      */
-    public Future<MatchDetail> getMatch(long matchId) {
-        return new ApiFuture<>(() -> handler.getMatch(matchId));
+    public CompletableFuture<MatchDetail> getMatch(long matchId) {
+        return handler.getMatchAsync(matchId);
     }
 
     /**
@@ -973,8 +1504,28 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The match details.
      * @see <a href="https://developer.riotgames.com/api/methods#!/806/2848">Official API Documentation</a>
      */
-    public Future<MatchDetail> getMatch(long matchId, boolean includeTimeline) {
-        return new ApiFuture<>(() -> handler.getMatch(matchId, includeTimeline));
+    public CompletableFuture<MatchDetail> getMatch(long matchId, boolean includeTimeline) {
+        return handler.getMatchAsync(matchId, includeTimeline);
+    }
+
+    /**
+     * Open the timeline of a match for reading it one event or participant frame at a time, while the response
+     * is still arriving. The caller must close the returned reader.
+     * @param matchId The id of the match.
+     * @return A reader for the match timeline.
+     */
+    public CompletableFuture<MatchTimelineReader> openTimeline(long matchId) {
+        return handler.openTimelineAsync(matchId);
+    }
+
+    /**
+     * Stream the timeline of a match to a visitor on the worker pool, without building the whole match detail.
+     * @param matchId The id of the match.
+     * @param visitor The visitor receiving frames, participant frames and events.
+     * @return A future that completes once the whole timeline was visited.
+     */
+    public CompletableFuture<Void> visitTimeline(long matchId, TimelineVisitor visitor) {
+        return handler.visitTimelineAsync(matchId, visitor);
     }
     // </editor-fold>
 
@@ -985,8 +1536,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The match history of the player.
      * @see <a href="https://developer.riotgames.com/api/methods#!/805/2847">Official API Documentation</a>
      */
-    public Future<List<MatchSummary>> getMatchHistory(long playerId) {
-        return new ApiFuture<>(() -> handler.getMatchHistory(playerId));
+    public CompletableFuture<List<MatchSummary>> getMatchHistory(long playerId) {
+        return handler.getMatchHistoryAsync(playerId);
     }
 
     /**
@@ -997,8 +1548,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The match history of the player.
      * @see <a href="https://developer.riotgames.com/api/methods#!/805/2847">Official API Documentation</a>
      */
-    public Future<List<MatchSummary>> getMatchHistory(long playerId, String... championIds) {
-        return new ApiFuture<>(() -> handler.getMatchHistory(playerId, championIds));
+    public CompletableFuture<List<MatchSummary>> getMatchHistory(long playerId, String... championIds) {
+        return handler.getMatchHistoryAsync(playerId, championIds);
     }
 
     /**
@@ -1011,8 +1562,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The match history of the player.
      * @see <a href="https://developer.riotgames.com/api/methods#!/805/2847">Official API Documentation</a>
      */
-    public Future<List<MatchSummary>> getMatchHistory(long playerId, String[] championIds, QueueType... queueTypes) {
-        return new ApiFuture<>(() -> handler.getMatchHistory(playerId, championIds, queueTypes));
+    public CompletableFuture<List<MatchSummary>> getMatchHistory(long playerId, String[] championIds, QueueType... queueTypes) {
+        return handler.getMatchHistoryAsync(playerId, championIds, queueTypes);
     }
 
     /**
@@ -1028,8 +1579,56 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The match history of the player.
      * @see <a href="https://developer.riotgames.com/api/methods#!/805/2847">Official API Documentation</a>
      */
-    public Future<List<MatchSummary>> getMatchHistory(long playerId, String[] championIds, QueueType[] queueTypes, int beginIndex, int endIndex) {
-        return new ApiFuture<>(() -> handler.getMatchHistory(playerId, championIds, queueTypes, beginIndex, endIndex));
+    public CompletableFuture<List<MatchSummary>> getMatchHistory(long playerId, String[] championIds, QueueType[] queueTypes, int beginIndex, int endIndex) {
+        return handler.getMatchHistoryAsync(playerId, championIds, queueTypes, beginIndex, endIndex);
+    }
+
+    /**
+     * Lazily walk a player's match history. Pages are only queued once the stream
+     * reaches them, so that e.g. taking the last 20 ranked games only requests two pages.
+     *
+     * @param playerId    The id of the player.
+     * @param championIds The championIds to use for retrieval.
+     * @param queueTypes  The queue types to retrieve (must be one of RANKED_SOLO_5x5, RANKED_TEAM_3x3 or
+     *                    RANKED_TEAM_5x5).
+     * @return The match history of the player.
+     */
+    public Stream<MatchSummary> streamMatchHistory(long playerId, String[] championIds, QueueType... queueTypes) {
+        return handler.streamMatchHistory(playerId, championIds, queueTypes);
+    }
+
+    /**
+     * Lazily walk a player's match history, as {@link #streamMatchHistory(long, String[], QueueType...)}.
+     *
+     * @param playerId    The id of the player.
+     * @param championIds The championIds to use for retrieval.
+     * @param queueTypes  The queue types to retrieve (must be one of RANKED_SOLO_5x5, RANKED_TEAM_3x3 or
+     *                    RANKED_TEAM_5x5).
+     * @param beginIndex  The index of the first game that should be retrieved.
+     * @param pageSize    The number of games to request at once (at most 15).
+     * @return The match history of the player.
+     */
+    public Stream<MatchSummary> streamMatchHistory(long playerId, String[] championIds, QueueType[] queueTypes, int beginIndex, int pageSize) {
+        return handler.streamMatchHistory(playerId, championIds, queueTypes, beginIndex, pageSize);
+    }
+
+    /**
+     * Lazily walk a player's match history, as {@link #streamMatchHistory(long, String[], QueueType...)}. With
+     * prefetching, the next page is queued once the stream is past the middle of the current one, which hides its
+     * latency, but may spend a request on a page that is never read. Close the stream to cancel that page when
+     * stopping early.
+     *
+     * @param playerId    The id of the player.
+     * @param championIds The championIds to use for retrieval.
+     * @param queueTypes  The queue types to retrieve (must be one of RANKED_SOLO_5x5, RANKED_TEAM_3x3 or
+     *                    RANKED_TEAM_5x5).
+     * @param beginIndex  The index of the first game that should be retrieved.
+     * @param pageSize    The number of games to request at once (at most 15).
+     * @param prefetch    Whether to queue the next page before the stream reaches it.
+     * @return The match history of the player.
+     */
+    public Stream<MatchSummary> streamMatchHistory(long playerId, String[] championIds, QueueType[] queueTypes, int beginIndex, int pageSize, boolean prefetch) {
+        return handler.streamMatchHistory(playerId, championIds, queueTypes, beginIndex, pageSize, prefetch);
     }
     // </editor-fold>
 
@@ -1041,8 +1640,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return Ranked stats
      * @see <a href=https://developer.riotgames.com/api/methods#!/622/1937>Official API documentation</a>
      */
-    public Future<RankedStats> getRankedStats(long summoner) {
-        return new ApiFuture<>(() -> handler.getRankedStats(summoner));
+    public CompletableFuture<RankedStats> getRankedStats(long summoner) {
+        return handler.getRankedStatsAsync(summoner);
     }
 
     /**
@@ -1052,8 +1651,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return Ranked stats
      * @see <a href=https://developer.riotgames.com/api/methods#!/622/1937>Official API documentation</a>
      */
-    public Future<RankedStats> getRankedStats(long summoner, Season season) {
-        return new ApiFuture<>(() -> handler.getRankedStats(summoner, season));
+    public CompletableFuture<RankedStats> getRankedStats(long summoner, Season season) {
+        return handler.getRankedStatsAsync(summoner, season);
     }
 
     /**
@@ -1062,8 +1661,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The player's stats
      * @see <a href=https://developer.riotgames.com/api/methods#!/622/1938>Official API documentation</a>
      */
-    public Future<List<PlayerStats>> getStatsSummary(long summoner) {
-        return new ApiFuture<>(() -> handler.getStatsSummary(summoner));
+    public CompletableFuture<List<PlayerStats>> getStatsSummary(long summoner) {
+        return handler.getStatsSummaryAsync(summoner);
     }
 
     /**
@@ -1073,8 +1672,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The player's stats
      * @see <a href=https://developer.riotgames.com/api/methods#!/622/1938>Official API documentation</a>
      */
-    public Future<List<PlayerStats>> getStatsSummary(long summoner, Season season) {
-        return new ApiFuture<>(() -> handler.getStatsSummary(summoner, season));
+    public CompletableFuture<List<PlayerStats>> getStatsSummary(long summoner, Season season) {
+        return handler.getStatsSummaryAsync(summoner, season);
     }
 
     // </editor-fold>
@@ -1088,8 +1687,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1930>Official API documentation</a>
      * @see net.boreeas.riotapi.Util#standardizeSummonerName(java.lang.String)
      */
-    public Future<Map<String, Summoner>> getSummoners(String... names) {
-        return new ApiFuture<>(() -> handler.getSummoners(names));
+    public CompletableFuture<Map<String, Summoner>> getSummoners(String... names) {
+        return handler.getSummonersAsync(names);
     }
 
     /**
@@ -1098,8 +1697,9 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return Summoner information
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1930>Official API documentation</a>
      */
-    public Future<Summoner> getSummoner(String name) {
-        return new ApiFuture<>(() -> handler.getSummoner(name));
+    public CompletableFuture<Summoner> getSummoner(String name) {
+        Batchers batchers = this.batchers;
+        return batchers == null ? handler.getSummonerAsync(name) : batchers.summonersByName.get(Util.standardizeSummonerName(name));
     }
 
     /**
@@ -1108,8 +1708,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A map, mapping player ids to summoner information
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1931>Official API documentation</a>
      */
-    public Future<Map<Integer, Summoner>> getSummoners(Integer... ids) {
-        return new ApiFuture<>(() -> handler.getSummoners(ids));
+    public CompletableFuture<Map<Integer, Summoner>> getSummoners(Integer... ids) {
+        return handler.getSummonersAsync(ids);
     }
 
     /**
@@ -1118,8 +1718,9 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return Summoner information
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1931>Official API documentation</a>
      */
-    public Future<Summoner> getSummoner(int id) {
-        return new ApiFuture<>(() -> handler.getSummoner(id));
+    public CompletableFuture<Summoner> getSummoner(int id) {
+        Batchers batchers = this.batchers;
+        return batchers == null ? handler.getSummonerAsync(id) : batchers.summoners.get(id);
     }
 
     /**
@@ -1128,8 +1729,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A map, mapping player ids to their respective mastery pages
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1933>Official API documentation</a>
      */
-    public Future<Map<Integer, Set<MasteryPage>>> getMasteryPagesMultipleUsers(Integer... ids) {
-        return new ApiFuture<>(() -> handler.getMasteryPagesMultipleUsers(ids));
+    public CompletableFuture<Map<Integer, Set<MasteryPage>>> getMasteryPagesMultipleUsers(Integer... ids) {
+        return handler.getMasteryPagesMultipleUsersAsync(ids);
     }
 
     /**
@@ -1138,8 +1739,9 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The user's mastery pages
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1933>Official API documentation</a>
      */
-    public Future<Set<MasteryPage>> getMasteryPages(int id) {
-        return new ApiFuture<>(() -> handler.getMasteryPages(id));
+    public CompletableFuture<Set<MasteryPage>> getMasteryPages(int id) {
+        Batchers batchers = this.batchers;
+        return batchers == null ? handler.getMasteryPagesAsync(id) : batchers.masteryPages.get(id);
     }
 
     /**
@@ -1148,8 +1750,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A map, mapping user ids to summoner names
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1934>Official API documentation</a>
      */
-    public Future<Map<Integer, String>> getSummonerNames(Integer... ids) {
-        return new ApiFuture<>(() -> handler.getSummonerNames(ids));
+    public CompletableFuture<Map<Integer, String>> getSummonerNames(Integer... ids) {
+        return handler.getSummonerNamesAsync(ids);
     }
 
     /**
@@ -1158,8 +1760,9 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The summoner name of the user
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1934>Official API documentation</a>
      */
-    public Future<String> getSummonerName(int id) {
-        return new ApiFuture<>(() -> handler.getSummonerName(id));
+    public CompletableFuture<String> getSummonerName(int id) {
+        Batchers batchers = this.batchers;
+        return batchers == null ? handler.getSummonerNameAsync(id) : batchers.summonerNames.get(id);
     }
 
     /**
@@ -1168,8 +1771,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A map, mapping user ids to their respective runes pages
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1932>Official API documentation</a>
      */
-    public Future<Map<Integer, Set<RunePage>>> getRunePagesMultipleUsers(int... ids) {
-        return new ApiFuture<>(() -> handler.getRunePagesMultipleUsers(ids));
+    public CompletableFuture<Map<Integer, Set<RunePage>>> getRunePagesMultipleUsers(int... ids) {
+        return handler.getRunePagesMultipleUsersAsync(ids);
     }
 
     /**
@@ -1178,8 +1781,9 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The user's runes page
      * @see <a href=https://developer.riotgames.com/api/methods#!/620/1932>Official API documentation</a>
      */
-    public Future<Set<RunePage>> getRunePages(int id) {
-        return new ApiFuture<>(() -> handler.getRunePages(id));
+    public CompletableFuture<Set<RunePage>> getRunePages(int id) {
+        Batchers batchers = this.batchers;
+        return batchers == null ? handler.getRunePagesAsync(id) : batchers.runePages.get(id);
     }
 
     // </editor-fold>
@@ -1192,8 +1796,9 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The ranked teams of the user
      * @see <a href=https://developer.riotgames.com/api/methods#!/594/1865>Official API documentation</a>
      */
-    public Future<List<RankedTeam>> getTeams(long id) {
-        return new ApiFuture<>(() -> handler.getTeamsBySummoner(id));
+    public CompletableFuture<List<RankedTeam>> getTeams(long id) {
+        Batchers batchers = this.batchers;
+        return batchers == null ? handler.getTeamsBySummonerAsync(id) : batchers.teamsBySummoner.get(id);
     }
 
     /**
@@ -1202,8 +1807,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return The ranked teams of the users
      * @see <a href=https://developer.riotgames.com/api/methods#!/594/1865>Official API documentation</a>
      */
-    public Future<Map<Long, List<RankedTeam>>> getTeams(long... ids) {
-        return new ApiFuture<>(() -> handler.getTeamsBySummoners(ids));
+    public CompletableFuture<Map<Long, List<RankedTeam>>> getTeams(long... ids) {
+        return handler.getTeamsBySummonersAsync(ids);
     }
 
     /**
@@ -1212,8 +1817,9 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return Information about the specified team
      * @see <a href=https://developer.riotgames.com/api/methods#!/594/1866>Official API documentation</a>
      */
-    public Future<RankedTeam> getTeam(String teamId) {
-        return new ApiFuture<>(() -> handler.getTeam(teamId));
+    public CompletableFuture<RankedTeam> getTeam(String teamId) {
+        Batchers batchers = this.batchers;
+        return batchers == null ? handler.getTeamAsync(teamId) : batchers.teams.get(teamId);
     }
 
     /**
@@ -1222,8 +1828,8 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @return A map, mapping team ids to team information
      * @see <a href=https://developer.riotgames.com/api/methods#!/594/1866>Official API documentation</a>
      */
-    public Future<Map<String, RankedTeam>> getTeams(String... teamIds) {
-        return new ApiFuture<>(() -> handler.getTeams(teamIds));
+    public CompletableFuture<Map<String, RankedTeam>> getTeams(String... teamIds) {
+        return handler.getTeamsAsync(teamIds);
     }
 
     // </editor-fold>
@@ -1235,8 +1841,37 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @param names The names of the users
      * @return Their respective ids
      */
-    public Future<List<Long>> getSummonerIds(String... names) {
-        return new ApiFuture<>(() -> handler.getSummonerIds(names));
+    public CompletableFuture<List<Long>> getSummonerIds(String... names) {
+        return handler.getSummonerIdsAsync(names);
+    }
+
+    /**
+     * Resolve any number of summoner names to ids, e.g. all names of a ladder snapshot. The names are standardized
+     * and deduplicated, and split into batches that are queued all at once. Names that were resolved before are
+     * answered without a request.
+     * @param names The names of the users
+     * @return A map from standardized names to ids. Names without a summoner are left out.
+     */
+    public CompletableFuture<Map<String, Long>> resolveSummonerIds(Collection<String> names) {
+        return handler.resolveSummonerIdsAsync(names);
+    }
+
+    /**
+     * Resolve any number of summoner names to ids, passing each resolved name to the listener as soon as its
+     * batch arrives.
+     * @param names The names of the users
+     * @param listener Receives each standardized name and its id, possibly from several threads at once
+     * @return A map from standardized names to ids. Names without a summoner are left out.
+     */
+    public CompletableFuture<Map<String, Long>> resolveSummonerIds(Collection<String> names, BiConsumer<String, Long> listener) {
+        return handler.getSummonerIdResolver().resolve(names, listener);
+    }
+
+    /**
+     * @return The resolver behind {@link #resolveSummonerIds(Collection)}, which keeps the ids of all resolved names
+     */
+    public SummonerIdResolver getSummonerIdResolver() {
+        return handler.getSummonerIdResolver();
     }
 
     /**
@@ -1245,19 +1880,46 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
      * @param name The name of the user
      * @return Their respective ids
      */
-    public Future<Long> getSummonerId(String name) {
-        return new ApiFuture<>(() -> handler.getSummonerId(name));
+    public CompletableFuture<Long> getSummonerId(String name) {
+        return handler.getSummonerIdAsync(name);
     }
 
     // </editor-fold>
 
 
     /**
-     * Stops the threads handling pending requests. No further requests will
-     * be executed, but any running thread will complete first
+     * Stops dispatching pending requests. Requests that are still waiting for a permit fail with a
+     * {@link RejectedExecutionException}, and the handler can't be used afterwards. Requests that were already
+     * dispatched are not waited for, unless the worker pool was created by this handler: then it is shut down as
+     * well, together with its dispatcher thread, after running tasks finished. Finally, the client of the wrapped
+     * api handler is closed, and the transport if this handler created it.
      */
+    @Override
     public void close() {
-        timer.cancel();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            for (Deque<ApiFuture> queue: pending.values()) {
+                ApiFuture future;
+                while ((future = queue.poll()) != null) {
+                    rejectClosed(future);
+                }
+            }
+            // Callers blocked by the overflow policy see that the handler is closed, and fail their requests
+            notifyAll();
+        }
+
+        if (ownsWorkers) {
+            workers.close();
+        }
+
+        handler.close();
+        if (ownsTransport) {
+            transport.close();
+        }
     }
 
 
@@ -1266,105 +1928,199 @@ public class ThrottledApiHandler implements AutoCloseable, LoLRestApi {
         public final int maxValue;
         public final int timeDeltaToMax;
         public final TimeUnit unit;
-    }
 
-    private class ApiFuture<T> implements Future<T> {
-
-        private boolean cancelled;
-        @Getter private Callable<T> request;
-        @Setter private T value;
-        @Setter private Exception err;
-        @Getter private CountDownLatch signal = new CountDownLatch(1);
-
-        public ApiFuture(Callable<T> request) {
-            this.request = request;
-            ThrottledApiHandler.this.scheduleNext(this);
+        /**
+         * @return A token bucket enforcing this limit
+         */
+        public TokenBucket toTokenBucket() {
+            return new TokenBucket(maxValue, timeDeltaToMax, unit);
         }
 
-        @Override
-        public boolean cancel(boolean mayInterruptIfRunning) {
-            cancelled = true;
-            return true;
-        }
+        /**
+         * Create a rate limiter enforcing all of the specified limits
+         * @param limits The limits
+         * @return The rate limiter
+         */
+        public static RateLimiter toRateLimiter(Limit... limits) {
+            List<TokenBucket> buckets = new ArrayList<>(limits.length);
+            for (Limit limit: limits) {
+                buckets.add(limit.toTokenBucket());
+            }
 
-        @Override
-        public boolean isCancelled() {
-            return cancelled;
+            return new CompositeRateLimiter(buckets);
         }
+    }
 
-        @Override
-        public boolean isDone() {
-            return value != null || err != null;
+    /**
+     * The batchers for all lookups that have a multi-id variant, sized to the maximum number of ids the api accepts
+     */
+    public class Batchers {
+        public static final int SUMMONER_BATCH_SIZE = 40;
+        public static final int LEAGUE_BATCH_SIZE = 10;
+        public static final int TEAM_BATCH_SIZE = 10;
+
+        public final Batcher<Integer, Summoner> summoners;
+        public final Batcher<String, Summoner> summonersByName;
+        public final Batcher<Integer, String> summonerNames;
+        public final Batcher<Integer, Set<MasteryPage>> masteryPages;
+        public final Batcher<Integer, Set<RunePage>> runePages;
+        public final Batcher<Long, List<LeagueList>> leagues;
+        public final Batcher<Long, List<LeagueItem>> leagueEntries;
+        public final Batcher<Long, List<RankedTeam>> teamsBySummoner;
+        public final Batcher<String, RankedTeam> teams;
+
+        private Batchers(long window, TimeUnit unit) {
+            summoners = new Batcher<>(SUMMONER_BATCH_SIZE, window, unit, scheduler,
+                    ids -> handler.getSummonersAsync(ids.toArray(new Integer[ids.size()])));
+            summonersByName = new Batcher<>(SUMMONER_BATCH_SIZE, window, unit, scheduler,
+                    names -> handler.getSummonersAsync(names.toArray(new String[names.size()])));
+            summonerNames = new Batcher<>(SUMMONER_BATCH_SIZE, window, unit, scheduler,
+                    ids -> handler.getSummonerNamesAsync(ids.toArray(new Integer[ids.size()])));
+            masteryPages = new Batcher<>(SUMMONER_BATCH_SIZE, window, unit, scheduler,
+                    ids -> handler.getMasteryPagesMultipleUsersAsync(ids.toArray(new Integer[ids.size()])));
+            runePages = new Batcher<>(SUMMONER_BATCH_SIZE, window, unit, scheduler,
+                    ids -> handler.getRunePagesMultipleUsersAsync(ids.stream().mapToInt(Integer::intValue).toArray()));
+            leagues = new Batcher<>(LEAGUE_BATCH_SIZE, window, unit, scheduler,
+                    ids -> handler.getLeaguesAsync(ids.stream().mapToLong(Long::longValue).toArray()));
+            leagueEntries = new Batcher<>(LEAGUE_BATCH_SIZE, window, unit, scheduler,
+                    ids -> handler.getLeagueEntriesAsync(ids.stream().mapToLong(Long::longValue).toArray()));
+            teamsBySummoner = new Batcher<>(TEAM_BATCH_SIZE, window, unit, scheduler,
+                    ids -> handler.getTeamsBySummonersAsync(ids.stream().mapToLong(Long::longValue).toArray()));
+            teams = new Batcher<>(TEAM_BATCH_SIZE, window, unit, scheduler,
+                    ids -> handler.getTeamsAsync(ids.toArray(new String[ids.size()])));
         }
 
-        @Override
-        public T get() throws InterruptedException, ExecutionException {
-            if (isCancelled()) {
-                throw new ExecutionException("Task was cancelled", null);
+        /**
+         * Send all collected lookups right away
+         */
+        public void flush() {
+            for (Batcher<?, ?> batcher: Arrays.asList(summoners, summonersByName, summonerNames, masteryPages, runePages,
+                    leagues, leagueEntries, teamsBySummoner, teams)) {
+                batcher.flush();
             }
+        }
+    }
 
-            signal.await();
+    /**
+     * Queues requests to rate limited endpoints until a permit is available. Other requests are sent right away.
+     */
+    private class ThrottledTransport implements Transport {
 
-            if (err != null) {
-                throw new ExecutionException(err);
+        @Override
+        public CompletableFuture<TransportResponse> execute(TransportRequest request) {
+            Endpoint endpoint = Endpoint.of(request.getUri());
+            if (!endpoint.isRateLimited()) {
+                return timed(endpoint, transport.execute(request));
             }
 
-            return value;
+            return new ApiFuture(request, endpoint, tag.get());
         }
+    }
 
-        @Override
-        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-            if (isCancelled()) {
-                throw new ExecutionException("Task was cancelled", null);
-            }
-
-            if (!signal.await(timeout, unit)) {
-                throw new TimeoutException("Wait time for reply exceeded " + timeout + " " + unit);
+    /**
+     * Record the transport time of a request once its response arrives
+     */
+    private CompletableFuture<TransportResponse> timed(Endpoint endpoint, CompletableFuture<TransportResponse> response) {
+        long start = System.nanoTime();
+        response.whenComplete((r, ex) -> {
+            if (r != null) {
+                metrics.record(endpoint, Phase.HTTP, System.nanoTime() - start);
             }
+        });
 
-            if (err != null) {
-                throw new ExecutionException(err);
-            }
+        return response;
+    }
 
-            return value;
+    /**
+     * Replace the api key the request was created with by the key it is sent with
+     */
+    private TransportRequest withApiKey(TransportRequest request, String token) {
+        if (keys.size() == 1) {
+            return request;
         }
 
-        public Exception getErr() {
-            return err;
-        }
+        // A single null value removes the parameter
+        return request.withTarget(request.getTarget().queryParam(API_KEY, (Object) null).queryParam(API_KEY, token));
     }
 
-    private class DummyFuture<T> implements Future<T> {
+    /**
+     * The statistics of a priority class, guarded by the handler
+     */
+    private static class QueueCounters {
+        private long dispatched;
+        private long expired;
+        private long cancelled;
+        private long rejected;
+        private long totalWait;
+        private long maxWait;
+    }
 
-        private T value;
+    /**
+     * The priority and deadline of the requests made by the current thread. A deadline of 0 means none.
+     */
+    private static class Tag {
+        private final Priority priority;
+        private final long deadline;
 
-        private DummyFuture(T value) {
-            this.value = value;
+        private Tag(Priority priority, long deadline) {
+            this.priority = priority;
+            this.deadline = deadline;
         }
+    }
 
-        @Override
-        public boolean cancel(boolean mayInterruptIfRunning) {
-            return false;
-        }
+    /**
+     * A request waiting for a rate limit permit. The future is completed once the transport received the response.
+     */
+    private class ApiFuture extends CompletableFuture<TransportResponse> {
 
-        @Override
-        public boolean isCancelled() {
-            return false;
+        private final TransportRequest request;
+        private final Endpoint endpoint;
+        private final Priority priority;
+        private final long deadline;
+        private final long queuedAt = System.nanoTime();
+        private int rateLimitRetries;
+        private volatile ApiKeyPool.ApiKey key;
+        // Guarded by the handler: whether and since when the request waited at the head of the queue for a permit
+        private boolean blocked;
+        private long blockedSince;
+
+        public ApiFuture(TransportRequest request, Endpoint endpoint, Tag requestTag) {
+            this.request = request;
+            this.endpoint = endpoint;
+            this.priority = requestTag == null ? defaultPriority : requestTag.priority;
+            this.deadline = requestTag == null ? 0 : requestTag.deadline;
+            ThrottledApiHandler.this.scheduleNext(this);
         }
 
-        @Override
-        public boolean isDone() {
-            return true;
+        private boolean isExpired(long now) {
+            return deadline != 0 && now - deadline >= 0;
         }
 
+        /**
+         * A request that is still queued is removed from the queue. A request that was already sent can't be
+         * recalled, but its response is discarded.
+         */
         @Override
-        public T get() throws InterruptedException, ExecutionException {
-            return value;
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                ThrottledApiHandler.this.cancelled(this);
+            }
+            return cancelled;
         }
 
-        @Override
-        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-            return value;
+        private void run() {
+            try {
+                timed(endpoint, transport.execute(withApiKey(request, key.getToken()))).whenComplete((response, ex) -> {
+                    if (ex != null) {
+                        completeExceptionally(ex);
+                    } else if (!handleRateLimitHeaders(this, response) && !complete(response)) {
+                        response.close();
+                    }
+                });
+            } catch (RuntimeException e) {
+                completeExceptionally(e);
+            }
         }
     }
 
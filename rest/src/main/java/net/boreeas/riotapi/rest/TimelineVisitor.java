@@ -0,0 +1,73 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+/**
+ * Receives the parts of a match timeline one by one, as they are read by a {@link MatchTimelineReader}. All methods
+ * do nothing by default, so implementations only need to override what they are interested in.
+ */
+public interface TimelineVisitor {
+
+    /**
+     * @param frameInterval The time between two frames, in milliseconds
+     */
+    default void visitFrameInterval(long frameInterval) {
+    }
+
+    /**
+     * Called before any participant frame or event of a frame.
+     * @param frame The index of the frame
+     */
+    default void startFrame(int frame) {
+    }
+
+    /**
+     * @param frame The index of the frame
+     * @param participantFrame The state of one participant at the time of the frame
+     */
+    default void visitParticipantFrame(int frame, ParticipantFrame participantFrame) {
+    }
+
+    /**
+     * @param frame The index of the frame
+     * @param event An event that happened since the previous frame
+     */
+    default void visitEvent(int frame, Event event) {
+    }
+
+    /**
+     * Called after all participant frames and events of a frame.
+     * @param frame The index of the frame
+     * @param timestamp The time of the frame, in milliseconds since the start of the game
+     */
+    default void endFrame(int frame, long timestamp) {
+    }
+
+    /**
+     * @return <code>false</code> to skip the participant frames without parsing them
+     */
+    default boolean wantsParticipantFrames() {
+        return true;
+    }
+
+    /**
+     * @return <code>false</code> to skip the events without parsing them
+     */
+    default boolean wantsEvents() {
+        return true;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A decoder that parses the UTF-8 bytes of the body directly, instead of decoding them to characters first and
+ * parsing those with Gson's JsonReader. The body is read into a buffer that is reused by each thread, and member
+ * names are looked up in a per-thread cache instead of being decoded again for every object.
+ * </p>
+ * The DTOs are still created by the type adapters of the Gson instance, so the results are the same as those of the
+ * {@link GsonDecoder}. Unlike Gson, the decoder doesn't accept malformed json, such as unquoted strings.
+ */
+public class Utf8Decoder implements ResponseDecoder {
+
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+    /**
+     * Buffers grown beyond this size are dropped after decoding instead of being kept for the next response
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private final Gson gson;
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * @param gson The Gson instance holding the type adapters, see {@link ApiHandler#getGson()}. It must read maps
+     *             with adapters that only use the public methods of JsonReader, as the one of the api handlers does.
+     */
+    public Utf8Decoder(Gson gson) {
+        this.gson = gson;
+    }
+
+    @Override
+    public <T> T decode(InputStream body, Type type) throws IOException {
+        Buffers buffers = this.buffers.get();
+        int length = buffers.fill(body);
+        try {
+            return decode(buffers.bytes, length, buffers.names, type);
+        } finally {
+            buffers.release();
+        }
+    }
+
+    @Override
+    public <T> T decode(byte[] body, Type type) throws IOException {
+        return decode(body, body.length, buffers.get().names, type);
+    }
+
+    private <T> T decode(byte[] bytes, int length, Utf8JsonReader.NameCache names, Type type) {
+        Utf8JsonReader reader = new Utf8JsonReader(bytes, 0, length, names);
+        if (reader.isEmptyDocument()) {
+            return null;
+        }
+
+        try {
+            @SuppressWarnings("unchecked")
+            TypeAdapter<T> adapter = (TypeAdapter<T>) gson.getAdapter(TypeToken.get(type));
+            T result = adapter.read(reader);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonIOException("JSON document was not fully consumed.");
+            }
+            return result;
+        } catch (IllegalStateException | IOException ex) {
+            // Report malformed json like Gson.fromJson does
+            throw new JsonSyntaxException(ex);
+        }
+    }
+
+    private static class Buffers {
+        private byte[] bytes = new byte[INITIAL_BUFFER_SIZE];
+        private final Utf8JsonReader.NameCache names = new Utf8JsonReader.NameCache();
+
+        /**
+         * Read the stream into the buffer, growing it as needed
+         *
+         * @return The number of bytes read
+         */
+        int fill(InputStream in) throws IOException {
+            int length = 0;
+            int read;
+            while ((read = in.read(bytes, length, bytes.length - length)) != -1) {
+                length += read;
+                if (length == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                }
+            }
+            return length;
+        }
+
+        void release() {
+            if (bytes.length > MAX_RETAINED_BUFFER_SIZE) {
+                bytes = new byte[INITIAL_BUFFER_SIZE];
+            }
+        }
+    }
+}
@@ -0,0 +1,622 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A JsonReader that parses UTF-8 encoded json straight from a byte array, instead of decoding it to characters
+ * first. Strings are decoded once, when they are read, and skipped values are never decoded at all.
+ * </p>
+ * All methods of the reader that Gson's type adapters use are overridden, so the reader can be passed to any
+ * {@link com.google.gson.TypeAdapter}, with one exception: Gson's built in map adapter reaches into the state of
+ * JsonReader itself, so maps must be read with the {@link MapAdapterFactory}. The reader doesn't accept the lenient
+ * syntax extensions of Gson's reader.
+ */
+class Utf8JsonReader extends JsonReader {
+    private static final Reader UNUSED = new StringReader("");
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+    private static final int CLOSED = 7;
+
+    private final byte[] buf;
+    private final int limit;
+    private final NameCache names;
+    private int pos;
+
+    private int[] stack = new int[32];
+    private int stackSize = 1;
+    private JsonToken peeked;
+
+    /**
+     * @param buf The UTF-8 encoded json
+     * @param offset The index of the first byte of the json
+     * @param length The number of bytes of the json
+     * @param names The cache for object member names, or <code>null</code>
+     */
+    Utf8JsonReader(byte[] buf, int offset, int length, NameCache names) {
+        super(UNUSED);
+        this.buf = buf;
+        this.pos = offset;
+        this.limit = offset + length;
+        this.names = names;
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * @return <code>true</code> if the input is empty or only contains whitespace
+     */
+    boolean isEmptyDocument() {
+        return stack[0] == EMPTY_DOCUMENT && nextNonWhitespace() == -1;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        if (peeked == null) {
+            peeked = doPeek();
+        }
+        return peeked;
+    }
+
+    private JsonToken doPeek() throws IOException {
+        int top = stackSize - 1;
+        switch (stack[top]) {
+            case EMPTY_ARRAY:
+                stack[top] = NONEMPTY_ARRAY;
+                if (nextNonWhitespace() == ']') {
+                    return JsonToken.END_ARRAY;
+                }
+                break;
+            case NONEMPTY_ARRAY: {
+                int c = nextNonWhitespace();
+                if (c == ']') {
+                    return JsonToken.END_ARRAY;
+                } else if (c != ',') {
+                    throw syntaxError("Unterminated array");
+                }
+                pos++;
+                break;
+            }
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT: {
+                int c = nextNonWhitespace();
+                if (c == '}') {
+                    return JsonToken.END_OBJECT;
+                }
+                if (stack[top] == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw syntaxError("Unterminated object");
+                    }
+                    pos++;
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw syntaxError("Expected name");
+                }
+                return JsonToken.NAME;
+            }
+            case DANGLING_NAME:
+                stack[top] = NONEMPTY_OBJECT;
+                if (nextNonWhitespace() != ':') {
+                    throw syntaxError("Expected ':'");
+                }
+                pos++;
+                break;
+            case EMPTY_DOCUMENT:
+                stack[top] = NONEMPTY_DOCUMENT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                if (nextNonWhitespace() == -1) {
+                    return JsonToken.END_DOCUMENT;
+                }
+                throw syntaxError("Expected end of document");
+            default:
+                throw new IllegalStateException("JsonReader is closed");
+        }
+
+        int c = nextNonWhitespace();
+        switch (c) {
+            case '{':
+                return JsonToken.BEGIN_OBJECT;
+            case '[':
+                return JsonToken.BEGIN_ARRAY;
+            case '"':
+                return JsonToken.STRING;
+            case 't':
+            case 'f':
+                return JsonToken.BOOLEAN;
+            case 'n':
+                return JsonToken.NULL;
+            case '-':
+                return JsonToken.NUMBER;
+            case -1:
+                throw new EOFException("End of input at offset " + pos);
+            default:
+                if (c >= '0' && c <= '9') {
+                    return JsonToken.NUMBER;
+                }
+                throw syntaxError("Unexpected character");
+        }
+    }
+
+    /**
+     * @return The next byte that isn't whitespace, without consuming it, or -1 at the end of the input
+     */
+    private int nextNonWhitespace() {
+        while (pos < limit) {
+            byte c = buf[pos];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c & 0xff;
+            }
+            pos++;
+        }
+        return -1;
+    }
+
+    private void expect(JsonToken token) throws IOException {
+        if (peek() != token) {
+            throw new IllegalStateException("Expected " + token + " but was " + peeked + " at offset " + pos);
+        }
+        peeked = null;
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        expect(JsonToken.BEGIN_ARRAY);
+        pos++;
+        push(EMPTY_ARRAY);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        expect(JsonToken.END_ARRAY);
+        pos++;
+        stackSize--;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        expect(JsonToken.BEGIN_OBJECT);
+        pos++;
+        push(EMPTY_OBJECT);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        expect(JsonToken.END_OBJECT);
+        pos++;
+        stackSize--;
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = scope;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        JsonToken token = peek();
+        return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        expect(JsonToken.NAME);
+        String name = readString(names);
+        stack[stackSize - 1] = DANGLING_NAME;
+        return name;
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        JsonToken token = peek();
+        if (token == JsonToken.STRING) {
+            peeked = null;
+            return readString(null);
+        } else if (token == JsonToken.NUMBER) {
+            peeked = null;
+            return readNumber();
+        }
+        throw new IllegalStateException("Expected a string but was " + token + " at offset " + pos);
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        expect(JsonToken.BOOLEAN);
+        if (matches("true")) {
+            return true;
+        } else if (matches("false")) {
+            return false;
+        }
+        throw syntaxError("Expected a boolean");
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        expect(JsonToken.NULL);
+        if (!matches("null")) {
+            throw syntaxError("Expected null");
+        }
+    }
+
+    /**
+     * Consume the literal if it is next in the input
+     */
+    private boolean matches(String literal) {
+        int length = literal.length();
+        if (limit - pos < length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buf[pos + i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        pos += length;
+        return true;
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        if (peek() == JsonToken.NUMBER && isPlainLong(scanNumber())) {
+            // Like Gson, read integers as longs, which also turns -0 into 0
+            return nextLong();
+        }
+        return Double.parseDouble(nextNumberOrString("double"));
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        if (peek() == JsonToken.NUMBER) {
+            // Parse plain integers in place, without creating a string
+            int end = scanNumber();
+            if (isPlainLong(end)) {
+                boolean negative = buf[pos] == '-';
+                long value = 0;
+                for (int i = negative ? pos + 1 : pos; i < end; i++) {
+                    value = value * 10 + (buf[i] - '0');
+                }
+
+                peeked = null;
+                pos = end;
+                return negative ? -value : value;
+            }
+        }
+
+        return parseLong(nextNumberOrString("long"));
+    }
+
+    /**
+     * @param end The end of the number at the current position
+     * @return <code>true</code> if the number only consists of few enough digits to always fit into a long
+     */
+    private boolean isPlainLong(int end) {
+        int start = buf[pos] == '-' ? pos + 1 : pos;
+        if (end - start > 18) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (buf[i] < '0' || buf[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            // Accept numbers like 1.0 or 1e3 that have an exact long value, like Gson does
+            double asDouble = Double.parseDouble(value);
+            long result = (long) asDouble;
+            if (result != asDouble) {
+                throw new NumberFormatException("Expected a long but was " + value);
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        if ((int) value != value) {
+            throw new NumberFormatException("Expected an int but was " + value + " at offset " + pos);
+        }
+        return (int) value;
+    }
+
+    private String nextNumberOrString(String expected) throws IOException {
+        JsonToken token = peek();
+        if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+            throw new IllegalStateException("Expected a " + expected + " but was " + token + " at offset " + pos);
+        }
+        return nextString();
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_ARRAY:
+                    beginArray();
+                    depth++;
+                    break;
+                case BEGIN_OBJECT:
+                    beginObject();
+                    depth++;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    depth--;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    depth--;
+                    break;
+                case NAME:
+                    peeked = null;
+                    skipString();
+                    stack[stackSize - 1] = DANGLING_NAME;
+                    break;
+                case STRING:
+                    peeked = null;
+                    skipString();
+                    break;
+                case NUMBER:
+                    peeked = null;
+                    pos = scanNumber();
+                    break;
+                case BOOLEAN:
+                    nextBoolean();
+                    break;
+                case NULL:
+                    nextNull();
+                    break;
+                default:
+                    throw new IllegalStateException("Expected a value but was " + peeked + " at offset " + pos);
+            }
+        } while (depth != 0);
+    }
+
+    /**
+     * Read the string starting at the opening quote at the current position
+     */
+    private String readString(NameCache cache) throws IOException {
+        int start = pos + 1;
+        for (int i = start; i < limit; i++) {
+            byte c = buf[i];
+            if (c == '"') {
+                pos = i + 1;
+                if (cache != null) {
+                    return cache.get(buf, start, i - start);
+                }
+                return new String(buf, start, i - start, StandardCharsets.UTF_8);
+            } else if (c == '\\') {
+                return readEscapedString(start, i);
+            }
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    private String readEscapedString(int start, int escape) throws IOException {
+        StringBuilder builder = new StringBuilder(escape - start + 16);
+        int segment = start;
+        for (int i = escape; i < limit; i++) {
+            byte c = buf[i];
+            if (c == '"') {
+                builder.append(new String(buf, segment, i - segment, StandardCharsets.UTF_8));
+                pos = i + 1;
+                return builder.toString();
+            } else if (c != '\\') {
+                continue;
+            }
+
+            builder.append(new String(buf, segment, i - segment, StandardCharsets.UTF_8));
+            if (++i == limit) {
+                break;
+            }
+
+            switch (buf[i]) {
+                case 'u':
+                    if (i + 4 >= limit) {
+                        pos = i;
+                        throw syntaxError("Unterminated escape sequence");
+                    }
+                    int value = 0;
+                    for (int j = i + 1; j <= i + 4; j++) {
+                        int digit = Character.digit(buf[j], 16);
+                        if (digit < 0) {
+                            pos = j;
+                            throw syntaxError("Malformed unicode escape");
+                        }
+                        value = (value << 4) | digit;
+                    }
+                    builder.append((char) value);
+                    i += 4;
+                    break;
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                default:
+                    // Quotes, backslashes and slashes stand for themselves
+                    builder.append((char) buf[i]);
+            }
+            segment = i + 1;
+        }
+
+        pos = limit;
+        throw syntaxError("Unterminated string");
+    }
+
+    private void skipString() throws IOException {
+        for (int i = pos + 1; i < limit; i++) {
+            byte c = buf[i];
+            if (c == '"') {
+                pos = i + 1;
+                return;
+            } else if (c == '\\') {
+                i++;
+            }
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    private String readNumber() throws IOException {
+        int end = scanNumber();
+        String number = new String(buf, pos, end - pos, StandardCharsets.US_ASCII);
+        pos = end;
+        return number;
+    }
+
+    /**
+     * @return The index after the end of the number at the current position
+     */
+    private int scanNumber() throws IOException {
+        int i = pos;
+        if (i < limit && buf[i] == '-') {
+            i++;
+        }
+        int digitsStart = i;
+        i = skipDigits(i);
+        if (i == digitsStart) {
+            throw syntaxError("Malformed number");
+        }
+
+        if (i < limit && buf[i] == '.') {
+            int fractionStart = ++i;
+            i = skipDigits(i);
+            if (i == fractionStart) {
+                throw syntaxError("Malformed number");
+            }
+        }
+
+        if (i < limit && (buf[i] == 'e' || buf[i] == 'E')) {
+            i++;
+            if (i < limit && (buf[i] == '+' || buf[i] == '-')) {
+                i++;
+            }
+            int exponentStart = i;
+            i = skipDigits(i);
+            if (i == exponentStart) {
+                throw syntaxError("Malformed number");
+            }
+        }
+
+        return i;
+    }
+
+    private int skipDigits(int i) {
+        while (i < limit && buf[i] >= '0' && buf[i] <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private IOException syntaxError(String message) {
+        return new MalformedJsonException(message + " at offset " + pos);
+    }
+
+    @Override
+    public void close() {
+        peeked = null;
+        stack[0] = CLOSED;
+        stackSize = 1;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " at offset " + pos;
+    }
+
+    /**
+     * <p>
+     * Reuses the strings of object member names that were seen before, so the names of every DTO field aren't
+     * decoded and allocated again for every object.
+     * </p>
+     * The cache is direct mapped: a name replaces the name in its slot with a different hash. Not thread safe.
+     */
+    static class NameCache {
+        private static final int SIZE = 512;
+        private static final int MAX_LENGTH = 32;
+
+        private final byte[][] keys = new byte[SIZE][];
+        private final String[] values = new String[SIZE];
+
+        String get(byte[] buf, int offset, int length) {
+            if (length > MAX_LENGTH) {
+                return new String(buf, offset, length, StandardCharsets.UTF_8);
+            }
+
+            int hash = 0;
+            for (int i = offset; i < offset + length; i++) {
+                hash = 31 * hash + buf[i];
+            }
+            int slot = (hash ^ (hash >>> 16)) & (SIZE - 1);
+
+            byte[] key = keys[slot];
+            if (key != null && key.length == length && regionMatches(key, buf, offset)) {
+                return values[slot];
+            }
+
+            String value = new String(buf, offset, length, StandardCharsets.UTF_8);
+            keys[slot] = Arrays.copyOfRange(buf, offset, offset + length);
+            values[slot] = value;
+            return value;
+        }
+
+        private static boolean regionMatches(byte[] key, byte[] buf, int offset) {
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != buf[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
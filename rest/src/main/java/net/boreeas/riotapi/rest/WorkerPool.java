@@ -0,0 +1,210 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import lombok.extern.log4j.Log4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The threads executing requests for a {@link ThrottledApiHandler}. Wraps an executor service and keeps track of
+ * how many tasks are waiting and how many are currently running. All handlers sharing a pool also share a single
+ * dispatcher thread, so the number of threads doesn't grow with the number of handlers.
+ */
+@Log4j
+public class WorkerPool implements Executor, AutoCloseable {
+
+    public static final int DEFAULT_THREADS = 16;
+
+    /**
+     * Set while the current thread runs a task of any worker pool, or is a dispatcher thread
+     */
+    private static final ThreadLocal<Boolean> WORKER_THREAD = new ThreadLocal<>();
+
+    private final ExecutorService executor;
+    private final boolean shutdownOnClose;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    private WorkerPool(ExecutorService executor, boolean shutdownOnClose) {
+        this.executor = executor;
+        this.shutdownOnClose = shutdownOnClose;
+    }
+
+    /**
+     * Create a pool with a fixed number of daemon threads.
+     * @param threads The number of threads.
+     * @return The worker pool.
+     */
+    public static WorkerPool fixed(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return new WorkerPool(Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "ThrottledApiHandler worker " + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }), true);
+    }
+
+    /**
+     * Create a pool that runs every request on its own virtual thread. If the running JVM doesn't support virtual
+     * threads, a fixed pool with {@link #DEFAULT_THREADS} threads is used instead.
+     * @return The worker pool.
+     */
+    public static WorkerPool virtualThreads() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return new WorkerPool((ExecutorService) factory.invoke(null), true);
+        } catch (ReflectiveOperationException ex) {
+            log.warn("Virtual threads are not supported by this JVM, falling back to a fixed pool");
+            return fixed(DEFAULT_THREADS);
+        }
+    }
+
+    /**
+     * Wrap an existing executor service. The executor is owned by the caller and will not be shut down when this
+     * pool is closed.
+     * @param executor The executor service.
+     * @return The worker pool.
+     */
+    public static WorkerPool of(ExecutorService executor) {
+        return new WorkerPool(executor, false);
+    }
+
+    /**
+     * @return <code>true</code> if the running JVM supports virtual threads.
+     */
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        queued.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                // Tasks may run inline on a thread that is already running one, e.g. with a caller-supplied executor
+                Boolean outer = WORKER_THREAD.get();
+                WORKER_THREAD.set(Boolean.TRUE);
+                try {
+                    task.run();
+                } finally {
+                    WORKER_THREAD.set(outer);
+                    active.decrementAndGet();
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RuntimeException ex) {
+            queued.decrementAndGet();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return The number of tasks waiting for a free worker.
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * @return The number of tasks currently being executed.
+     */
+    public int getActiveWorkers() {
+        return active.get();
+    }
+
+    /**
+     * @return The number of tasks that have finished executing.
+     */
+    public long getCompletedTasks() {
+        return completed.get();
+    }
+
+    /**
+     * @return The scheduler that dispatches the queued requests of all handlers using this pool. It is created on
+     * first use, and shut down when the pool is closed.
+     */
+    public synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(() -> {
+                    WORKER_THREAD.set(Boolean.TRUE);
+                    r.run();
+                }, "ThrottledApiHandler dispatcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        return scheduler;
+    }
+
+    /**
+     * @return <code>true</code> if the current thread is running a task of a worker pool, or is the dispatcher
+     * thread of one. Such threads complete requests, so they must never wait for other requests to complete.
+     */
+    public static boolean isWorkerThread() {
+        return WORKER_THREAD.get() != null;
+    }
+
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * Shuts down the dispatcher, and the underlying executor unless it was supplied by the caller. Tasks that have
+     * already been submitted are still executed; this method waits a short time for them to finish.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+
+        if (!shutdownOnClose) {
+            return;
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Worker pool did not terminate in time, " + active.get() + " requests still running");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
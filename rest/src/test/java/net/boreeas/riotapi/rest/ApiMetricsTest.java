@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import junit.framework.TestCase;
+import net.boreeas.riotapi.RequestException;
+import net.boreeas.riotapi.Shard;
+import net.boreeas.riotapi.http.Transport;
+import net.boreeas.riotapi.http.TransportResponse;
+import net.boreeas.riotapi.ratelimit.TokenBucket;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+public class ApiMetricsTest extends TestCase {
+
+    public void testHistogramBuckets() {
+        for (long value = 0; value < 1L << 36; value = value * 5 / 4 + 1) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(value + " is above its bucket", LatencyHistogram.highestValue(index) >= value);
+            assertTrue(value + " is in the wrong bucket", index == 0 || LatencyHistogram.highestValue(index - 1) < value);
+            assertTrue("Bucket of " + value + " is too wide", LatencyHistogram.highestValue(index) - value <= value / 64);
+        }
+    }
+
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMean(TimeUnit.MILLISECONDS), 0.01);
+        assertEquals(1000, histogram.getMax(TimeUnit.MILLISECONDS), 0.01);
+        assertEquals(500, histogram.getValueAtPercentile(50, TimeUnit.MILLISECONDS), 500 / 64.0);
+        assertEquals(990, histogram.getValueAtPercentile(99, TimeUnit.MILLISECONDS), 990 / 64.0);
+        assertEquals(1000, histogram.getValueAtPercentile(100, TimeUnit.MILLISECONDS), 0.01);
+    }
+
+    public void testThrottledApiHandlerMetrics() throws Exception {
+        byte[] games = gzip("{\"games\": []}");
+        Transport transport = request -> CompletableFuture.completedFuture(request.getUri().getPath().contains("/404/")
+                ? new TransportResponse(404, Collections.emptyMap(), null)
+                : new TransportResponse(200, Collections.singletonMap("Content-Encoding", "gzip"), new ByteArrayInputStream(games)));
+
+        try (ThrottledApiHandler handler = new ThrottledApiHandler(Shard.EUW, "token", transport, WorkerPool.fixed(1),
+                new TokenBucket(1, 100, TimeUnit.MILLISECONDS))) {
+            handler.getRecentGames(1).join();
+            handler.getRecentGames(2).join();
+            try {
+                handler.getRecentGames(404).join();
+                fail("Request must fail");
+            } catch (CompletionException ex) {
+                assertTrue(ex.getCause() instanceof RequestException);
+            }
+
+            MetricsSnapshot snapshot = handler.getMetrics().snapshot();
+            EndpointMetrics game = snapshot.getEndpoints().get(Endpoint.GAME);
+            assertEquals(3, game.getRequests());
+            assertEquals(1, game.getErrors());
+            assertEquals(2L, (long) game.getStatusCodes().get(200));
+            assertEquals(1L, (long) game.getStatusCodes().get(404));
+            assertEquals(3, game.getLatencies().get(Phase.HTTP).getCount());
+            assertEquals(2, game.getLatencies().get(Phase.INFLATE).getCount());
+            // Every request after the first had to wait for the bucket to refill
+            assertTrue(game.getLatencies().get(Phase.TOKEN).getMax() >= 50);
+            assertEquals(0.0, snapshot.getGauges().get("queue.depth"));
+            assertEquals(1.0, snapshot.getGauges().get("keys.active"));
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = handler.getMetrics().register("test");
+            try {
+                assertEquals(3L, server.getAttribute(name, "Requests"));
+                assertEquals(1, ((TabularData) server.getAttribute(name, "Endpoints")).size());
+            } finally {
+                handler.getMetrics().unregister();
+            }
+            assertFalse(server.isRegistered(name));
+        }
+    }
+
+    public void testFaultToleranceGauges() throws Exception {
+        Transport transport = request -> CompletableFuture.completedFuture(new TransportResponse(503, Collections.emptyMap(), null));
+
+        try (ThrottledApiHandler handler = new ThrottledApiHandler(Shard.EUW, "token", transport, WorkerPool.fixed(1),
+                new TokenBucket(10, 100, TimeUnit.MILLISECONDS))) {
+            handler.getFaultTolerantTransport().setRetryPolicy(new RetryPolicy(1, 1, 1, TimeUnit.MILLISECONDS, 0.5));
+            handler.getFaultTolerantTransport().setCircuitBreakers(2, 1, TimeUnit.MINUTES);
+
+            // Fails twice, opening the breaker
+            assertFails(handler.getRecentGames(1));
+            // Rejected by the open breaker
+            assertFails(handler.getRecentGames(2));
+
+            Map<String, Double> gauges = handler.getMetrics().snapshot().getGauges();
+            assertEquals((double) CircuitBreaker.State.OPEN.ordinal(), gauges.get("breaker.game.state"));
+            assertEquals(1.0, gauges.get("breaker.game.opened"));
+            assertEquals(1.0, gauges.get("breaker.game.rejected"));
+            assertEquals((double) CircuitBreaker.State.CLOSED.ordinal(), gauges.get("breaker.summoner.state"));
+            assertEquals(1.0, gauges.get("retry.count"));
+            assertEquals(RetryPolicy.BUDGET_RESERVE - 0.5, gauges.get("retry.budget"));
+            assertEquals(0.0, gauges.get("retry.budgetExhausted"));
+        }
+    }
+
+    private static void assertFails(CompletableFuture<?> future) {
+        try {
+            future.join();
+            fail("Request must fail");
+        } catch (CompletionException expected) {
+        }
+    }
+
+    private static byte[] gzip(String text) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import junit.framework.TestCase;
+
+import java.net.URI;
+
+public class EndpointTest extends TestCase {
+
+    public void testClassification() {
+        assertEquals(Endpoint.SUMMONER, Endpoint.of(URI.create("https://euw.api.pvp.net/api/lol/euw/v1.4/summoner/by-name/foo?api_key=x")));
+        assertEquals(Endpoint.MATCHLIST, Endpoint.of(URI.create("https://euw.api.pvp.net/api/lol/euw/v2.2/matchlist/by-summoner/1")));
+        assertEquals(Endpoint.STATIC_DATA, Endpoint.of(URI.create("https://global.api.pvp.net/api/lol/static-data/euw/v1.2/champion")));
+        assertEquals(Endpoint.STATUS, Endpoint.of(URI.create("http://status.leagueoflegends.com/shards/euw")));
+        assertEquals(Endpoint.CURRENT_GAME, Endpoint.of(URI.create("https://euw.api.pvp.net/observer-mode/rest/consumer/getSpectatorGameInfo")));
+        assertEquals(Endpoint.FEATURED_GAMES, Endpoint.of(URI.create("https://euw.api.pvp.net/observer-mode/rest/featured")));
+        assertEquals(Endpoint.OTHER, Endpoint.of(URI.create("http://example.com/")));
+
+        assertFalse(Endpoint.STATIC_DATA.isRateLimited());
+        assertTrue(Endpoint.SUMMONER.isRateLimited());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import junit.framework.TestCase;
+import net.boreeas.riotapi.http.TransportRequest;
+import net.boreeas.riotapi.http.TransportResponse;
+
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FaultTolerantTransportTest extends TestCase {
+
+    private final WebTarget game = ClientBuilder.newClient().target("https://euw.api.pvp.net/api/lol/euw/v1.3/game/by-summoner/1/recent");
+    private final AtomicInteger calls = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * A transport answering with the given status codes in order, repeating the last one
+     */
+    private FaultTolerantTransport answering(int... statuses) {
+        FaultTolerantTransport transport = new FaultTolerantTransport(request -> {
+            int call = calls.getAndIncrement();
+            int status = statuses[Math.min(call, statuses.length - 1)];
+            return CompletableFuture.completedFuture(new TransportResponse(status, Collections.emptyMap(), null));
+        }, scheduler);
+        transport.setRetryPolicy(new RetryPolicy(3, 1, 10, TimeUnit.MILLISECONDS, 0.1));
+        return transport;
+    }
+
+    private TransportRequest get() {
+        return TransportRequest.get(game, MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    public void testServerErrorsAreRetried() throws Exception {
+        FaultTolerantTransport transport = answering(503, 522, 200);
+        assertEquals(200, transport.execute(get()).get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals(3, calls.get());
+        assertEquals(2, transport.getRetries());
+    }
+
+    public void testClientErrorsAndPostsAreNotRetried() throws Exception {
+        FaultTolerantTransport transport = answering(404, 500);
+        assertEquals(404, transport.execute(get()).get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals(500, transport.execute(TransportRequest.post(game, Entity.text(""))).get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals(2, calls.get());
+    }
+
+    public void testRetryBudget() throws Exception {
+        FaultTolerantTransport transport = answering(500);
+        transport.setCircuitBreakers(1000, 1, TimeUnit.MINUTES);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(500, transport.execute(get()).get(10, TimeUnit.SECONDS).getStatus());
+        }
+
+        // The reserve allows 10 retries, and each request added a tenth of a retry
+        assertEquals(10, transport.getRetries());
+        assertTrue(transport.getBudgetExhausted() > 0);
+    }
+
+    public void testCircuitBreakerFailsFast() throws Exception {
+        FaultTolerantTransport transport = answering(500, 500, 500, 200);
+        transport.setRetryPolicy(RetryPolicy.NONE);
+        transport.setCircuitBreakers(3, 100, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(500, transport.execute(get()).get(10, TimeUnit.SECONDS).getStatus());
+        }
+
+        CircuitBreaker breaker = transport.getCircuitBreaker(Endpoint.GAME);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        try {
+            transport.execute(get()).get(10, TimeUnit.SECONDS);
+            fail("Request must fail while the breaker is open");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof CircuitBreakerOpenException);
+        }
+        assertEquals(3, calls.get());
+        assertEquals(CircuitBreaker.State.CLOSED, transport.getCircuitBreaker(Endpoint.SUMMONER).getState());
+
+        Thread.sleep(150);
+        assertEquals(200, transport.execute(get()).get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1, breaker.getTimesOpened());
+        assertEquals(1, breaker.getRejected());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Compares the generated adapters with Gson's reflective adapter.
+ */
+public class GeneratedTypeAdaptersTest extends TestCase {
+
+    static final String MATCH = "{\"matchId\": 1234567890, \"mapId\": 11, \"matchCreation\": 1427000000000, "
+            + "\"matchDuration\": 1800, \"matchVersion\": \"5.5.0.412\", \"region\": \"EUW\", \"matchMode\": \"CLASSIC\", "
+            + "\"matchType\": \"MATCHED_GAME\", \"queueType\": \"RANKED_SOLO_5x5\", \"platformId\": \"EUW1\", \"season\": \"UNKNOWN_SEASON\", "
+            + "\"unknownField\": {\"nested\": [1, 2, {\"deep\": null}]}, "
+            + "\"participantIdentities\": [{\"participantId\": 1, \"player\": {\"summonerId\": 42, \"summonerName\": \"Name\", \"profileIcon\": 7}}], "
+            + "\"participants\": [{\"championId\": 103, \"participantId\": 1, \"spell1Id\": 4, \"spell2Id\": \"14\", \"teamId\": 100, "
+            + "\"runes\": [{\"runeId\": 5245, \"rank\": 9}], \"masteries\": [{\"masteryId\": 4353, \"rank\": 3}], "
+            + "\"timeline\": {\"lane\": \"MIDDLE\", \"role\": \"SOLO\", \"creepsPerMinDeltas\": {\"zeroToTen\": 7.5, \"tenToTwenty\": 8.1}}, "
+            + "\"stats\": {\"champLevel\": 18, \"kills\": 10, \"deaths\": null, \"assists\": 7, \"firstBloodKill\": true, "
+            + "\"firstTowerKill\": \"true\", \"goldEarned\": 15000, \"item0\": 3089, \"winner\": true}}], "
+            + "\"teams\": [{\"teamId\": 100, \"winner\": true, \"baronKills\": 1, \"firstBlood\": false, "
+            + "\"bans\": [{\"championId\": 64, \"pickTurn\": 1}]}], "
+            + "\"timeline\": {\"frameInterval\": 60000, \"frames\": [{\"timestamp\": 60000, "
+            + "\"participantFrames\": {\"1\": {\"participantId\": 1, \"currentGold\": 500, \"level\": 1, \"xp\": 0}}, "
+            + "\"events\": [{\"eventType\": \"WARD_PLACED\", \"timestamp\": 61000, \"creatorId\": 1, \"wardType\": \"YELLOW_TRINKET\", "
+            + "\"assistingParticipantIds\": [2, 3]}, {\"eventType\": \"NOT_AN_EVENT\"}]}]}}";
+
+    private static GsonBuilder builder() {
+        return new GsonBuilder().registerTypeAdapter(Date.class,
+                (JsonDeserializer<Date>) (json, typeOfT, context) -> new Date(json.getAsJsonPrimitive().getAsLong()));
+    }
+
+    public void testDtosHaveGeneratedAdapters() {
+        assertTrue(GeneratedTypeAdapters.getTypes().containsAll(Arrays.asList(MatchDetail.class, ParticipantStats.class,
+                AggregatedStats.class, ChampionList.class, Frame.class, Event.class)));
+        // Private nested types can't be named by generated code, so these stay reflective
+        assertFalse(GeneratedTypeAdapters.getTypes().contains(CurrentGameInfo.class));
+        // Classes that can't be created without arguments aren't DTOs
+        assertFalse(GeneratedTypeAdapters.getTypes().contains(QueueStats.class));
+
+        Gson gson = builder().registerTypeAdapterFactory(new GeneratedTypeAdapters()).create();
+        assertTrue(gson.getAdapter(MatchDetail.class) instanceof MatchDetailTypeAdapter);
+    }
+
+    public void testGsonExtensionsAreNotDtos() {
+        // Creatable without arguments, but they configure Gson instead of being read by it
+        GeneratedTypeAdapters factory = new GeneratedTypeAdapters();
+        Gson gson = builder().create();
+        assertNull(factory.create(gson, TypeToken.get(MapAdapterFactory.class)));
+        assertNull(factory.create(gson, TypeToken.get(GeneratedTypeAdapters.class)));
+        assertFalse(GeneratedTypeAdapters.getTypes().contains(MapAdapterFactory.class));
+    }
+
+    public void testSameResultAsReflection() {
+        Gson reflective = builder().create();
+        Gson generated = builder().registerTypeAdapterFactory(new GeneratedTypeAdapters()).create();
+
+        MatchDetail expected = reflective.fromJson(MATCH, MatchDetail.class);
+        MatchDetail actual = generated.fromJson(MATCH, MatchDetail.class);
+        assertEquals(1234567890, actual.getMatchId());
+        assertEquals(15000, actual.getParticipants().get(0).getStats().getGoldEarned());
+        assertTrue(actual.getParticipants().get(0).getStats().isFirstTowerKill());
+        assertEquals(2, actual.getTimeline().getFrames().get(0).getEvents().size());
+
+        // Compare everything that was read, in both directions
+        JsonElement expectedTree = reflective.toJsonTree(expected);
+        assertEquals(expectedTree, generated.toJsonTree(actual));
+        assertEquals(expectedTree, new JsonParser().parse(generated.toJson(actual)));
+        assertEquals(reflective.toJson(expected), generated.toJson(actual));
+    }
+
+    public void testRepeatedValuesAreShared() {
+        Gson generated = builder().registerTypeAdapterFactory(new GeneratedTypeAdapters())
+                .registerTypeAdapterFactory(new MapAdapterFactory()).create();
+
+        MatchDetail first = generated.fromJson(MATCH, MatchDetail.class);
+        MatchDetail second = generated.fromJson(MATCH, MatchDetail.class);
+        assertEquals("5.5.0.412", second.getMatchVersion());
+        assertSame(first.getMatchVersion(), second.getMatchVersion());
+        assertSame(first.getPlatformId(), second.getPlatformId());
+        assertSame(first.getQueueType(), second.getQueueType());
+
+        String firstKey = first.getTimeline().getFrames().get(0).getParticipantFrames().keySet().iterator().next();
+        String secondKey = second.getTimeline().getFrames().get(0).getParticipantFrames().keySet().iterator().next();
+        assertEquals("1", secondKey);
+        assertSame(firstKey, secondKey);
+
+        // High cardinality values aren't interned
+        assertNotSame(first.getParticipantIdentities().get(0).getPlayer().getSummonerName(),
+                second.getParticipantIdentities().get(0).getPlayer().getSummonerName());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class MatchHistoryPagerTest extends TestCase {
+
+    private final List<String> requested = new ArrayList<>();
+
+    /**
+     * A history of the given length, whose pages are answered immediately
+     */
+    private MatchHistoryPager.PageFetcher history(int length) {
+        return (begin, end) -> {
+            requested.add(begin + "-" + end);
+            List<MatchSummary> page = new ArrayList<>();
+            for (int i = begin; i < Math.min(end, length); i++) {
+                page.add(new MatchSummary());
+            }
+            return CompletableFuture.completedFuture(page);
+        };
+    }
+
+    public void testPagesAreFetchedLazily() {
+        Stream<MatchSummary> stream = MatchHistoryPager.stream(history(100), 0, 15, false);
+        assertTrue(requested.isEmpty());
+
+        assertEquals(20, stream.limit(20).count());
+        assertEquals("[0-15, 15-30]", requested.toString());
+
+        // Stopping at a page boundary doesn't request the next page
+        requested.clear();
+        assertEquals(15, MatchHistoryPager.stream(history(100), 0, 15, false).limit(15).count());
+        assertEquals("[0-15]", requested.toString());
+
+        // Neither does prefetching, as long as the consumer stops before the middle of a page
+        requested.clear();
+        assertEquals(20, MatchHistoryPager.stream(history(100), 0, 15, true).limit(20).count());
+        assertEquals("[0-15, 15-30]", requested.toString());
+    }
+
+    public void testHistoryEndsAtShortPage() {
+        List<MatchSummary> all = MatchHistoryPager.stream(history(32), 2, 10, false).collect(Collectors.toList());
+        assertEquals(30, all.size());
+        assertEquals("[2-12, 12-22, 22-32, 32-42]", requested.toString());
+    }
+
+    public void testNextPageIsPrefetchedPastTheMiddleOfTheCurrent() {
+        List<CompletableFuture<List<MatchSummary>>> pending = new CopyOnWriteArrayList<>();
+        MatchHistoryPager.PageFetcher manual = (begin, end) -> {
+            CompletableFuture<List<MatchSummary>> page = new CompletableFuture<>();
+            pending.add(page);
+            return page;
+        };
+
+        try (Stream<MatchSummary> stream = MatchHistoryPager.stream(manual, 0, 15, true)) {
+            // Only the consumer's first step waits; answer the first page from another thread
+            new Thread(() -> {
+                while (pending.isEmpty()) {
+                    Thread.yield();
+                }
+                pending.get(0).complete(new ArrayList<>(Collections.nCopies(15, new MatchSummary())));
+            }).start();
+
+            assertEquals(8, stream.limit(8).count());
+            // The second page was requested with the eighth match, and hasn't been answered
+            assertEquals(2, pending.size());
+            assertFalse(pending.get(1).isDone());
+        }
+
+        assertTrue(pending.get(1).isCancelled());
+    }
+
+    public void testInvalidPageSize() {
+        try {
+            MatchHistoryPager.stream(history(10), 0, 16, false);
+            fail("Page size above the endpoint's limit was accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import com.google.gson.Gson;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class MatchTimelineReaderTest extends TestCase {
+
+    private static String match(int frames) {
+        StringBuilder json = new StringBuilder("{\"matchId\": 1, \"participants\": [{\"teamId\": 100}], \"timeline\": {\"frameInterval\": 60000, \"frames\": [");
+        for (int i = 0; i < frames; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"participantFrames\": {")
+                    .append("\"1\": {\"participantId\": 1, \"totalGold\": ").append(i * 100).append("},")
+                    .append("\"2\": {\"participantId\": 2, \"totalGold\": ").append(i * 50).append("}}, ")
+                    .append("\"events\": [{\"eventType\": \"CHAMPION_KILL\", \"killerId\": 1, \"timestamp\": ").append(i * 60000 + 1).append("}], ")
+                    .append("\"timestamp\": ").append(i * 60000).append("}");
+        }
+
+        return json.append("]}}").toString();
+    }
+
+    public void testVisitor() {
+        List<String> visited = new ArrayList<>();
+        new MatchTimelineReader(new StringReader(match(2)), new Gson()).accept(new TimelineVisitor() {
+            @Override
+            public void visitFrameInterval(long frameInterval) {
+                visited.add("interval " + frameInterval);
+            }
+
+            @Override
+            public void startFrame(int frame) {
+                visited.add("start " + frame);
+            }
+
+            @Override
+            public void visitParticipantFrame(int frame, ParticipantFrame participantFrame) {
+                visited.add("participant " + participantFrame.getParticipantId() + " " + participantFrame.getTotalGold());
+            }
+
+            @Override
+            public void visitEvent(int frame, Event event) {
+                visited.add("event " + event.getEventType() + " " + event.getTimestamp());
+            }
+
+            @Override
+            public void endFrame(int frame, long timestamp) {
+                visited.add("end " + frame + " " + timestamp);
+            }
+        });
+
+        assertEquals(
+                "[interval 60000, start 0, participant 1 0, participant 2 0, event CHAMPION_KILL 1, end 0 0, "
+                + "start 1, participant 1 100, participant 2 50, event CHAMPION_KILL 60001, end 1 60000]",
+                visited.toString());
+    }
+
+    public void testSkipsUnwantedParts() {
+        List<Event> events = new MatchTimelineReader(new StringReader(match(3)), new Gson()).events().collect(Collectors.toList());
+        assertEquals(3, events.size());
+        assertEquals(120001, events.get(2).getTimestamp());
+
+        long gold = new MatchTimelineReader(new StringReader(match(3)), new Gson()).participantFrames()
+                .mapToLong(ParticipantFrame::getTotalGold).sum();
+        assertEquals(300 + 150, gold);
+    }
+
+    public void testStopsReadingEarly() {
+        String json = match(1000);
+        int[] read = new int[1];
+        StringReader in = new StringReader(json) {
+            @Override
+            public int read(char[] buffer, int off, int len) throws IOException {
+                int n = super.read(buffer, off, len);
+                read[0] += Math.max(n, 0);
+                return n;
+            }
+        };
+
+        try (MatchTimelineReader reader = new MatchTimelineReader(in, new Gson())) {
+            assertEquals(5, reader.events().limit(5).count());
+        }
+        assertTrue("Read " + read[0] + " of " + json.length(), read[0] < json.length() / 10);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import junit.framework.TestCase;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the aggregates of the columns with the same aggregates computed from the objects.
+ */
+public class ParticipantColumnsTest extends TestCase {
+
+    private final Gson gson = new GsonBuilder().registerTypeAdapterFactory(new GeneratedTypeAdapters())
+            .registerTypeAdapterFactory(new MapAdapterFactory())
+            .registerTypeAdapter(Date.class, (JsonDeserializer<Date>) (json, typeOfT, context) -> new Date(json.getAsJsonPrimitive().getAsLong()))
+            .create();
+
+    private List<MatchDetail> matches(int count) {
+        Random random = new Random(7);
+        List<MatchDetail> matches = new ArrayList<>();
+        for (int m = 0; m < count; m++) {
+            StringBuilder json = new StringBuilder("{\"matchId\": ").append(1000 + m).append(", \"participants\": [");
+            for (int p = 1; p <= 10; p++) {
+                json.append(p > 1 ? ", " : "").append("{\"participantId\": ").append(p).append(", \"teamId\": ").append(p <= 5 ? 100 : 200)
+                        .append(", \"championId\": ").append(1 + random.nextInt(20));
+                if (p != 10) {
+                    json.append(", \"stats\": {\"kills\": ").append(random.nextInt(20)).append(", \"goldEarned\": ").append(random.nextInt(20000))
+                            .append(", \"winner\": ").append(p <= 5).append("}");
+                }
+                json.append("}");
+            }
+            matches.add(gson.fromJson(json.append("]}").toString(), MatchDetail.class));
+        }
+        return matches;
+    }
+
+    public void testAggregates() {
+        List<MatchDetail> matches = matches(500);
+        ParticipantColumns columns = new ParticipantColumns();
+        matches.forEach(columns::add);
+        columns.trimToSize();
+        assertEquals(5000, columns.size());
+
+        long[] kills = new long[21];
+        int[] counts = new int[21];
+        long gold = 0;
+        for (MatchDetail match: matches) {
+            for (Participant participant: match.getParticipants()) {
+                counts[participant.getChampionId()]++;
+                if (participant.getStats() != null) {
+                    kills[participant.getChampionId()] += participant.getStats().getKills();
+                    gold += participant.getStats().getGoldEarned();
+                }
+            }
+        }
+
+        assertEquals(gold, columns.sum(ParticipantColumns.Stat.GOLD_EARNED));
+        assertTrue(Arrays.equals(kills, columns.sumByChampion(ParticipantColumns.Stat.KILLS)));
+        assertTrue(Arrays.equals(counts, columns.countByChampion()));
+        assertEquals(kills[3], columns.sum(ParticipantColumns.Stat.KILLS, 3));
+        assertEquals((double) kills[3] / counts[3], columns.meanByChampion(ParticipantColumns.Stat.KILLS)[3], 1e-9);
+        assertTrue(Double.isNaN(columns.meanByChampion(ParticipantColumns.Stat.KILLS)[0]));
+        assertEquals(2500, columns.sum(ParticipantColumns.Stat.WINNER));
+
+        ParticipantColumns.Row row = columns.row(11);
+        Participant participant = matches.get(1).getParticipants().get(1);
+        assertEquals(1001, row.getMatchId());
+        assertEquals(2, row.getParticipantId());
+        assertEquals(participant.getChampionId(), row.getChampionId());
+        assertEquals(participant.getStats().getKills(), row.get(ParticipantColumns.Stat.KILLS));
+    }
+
+    public void testWideValues() {
+        StatColumn column = new StatColumn(2);
+        column.set(0, 5);
+        assertFalse(column.isWide());
+        column.set(1, 1L << 40);
+        assertTrue(column.isWide());
+        column.resize(4);
+        assertEquals(5, column.get(0));
+        assertEquals((1L << 40) + 5, column.sum(2));
+    }
+
+    public void testFramesFromTimelineReader() {
+        MatchDetail match = gson.fromJson(GeneratedTypeAdaptersTest.MATCH, MatchDetail.class);
+        FrameColumns parsed = new FrameColumns();
+        parsed.add(match);
+
+        FrameColumns streamed = new FrameColumns();
+        try (MatchTimelineReader reader = new MatchTimelineReader(new StringReader(GeneratedTypeAdaptersTest.MATCH), gson)) {
+            reader.accept(streamed.visitor(match.getMatchId()));
+        }
+
+        assertEquals(1, parsed.size());
+        assertEquals(parsed.size(), streamed.size());
+        for (FrameColumns columns: new FrameColumns[]{parsed, streamed}) {
+            FrameColumns.Row row = columns.row(0);
+            assertEquals(1234567890, row.getMatchId());
+            assertEquals(60000, row.getTimestamp());
+            assertEquals(1, row.getParticipantId());
+            assertEquals(500, row.get(FrameColumns.Stat.CURRENT_GOLD));
+            assertNull(row.getPosition());
+            assertEquals(500.0, columns.meanByFrame(FrameColumns.Stat.CURRENT_GOLD)[0]);
+        }
+    }
+}
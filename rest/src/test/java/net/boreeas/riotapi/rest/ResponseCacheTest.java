@@ -0,0 +1,145 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import junit.framework.TestCase;
+import net.boreeas.riotapi.RequestException;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class ResponseCacheTest extends TestCase {
+
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    private static URI summoner(int id) {
+        return URI.create("https://euw.api.pvp.net/api/lol/euw/v1.4/summoner/" + id + "?api_key=secret");
+    }
+
+    private static String utf8(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String get(ResponseCache cache, URI uri, int size) {
+        return cache.get(uri, String.class, () -> {
+            downloads.incrementAndGet();
+            char[] body = new char[size];
+            Arrays.fill(body, 'x');
+            return CompletableFuture.completedFuture(new String(body).getBytes(StandardCharsets.UTF_8));
+        }, bytes -> new String(bytes, StandardCharsets.UTF_8), Runnable::run).join();
+    }
+
+    public void testHitsAndExpiry() throws InterruptedException {
+        ResponseCache cache = new ResponseCache(1 << 20);
+        cache.setTtl(Endpoint.SUMMONER, 50, TimeUnit.MILLISECONDS);
+
+        get(cache, summoner(1), 10);
+        get(cache, summoner(1), 10);
+        assertEquals(1, downloads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        Thread.sleep(60);
+        get(cache, summoner(1), 10);
+        assertEquals(2, downloads.get());
+
+        assertFalse(cache.isCached(URI.create("https://euw.api.pvp.net/observer-mode/rest/consumer/getSpectatorGameInfo")));
+    }
+
+    public void testCancellingOneCallerKeepsTheDownload() throws Exception {
+        ResponseCache cache = new ResponseCache(1 << 20);
+        CompletableFuture<byte[]> download = new CompletableFuture<>();
+        Supplier<CompletableFuture<byte[]>> supplier = () -> {
+            downloads.incrementAndGet();
+            return download;
+        };
+
+        CompletableFuture<String> first = cache.get(summoner(1), String.class, supplier, ResponseCacheTest::utf8, Runnable::run);
+        CompletableFuture<String> second = cache.get(summoner(1), String.class, supplier, ResponseCacheTest::utf8, Runnable::run);
+        assertTrue(first.cancel(false));
+        assertFalse(download.isCancelled());
+
+        download.complete("name".getBytes(StandardCharsets.UTF_8));
+        assertEquals("name", second.get(1, TimeUnit.SECONDS));
+        assertEquals("name", cache.get(summoner(1), String.class, supplier, ResponseCacheTest::utf8, Runnable::run).get(1, TimeUnit.SECONDS));
+        assertEquals(1, downloads.get());
+    }
+
+    public void testCancellingAllCallersCancelsTheDownload() throws Exception {
+        ResponseCache cache = new ResponseCache(1 << 20);
+        CompletableFuture<byte[]> download = new CompletableFuture<>();
+
+        CompletableFuture<String> first = cache.get(summoner(1), String.class, () -> download, ResponseCacheTest::utf8, Runnable::run);
+        CompletableFuture<String> second = cache.get(summoner(1), String.class, () -> download, ResponseCacheTest::utf8, Runnable::run);
+        first.cancel(false);
+        second.cancel(false);
+        assertTrue(download.isCancelled());
+        assertEquals(0, cache.size());
+
+        // The cancelled entry is gone, so the next caller downloads again
+        assertEquals(10, get(cache, summoner(1), 10).length());
+        assertEquals(1, downloads.get());
+    }
+
+    public void testEvictsLeastRecentlyUsedByWeight() {
+        // Room for about two 1000 byte responses
+        ResponseCache cache = new ResponseCache(2500);
+
+        get(cache, summoner(1), 1000);
+        get(cache, summoner(2), 1000);
+        get(cache, summoner(1), 1000);
+        get(cache, summoner(3), 1000);
+
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+        assertTrue(cache.getTotalBytes() <= 2500);
+
+        // 2 was least recently used
+        get(cache, summoner(1), 1000);
+        assertEquals(3, downloads.get());
+        get(cache, summoner(2), 1000);
+        assertEquals(4, downloads.get());
+    }
+
+    public void testNegativeCaching() {
+        ResponseCache cache = new ResponseCache(1 << 20);
+        cache.setNegativeTtl(1, TimeUnit.MINUTES);
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                cache.get(summoner(1), String.class, () -> {
+                    downloads.incrementAndGet();
+                    CompletableFuture<byte[]> future = new CompletableFuture<>();
+                    future.completeExceptionally(new RequestException(404, RequestException.ErrorType.NOT_FOUND));
+                    return future;
+                }, bytes -> "", Runnable::run).join();
+                fail("Expected 404");
+            } catch (CompletionException ex) {
+                assertEquals(404, ((RequestException) ex.getCause()).getErrorCode());
+            }
+        }
+
+        assertEquals(1, downloads.get());
+        assertEquals(2, cache.getNegativeHits());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import junit.framework.TestCase;
+import net.boreeas.riotapi.Shard;
+import net.boreeas.riotapi.http.Transport;
+import net.boreeas.riotapi.http.TransportResponse;
+import net.boreeas.riotapi.ratelimit.TokenBucket;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class ShardRouterTest extends TestCase {
+
+    public void testRegionsShareGlobalLimitAndDispatcher() throws Exception {
+        Transport transport = request -> CompletableFuture.completedFuture(new TransportResponse(200, Collections.emptyMap(),
+                new ByteArrayInputStream("{\"games\": []}".getBytes(StandardCharsets.UTF_8))));
+
+        long dispatchersBefore = dispatchers();
+        TokenBucket global = new TokenBucket(3, 10, TimeUnit.SECONDS);
+        try (WorkerPool workers = WorkerPool.fixed(2);
+             ShardRouter router = new ShardRouter("token", global, transport, workers,
+                     new ThrottledApiHandler.Limit(2, 10, TimeUnit.SECONDS))) {
+            for (Shard shard: new Shard[] {Shard.EUW, Shard.NA, Shard.KR}) {
+                router.route(shard, api -> api.getRecentGames(1));
+                router.route(shard, api -> api.getRecentGames(2));
+            }
+
+            ShardStats euw = router.getStats(Shard.EUW);
+            assertEquals(2, euw.getDispatched());
+            assertEquals(0, euw.getPending());
+            assertEquals(0, euw.getAvailablePermits());
+
+            // The global limit was used up by the first three requests
+            ShardStats na = router.getStats(Shard.NA);
+            assertEquals(1, na.getDispatched());
+            assertEquals(1, na.getPending());
+            assertEquals(0, router.getStats(Shard.KR).getDispatched());
+            assertEquals(3, router.getStats().size());
+            assertNull(router.getStats(Shard.BR));
+
+            assertTrue(dispatchers() - dispatchersBefore <= 1);
+        }
+    }
+
+    private static long dispatchers() {
+        return Thread.getAllStackTraces().keySet().stream().filter(t -> t.getName().equals("ThrottledApiHandler dispatcher")).count();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+public class StaticDataCacheTest extends TestCase {
+
+    private static final URI CHAMPIONS = URI.create("https://global.api.pvp.net/api/lol/static-data/euw/v1.2/champion?api_key=secret&locale=en_US");
+
+    private Path directory;
+    private final AtomicReference<String> latest = new AtomicReference<>("5.1.1");
+    private final AtomicInteger versionChecks = new AtomicInteger();
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("static-data-test");
+    }
+
+    public void tearDown() throws IOException {
+        Files.walk(directory).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+
+    private String get(StaticDataCache cache, URI uri) {
+        Supplier<CompletableFuture<String>> versions = () -> {
+            versionChecks.incrementAndGet();
+            return CompletableFuture.completedFuture(latest.get());
+        };
+        Supplier<CompletableFuture<byte[]>> download = () -> {
+            downloads.incrementAndGet();
+            return CompletableFuture.completedFuture((latest.get() + ":" + uri.getPath()).getBytes(StandardCharsets.UTF_8));
+        };
+
+        return cache.get("euw", uri, String.class, versions, download,
+                bytes -> new String(bytes, StandardCharsets.UTF_8), Runnable::run).join();
+    }
+
+    public void testPersistsAcrossInstances() {
+        StaticDataCache cache = new StaticDataCache(directory);
+        assertEquals("5.1.1:" + CHAMPIONS.getPath(), get(cache, CHAMPIONS));
+        assertEquals("5.1.1:" + CHAMPIONS.getPath(), get(cache, CHAMPIONS));
+        assertEquals(1, downloads.get());
+        assertEquals(1, versionChecks.get());
+        assertEquals(1, cache.getMemoryHits());
+
+        // The api key is not part of the key
+        URI otherKey = URI.create(CHAMPIONS.toString().replace("secret", "other"));
+        StaticDataCache restarted = new StaticDataCache(directory);
+        assertEquals("5.1.1:" + CHAMPIONS.getPath(), get(restarted, otherKey));
+        assertEquals(1, downloads.get());
+        assertEquals(1, restarted.getDiskHits());
+    }
+
+    public void testNewPatchInvalidates() {
+        StaticDataCache cache = new StaticDataCache(directory);
+        get(cache, CHAMPIONS);
+        assertTrue(Files.exists(directory.resolve("euw").resolve("5.1.1")));
+
+        latest.set("5.2.1");
+        cache.updateVersion("euw", "5.2.1");
+        assertFalse(Files.exists(directory.resolve("euw").resolve("5.1.1")));
+
+        assertEquals("5.2.1:" + CHAMPIONS.getPath(), get(cache, CHAMPIONS));
+        assertEquals(2, downloads.get());
+    }
+
+    public void testRequestedVersionSkipsCheck() {
+        StaticDataCache cache = new StaticDataCache(directory);
+        URI pinned = URI.create(CHAMPIONS + "&version=4.21.5");
+        get(cache, pinned);
+        get(cache, pinned);
+
+        assertEquals(0, versionChecks.get());
+        assertEquals(1, downloads.get());
+        assertTrue(Files.exists(directory.resolve("euw").resolve("4.21.5")));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import com.google.gson.Gson;
+import junit.framework.TestCase;
+import net.boreeas.riotapi.RequestException;
+
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SummonerIdResolverTest extends TestCase {
+
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    /**
+     * Answers every name that starts with "player", with the number after it as the id
+     */
+    private CompletableFuture<Map<String, Summoner>> lookup(String... names) {
+        batchSizes.add(names.length);
+        Map<String, Summoner> result = new HashMap<>();
+        for (String name: names) {
+            if (name.startsWith("player")) {
+                result.put(name, new Gson().fromJson("{\"id\": " + name.substring(6) + ", \"name\": \"" + name + "\"}", Summoner.class));
+            }
+        }
+
+        CompletableFuture<Map<String, Summoner>> future = new CompletableFuture<>();
+        if (result.isEmpty()) {
+            future.completeExceptionally(new RequestException(404, RequestException.ErrorType.NOT_FOUND));
+        } else {
+            future.complete(result);
+        }
+        return future;
+    }
+
+    public void testResolvesInMaximalBatches() {
+        SummonerIdResolver resolver = new SummonerIdResolver(this::lookup);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            names.add("Player " + i);
+            names.add("player" + i); // Same name after standardization
+        }
+
+        AtomicInteger reported = new AtomicInteger();
+        Map<String, Long> ids = resolver.resolve(names, (name, id) -> reported.incrementAndGet()).join();
+
+        assertEquals(100, ids.size());
+        assertEquals(42L, (long) ids.get("player42"));
+        assertEquals(100, reported.get());
+        assertEquals(Arrays.asList(40, 40, 20), batchSizes);
+    }
+
+    public void testRepeatedNamesAreCached() {
+        SummonerIdResolver resolver = new SummonerIdResolver(this::lookup);
+        resolver.resolve(Arrays.asList("player1", "player2", "unknown")).join();
+        assertEquals(1, resolver.getRequestsSent());
+
+        Map<String, Long> ids = resolver.resolve(Arrays.asList("Player1", "PLAYER2")).join();
+        assertEquals(2, ids.size());
+        assertEquals(1, resolver.getRequestsSent());
+        assertEquals(2, resolver.getCacheHits());
+    }
+
+    public void testBatchWithoutAnyKnownNameIsEmpty() {
+        SummonerIdResolver resolver = new SummonerIdResolver(this::lookup);
+        assertTrue(resolver.resolve(Arrays.asList("nobody", "noone")).join().isEmpty());
+    }
+
+    public void testBatchesRespectUrlLength() throws Exception {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            names.add("éééééééééé" + i); // 60 characters each when encoded
+        }
+
+        List<List<String>> batches = SummonerIdResolver.split(names);
+        assertTrue(batches.size() > 1);
+        for (List<String> batch: batches) {
+            int length = URLEncoder.encode(String.join(",", batch), "UTF-8").length() - 2 * (batch.size() - 1);
+            assertTrue("Batch was " + length + " characters long", length <= SummonerIdResolver.MAX_PATH_LENGTH);
+        }
+        assertEquals(40, batches.stream().mapToInt(List::size).sum());
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import junit.framework.TestCase;
+import net.boreeas.riotapi.RequestException;
+import net.boreeas.riotapi.Shard;
+import net.boreeas.riotapi.http.Transport;
+import net.boreeas.riotapi.http.TransportResponse;
+import net.boreeas.riotapi.ratelimit.CompositeRateLimiter;
+import net.boreeas.riotapi.ratelimit.TokenBucket;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs against a stand-in transport, so no api key is required.
+ */
+public class ThrottledApiHandlerTest extends TestCase {
+
+    private static TransportResponse response(int status, String body, String... headers) {
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < headers.length; i += 2) {
+            map.put(headers[i], headers[i + 1]);
+        }
+
+        return new TransportResponse(status, map, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public void testRetryAfterPausesDispatch() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Transport transport = request -> CompletableFuture.completedFuture(calls.incrementAndGet() == 1
+                ? response(429, "", "Retry-After", "1")
+                : response(200, "{\"games\": []}", "X-Rate-Limit-Count", "2:10"));
+
+        TokenBucket bucket = new TokenBucket(10, 10, TimeUnit.SECONDS);
+        try (ThrottledApiHandler handler = new ThrottledApiHandler(Shard.EUW, "token", transport, WorkerPool.fixed(1), bucket)) {
+            long start = System.nanoTime();
+            assertTrue(handler.getRecentGames(1).get(10, TimeUnit.SECONDS).isEmpty());
+            long elapsed = System.nanoTime() - start;
+
+            assertEquals(2, calls.get());
+            assertTrue("Took " + elapsed + "ns", elapsed >= TimeUnit.MILLISECONDS.toNanos(950));
+            // Two permits were taken locally, and the server reported two as well
+            assertEquals(8, bucket.availablePermits());
+        }
+    }
+
+    public void testRateLimitCountResyncsBuckets() throws Exception {
+        Transport transport = request -> CompletableFuture.completedFuture(
+                response(200, "{\"games\": []}", "X-Rate-Limit-Count", "9:10,400:600"));
+
+        TokenBucket shortTerm = new TokenBucket(10, 10, TimeUnit.SECONDS);
+        TokenBucket longTerm = new TokenBucket(500, 10, TimeUnit.MINUTES);
+        try (ThrottledApiHandler handler = new ThrottledApiHandler(Shard.EUW, "token", transport, WorkerPool.fixed(1),
+                new CompositeRateLimiter(shortTerm, longTerm))) {
+            handler.getRecentGames(1).get(10, TimeUnit.SECONDS);
+
+            assertEquals(1, shortTerm.availablePermits());
+            assertEquals(100, longTerm.availablePermits());
+        }
+    }
+
+    public void testBatchingSingleIdLookups() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Transport transport = request -> {
+            calls.incrementAndGet();
+            // .../v1.4/summoner/1,2,3
+            String path = request.getUri().getPath();
+            StringBuilder body = new StringBuilder("{");
+            for (String id: path.substring(path.lastIndexOf('/') + 1).split(",")) {
+                if (!id.equals("13")) {
+                    body.append(body.length() > 1 ? "," : "").append("\"").append(id).append("\": {\"id\": ").append(id).append("}");
+                }
+            }
+
+            return CompletableFuture.completedFuture(response(200, body.append("}").toString()));
+        };
+
+        try (ThrottledApiHandler handler = new ThrottledApiHandler(Shard.EUW, "token", transport, WorkerPool.fixed(1),
+                new TokenBucket(100, 10, TimeUnit.SECONDS))) {
+            handler.enableBatching(50, TimeUnit.MILLISECONDS);
+
+            List<CompletableFuture<Summoner>> futures = new ArrayList<>();
+            for (int i = 0; i < 45; i++) {
+                futures.add(handler.getSummoner(i));
+            }
+            futures.add(handler.getSummoner(44));
+
+            for (int i = 0; i < 45; i++) {
+                if (i == 13) {
+                    try {
+                        futures.get(i).join();
+                        fail("Missing id must fail");
+                    } catch (CompletionException ex) {
+                        assertEquals(404, ((RequestException) ex.getCause()).getErrorCode());
+                    }
+                } else {
+                    assertEquals(i, futures.get(i).get(10, TimeUnit.SECONDS).getId());
+                }
+            }
+            assertEquals(44, futures.get(45).get().getId());
+
+            // One full batch of 40, and one sent when the window passed
+            assertEquals(2, calls.get());
+            assertEquals(2, handler.getBatchers().summoners.getBatchesSent());
+        }
+    }
+
+    public void testIdenticalRequestsInFlightAreCoalesced() throws Exception {
+        CompletableFuture<TransportResponse> response = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+        Transport transport = request -> {
+            calls.incrementAndGet();
+            return response.thenApply(r -> response(200, "{\"games\": []}"));
+        };
+
+        try (ThrottledApiHandler handler = new ThrottledApiHandler(Shard.EUW, "token", transport, WorkerPool.fixed(1),
+                new TokenBucket(100, 10, TimeUnit.SECONDS))) {
+            List<CompletableFuture<List<Game>>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(handler.getRecentGames(1));
+            }
+            futures.add(handler.getRecentGames(2));
+
+            response.complete(null);
+            for (CompletableFuture<List<Game>> future: futures) {
+                assertTrue(future.get(10, TimeUnit.SECONDS).isEmpty());
+            }
+
+            assertEquals(2, calls.get());
+            assertEquals(4, handler.getSingleFlight().getHits());
+            assertEquals(0, handler.getSingleFlight().getInFlight());
+
+            // Once completed, the same request is sent again
+            handler.getRecentGames(1).get(10, TimeUnit.SECONDS);
+            assertEquals(3, calls.get());
+        }
+    }
+
+    public void testPriorityClassesAndDeadlines() throws Exception {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        Transport transport = request -> {
+            // .../v1.3/game/by-summoner/1/recent
+            String path = request.getUri().getPath();
+            sent.add(path.substring(0, path.lastIndexOf('/')).substring(path.lastIndexOf("by-summoner/") + 12));
+            return CompletableFuture.completedFuture(response(200, "{\"games\": []}"));
+        };
+
+        try (ThrottledApiHandler handler = new ThrottledApiHandler(Shard.EUW, "token", transport, WorkerPool.fixed(1),
+                new TokenBucket(1, 100, TimeUnit.MILLISECONDS))) {
+            handler.setDefaultPriority(Priority.BACKGROUND);
+            List<CompletableFuture<List<Game>>> background = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                background.add(handler.getRecentGames(i));
+            }
+
+            CompletableFuture<List<Game>> expired = handler.withPriority(Priority.NORMAL, 10, TimeUnit.MILLISECONDS,
+                    () -> handler.getRecentGames(4));
+            CompletableFuture<List<Game>> interactive = handler.withPriority(Priority.INTERACTIVE, () -> handler.getRecentGames(5));
+            assertEquals(2, handler.getQueueStats(Priority.BACKGROUND).getDepth());
+
+            interactive.get(10, TimeUnit.SECONDS);
+            for (CompletableFuture<List<Game>> future: background) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            try {
+                expired.join();
+                fail("Expired request must fail");
+            } catch (CompletionException ex) {
+                assertTrue(ex.getCause() instanceof TimeoutException);
+            }
+
+            // The first request took the only permit right away, the interactive one was next in line
+            assertEquals(Arrays.asList("1", "5", "2", "3"), sent);
+            assertEquals(1, handler.getQueueStats(Priority.NORMAL).getExpired());
+            assertEquals(0, handler.getQueueStats(Priority.NORMAL).getDispatched());
+            assertEquals(1, handler.getQueueStats(Priority.INTERACTIVE).getDispatched());
+            QueueStats stats = handler.getQueueStats(Priority.BACKGROUND);
+            assertEquals(3, stats.getDispatched());
+            assertEquals(0, stats.getDepth());
+            assertTrue(stats.getMaxWaitNanos() >= TimeUnit.MILLISECONDS.toNanos(150));
+        }
+    }
+
+    public void testRetriesKeepTheirPriority() throws Exception {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        Transport transport = request -> {
+            String path = request.getUri().getPath();
+            String id = path.substring(0, path.lastIndexOf('/')).substring(path.lastIndexOf("by-summoner/") + 12);
+            sent.add(id);
+            // The interactive request fails the first time
+            return CompletableFuture.completedFuture(id.equals("5") && !sent.subList(0, sent.size() - 1).contains("5")
+                    ? response(503, "") : response(200, "{\"games\": []}"));
+        };
+
+        try (ThrottledApiHandler handler = new ThrottledApiHandler(Shard.EUW, "token", transport, WorkerPool.fixed(1),
+                new TokenBucket(1, 100, TimeUnit.MILLISECONDS))) {
+            handler.getFaultTolerantTransport().setRetryPolicy(new RetryPolicy(1, 1, 1, TimeUnit.MILLISECONDS, 0.1));
+            handler.setDefaultPriority(Priority.BACKGROUND);
+            List<CompletableFuture<List<Game>>> background = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                background.add(handler.getRecentGames(i));
+            }
+
+            handler.withPriority(Priority.INTERACTIVE, () -> handler.getRecentGames(5)).get(10, TimeUnit.SECONDS);
+            for (CompletableFuture<List<Game>> future: background) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+
+            // The retry was queued ahead of the background requests again
+            assertEquals(Arrays.asList("1", "5", "5", "2", "3"), sent);
+            assertEquals(2, handler.getQueueStats(Priority.INTERACTIVE).getDispatched());
+            assertEquals(3, handler.getQueueStats(Priority.BACKGROUND).getDispatched());
+        }
+    }
+
+    public void testCancelledRequestsLeaveTheQueue() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Transport transport = request -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(response(200, "{\"games\": []}"));
+        };
+
+        TokenBucket bucket = new TokenBucket(1, 200, TimeUnit.MILLISECONDS);
+        try (ThrottledApiHandler handler = new ThrottledApiHandler(Shard.EUW, "token", transport, WorkerPool.fixed(1), bucket)) {
+            handler.getRecentGames(1).get(10, TimeUnit.SECONDS);
+            CompletableFuture<List<Game>> cancelled = handler.getRecentGames(2);
+            CompletableFuture<List<Game>> shared = handler.getRecentGames(3);
+            CompletableFuture<List<Game>> sharedCopy = handler.getRecentGames(3);
+            assertEquals(2, handler.getPendingRequests());
+
+            assertTrue(cancelled.cancel(false));
+            assertEquals(1, handler.getPendingRequests());
+            assertEquals(1, handler.getQueueStats(Priority.NORMAL).getCancelled());
+
+            // The request is still needed by the other caller
+            assertTrue(shared.cancel(false));
+            assertTrue(sharedCopy.get(10, TimeUnit.SECONDS).isEmpty());
+            assertEquals(2, calls.get());
+        }
+    }
+
+    public void testBoundedQueue() throws Exception {
+        Transport transport = request -> CompletableFuture.completedFuture(response(200, "{\"games\": []}"));
+
+        try (ThrottledApiHandler handler = new ThrottledApiHandler(Shard.EUW, "token", transport, WorkerPool.fixed(1),
+                new TokenBucket(1, 10, TimeUnit.SECONDS))) {
+            handler.setMaxPendingRequests(2, OverflowPolicy.FAIL_FAST);
+            handler.getRecentGames(1).get(10, TimeUnit.SECONDS);
+
+            CompletableFuture<List<Game>> oldest = handler.getRecentGames(2);
+            handler.getRecentGames(3);
+            assertRejected(handler.getRecentGames(4));
+            assertEquals(2, handler.getPendingRequests());
+
+            handler.setMaxPendingRequests(2, OverflowPolicy.DROP_OLDEST);
+            handler.getRecentGames(5);
+            assertRejected(oldest);
+            assertEquals(2, handler.getPendingRequests());
+
+            // Background requests never push out more important ones
+            handler.setDefaultPriority(Priority.BACKGROUND);
+            assertRejected(handler.getRecentGames(6));
+            assertEquals(3, handler.getQueueStats(Priority.NORMAL).getRejected() + handler.getQueueStats(Priority.BACKGROUND).getRejected());
+        }
+    }
+
+    public void testCloseFailsWaitingRequests() throws Exception {
+        Transport transport = request -> CompletableFuture.completedFuture(response(200, "{\"games\": []}"));
+
+        ThrottledApiHandler handler = new ThrottledApiHandler(Shard.EUW, "token", transport, WorkerPool.fixed(1),
+                new TokenBucket(1, 10, TimeUnit.SECONDS));
+        handler.setMaxPendingRequests(1, OverflowPolicy.BLOCK);
+        handler.getRecentGames(1).get(10, TimeUnit.SECONDS);
+
+        CompletableFuture<List<Game>> queued = handler.getRecentGames(2);
+        CompletableFuture<CompletableFuture<List<Game>>> blocked = CompletableFuture.supplyAsync(() -> handler.getRecentGames(3));
+        Thread.sleep(100);
+        assertFalse(blocked.isDone());
+
+        handler.close();
+        assertRejected(queued);
+        assertRejected(blocked.get(10, TimeUnit.SECONDS));
+        assertEquals(0, handler.getPendingRequests());
+    }
+
+    public void testBlockPolicyNeverBlocksWorkers() throws Exception {
+        Transport transport = request -> CompletableFuture.completedFuture(response(200, "{\"games\": []}"));
+
+        WorkerPool workers = WorkerPool.fixed(1);
+        try (ThrottledApiHandler handler = new ThrottledApiHandler(Shard.EUW, "token", transport, workers,
+                new TokenBucket(1, 10, TimeUnit.SECONDS))) {
+            handler.setMaxPendingRequests(1, OverflowPolicy.BLOCK);
+            handler.getRecentGames(1).get(10, TimeUnit.SECONDS);
+            handler.getRecentGames(2);
+
+            // A follow-up request made by a worker is queued beyond the limit instead of blocking the worker
+            CompletableFuture<CompletableFuture<List<Game>>> followUp = CompletableFuture.supplyAsync(() -> handler.getRecentGames(3), workers);
+            assertFalse(followUp.get(10, TimeUnit.SECONDS).isDone());
+            assertEquals(2, handler.getPendingRequests());
+        } finally {
+            workers.close();
+        }
+    }
+
+    public void testRequestsAreSpreadAcrossKeys() throws Exception {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        Transport transport = request -> {
+            String query = request.getUri().getQuery();
+            String key = query.substring(query.indexOf("api_key=") + 8);
+            sent.add(key);
+            return CompletableFuture.completedFuture(sent.size() == 5
+                    ? response(401, "")
+                    : response(200, "{\"games\": []}"));
+        };
+
+        ApiKeyPool keys = new ApiKeyPool()
+                .add("a", new TokenBucket(3, 10, TimeUnit.SECONDS))
+                .add("b", new TokenBucket(3, 10, TimeUnit.SECONDS));
+        try (ThrottledApiHandler handler = new ThrottledApiHandler(Shard.EUW, keys, transport, WorkerPool.fixed(1))) {
+            for (int i = 1; i <= 5; i++) {
+                handler.getRecentGames(i).get(10, TimeUnit.SECONDS);
+            }
+
+            // The fifth request was rejected for key a, and sent again with key b
+            assertEquals(Arrays.asList("a", "b", "a", "b", "a", "b"), sent);
+            ApiKeyPool.ApiKey a = keys.getKeys().get(0);
+            assertTrue(a.isRetired());
+            assertEquals(1, a.getRejections());
+            assertEquals(3, a.getRequests());
+            assertEquals(0, handler.getPausedNanos());
+        }
+    }
+
+    private static void assertRejected(CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("Request must be rejected");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof RejectedExecutionException);
+        }
+    }
+}
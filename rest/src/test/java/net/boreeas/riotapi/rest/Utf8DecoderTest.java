@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014 The LolDevs team (https://github.com/loldevs)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.boreeas.riotapi.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the byte level decoder with Gson's reader.
+ */
+public class Utf8DecoderTest extends TestCase {
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new GeneratedTypeAdapters())
+            .registerTypeAdapterFactory(new MapAdapterFactory())
+            .registerTypeAdapter(Date.class, (JsonDeserializer<Date>) (json, typeOfT, context) -> new Date(json.getAsJsonPrimitive().getAsLong()))
+            .create();
+    private final ResponseDecoder expected = new GsonDecoder(gson);
+    private final ResponseDecoder actual = new Utf8Decoder(gson);
+
+    private static InputStream utf8(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void testSameResultAsGson() throws Exception {
+        MatchDetail gsonMatch = expected.decode(utf8(GeneratedTypeAdaptersTest.MATCH), MatchDetail.class);
+        MatchDetail match = actual.decode(utf8(GeneratedTypeAdaptersTest.MATCH), MatchDetail.class);
+        assertEquals(1234567890, match.getMatchId());
+        assertEquals(1, match.getTimeline().getFrames().get(0).getParticipantFrames().get("1").getParticipantId());
+        assertEquals(gson.toJson(gsonMatch), gson.toJson(match));
+
+        // Cached bodies are parsed in place
+        MatchDetail fromBytes = actual.decode(GeneratedTypeAdaptersTest.MATCH.getBytes(StandardCharsets.UTF_8), MatchDetail.class);
+        assertEquals(gson.toJson(gsonMatch), gson.toJson(fromBytes));
+
+        Type byId = new TypeToken<Map<Long, List<Double>>>() {}.getType();
+        String ids = "{\"42\": [1, -2.5, 3e2, \"4\"], \"-7\": [], \"8\": null}";
+        Map<Long, List<Double>> map = actual.decode(utf8(ids), byId);
+        assertEquals(Arrays.asList(1.0, -2.5, 300.0, 4.0), map.get(42L));
+        assertEquals(expected.<Map<Long, List<Double>>>decode(utf8(ids), byId), map);
+    }
+
+    public void testStringsAndNumbers() throws Exception {
+        String json = " [\"plain\", \"Ünïcødé ✓\", \"esc\\\"aped\\\\ \\n\\u00e9\\/\", \"\", 9007199254740993, -0, 1.0, 1e3, true, false, null] ";
+        Type type = new TypeToken<List<Object>>() {}.getType();
+        List<Object> list = actual.decode(utf8(json), type);
+        assertEquals(expected.<List<Object>>decode(utf8(json), type), list);
+        assertEquals("esc\"aped\\ \né/", list.get(2));
+
+        Type longs = new TypeToken<List<Long>>() {}.getType();
+        String numbers = "[9007199254740993, -9223372036854775808, 1.0, 1e3, \"12\"]";
+        assertEquals(Arrays.asList(9007199254740993L, Long.MIN_VALUE, 1L, 1000L, 12L), actual.decode(utf8(numbers), longs));
+
+        assertNull(actual.decode(utf8("  "), MatchDetail.class));
+    }
+
+    public void testMalformedJson() throws Exception {
+        for (String json : Arrays.asList("{\"matchId\": 1", "{\"matchId\" 1}", "{\"matchId\": 1,}", "[1 2]", "{} {}", "\"open")) {
+            try {
+                actual.decode(utf8(json), MatchDetail.class);
+                fail("Accepted " + json);
+            } catch (JsonSyntaxException | com.google.gson.JsonIOException expected) {
+            }
+        }
+
+        try {
+            actual.decode(utf8("[1.5]"), new TypeToken<List<Integer>>() {}.getType());
+            fail("Accepted a fraction as an int");
+        } catch (JsonSyntaxException expected) {
+        }
+    }
+}
@@ -16,15 +16,16 @@
 
 package net.boreeas.riotapi.spectator;
 
+import net.boreeas.riotapi.http.BufferPool;
 import net.boreeas.riotapi.spectator.rest.GameMetaData;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.GeneralSecurityException;
 import java.util.concurrent.TimeUnit;
-import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 /**
@@ -127,16 +128,9 @@ public interface SpectatedGame {
      */
     public static byte[] decompress(byte[] data) {
 
-        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
-            ByteArrayOutputStream bout = new ByteArrayOutputStream();
-            byte[] buffer = new byte[2048];
-
-            int read;
-            while ((read = in.read(buffer)) != -1) {
-                bout.write(buffer, 0, read);
-            }
-
-            return bout.toByteArray();
+        BufferPool pool = BufferPool.getDefault();
+        try (InputStream in = pool.gunzip(new ByteArrayInputStream(data))) {
+            return pool.readFully(in);
         } catch (IOException ex) {
             throw new RuntimeException("Failure during decompression", ex);
         }
@@ -20,6 +20,12 @@ import com.google.gson.Gson;
 import lombok.SneakyThrows;
 import net.boreeas.riotapi.RequestException;
 import net.boreeas.riotapi.Shard;
+import net.boreeas.riotapi.Util;
+import net.boreeas.riotapi.http.BlockingTransport;
+import net.boreeas.riotapi.http.BufferPool;
+import net.boreeas.riotapi.http.Transport;
+import net.boreeas.riotapi.http.TransportRequest;
+import net.boreeas.riotapi.http.TransportResponse;
 import net.boreeas.riotapi.spectator.rest.ChunkInfo;
 import net.boreeas.riotapi.spectator.rest.FeaturedGame;
 import net.boreeas.riotapi.spectator.rest.FeaturedGameList;
@@ -29,11 +35,13 @@ import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.Response;
 import java.io.*;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Created on 4/28/2014.
@@ -43,10 +51,34 @@ public class SpectatorApiHandler {
     private static final String TOKEN = "ritopls";
 
     private Gson gson = new Gson();
+    private Transport transport;
+    private Executor executor;
     private WebTarget defaultTarget;
     private WebTarget consumerTarget;
 
     public SpectatorApiHandler(Shard region) {
+        this(region, new BlockingTransport(), Runnable::run);
+    }
+
+    /**
+     * Create a new spectator api handler that sends its requests through the specified transport, and reads the
+     * responses on the common fork join pool
+     * @param region The target region
+     * @param transport The transport used to send requests
+     */
+    public SpectatorApiHandler(Shard region, Transport transport) {
+        this(region, transport, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new spectator api handler that sends its requests through the specified transport
+     * @param region The target region
+     * @param transport The transport used to send requests
+     * @param executor The executor on which response bodies are read
+     */
+    public SpectatorApiHandler(Shard region, Transport transport, Executor executor) {
+        this.transport = transport;
+        this.executor = executor;
         Client c = ClientBuilder.newClient();
         defaultTarget = c.target(region.spectatorUrl);
         defaultTarget = defaultTarget.path("observer-mode").path("rest");
@@ -96,6 +128,13 @@ public class SpectatorApiHandler {
      * @return The chunk, encrypted and zip-compressed
      */
     public byte[] getEncryptedChunk(Shard platform, long gameId, int chunkId) {
+        return Util.await(getEncryptedChunkAsync(platform, gameId, chunkId));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getEncryptedChunk(Shard, long, int)}
+     */
+    public CompletableFuture<byte[]> getEncryptedChunkAsync(Shard platform, long gameId, int chunkId) {
         WebTarget tgt = consumerTarget.path("getGameDataChunk").path(platform.spectatorPlatformName).path(gameId + "/" + chunkId).path(TOKEN);
         return readAsByteArray(tgt);
     }
@@ -108,6 +147,13 @@ public class SpectatorApiHandler {
      * @return The chunk, encrypted and zip-compressed
      */
     public byte[] getEncryptedKeyframe(Shard platform, long gameId, int keyframeId) {
+        return Util.await(getEncryptedKeyframeAsync(platform, gameId, keyframeId));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getEncryptedKeyframe(Shard, long, int)}
+     */
+    public CompletableFuture<byte[]> getEncryptedKeyframeAsync(Shard platform, long gameId, int keyframeId) {
         WebTarget tgt = consumerTarget.path("getKeyFrame").path(platform.spectatorPlatformName).path(gameId + "/" + keyframeId).path(TOKEN);
         return readAsByteArray(tgt);
     }
@@ -128,16 +174,17 @@ public class SpectatorApiHandler {
      */
     private InputStreamReader $(WebTarget target) {
 
-        Response response = target.request().accept(MediaType.APPLICATION_JSON_TYPE).get();
-        if (response.getStatus() != 200) {
-            throw new RequestException(response.getStatus(), RequestException.ErrorType.getByCode(response.getStatus()));
-        }
+        TransportResponse response = Util.await(transport.execute(TransportRequest.get(target, MediaType.APPLICATION_JSON_TYPE)));
+        checkStatus(response);
 
-        return new InputStreamReader(getInputStream(response));
+        return new InputStreamReader(response.getBody());
     }
 
-    private InputStream getInputStream(Response response) {
-        return (java.io.InputStream) response.getEntity();
+    private void checkStatus(TransportResponse response) {
+        if (response.getStatus() != 200) {
+            response.close();
+            throw new RequestException(response.getStatus(), RequestException.ErrorType.getByCode(response.getStatus()));
+        }
     }
 
     @SneakyThrows
@@ -145,27 +192,26 @@ public class SpectatorApiHandler {
         return new BufferedReader($(tgt)).readLine();
     }
 
-    private byte[] readAsByteArray(WebTarget tgt) {
-
+    private CompletableFuture<byte[]> readAsByteArray(WebTarget tgt) {
+        CompletableFuture<TransportResponse> response = transport.execute(TransportRequest.get(tgt, MediaType.APPLICATION_OCTET_STREAM_TYPE));
+        return Util.propagateCancellation(response.thenApplyAsync(this::readAsByteArray, executor), response);
+    }
 
-        Response response = tgt.request().accept(MediaType.APPLICATION_OCTET_STREAM_TYPE).get();
-        if (response.getStatus() != 200) {
-            throw new RequestException(response.getStatus(), RequestException.ErrorType.getByCode(response.getStatus()));
+    private static int contentLength(TransportResponse response) {
+        try {
+            String length = response.getHeader("Content-Length");
+            return length == null ? -1 : Integer.parseInt(length.trim());
+        } catch (NumberFormatException ex) {
+            return -1;
         }
+    }
 
+    private byte[] readAsByteArray(TransportResponse response) {
+        checkStatus(response);
 
-        try (BufferedInputStream in = new BufferedInputStream(getInputStream(response))) {
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-
-
-            byte[] buffer = new byte[1024];
-
-            int read;
-            while ((read = in.read(buffer)) != -1) {
-                out.write(buffer, 0, read);
-            }
-
-            return out.toByteArray();
+        try (InputStream in = response.getBody()) {
+            // Chunks and keyframes announce their length, so they can be read without resizing
+            return BufferPool.getDefault().readFully(in, contentLength(response));
         } catch (IOException ex) {
             throw new RuntimeException(ex);
         }